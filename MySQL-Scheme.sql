@@ -104,9 +104,12 @@ CREATE TABLE IF NOT EXISTS `file_metadata`
 
     -- 业务字段
     `md5`          VARCHAR(64)  NOT NULL COMMENT '文件MD5值',
+    -- 已有库升级：ALTER TABLE `file_metadata` ADD COLUMN `crc32c` CHAR(8) NULL DEFAULT NULL COMMENT '文件CRC32C值' AFTER `md5`;
+    `crc32c`       CHAR(8)      NULL     DEFAULT NULL COMMENT '文件CRC32C值（分片上传的文件为空）',
     `content_type` VARCHAR(128) NOT NULL COMMENT '文件MIME类型',
     `size`         BIGINT       NOT NULL COMMENT '文件大小（字节）',
-    `url`          VARCHAR(512) NOT NULL COMMENT '文件访问URL',
+    -- 已有库升级：ALTER TABLE `file_metadata` MODIFY COLUMN `url` VARCHAR(512) NULL DEFAULT NULL COMMENT '文件访问URL（首次签发后写入）';
+    `url`          VARCHAR(512) NULL     DEFAULT NULL COMMENT '文件访问URL（首次签发后写入）',
     `url_expire`   TIMESTAMP    NULL     DEFAULT NULL COMMENT 'URL过期时间',
     `path`         VARCHAR(512) NOT NULL COMMENT '文件存储路径',
 
@@ -123,6 +126,9 @@ CREATE TABLE IF NOT EXISTS `file_metadata`
     -- 主键和索引
     PRIMARY KEY (`id`),
     UNIQUE KEY `uk_file_metadata_md5` (`md5`),
+    -- 下载/删除按存储路径查询元数据ID，(path, delete_time) 覆盖查询条件，不回表
+    -- 已有库升级：ALTER TABLE `file_metadata` ADD KEY `idx_file_metadata_path` (`path`, `delete_time`);
+    KEY `idx_file_metadata_path` (`path`, `delete_time`),
     KEY `idx_file_metadata_content_type` (`content_type`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8mb4
@@ -158,10 +164,78 @@ CREATE TABLE IF NOT EXISTS `file_business`
     -- 主键和索引
     PRIMARY KEY (`id`),
     KEY `idx_file_business_file_meta_id` (`file_meta_id`),
-    KEY `idx_file_business_business_id` (`business_id`),
+    -- 按业务查询附件列表：等值匹配 business_id/type/usage 后按 sort 有序读取，也覆盖只按 business_id 的查询
+    -- 已有库升级：ALTER TABLE `file_business` DROP KEY `idx_file_business_business_id`,
+    --           ADD KEY `idx_file_business_business_type_usage_sort` (`business_id`, `type`, `usage`, `sort`);
+    KEY `idx_file_business_business_type_usage_sort` (`business_id`, `type`, `usage`, `sort`),
+    -- 按原始文件名搜索：前缀模式走 (name, id) 范围扫描并按其排序
+    -- 已有库升级：ALTER TABLE `file_business` ADD KEY `idx_file_business_name` (`name`);
+    KEY `idx_file_business_name` (`name`),
+    -- 中缀搜索（middleware.object-storage.search.full-text-index=true）需要 ngram 全文索引，写入时由 MySQL 增量维护：
+    --   ALTER TABLE `file_business` ADD FULLTEXT KEY `ft_file_business_name` (`name`) WITH PARSER ngram;
     KEY `idx_file_business_type` (`type`),
     KEY `idx_file_business_usage` (`usage`),
     KEY `idx_file_business_sort` (`sort`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8mb4
-  COLLATE = utf8mb4_unicode_ci COMMENT ='文件业务关联表';
\ No newline at end of file
+  COLLATE = utf8mb4_unicode_ci COMMENT ='文件业务关联表';
+-- ================================================================================
+-- file_upload_session - 分片上传会话表
+-- ================================================================================
+CREATE TABLE IF NOT EXISTS `file_upload_session`
+(
+    -- 主键
+    `id`                BIGINT       NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+
+    -- 业务字段
+    `upload_id`         VARCHAR(64)  NOT NULL COMMENT '上传会话ID（对外暴露）',
+    `storage_upload_id` VARCHAR(256) NOT NULL COMMENT '存储端的上传ID（S3 UploadId / 本地组装文件名）',
+    `file_name`         VARCHAR(256) NOT NULL COMMENT '文件名',
+    `content_type`      VARCHAR(128) NOT NULL COMMENT '文件MIME类型',
+    `total_size`        BIGINT       NOT NULL DEFAULT -1 COMMENT '文件总大小（字节），-1表示未知',
+    `part_size`         BIGINT       NOT NULL COMMENT '分片大小（字节），最后一个分片可以更小',
+    `status`            VARCHAR(32)  NOT NULL COMMENT '状态：UPLOADING/COMPLETING/COMPLETED/ABORTED',
+    `path`              VARCHAR(512)          DEFAULT NULL COMMENT '完成后的文件存储路径',
+    `expire_time`       TIMESTAMP    NOT NULL COMMENT '会话过期时间，过期未完成的会话会被中止',
+
+    -- 审计字段
+    `create_time`       TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time`       TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    `create_user`       VARCHAR(64)           DEFAULT NULL COMMENT '创建人ID',
+    `update_user`       VARCHAR(64)           DEFAULT NULL COMMENT '更新人ID',
+
+    -- 主键和索引
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_file_upload_session_upload_id` (`upload_id`),
+    KEY `idx_file_upload_session_status_expire_time` (`status`, `expire_time`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci COMMENT ='分片上传会话表';
+
+-- ================================================================================
+-- file_upload_part - 分片上传分片表
+-- ================================================================================
+CREATE TABLE IF NOT EXISTS `file_upload_part`
+(
+    -- 主键
+    `id`           BIGINT       NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+
+    -- 业务字段
+    `upload_id`    VARCHAR(64)  NOT NULL COMMENT '上传会话ID，关联file_upload_session.upload_id',
+    `part_number`  INT          NOT NULL COMMENT '分片序号，从1开始',
+    `size`         BIGINT       NOT NULL COMMENT '分片大小（字节）',
+    `md5`          VARCHAR(64)  NOT NULL COMMENT '分片MD5值',
+    `etag`         VARCHAR(256) NOT NULL COMMENT '存储端返回的分片标识（S3 ETag）',
+
+    -- 审计字段
+    `create_time`  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time`  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    `create_user`  VARCHAR(64)           DEFAULT NULL COMMENT '创建人ID',
+    `update_user`  VARCHAR(64)           DEFAULT NULL COMMENT '更新人ID',
+
+    -- 主键和索引
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_file_upload_part_upload_id_part_number` (`upload_id`, `part_number`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci COMMENT ='分片上传分片表';
@@ -0,0 +1,47 @@
+package org.smm.archetype.adapter.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.smm.archetype.domain.platform.file.FileDomainService;
+import org.smm.archetype.domain.platform.file.FileUploaded;
+import org.smm.archetype.domain.shared.event.Event;
+import org.smm.archetype.domain.shared.event.Type;
+
+/**
+ * 文件上传事件处理器，为新上传的文件生成缩略图、预览图等衍生文件。
+ *
+ * <p>事件在上传提交后异步消费，生成失败按事件重试策略重试；
+ * 重试时载荷从数据库反序列化为通用对象，需转换为 {@link FileUploaded}。
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class FileUploadedEventHandler implements EventHandler<FileUploaded> {
+
+    private final FileDomainService fileDomainService;
+
+    @Override
+    public Event<FileUploaded> canHandle(Event<Object> event) {
+        if (event.getType() != Type.FILE_UPLOADED) {
+            return null;
+        }
+        Object payload = event.getPayload();
+        FileUploaded uploaded = payload instanceof FileUploaded fileUploaded
+                                        ? fileUploaded
+                                        : Type.FILE_UPLOADED.deserialize(Type.FILE_UPLOADED.serialize(payload),
+                FileUploaded.class);
+        return Event.<FileUploaded>builder()
+                       .setEid(event.getEid())
+                       .setOccurredOn(event.getOccurredOn())
+                       .setType(event.getType())
+                       .setMaxRetryTimes(event.getMaxRetryTimes())
+                       .setPayload(uploaded)
+                       .build();
+    }
+
+    @Override
+    public void handle(FileUploaded payload) {
+        log.debug("Generating derivatives: filePath={}, contentType={}", payload.filePath(), payload.contentType());
+        fileDomainService.generateDerivatives(payload);
+    }
+
+}
@@ -0,0 +1,146 @@
+package org.smm.archetype.adapter.web.api;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.smm.archetype.domain.platform.file.FileBusiness.Type;
+import org.smm.archetype.domain.platform.file.FileBusiness.Usage;
+import org.smm.archetype.domain.platform.file.FileDomainService;
+import org.smm.archetype.domain.platform.file.FileMetadata;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 文件下载控制器，支持 HTTP 范围请求和条件请求。
+ *
+ * <ul>
+ *   <li>ETag 为文件内容的 MD5（内容寻址存储下内容不可变），Last-Modified 为文件创建时间</li>
+ *   <li>If-None-Match / If-Modified-Since 命中时返回 304，不传输内容</li>
+ *   <li>单个 Range 返回 206 和对应字节；If-Range 不匹配或多个范围时返回完整文件；范围无效时返回 416</li>
+ *   <li>衍生文件（缩略图、预览图）按相同规则输出，原文件不支持生成时返回 404</li>
+ *   <li>只能下载当前用户上传过的文件（衍生文件按原文件判断），文件不存在或无权访问时都返回 404</li>
+ * </ul>
+ */
+@Slf4j
+@RestController
+@RequestMapping("/files")
+@RequiredArgsConstructor
+public class FileController {
+
+    private final FileDomainService fileDomainService;
+
+    /**
+     * 下载文件内容
+     * @param id       文件元信息ID
+     * @param request  HTTP 请求
+     * @param response HTTP 响应
+     * @throws IOException 写入响应失败
+     */
+    @GetMapping("/{id}/content")
+    public void download(@PathVariable String id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        serve(fileDomainService.getAccessibleFileMeta(id), request, response);
+    }
+
+    /**
+     * 下载文件的衍生文件（缩略图、预览图），首次请求时生成
+     * @param id       原文件元信息ID
+     * @param usage    衍生文件用途
+     * @param request  HTTP 请求
+     * @param response HTTP 响应
+     * @throws IOException 写入响应失败
+     */
+    @GetMapping("/{id}/derivatives/{usage}")
+    public void downloadDerivative(@PathVariable String id, @PathVariable Usage usage,
+                                   HttpServletRequest request, HttpServletResponse response) throws IOException {
+        fileDomainService.getAccessibleFileMeta(id);
+        Optional<FileMetadata> derivative = usage.getType() == Type.FILE
+                                                    ? fileDomainService.getDerivative(id, usage)
+                                                    : Optional.empty();
+        if (derivative.isEmpty()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        serve(derivative.get(), request, response);
+    }
+
+    /**
+     * 输出文件内容，处理条件请求和范围请求
+     */
+    private void serve(FileMetadata metadata, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String etag = "\"" + metadata.getMd5() + "\"";
+        long lastModified = metadata.getCreateTime() != null ? metadata.getCreateTime().toEpochMilli() : -1;
+
+        // 条件请求：命中时 Spring 设置 304 及 ETag/Last-Modified 响应头
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        long size = metadata.getFileSize();
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (metadata.getContentType() != null) {
+            response.setContentType(metadata.getContentType());
+        }
+
+        long offset = 0;
+        long length = size;
+        HttpRange range = singleRange(request, etag);
+        if (range != null) {
+            try {
+                offset = range.getRangeStart(size);
+                length = range.getRangeEnd(size) - offset + 1;
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + offset + "-" + (offset + length - 1) + "/" + size);
+        }
+        response.setContentLengthLong(length);
+
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        WritableByteChannel channel = Channels.newChannel(response.getOutputStream());
+        long transferred = fileDomainService.transferContent(metadata, offset, length, channel);
+        log.debug("File content served: id={}, offset={}, length={}, transferred={}",
+                metadata.getId(), offset, length, transferred);
+    }
+
+    /**
+     * 解析单个字节范围，If-Range 与当前 ETag 不一致、多个范围或格式错误时返回null（返回完整文件）
+     */
+    private static HttpRange singleRange(HttpServletRequest request, String etag) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.getFirst() : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+}
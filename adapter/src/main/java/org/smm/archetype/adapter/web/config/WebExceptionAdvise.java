@@ -7,6 +7,7 @@ import org.smm.archetype.adapter.shared.enums.ResultEnum;
 import org.smm.archetype.app.shared.result.BaseResult;
 import org.smm.archetype.domain.shared.exception.BizException;
 import org.smm.archetype.domain.shared.exception.ClientException;
+import org.smm.archetype.domain.shared.exception.CommonErrorCode;
 import org.smm.archetype.domain.shared.exception.SysException;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
@@ -116,20 +117,22 @@ public class WebExceptionAdvise {
     }
 
     /**
-     * 处理业务异常。
+     * 处理业务异常，数据不存在时返回 HTTP 404。
      * @param e 业务异常对象
      * @return 失败响应
      */
     @ExceptionHandler(BizException.class)
-    public BaseResult<Void> handleBizException(BizException e) {
+    public ResponseEntity<BaseResult<Void>> handleBizException(BizException e) {
         log.warn("业务异常: {}", e.getMessage());
         String errorCode = e.getErrorCode() != null 
                 ? e.getErrorCode().getCode() 
                 : String.valueOf(ResultEnum.BUSINESS_ERROR.getCode());
-        return BaseResult.<Void>builder()
-                       .setCode(errorCode)
-                       .setMessage(e.getMessage())
-                       .build();
+        BaseResult<Void> result = BaseResult.<Void>builder()
+                                          .setCode(errorCode)
+                                          .setMessage(e.getMessage())
+                                          .build();
+        HttpStatus status = e.getErrorCode() == CommonErrorCode.DATA_NOT_FOUND ? HttpStatus.NOT_FOUND : HttpStatus.OK;
+        return ResponseEntity.status(status).body(result);
     }
 
     /**
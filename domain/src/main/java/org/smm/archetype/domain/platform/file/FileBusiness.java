@@ -72,6 +72,11 @@ public class FileBusiness extends Entity {
          */
         CONTRACT("合同"),
 
+        /**
+         * 文件相关（业务ID为原文件的元信息ID，用于关联衍生文件）
+         */
+        FILE("文件"),
+
         /**
          * 其他
          */
@@ -122,6 +127,16 @@ public class FileBusiness extends Entity {
          */
         ATTACHMENT("附件", Type.OTHER),
 
+        /**
+         * 缩略图（原文件的衍生文件）
+         */
+        THUMBNAIL("缩略图", Type.FILE),
+
+        /**
+         * 预览图（原文件的衍生文件）
+         */
+        PREVIEW("预览图", Type.FILE),
+
         /**
          * 其他
          */
@@ -4,7 +4,11 @@ import org.smm.archetype.domain.platform.file.FileBusiness.Type;
 import org.smm.archetype.domain.platform.file.FileBusiness.Usage;
 
 import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * 通用文件服务，整合对象存储客户端和文件领域对象。
@@ -18,6 +22,16 @@ public interface FileDomainService {
      */
     void uploadFile(InputStream inputStream, FileMetadata fileMetadata, FileBusiness fileBusiness);
 
+    /**
+     * 批量上传文件：并发上传到对象存储，全部成功后批量保存元数据和业务关联
+     *
+     * <p>任一文件失败时抛出异常且不保存任何业务关联。已上传到对象存储的内容不会立即删除（可能与其他文件共用），
+     * 依赖孤立对象回收在宽限期后清理，未开启回收时会一直占用存储空间。</p>
+     * @param uploads 待上传的文件
+     * @return 保存后的业务文件，与传入顺序一致
+     */
+    List<FileBusiness> uploadFiles(List<FileUpload> uploads);
+
     /**
      * 列出业务文件
      * @param businessId 业务ID
@@ -27,6 +41,15 @@ public interface FileDomainService {
      */
     List<FileBusiness> listFileBusinesss(String businessId, Type type, Usage usage);
 
+    /**
+     * 批量列出多个业务的文件，用于列表页（查询次数与业务数量无关）
+     * @param businessIds 业务ID集合
+     * @param type        业务实体类型
+     * @param usage       使用场景
+     * @return 业务ID到文件列表的映射，按传入顺序，没有文件的业务对应空列表
+     */
+    Map<String, List<FileBusiness>> listFileBusinesss(Collection<String> businessIds, Type type, Usage usage);
+
     /**
      * 获取业务文件
      * @param id 文件ID
@@ -40,6 +63,15 @@ public interface FileDomainService {
      */
     FileMetadata getFileMeta(String id);
 
+    /**
+     * 获取当前用户可访问的文件，用于对外下载
+     *
+     * <p>当前用户有引用该文件的业务文件（即上传过该文件）时才可访问，否则与文件不存在一样处理，不暴露文件是否存在。</p>
+     * @param id 元文件ID
+     * @return 元文件
+     */
+    FileMetadata getAccessibleFileMeta(String id);
+
     /**
      * 获取文件URL
      * @param fileMetaId 文件元信息ID
@@ -47,4 +79,51 @@ public interface FileDomainService {
      */
     String getFileUrl(String fileMetaId);
 
+    /**
+     * 获取有时效的文件URL
+     * @param fileMetaId    文件元信息ID
+     * @param expireSeconds 至少有效的时间（秒），0表示永久有效
+     * @return 文件URL
+     */
+    String getFileUrl(String fileMetaId, long expireSeconds);
+
+    /**
+     * 批量获取文件URL
+     * @param fileMetaIds 文件元信息ID集合
+     * @return 文件元信息ID到URL的映射，按传入顺序，不存在的ID不包含在结果中
+     */
+    Map<String, String> getFileUrls(Collection<String> fileMetaIds);
+
+    /**
+     * 批量获取有时效的文件URL（列表页一次取整页）
+     * @param fileMetaIds   文件元信息ID集合
+     * @param expireSeconds 至少有效的时间（秒），0表示永久有效
+     * @return 文件元信息ID到URL的映射，按传入顺序，不存在的ID不包含在结果中
+     */
+    Map<String, String> getFileUrls(Collection<String> fileMetaIds, long expireSeconds);
+
+    /**
+     * 传输文件内容的一个字节范围
+     * @param fileMetadata 文件元信息
+     * @param offset       起始偏移量
+     * @param length       传输长度，-1表示传输到文件末尾
+     * @param target       目标通道（调用方负责关闭）
+     * @return 写入的字节数
+     */
+    long transferContent(FileMetadata fileMetadata, long offset, long length, WritableByteChannel target);
+
+    /**
+     * 为已上传的文件生成全部衍生文件（缩略图、预览图），已存在的跳过；由文件上传事件触发
+     * @param uploaded 文件上传事件载荷
+     */
+    void generateDerivatives(FileUploaded uploaded);
+
+    /**
+     * 获取文件的衍生文件，不存在时同步生成（首次请求时生成，之后复用）
+     * @param fileMetaId 原文件元信息ID
+     * @param usage      衍生文件用途，业务类型须为 {@link Type#FILE}
+     * @return 衍生文件元信息，原文件不支持生成时为空
+     */
+    Optional<FileMetadata> getDerivative(String fileMetaId, Usage usage);
+
 }
@@ -35,6 +35,11 @@ public class FileMetadata extends Entity {
      */
     private String md5;
 
+    /**
+     * 文件CRC32C（未计算时为空）
+     */
+    private String crc32c;
+
     /**
      * 文件内容类型（MIME类型）
      */
@@ -1,6 +1,8 @@
 package org.smm.archetype.domain.platform.file;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -15,6 +17,13 @@ public interface FileRepository {
      */
     FileBusiness save(FileBusiness fileBusiness);
 
+    /**
+     * 批量保存业务文件（包含元数据），元数据和业务关联各一次多行写入
+     * @param fileBusinesses 业务文件
+     * @return 保存后的业务文件
+     */
+    List<FileBusiness> saveAll(List<FileBusiness> fileBusinesses);
+
     /**
      * 根据ID查询业务文件
      * @param id 文件ID
@@ -32,6 +41,16 @@ public interface FileRepository {
     List<FileBusiness> findByBusinessIdAndTypeAndUsage(
             String businessId, FileBusiness.Type type, FileBusiness.Usage usage);
 
+    /**
+     * 根据多个业务ID、类型和场景批量查询文件列表
+     * @param businessIds 业务ID集合
+     * @param type        业务实体类型
+     * @param usage       使用场景
+     * @return 业务ID到文件列表的映射，按传入顺序，没有文件的业务对应空列表
+     */
+    Map<String, List<FileBusiness>> findByBusinessIdsAndTypeAndUsage(
+            Collection<String> businessIds, FileBusiness.Type type, FileBusiness.Usage usage);
+
     /**
      * 根据ID查询文件元数据
      * @param id 文件元数据ID（继承自Entity的id字段）
@@ -39,6 +58,28 @@ public interface FileRepository {
      */
     Optional<FileMetadata> findFileMetaByFileId(String id);
 
+    /**
+     * 根据ID批量查询文件元数据
+     * @param ids 文件元数据ID集合
+     * @return 文件元数据，不存在的ID不包含在结果中
+     */
+    List<FileMetadata> findFileMetaByFileIds(Collection<String> ids);
+
+    /**
+     * 根据对象存储路径查询文件元数据（路径由内容寻址生成，唯一）
+     * @param filePath 对象存储路径
+     * @return 文件元数据
+     */
+    Optional<FileMetadata> findFileMetaByFilePath(String filePath);
+
+    /**
+     * 判断用户是否有引用文件元数据的业务文件
+     * @param fileMetaId 文件元数据ID
+     * @param userId     创建业务文件的用户ID
+     * @return 存在时返回true
+     */
+    boolean existsByFileMetaIdAndCreateUser(String fileMetaId, String userId);
+
     /**
      * 删除业务文件
      * @param id 文件ID
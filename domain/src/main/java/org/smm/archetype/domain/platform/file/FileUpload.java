@@ -0,0 +1,12 @@
+package org.smm.archetype.domain.platform.file;
+
+import java.io.InputStream;
+
+/**
+ * 批量上传中的单个文件。
+ *
+ * @param inputStream  文件输入流（由上传任务读取，调用方负责关闭）
+ * @param fileMetadata 文件元信息
+ * @param fileBusiness 业务文件关联
+ */
+public record FileUpload(InputStream inputStream, FileMetadata fileMetadata, FileBusiness fileBusiness) {}
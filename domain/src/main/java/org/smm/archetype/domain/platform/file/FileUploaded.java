@@ -0,0 +1,10 @@
+package org.smm.archetype.domain.platform.file;
+
+/**
+ * 文件上传事件载荷，上传提交后发布，用于生成缩略图等衍生文件。
+ *
+ * @param filePath    对象存储路径（内容寻址，唯一对应一条文件元信息）
+ * @param contentType 文件内容类型（MIME类型）
+ * @param fileSize    文件大小（字节），未知时为null
+ */
+public record FileUploaded(String filePath, String contentType, Long fileSize) {}
@@ -24,4 +24,9 @@ public abstract class PageResult<T> {
 
     private Long totalRaw;
 
+    /**
+     * 游标分页时本页最后一条记录的游标，作为下一页请求的 preLastId；为null表示没有下一页
+     */
+    private String lastId;
+
 }
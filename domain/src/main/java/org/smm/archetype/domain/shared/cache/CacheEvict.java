@@ -0,0 +1,44 @@
+package org.smm.archetype.domain.shared.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 清除缓存（仅对 Application 层 *AppService 方法生效）
+ *
+ * <p>业务键生成规则与 {@link Cached} 一致。默认在方法成功返回后清除，方法抛出异常时不清除。
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheEvict {
+
+    /**
+     * 命名空间（自动注册到 CacheHolder.Type）
+     */
+    String namespace();
+
+    /**
+     * 参与生成业务键的参数下标，为空时使用全部参数
+     */
+    int[] keyArgs() default {};
+
+    /**
+     * 自定义键生成器，配置后忽略 {@link #keyArgs()}
+     */
+    Class<? extends CacheKeyGenerator> keyGenerator() default CacheKeyGenerator.class;
+
+    /**
+     * 是否清空整个命名空间
+     */
+    boolean allEntries() default false;
+
+    /**
+     * 是否在方法执行前清除
+     */
+    boolean beforeInvocation() default false;
+
+}
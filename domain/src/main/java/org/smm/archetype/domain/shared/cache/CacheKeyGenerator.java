@@ -0,0 +1,20 @@
+package org.smm.archetype.domain.shared.cache;
+
+/**
+ * 缓存键生成器
+ *
+ * <p>用于 {@link Cached}/{@link CacheEvict} 的自定义键生成，实现类需提供公共无参构造方法，
+ * 每个被注解的方法只实例化一次，生成方法需线程安全。
+ * 生成结果为命名空间内的业务键，不包含命名空间前缀。
+ */
+@FunctionalInterface
+public interface CacheKeyGenerator {
+
+    /**
+     * 生成业务键
+     * @param args 方法参数
+     * @return 业务键
+     */
+    String generate(Object[] args);
+
+}
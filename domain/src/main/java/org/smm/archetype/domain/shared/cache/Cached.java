@@ -0,0 +1,51 @@
+package org.smm.archetype.domain.shared.cache;
+
+import org.smm.archetype.domain.shared.event.Type;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 缓存方法返回值（仅对 Application 层 *AppService 方法生效）
+ *
+ * <p>缓存键为 {@code 命名空间:业务键}，业务键默认由 {@link #keyArgs()} 指定的参数按顺序拼接，
+ * 不使用 SpEL，键生成逻辑在首次调用时预编译。过期时间取命名空间配置
+ * （middleware.cache.namespaces.&lt;namespace&gt;.ttl），未配置时使用全局默认值。
+ *
+ * <p>同一个键并发未命中时只有一个线程执行方法，其余线程等待其结果（single-flight）。
+ * 返回 null 时不缓存。
+ *
+ * <pre>{@code
+ * @Cached(namespace = "ORDER", keyArgs = 0, evictOn = Type.ORDER_PAID)
+ * public OrderDTO getOrder(String orderId) { ... }
+ * }</pre>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cached {
+
+    /**
+     * 命名空间（自动注册到 CacheHolder.Type）
+     */
+    String namespace();
+
+    /**
+     * 参与生成业务键的参数下标，为空时使用全部参数
+     */
+    int[] keyArgs() default {};
+
+    /**
+     * 自定义键生成器，配置后忽略 {@link #keyArgs()}
+     */
+    Class<? extends CacheKeyGenerator> keyGenerator() default CacheKeyGenerator.class;
+
+    /**
+     * 发布这些类型的领域事件后清空整个命名空间
+     */
+    Type[] evictOn() default {};
+
+}
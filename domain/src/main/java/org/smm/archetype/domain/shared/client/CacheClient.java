@@ -15,16 +15,42 @@ public interface CacheClient {
 
     <T> List<T> getList(String key);
 
+    /**
+     * 获取列表缓存的范围（语义同 Redis LRANGE）
+     * @param key      缓存键
+     * @param beginIdx 开始索引，负数表示从尾部倒数（-1 为最后一个元素）
+     * @param endIdx   结束索引（包含），负数表示从尾部倒数
+     * @return 范围内元素的副本，不存在返回空列表
+     */
     <T> List<T> getList(String key, int beginIdx, int endIdx);
 
     void put(String key, Object value);
 
     void put(String key, Object value, Duration duration);
 
+    /**
+     * 追加到列表尾部（语义同 Redis RPUSH），键不存在时创建列表
+     * @param key   缓存键
+     * @param value 追加值
+     */
     void append(String key, Object value);
 
+    /**
+     * 追加到列表尾部，并只保留最后 maxSize 个元素（语义同 Redis RPUSH + LTRIM key -maxSize -1）
+     * @param key     缓存键
+     * @param value   追加值
+     * @param maxSize 最大元素数
+     */
+    void append(String key, Object value, int maxSize);
+
     void delete(String key);
 
+    /**
+     * 删除所有以指定前缀开头的键（用于按命名空间整体失效）
+     * @param prefix 键前缀
+     */
+    void deleteByPrefix(String prefix);
+
     Boolean hasKey(String key);
 
     Boolean expire(String key, long timeout, TimeUnit unit);
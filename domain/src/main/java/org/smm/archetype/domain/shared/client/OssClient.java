@@ -1,9 +1,15 @@
 package org.smm.archetype.domain.shared.client;
 
 import org.smm.archetype.domain.platform.file.FileMetadata;
+import org.smm.archetype.domain.shared.base.PageResult;
+import org.smm.archetype.domain.shared.client.dto.FileSearchRequest;
 
 import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 对象存储服务接口，提供文件上传下载操作。
@@ -17,17 +23,116 @@ public interface OssClient {
      * @param contentType MIME类型
      * @return 文件路径
      */
-    String upload(InputStream inputStream, String fileName, String contentType);
+    default String upload(InputStream inputStream, String fileName, String contentType) {
+        return upload(inputStream, fileName, contentType, -1L);
+    }
+
+    /**
+     * 上传文件（已知长度时实现可预分配存储空间）
+     * @param inputStream   文件流
+     * @param fileName      文件名
+     * @param contentType   MIME类型
+     * @param contentLength 文件长度（字节），未知时为-1
+     * @return 文件路径
+     */
+    default String upload(InputStream inputStream, String fileName, String contentType, long contentLength) {
+        return uploadContent(inputStream, fileName, contentType, contentLength).getFilePath();
+    }
+
+    /**
+     * 上传文件，返回实际存储内容的元数据
+     *
+     * <p>存储按内容寻址，路径、MD5、CRC32C 和大小都由存储端根据写入（或复用）的内容计算，
+     * 保存业务关联时应使用这些值定位元数据，不能使用调用方提供的值。</p>
+     * @param inputStream   文件流
+     * @param fileName      文件名
+     * @param contentType   MIME类型
+     * @param contentLength 文件长度（字节），未知时为-1
+     * @return 存储内容的元数据（不含ID和URL）
+     */
+    FileMetadata uploadContent(InputStream inputStream, String fileName, String contentType, long contentLength);
+
+    /**
+     * 发起分片上传，适用于大文件和不稳定网络：分片可以乱序、并行上传，失败的分片单独重传，会话状态持久化支持断点续传
+     * @param fileName    文件名
+     * @param contentType MIME类型
+     * @param totalSize   文件总大小（字节），未知时为-1
+     * @param partSize    分片大小（字节），除最后一个分片外所有分片大小必须相同
+     * @return 上传会话ID
+     */
+    String initiateMultipartUpload(String fileName, String contentType, long totalSize, long partSize);
+
+    /**
+     * 上传分片，重复上传同一序号的分片会覆盖之前的内容
+     * @param uploadId   上传会话ID
+     * @param partNumber 分片序号，从1开始
+     * @param content    分片内容
+     * @param md5        客户端计算的分片MD5（十六进制），为null时不校验
+     * @return 服务端计算的分片MD5
+     */
+    String uploadPart(String uploadId, int partNumber, InputStream content, String md5);
+
+    /**
+     * 查询已上传的分片序号，用于断点续传
+     * @param uploadId 上传会话ID
+     * @return 已上传的分片序号（升序）
+     */
+    List<Integer> listUploadedParts(String uploadId);
+
+    /**
+     * 完成分片上传，由存储端按序号组装分片
+     * @param uploadId 上传会话ID
+     * @return 文件路径
+     */
+    String completeMultipartUpload(String uploadId);
+
+    /**
+     * 中止分片上传并清理已上传的分片
+     * @param uploadId 上传会话ID
+     */
+    void abortMultipartUpload(String uploadId);
 
     /**
      * 下载文件
      * @param filePath 文件路径
      * @return 文件流
      */
-    InputStream download(String filePath);
+    default InputStream download(String filePath) {
+        return download(filePath, 0, -1);
+    }
+
+    /**
+     * 下载文件的一个字节范围
+     * @param filePath 文件路径
+     * @param offset   起始偏移量
+     * @param length   读取长度，-1表示读取到文件末尾
+     * @return 文件流
+     */
+    InputStream download(String filePath, long offset, long length);
+
+    /**
+     * 下载文件并直接写入目标通道（如响应输出通道），实现可使用零拷贝
+     * @param filePath 文件路径
+     * @param target   目标通道（调用方负责关闭）
+     * @return 写入的字节数
+     */
+    default long transferTo(String filePath, WritableByteChannel target) {
+        return transferTo(filePath, 0, -1, target);
+    }
 
     /**
-     * 删除文件
+     * 下载文件的一个字节范围并直接写入目标通道，用于 HTTP Range 请求
+     * @param filePath 文件路径
+     * @param offset   起始偏移量
+     * @param length   传输长度，-1表示传输到文件末尾
+     * @param target   目标通道（调用方负责关闭）
+     * @return 写入的字节数
+     */
+    long transferTo(String filePath, long offset, long length, WritableByteChannel target);
+
+    /**
+     * 删除文件：释放对该文件的引用。相同内容只存一份时对象可能被多个业务文件共享，实现可以不立即删除对象，
+     * 由存储的孤立对象回收在没有业务引用后删除
      * @param filePath 文件路径
      */
     void delete(String filePath);
@@ -40,13 +145,39 @@ public interface OssClient {
      */
     String generateUrl(String filePath, long expireSeconds);
 
+    /**
+     * 批量生成访问URL（列表页一次取整页的URL）
+     * @param filePaths     文件路径集合
+     * @param expireSeconds 过期时间（秒），0表示永久有效
+     * @return 文件路径到访问URL的映射，按传入顺序
+     */
+    default Map<String, String> generateUrls(Collection<String> filePaths, long expireSeconds) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (String filePath : filePaths) {
+            urls.put(filePath, generateUrl(filePath, expireSeconds));
+        }
+        return urls;
+    }
+
     /**
      * 模糊查询文件
-     * @param fileNamePattern 文件名模式（支持通配符）
+     * @param fileNamePattern 原始文件名模式（支持通配符）
      * @return 文件列表
+     * @deprecated 一次返回全部匹配结果，使用分页的 {@link #searchFiles(FileSearchRequest)}
      */
+    @Deprecated
     List<FileMetadata> searchFiles(String fileNamePattern);
 
+    /**
+     * 分页搜索文件（游标分页）
+     *
+     * <p>模式匹配业务文件记录的原始文件名（内容寻址存储的路径只包含 MD5），每个业务文件一条结果。
+     * 不以通配符开头的模式按名称前缀走索引、按名称排序；以通配符开头的模式和空模式按ID排序。
+     * @param request 搜索条件
+     * @return 本页文件，lastId 为null表示没有下一页
+     */
+    PageResult<FileMetadata> searchFiles(FileSearchRequest request);
+
     /**
      * 检查文件是否存在
      * @param filePath 文件路径
@@ -0,0 +1,21 @@
+package org.smm.archetype.domain.shared.client.dto;
+
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+import org.smm.archetype.domain.shared.base.PageRequest;
+
+/**
+ * 文件搜索请求（游标分页）。
+ *
+ * <p>{@code preLastId} 为上一页结果的 {@code lastId}，首页为空；{@code pageSize} 为空时使用默认值。
+ */
+@Getter
+@SuperBuilder(setterPrefix = "set")
+public class FileSearchRequest extends PageRequest {
+
+    /**
+     * 原始文件名模式（支持通配符 * 和 ?，匹配业务文件名称），为空时按ID顺序列出全部文件
+     */
+    private String fileNamePattern;
+
+}
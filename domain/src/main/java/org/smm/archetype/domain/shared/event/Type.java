@@ -40,6 +40,11 @@ public enum Type {
      */
     ORDER_SHIPPED("订单发货", Source.DOMAIN),
 
+    /**
+     * 文件上传事件（载荷为 {@link org.smm.archetype.domain.platform.file.FileUploaded}）
+     */
+    FILE_UPLOADED("文件上传", Source.DOMAIN),
+
     ;
 
     /**
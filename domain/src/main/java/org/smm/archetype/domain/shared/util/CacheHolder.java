@@ -3,7 +3,10 @@ package org.smm.archetype.domain.shared.util;
 import org.smm.archetype.domain.shared.client.CacheClient;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -22,11 +25,77 @@ public class CacheHolder {
     }
 
     /**
-     * 业务类型
+     * 业务类型（命名空间）注册表
+     *
+     * <p>各业务模块通过 {@link #register(String)} 声明自己的命名空间，@Cached/@CacheEvict 使用的命名空间会自动注册。
+     * 同名重复注册返回同一个实例。
      */
-    private enum Type {
+    public static final class Type {
 
-        ;
+        private static final Map<String, Type> REGISTRY = new ConcurrentHashMap<>();
+
+        /**
+         * 文件元数据
+         */
+        public static final Type FILE = register("FILE");
+
+        private final String name;
+
+        private final String prefix;
+
+        private Type(String name) {
+            this.name = name;
+            this.prefix = name + ":";
+        }
+
+        /**
+         * 注册命名空间
+         * @param name 命名空间名称，不能包含 ':'
+         * @return 业务类型
+         */
+        public static Type register(String name) {
+            if (name == null || name.isBlank() || name.indexOf(':') >= 0) {
+                throw new IllegalArgumentException("Invalid cache namespace: " + name);
+            }
+            return REGISTRY.computeIfAbsent(name, Type::new);
+        }
+
+        /**
+         * 获取已注册的命名空间
+         * @param name 命名空间名称
+         * @return 业务类型
+         */
+        public static Type of(String name) {
+            Type type = REGISTRY.get(name);
+            if (type == null) {
+                throw new IllegalArgumentException("Unregistered cache namespace: " + name);
+            }
+            return type;
+        }
+
+        /**
+         * 所有已注册的命名空间
+         * @return 业务类型集合
+         */
+        public static Collection<Type> values() {
+            return List.copyOf(REGISTRY.values());
+        }
+
+        /**
+         * 命名空间名称
+         * @return 名称
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * 命名空间键前缀
+         * @return {@code 名称:}
+         */
+        public String prefix() {
+            return prefix;
+        }
 
         /**
          * 构建缓存key
@@ -34,8 +103,14 @@ public class CacheHolder {
          * @return 缓存 key 具体的值
          */
         public String buildKey(String key) {
-            return this.name() + ":" + key;
+            return prefix + key;
+        }
+
+        @Override
+        public String toString() {
+            return name;
         }
+
     }
 
     /**
@@ -75,11 +150,21 @@ public class CacheHolder {
             cacheClient.append(type.buildKey(key), value);
         }
 
+        @Override
+        public void append(String key, Object value, int maxSize) {
+            cacheClient.append(type.buildKey(key), value, maxSize);
+        }
+
         @Override
         public void delete(String key) {
             cacheClient.delete(type.buildKey(key));
         }
 
+        @Override
+        public void deleteByPrefix(String prefix) {
+            cacheClient.deleteByPrefix(type.buildKey(prefix));
+        }
+
         @Override
         public Boolean hasKey(String key) {
             return cacheClient.hasKey(type.buildKey(key));
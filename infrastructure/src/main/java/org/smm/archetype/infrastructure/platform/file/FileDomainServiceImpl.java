@@ -1,15 +1,45 @@
 package org.smm.archetype.infrastructure.platform.file;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.smm.archetype.domain.shared.client.OssClient;
 import org.smm.archetype.domain.platform.file.FileBusiness;
 import org.smm.archetype.domain.platform.file.FileDomainService;
 import org.smm.archetype.domain.platform.file.FileMetadata;
 import org.smm.archetype.domain.platform.file.FileRepository;
+import org.smm.archetype.domain.platform.file.FileUpload;
+import org.smm.archetype.domain.platform.file.FileUploaded;
+import org.smm.archetype.domain.shared.event.DomainEventPublisher;
+import org.smm.archetype.domain.shared.event.Event;
+import org.smm.archetype.domain.shared.event.Type;
+import org.smm.archetype.domain.shared.exception.BizException;
+import org.smm.archetype.domain.shared.exception.CommonErrorCode;
+import org.smm.archetype.infrastructure.shared.util.context.ScopedThreadContext;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 /**
  * 文件服务实现，整合OSS和仓储，提供完整文件管理。
@@ -23,6 +53,42 @@ public class FileDomainServiceImpl implements FileDomainService {
     private final OssClient      ossClient;
     private final FileRepository fileRepository;
 
+    /**
+     * 批量上传时同时上传到对象存储的最大文件数
+     */
+    @Setter
+    private int bulkParallelism = 8;
+
+    /**
+     * 领域事件发布器（可选），配置后每次上传提交后发布文件上传事件
+     */
+    @Setter
+    private DomainEventPublisher eventPublisher;
+
+    /**
+     * 衍生文件生成器，未启用时只返回已生成的衍生文件
+     */
+    private volatile ImageDerivativeGenerator derivativeGenerator;
+
+    /**
+     * 衍生文件查询缓存：原文件ID+用途 到衍生文件元信息，同一键的并发请求只生成一次
+     */
+    private volatile Cache<String, Optional<FileMetadata>> derivativeCache;
+
+    /**
+     * 启用衍生文件生成
+     * @param generator        衍生文件生成器
+     * @param cacheMaximumSize 查询缓存最大条目数
+     * @param cacheExpire      查询缓存写入后过期时间
+     */
+    public void enableDerivatives(ImageDerivativeGenerator generator, long cacheMaximumSize, Duration cacheExpire) {
+        this.derivativeCache = Caffeine.newBuilder()
+                                       .maximumSize(cacheMaximumSize)
+                                       .expireAfterWrite(cacheExpire)
+                                       .build();
+        this.derivativeGenerator = generator;
+    }
+
     @Override
     public void uploadFile(InputStream inputStream, FileMetadata fileMetadata, FileBusiness fileBusiness) {
         log.info("正在上传文件: 文件名={}, 业务ID={}, 类型={}, 用途={}",
@@ -31,23 +97,124 @@ public class FileDomainServiceImpl implements FileDomainService {
                 fileBusiness.getType(),
                 fileBusiness.getUsage());
 
-        // 1. 上传文件到对象存储
-        String filePath = ossClient.upload(inputStream, fileMetadata.getFileName(), fileMetadata.getContentType());
-        log.debug("文件已上传到OSS: filePath={}", filePath);
+        // 1. 上传文件到对象存储（调用方已知文件大小时传入，便于存储预分配空间）
+        long contentLength = fileMetadata.getFileSize() != null ? fileMetadata.getFileSize() : -1L;
+        FileMetadata stored = ossClient.uploadContent(inputStream, fileMetadata.getFileName(),
+                fileMetadata.getContentType(), contentLength);
+        log.debug("文件已上传到OSS: filePath={}", stored.getFilePath());
 
         // 2. 设置文件元数据
-        fileMetadata.setFilePath(filePath);
-        fileMetadata.setFileUrl(ossClient.generateUrl(filePath, 0)); // 永久有效
+        applyStored(fileMetadata, stored);
 
         // 3. 设置业务文件关联
         fileBusiness.setFileMetadata(fileMetadata);
 
         // 4. 保存到数据库（ID由数据库自动生成）
         fileRepository.save(fileBusiness);
+        publishUploaded(fileBusiness);
 
         log.info("文件上传成功: businessId={}", fileBusiness.getBusinessId());
     }
 
+    @Override
+    public List<FileBusiness> uploadFiles(List<FileUpload> uploads) {
+        log.info("正在批量上传文件: 数量={}, 并发数={}", uploads.size(), bulkParallelism);
+
+        // 1. 每个文件一个虚拟线程上传到对象存储，信号量限制同时上传的数量
+        Semaphore permits = new Semaphore(Math.max(1, bulkParallelism));
+        List<Future<?>> futures = new ArrayList<>(uploads.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (FileUpload upload : uploads) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        uploadToOss(upload);
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                }));
+            }
+        }
+        RuntimeException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                RuntimeException cause = e.getCause() instanceof RuntimeException runtimeException
+                                                 ? runtimeException
+                                                 : new IllegalStateException(e.getCause());
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Bulk upload interrupted", e);
+            }
+        }
+        // 任一文件失败时不保存业务关联。已上传的对象按内容寻址、可能被其他业务文件共用，这里不删除；
+        // 没有引用的对象只由孤立对象回收（middleware.object-storage.gc，默认关闭）在宽限期后删除，未开启时会一直保留
+        if (failure != null) {
+            List<String> unreferenced = uploads.stream()
+                                               .map(upload -> upload.fileMetadata().getFilePath())
+                                               .filter(Objects::nonNull)
+                                               .toList();
+            log.warn("批量上传失败，已上传的对象未保存引用，等待孤立对象回收: 数量={}, 路径={}",
+                    unreferenced.size(), unreferenced);
+            throw failure;
+        }
+
+        // 2. 全部上传成功后批量保存元数据和业务关联
+        List<FileBusiness> fileBusinesses = uploads.stream().map(FileUpload::fileBusiness).toList();
+        fileRepository.saveAll(fileBusinesses);
+        fileBusinesses.forEach(this::publishUploaded);
+
+        log.info("批量上传文件成功: 数量={}", fileBusinesses.size());
+        return fileBusinesses;
+    }
+
+    /**
+     * 上传单个文件到对象存储，并设置元数据的存储路径和URL
+     */
+    private void uploadToOss(FileUpload upload) {
+        FileMetadata fileMetadata = upload.fileMetadata();
+        long contentLength = fileMetadata.getFileSize() != null ? fileMetadata.getFileSize() : -1L;
+        FileMetadata stored = ossClient.uploadContent(upload.inputStream(), fileMetadata.getFileName(),
+                fileMetadata.getContentType(), contentLength);
+        applyStored(fileMetadata, stored);
+        upload.fileBusiness().setFileMetadata(fileMetadata);
+    }
+
+    /**
+     * 用对象存储实际保存的内容覆盖元数据的路径、校验和与大小，仓储按 MD5 关联元数据行，不能使用调用方提供的值
+     */
+    private void applyStored(FileMetadata fileMetadata, FileMetadata stored) {
+        fileMetadata.setFilePath(stored.getFilePath());
+        fileMetadata.setMd5(stored.getMd5());
+        fileMetadata.setCrc32c(stored.getCrc32c());
+        fileMetadata.setFileSize(stored.getFileSize());
+        fileMetadata.setFileUrl(ossClient.generateUrl(stored.getFilePath(), 0)); // 永久有效
+    }
+
+    /**
+     * 发布文件上传事件（有事务时在提交后发布），衍生文件本身不再触发生成
+     */
+    private void publishUploaded(FileBusiness fileBusiness) {
+        if (eventPublisher == null || fileBusiness.getType() == FileBusiness.Type.FILE) {
+            return;
+        }
+        FileMetadata fileMetadata = fileBusiness.getFileMetadata();
+        eventPublisher.publish(Event.<FileUploaded>builder()
+                                       .setEid(UUID.randomUUID().toString())
+                                       .setOccurredOn(Instant.now())
+                                       .setType(Type.FILE_UPLOADED)
+                                       .setPayload(new FileUploaded(fileMetadata.getFilePath(),
+                                               fileMetadata.getContentType(), fileMetadata.getFileSize()))
+                                       .build());
+    }
+
     @Override
     public List<FileBusiness> listFileBusinesss(String businessId,
                                                 FileBusiness.Type type,
@@ -57,6 +224,16 @@ public class FileDomainServiceImpl implements FileDomainService {
         return fileRepository.findByBusinessIdAndTypeAndUsage(businessId, type, usage);
     }
 
+    @Override
+    public Map<String, List<FileBusiness>> listFileBusinesss(Collection<String> businessIds,
+                                                            FileBusiness.Type type,
+                                                            FileBusiness.Usage usage) {
+        log.debug("Listing business files in batch: businessIds={}, type={}, usage={}",
+                businessIds.size(), type, usage);
+
+        return fileRepository.findByBusinessIdsAndTypeAndUsage(businessIds, type, usage);
+    }
+
     @Override
     public FileBusiness getFileBusiness(String id) {
         log.debug("Getting business file: id={}", id);
@@ -70,18 +247,158 @@ public class FileDomainServiceImpl implements FileDomainService {
         log.debug("获取文件元数据: id={}", id);
 
         return fileRepository.findFileMetaByFileId(id)
-                       .orElseThrow(() -> new IllegalArgumentException("文件元数据未找到: " + id));
+                       .orElseThrow(() -> new BizException("文件元数据未找到: " + id, CommonErrorCode.DATA_NOT_FOUND));
+    }
+
+    @Override
+    public FileMetadata getAccessibleFileMeta(String id) {
+        String userId = ScopedThreadContext.getUserId();
+        if (userId == null || !fileRepository.existsByFileMetaIdAndCreateUser(id, userId)) {
+            log.warn("文件不存在或当前用户无权访问: id={}, userId={}", id, userId);
+            throw new BizException("文件元数据未找到: " + id, CommonErrorCode.DATA_NOT_FOUND);
+        }
+        return getFileMeta(id);
     }
 
     @Override
     public String getFileUrl(String fileMetaId) {
-        log.debug("Getting file URL: fileMetaId={}", fileMetaId);
+        return getFileUrl(fileMetaId, 0); // 永久有效
+    }
+
+    @Override
+    public String getFileUrl(String fileMetaId, long expireSeconds) {
+        log.debug("Getting file URL: fileMetaId={}, expireSeconds={}", fileMetaId, expireSeconds);
 
         FileMetadata fileMetadata = getFileMeta(fileMetaId);
-        String url = ossClient.generateUrl(fileMetadata.getFilePath(), 0); // 永久有效
+        String url = ossClient.generateUrl(fileMetadata.getFilePath(), expireSeconds);
 
         log.debug("获取文件URL: fileMetaId={}", fileMetaId);
         return url;
     }
 
+    @Override
+    public Map<String, String> getFileUrls(Collection<String> fileMetaIds) {
+        return getFileUrls(fileMetaIds, 0); // 永久有效
+    }
+
+    @Override
+    public Map<String, String> getFileUrls(Collection<String> fileMetaIds, long expireSeconds) {
+        log.debug("Getting file URLs in batch: count={}, expireSeconds={}", fileMetaIds.size(), expireSeconds);
+
+        // 一次查询加载全部元数据，再由对象存储批量生成URL（有时效的URL复用缓存，未命中的一次签发）
+        Map<String, String> pathById = new HashMap<>();
+        for (FileMetadata fileMetadata : fileRepository.findFileMetaByFileIds(fileMetaIds)) {
+            pathById.put(String.valueOf(fileMetadata.getId()), fileMetadata.getFilePath());
+        }
+        Map<String, String> urlByPath = ossClient.generateUrls(new LinkedHashSet<>(pathById.values()), expireSeconds);
+
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (String fileMetaId : fileMetaIds) {
+            String path = pathById.get(fileMetaId);
+            if (path != null) {
+                urls.put(fileMetaId, urlByPath.get(path));
+            }
+        }
+        return urls;
+    }
+
+    @Override
+    public long transferContent(FileMetadata fileMetadata, long offset, long length, WritableByteChannel target) {
+        log.debug("Transferring file content: filePath={}, offset={}, length={}",
+                fileMetadata.getFilePath(), offset, length);
+
+        return ossClient.transferTo(fileMetadata.getFilePath(), offset, length, target);
+    }
+
+    @Override
+    public void generateDerivatives(FileUploaded uploaded) {
+        ImageDerivativeGenerator generator = derivativeGenerator;
+        if (generator == null) {
+            return;
+        }
+        FileMetadata source = fileRepository.findFileMetaByFilePath(uploaded.filePath()).orElse(null);
+        if (source == null) {
+            log.warn("原文件元数据未找到，跳过衍生文件生成: filePath={}", uploaded.filePath());
+            return;
+        }
+        for (FileBusiness.Usage usage : FileBusiness.Usage.values()) {
+            if (usage.getType() == FileBusiness.Type.FILE
+                        && generator.supports(source.getContentType(), source.getFileSize(), usage)) {
+                derivative(String.valueOf(source.getId()), usage, source);
+            }
+        }
+    }
+
+    @Override
+    public Optional<FileMetadata> getDerivative(String fileMetaId, FileBusiness.Usage usage) {
+        if (usage.getType() != FileBusiness.Type.FILE) {
+            throw new IllegalArgumentException("Not a derivative usage: " + usage);
+        }
+        return derivative(fileMetaId, usage, null);
+    }
+
+    /**
+     * 查询衍生文件，启用生成时经过缓存，未命中时查询已有关联或生成
+     * @param source 原文件元信息，为null时按需查询
+     */
+    private Optional<FileMetadata> derivative(String fileMetaId, FileBusiness.Usage usage, FileMetadata source) {
+        Cache<String, Optional<FileMetadata>> cache = derivativeCache;
+        if (cache == null) {
+            return findDerivative(fileMetaId, usage);
+        }
+        return cache.get(fileMetaId + ":" + usage.name(), key -> loadDerivative(fileMetaId, usage, source));
+    }
+
+    private Optional<FileMetadata> loadDerivative(String fileMetaId, FileBusiness.Usage usage, FileMetadata source) {
+        Optional<FileMetadata> existing = findDerivative(fileMetaId, usage);
+        ImageDerivativeGenerator generator = derivativeGenerator;
+        if (existing.isPresent() || generator == null) {
+            return existing;
+        }
+        FileMetadata original = source != null ? source : getFileMeta(fileMetaId);
+        if (!generator.supports(original.getContentType(), original.getFileSize(), usage)) {
+            return Optional.empty();
+        }
+
+        ImageDerivativeGenerator.Derivative derivative;
+        try {
+            derivative = generator.generate(() -> ossClient.download(original.getFilePath()), usage);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to generate derivative: fileMetaId=" + fileMetaId
+                                                    + ", usage=" + usage, e);
+        }
+        if (derivative == null) {
+            log.warn("原文件无法解码，不生成衍生文件: fileMetaId={}, usage={}", fileMetaId, usage);
+            return Optional.empty();
+        }
+
+        // 衍生文件与普通文件一样内容寻址存储，业务关联的业务ID为原文件元信息ID
+        String extension = "image/png".equals(derivative.contentType()) ? ".png" : ".jpg";
+        FileMetadata fileMetadata = FileMetadata.builder()
+                                            .setFileName(original.getMd5() + "-"
+                                                                 + usage.name().toLowerCase(Locale.ROOT) + extension)
+                                            .setContentType(derivative.contentType())
+                                            .setFileSize((long) derivative.content().length)
+                                            .build();
+        FileBusiness fileBusiness = FileBusiness.builder()
+                                            .setBusinessId(fileMetaId)
+                                            .setType(FileBusiness.Type.FILE)
+                                            .setUsage(usage)
+                                            .setRemark(usage.getDesc())
+                                            .build();
+        uploadFile(new ByteArrayInputStream(derivative.content()), fileMetadata, fileBusiness);
+        log.info("衍生文件已生成: fileMetaId={}, usage={}, size={}", fileMetaId, usage, derivative.content().length);
+
+        // 重新查询，取得数据库生成的ID和时间
+        return findDerivative(fileMetaId, usage);
+    }
+
+    private Optional<FileMetadata> findDerivative(String fileMetaId, FileBusiness.Usage usage) {
+        return fileRepository.findByBusinessIdAndTypeAndUsage(fileMetaId, FileBusiness.Type.FILE, usage)
+                       .stream()
+                       .map(FileBusiness::getFileMetadata)
+                       .filter(Objects::nonNull)
+                       .findFirst();
+    }
+
 }
@@ -0,0 +1,136 @@
+package org.smm.archetype.infrastructure.platform.file;
+
+import lombok.extern.slf4j.Slf4j;
+import org.smm.archetype.domain.platform.file.FileBusiness.Usage;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 图片衍生文件生成器：按用途把图片等比缩小到指定的最大边长（不放大）。
+ *
+ * <p>解码和缩放是 CPU 密集的，在固定大小的平台线程池上执行，同时处理的图片数不超过线程数；
+ * 原图在池内线程上打开和读取，排队的任务不占用存储连接。
+ * 使用 JDK ImageIO，支持 JPEG、PNG、GIF、BMP 等格式；带透明通道的图片输出 PNG，其余输出 JPEG。
+ */
+@Slf4j
+public class ImageDerivativeGenerator implements AutoCloseable {
+
+    private final ExecutorService cpuPool;
+
+    private final Map<Usage, Integer> maxDimensions;
+
+    private final long maxSourceBytes;
+
+    /**
+     * 生成的衍生文件
+     * @param content     文件内容
+     * @param contentType 文件内容类型
+     */
+    public record Derivative(byte[] content, String contentType) {}
+
+    /**
+     * @param parallelism    同时处理的最大图片数（线程数）
+     * @param maxDimensions  各用途的最大边长（像素）
+     * @param maxSourceBytes 原图大小上限（字节），超过时不生成，避免解码占用过多内存
+     */
+    public ImageDerivativeGenerator(int parallelism, Map<Usage, Integer> maxDimensions, long maxSourceBytes) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        AtomicInteger sequence = new AtomicInteger();
+        this.cpuPool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "image-derivative-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxDimensions = Map.copyOf(maxDimensions);
+        this.maxSourceBytes = maxSourceBytes;
+    }
+
+    /**
+     * 是否可以为该文件生成衍生文件
+     * @param contentType 原文件内容类型
+     * @param size        原文件大小（字节），未知时为null
+     * @param usage       衍生文件用途
+     * @return true-可以生成
+     */
+    public boolean supports(String contentType, Long size, Usage usage) {
+        return contentType != null
+                       && maxDimensions.containsKey(usage)
+                       && (size == null || size <= maxSourceBytes)
+                       && ImageIO.getImageReadersByMIMEType(contentType).hasNext();
+    }
+
+    /**
+     * 在 CPU 线程池上生成衍生文件并等待结果
+     * @param source 打开原图的函数（在池内线程上调用，流由生成器关闭）
+     * @param usage  衍生文件用途
+     * @return 衍生文件，原图无法解码时为null
+     * @throws Exception 读取或编码失败
+     */
+    public Derivative generate(Callable<InputStream> source, Usage usage) throws Exception {
+        int maxDimension = maxDimensions.get(usage);
+        Future<Derivative> future = cpuPool.submit(() -> {
+            try (InputStream inputStream = source.call()) {
+                return resize(inputStream, maxDimension);
+            }
+        });
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    private static Derivative resize(InputStream inputStream, int maxDimension) throws IOException {
+        BufferedImage source = ImageIO.read(inputStream);
+        if (source == null) {
+            return null;
+        }
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        boolean alpha = source.getColorModel().hasAlpha();
+
+        BufferedImage target = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        String format = alpha ? "png" : "jpeg";
+        ImageIO.write(target, format, output);
+        log.debug("衍生图片已生成: 原尺寸={}x{}, 新尺寸={}x{}, 格式={}",
+                source.getWidth(), source.getHeight(), width, height, format);
+        return new Derivative(output.toByteArray(), "image/" + format);
+    }
+
+    @Override
+    public void close() {
+        cpuPool.shutdownNow();
+    }
+
+}
@@ -1,19 +1,29 @@
 package org.smm.archetype.infrastructure.platform.file.persistence;
 
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.smm.archetype.domain.platform.file.FileBusiness;
 import org.smm.archetype.domain.platform.file.FileMetadata;
 import org.smm.archetype.domain.platform.file.FileRepository;
+import org.smm.archetype.domain.shared.util.CacheHolder;
 import org.smm.archetype.infrastructure.platform.file.FileBusinessConverter;
 import org.smm.archetype.infrastructure.platform.file.FileMetaConverter;
+import org.smm.archetype.infrastructure.shared.cache.CachePenetrationGuard;
 import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileBusinessDO;
 import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileMetadataDO;
 import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileBusinessMapper;
 import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -27,11 +37,28 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class FileRepositoryImpl implements FileRepository {
 
+    /**
+     * 单条 IN 查询的最大参数个数，超过时分批查询
+     */
+    private static final int IN_BATCH_SIZE = 500;
+
+    /**
+     * 业务文件ID的数值顺序（自增ID，与 {@link #scanIds} 的扫描顺序一致），非数字的ID不会抛出异常
+     */
+    public static final Comparator<String> ID_ORDER =
+            Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder());
+
     private final FileBusinessMapper    businessMapper;
     private final FileMetadataMapper    metadataMapper;
     private final FileBusinessConverter fileBusinessConverter;
     private final FileMetaConverter     fileMetaConverter;
 
+    /**
+     * 缓存穿透防护（可选），配置后按业务文件ID拒绝一定不存在的查询
+     */
+    @Setter
+    private CachePenetrationGuard penetrationGuard;
+
     @Override
     public FileBusiness save(FileBusiness fileBusiness) {
         log.debug("Saving business file: businessId={}, type={}, usage={}",
@@ -41,21 +68,81 @@ public class FileRepositoryImpl implements FileRepository {
 
         // 1. 保存文件元数据（使用原子操作 upsertByMd5）
         FileMetadata fileMetadata = fileBusiness.getFileMetadata();
+        requireMd5(fileMetadata);
         FileMetadataDO metadataDO = fileMetaConverter.toDataObject(fileMetadata);
         metadataMapper.upsertByMd5(metadataDO);
 
         // 2. 保存业务关联（使用原子操作 upsertById）
         FileBusinessDO businessDO = fileBusinessConverter.toDataObject(fileBusiness);
         businessDO.setFileMetaId(String.valueOf(metadataDO.getId()));
+        businessDO.setName(fileMetadata.getFileName());
         businessMapper.upsertById(businessDO);
+        if (penetrationGuard != null) {
+            penetrationGuard.add(CacheHolder.Type.FILE, String.valueOf(businessDO.getId()));
+        }
 
         log.debug("Business file saved successfully: id={}", businessDO.getId());
         return fileBusiness;
     }
 
+    @Override
+    public List<FileBusiness> saveAll(List<FileBusiness> fileBusinesses) {
+        log.debug("Saving business files in batch: count={}", fileBusinesses.size());
+        if (fileBusinesses.isEmpty()) {
+            return fileBusinesses;
+        }
+
+        // 1. 批量保存文件元数据（多行 upsertByMd5），相同内容只写一行
+        Map<String, FileMetadataDO> metadataByMd5 = new LinkedHashMap<>();
+        for (FileBusiness fileBusiness : fileBusinesses) {
+            requireMd5(fileBusiness.getFileMetadata());
+            FileMetadataDO metadataDO = fileMetaConverter.toDataObject(fileBusiness.getFileMetadata());
+            metadataByMd5.putIfAbsent(metadataDO.getMd5(), metadataDO);
+        }
+        List<String> md5s = List.copyOf(metadataByMd5.keySet());
+        Map<String, Long> metadataIds = new HashMap<>();
+        for (List<String> batch : Lists.partition(md5s, IN_BATCH_SIZE)) {
+            metadataMapper.upsertBatchByMd5(batch.stream().map(metadataByMd5::get).toList());
+            // 多行 upsert 不能可靠回填ID，按 md5 查询
+            metadataMapper.selectList(
+                    Wrappers.<FileMetadataDO>lambdaQuery()
+                            .select(FileMetadataDO::getId, FileMetadataDO::getMd5)
+                            .in(FileMetadataDO::getMd5, batch)
+            ).forEach(metadataDO -> metadataIds.put(metadataDO.getMd5(), metadataDO.getId()));
+        }
+
+        // 2. 批量保存业务关联：新记录多行插入，由数据库自增生成ID（与 save 一致）；已有ID的记录多行 upsertById
+        List<FileBusinessDO> businessDOList = new ArrayList<>(fileBusinesses.size());
+        List<FileBusinessDO> inserts = new ArrayList<>();
+        List<FileBusinessDO> upserts = new ArrayList<>();
+        for (FileBusiness fileBusiness : fileBusinesses) {
+            FileBusinessDO businessDO = fileBusinessConverter.toDataObject(fileBusiness);
+            businessDO.setFileMetaId(String.valueOf(metadataIds.get(fileBusiness.getFileMetadata().getMd5())));
+            businessDO.setName(fileBusiness.getFileMetadata().getFileName());
+            businessDOList.add(businessDO);
+            (businessDO.getId() == null ? inserts : upserts).add(businessDO);
+        }
+        for (List<FileBusinessDO> batch : Lists.partition(inserts, IN_BATCH_SIZE)) {
+            businessMapper.insertBatch(batch);
+        }
+        for (List<FileBusinessDO> batch : Lists.partition(upserts, IN_BATCH_SIZE)) {
+            businessMapper.upsertBatchById(batch);
+        }
+        if (penetrationGuard != null) {
+            businessDOList.forEach(businessDO ->
+                    penetrationGuard.add(CacheHolder.Type.FILE, String.valueOf(businessDO.getId())));
+        }
+
+        log.debug("Business files saved successfully: count={}", businessDOList.size());
+        return fileBusinesses;
+    }
+
     @Override
     public Optional<FileBusiness> findById(String id) {
         log.debug("Finding business file by id: {}", id);
+        if (penetrationGuard != null && !penetrationGuard.mightContain(CacheHolder.Type.FILE, id)) {
+            return Optional.empty();
+        }
 
         // 从file_business表查询
         FileBusinessDO businessDO = businessMapper.selectById(id);
@@ -86,7 +173,7 @@ public class FileRepositoryImpl implements FileRepository {
                                                               FileBusiness.Usage usage) {
         log.debug("Finding business files: businessId={}, type={}, usage={}", businessId, type, usage);
 
-        // 从file_business表查询
+        // 从file_business表查询（走 (business_id, type, usage, sort) 联合索引，无需额外排序）
         List<FileBusinessDO> businessDOList = businessMapper.selectList(
                 Wrappers.<FileBusinessDO>lambdaQuery()
                         .eq(FileBusinessDO::getBusinessId, businessId)
@@ -95,12 +182,37 @@ public class FileRepositoryImpl implements FileRepository {
                         .orderByAsc(FileBusinessDO::getSort)
         );
 
-        // 转换为领域对象
-        return businessDOList.stream()
-                       .map(this::toFileBusinessWithMetadata)
-                       .filter(Optional::isPresent)
-                       .map(Optional::get)
-                       .toList();
+        // 一次 IN 查询加载全部元数据，转换为领域对象
+        return toFileBusinessesWithMetadata(businessDOList);
+    }
+
+    @Override
+    public Map<String, List<FileBusiness>> findByBusinessIdsAndTypeAndUsage(Collection<String> businessIds,
+                                                                            FileBusiness.Type type,
+                                                                            FileBusiness.Usage usage) {
+        log.debug("Finding business files in batch: businessIds={}, type={}, usage={}", businessIds.size(), type, usage);
+
+        Map<String, List<FileBusiness>> result = new LinkedHashMap<>();
+        businessIds.forEach(businessId -> result.put(businessId, new ArrayList<>()));
+        if (result.isEmpty()) {
+            return result;
+        }
+
+        // 业务关联和元数据各一次 IN 查询（业务ID过多时分批）
+        List<FileBusinessDO> businessDOList = new ArrayList<>();
+        for (List<String> batch : Lists.partition(List.copyOf(result.keySet()), IN_BATCH_SIZE)) {
+            businessDOList.addAll(businessMapper.selectList(
+                    Wrappers.<FileBusinessDO>lambdaQuery()
+                            .in(FileBusinessDO::getBusinessId, batch)
+                            .eq(FileBusinessDO::getType, type.name())
+                            .eq(FileBusinessDO::getUsage, usage.name())
+                            .orderByAsc(FileBusinessDO::getBusinessId, FileBusinessDO::getSort)
+            ));
+        }
+        for (FileBusiness fileBusiness : toFileBusinessesWithMetadata(businessDOList)) {
+            result.get(fileBusiness.getBusinessId()).add(fileBusiness);
+        }
+        return result;
     }
 
     @Override
@@ -121,6 +233,42 @@ public class FileRepositoryImpl implements FileRepository {
         return Optional.of(fileMetadata);
     }
 
+    @Override
+    public Optional<FileMetadata> findFileMetaByFilePath(String filePath) {
+        log.debug("Finding file meta by path: {}", filePath);
+
+        FileMetadataDO metadataDO = metadataMapper.selectOne(
+                Wrappers.<FileMetadataDO>lambdaQuery()
+                        .eq(FileMetadataDO::getPath, filePath)
+        );
+        return Optional.ofNullable(metadataDO).map(fileMetaConverter::toEntity);
+    }
+
+    @Override
+    public List<FileMetadata> findFileMetaByFileIds(Collection<String> ids) {
+        log.debug("Finding file meta in batch: count={}", ids.size());
+
+        List<Long> metadataIds = ids.stream().map(Long::parseLong).distinct().toList();
+        List<FileMetadata> result = new ArrayList<>(metadataIds.size());
+        for (List<Long> batch : Lists.partition(metadataIds, IN_BATCH_SIZE)) {
+            metadataMapper.selectList(
+                    Wrappers.<FileMetadataDO>lambdaQuery()
+                            .in(FileMetadataDO::getId, batch)
+            ).forEach(metadataDO -> result.add(fileMetaConverter.toEntity(metadataDO)));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean existsByFileMetaIdAndCreateUser(String fileMetaId, String userId) {
+        // 走 file_meta_id 索引，同一文件的业务关联很少
+        return businessMapper.exists(
+                Wrappers.<FileBusinessDO>lambdaQuery()
+                        .eq(FileBusinessDO::getFileMetaId, fileMetaId)
+                        .eq(FileBusinessDO::getCreateUser, userId)
+        );
+    }
+
     @Override
     public void deleteById(String id) {
         log.debug("Deleting business file: id={}", id);
@@ -131,33 +279,79 @@ public class FileRepositoryImpl implements FileRepository {
         log.debug("Business file deleted successfully: id={}", id);
     }
 
+    /**
+     * 按ID升序分页扫描业务文件ID（keyset 分页），用于重建穿透防护过滤器
+     * @param afterId 上一页最后一个ID，首页为null
+     * @param limit   每页数量
+     * @return 业务文件ID
+     */
+    public List<String> scanIds(String afterId, int limit) {
+        return businessMapper.selectList(
+                        Wrappers.<FileBusinessDO>lambdaQuery()
+                                .select(FileBusinessDO::getId)
+                                .gt(afterId != null, FileBusinessDO::getId, afterId != null ? Long.parseLong(afterId) : null)
+                                .orderByAsc(FileBusinessDO::getId)
+                                .last("LIMIT " + limit))
+                       .stream()
+                       .map(businessDO -> String.valueOf(businessDO.getId()))
+                       .toList();
+    }
+
     // ==================== 私有方法 ====================
 
     /**
-     * 将FileBusinessDO和FileMetadataDO转换为FileBusiness
+     * 元数据按 MD5 关联，MD5 须来自对象存储的上传结果，缺失时所有文件会关联到同一个不存在的元数据
+     */
+    private static void requireMd5(FileMetadata fileMetadata) {
+        if (fileMetadata == null || fileMetadata.getMd5() == null) {
+            throw new IllegalArgumentException("File metadata md5 is required, use the values returned by upload: "
+                                                       + (fileMetadata != null ? fileMetadata.getFilePath() : null));
+        }
+    }
+
+    /**
+     * 将FileBusinessDO和FileMetadataDO转换为FileBusiness，文件名取自业务关联（内容寻址的路径不含文件名）
      */
     private FileBusiness toFileBusiness(FileBusinessDO businessDO, FileMetadataDO metadataDO) {
         FileBusiness fileBusiness = fileBusinessConverter.toEntity(businessDO);
         FileMetadata fileMetadata = fileMetaConverter.toEntity(metadataDO);
+        if (businessDO.getName() != null) {
+            fileMetadata.setFileName(businessDO.getName());
+        }
         fileBusiness.setFileMetadata(fileMetadata);
         return fileBusiness;
     }
 
     /**
-     * 将FileBusinessDO转换为FileBusiness（包含元数据）
+     * 将FileBusinessDO批量转换为FileBusiness（包含元数据），元数据通过一次 IN 查询加载，保持输入顺序
      */
-    private Optional<FileBusiness> toFileBusinessWithMetadata(FileBusinessDO businessDO) {
-        FileMetadataDO metadataDO = metadataMapper.selectOne(
-                Wrappers.<FileMetadataDO>lambdaQuery()
-                        .eq(FileMetadataDO::getId, Long.parseLong(businessDO.getFileMetaId()))
-        );
+    private List<FileBusiness> toFileBusinessesWithMetadata(List<FileBusinessDO> businessDOList) {
+        if (businessDOList.isEmpty()) {
+            return List.of();
+        }
 
-        if (metadataDO == null) {
-            log.warn("File metadata not found for business file: fileMetaId={}", businessDO.getFileMetaId());
-            return Optional.empty();
+        List<Long> metadataIds = businessDOList.stream()
+                                         .map(businessDO -> Long.parseLong(businessDO.getFileMetaId()))
+                                         .distinct()
+                                         .toList();
+        Map<Long, FileMetadataDO> metadataById = new HashMap<>();
+        for (List<Long> batch : Lists.partition(metadataIds, IN_BATCH_SIZE)) {
+            metadataMapper.selectList(
+                    Wrappers.<FileMetadataDO>lambdaQuery()
+                            .in(FileMetadataDO::getId, batch)
+            ).forEach(metadataDO -> metadataById.put(metadataDO.getId(), metadataDO));
         }
 
-        return Optional.of(toFileBusiness(businessDO, metadataDO));
+        List<FileBusiness> fileBusinesses = new ArrayList<>(businessDOList.size());
+        for (FileBusinessDO businessDO : businessDOList) {
+            FileMetadataDO metadataDO = metadataById.get(Long.parseLong(businessDO.getFileMetaId()));
+            if (metadataDO == null) {
+                log.warn("File metadata not found for business file: fileMetaId={}", businessDO.getFileMetaId());
+                continue;
+            }
+            fileBusinesses.add(toFileBusiness(businessDO, metadataDO));
+        }
+        return fileBusinesses;
     }
 
 }
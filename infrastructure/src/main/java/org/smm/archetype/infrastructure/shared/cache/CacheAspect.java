@@ -0,0 +1,363 @@
+package org.smm.archetype.infrastructure.shared.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.smm.archetype.domain.shared.cache.CacheEvict;
+import org.smm.archetype.domain.shared.cache.CacheKeyGenerator;
+import org.smm.archetype.domain.shared.cache.Cached;
+import org.smm.archetype.domain.shared.client.CacheClient;
+import org.smm.archetype.domain.shared.event.Type;
+import org.smm.archetype.domain.shared.util.CacheHolder;
+import org.smm.archetype.infrastructure.shared.client.cache.CacheExpirationPolicy;
+import org.smm.archetype.infrastructure.shared.client.cache.CacheStatsRecorder;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 缓存切面，处理 Application 层 *AppService 方法上的 {@link Cached}/{@link CacheEvict} 注解。
+ *
+ * <p>每个方法的注解在首次调用时解析为 {@link CacheOperation}（命名空间、键生成器、过期时间），
+ * 之后的调用只做一次 Map 查找，不涉及反射和表达式解析。
+ *
+ * <p>命名空间启用提前重算（{@link CacheExpirationPolicy}）时，命中后按 XFetch 概率提前回源：
+ * 回源耗时取该方法加载耗时的指数移动平均，同一键同时只有一个线程重算，其他线程继续返回旧值；
+ * 提前重算失败时返回仍在有效期内的旧值。
+ *
+ * <p>{@link Cached#evictOn()} 的失效规则在启动时通过 {@link #registerEvictionRules(Class)} 注册，
+ * 不能等到方法首次调用：快照恢复的条目和其他节点写入的条目在本节点调用前就已存在，同样需要按事件失效。
+ *
+ * <p>顺序在领域事件收集切面之前（@Order(1)），缓存命中时不进入事件收集和事务。
+ */
+@Slf4j
+@Aspect
+public class CacheAspect {
+
+    private final CacheClient cacheClient;
+
+    private final Duration defaultTtl;
+
+    private final Map<String, Duration> namespaceTtls;
+
+    private final Map<Method, CacheOperation> operations = new ConcurrentHashMap<>();
+
+    /**
+     * 已注册的失效规则（事件类型:命名空间），避免同一规则重复注册
+     */
+    private final Set<String> evictionRules = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 正在加载的缓存键（single-flight）
+     */
+    private final Map<String, CompletableFuture<Object>> inflight = new ConcurrentHashMap<>();
+
+    private final CacheInvalidationBus invalidationBus;
+
+    private final CacheStatsRecorder statsRecorder;
+
+    private final CacheExpirationPolicy expirationPolicy;
+
+    /**
+     * @param cacheClient     缓存服务
+     * @param defaultTtl      默认过期时间
+     * @param namespaceTtls   命名空间过期时间
+     * @param invalidationBus 缓存失效总线（注册 {@link Cached#evictOn()}）
+     * @param statsRecorder   缓存统计（记录回源加载耗时）
+     */
+    public CacheAspect(CacheClient cacheClient,
+                       Duration defaultTtl,
+                       Map<String, Duration> namespaceTtls,
+                       CacheInvalidationBus invalidationBus,
+                       CacheStatsRecorder statsRecorder) {
+        this(cacheClient, defaultTtl, namespaceTtls, invalidationBus, statsRecorder, CacheExpirationPolicy.NONE);
+    }
+
+    /**
+     * @param cacheClient      缓存服务
+     * @param defaultTtl       默认过期时间
+     * @param namespaceTtls    命名空间过期时间
+     * @param invalidationBus  缓存失效总线（注册 {@link Cached#evictOn()}）
+     * @param statsRecorder    缓存统计（记录回源加载耗时）
+     * @param expirationPolicy 过期策略（XFetch 提前重算）
+     */
+    public CacheAspect(CacheClient cacheClient,
+                       Duration defaultTtl,
+                       Map<String, Duration> namespaceTtls,
+                       CacheInvalidationBus invalidationBus,
+                       CacheStatsRecorder statsRecorder,
+                       CacheExpirationPolicy expirationPolicy) {
+        this.cacheClient = cacheClient;
+        this.defaultTtl = defaultTtl;
+        this.namespaceTtls = Map.copyOf(namespaceTtls);
+        this.invalidationBus = invalidationBus;
+        this.statsRecorder = statsRecorder;
+        this.expirationPolicy = expirationPolicy;
+    }
+
+    /**
+     * 注册类型上所有 {@link Cached} 方法的 {@link Cached#evictOn()} 失效规则，启动时对每个 Bean 类型调用
+     * @param type Bean 类型
+     */
+    public void registerEvictionRules(Class<?> type) {
+        for (Method method : type.getMethods()) {
+            Cached cached = method.getAnnotation(Cached.class);
+            if (cached != null) {
+                registerEvictionRules(cached);
+            }
+        }
+    }
+
+    @Pointcut("execution(* org.smm.archetype.app..*AppService.*(..))")
+    public void appLayer() {
+
+    }
+
+    /**
+     * 缓存查询
+     * @param joinPoint 连接点
+     * @return 方法执行结果
+     * @throws Throwable 方法执行异常
+     */
+    @Around("appLayer() && @annotation(org.smm.archetype.domain.shared.cache.Cached)")
+    public Object cached(ProceedingJoinPoint joinPoint) throws Throwable {
+        CacheOperation operation = operationOf(joinPoint);
+        String key = operation.key(joinPoint.getArgs());
+
+        Object cached = cacheClient.get(key);
+        if (cached != null) {
+            return shouldRecomputeEarly(operation, key) ? recomputeEarly(joinPoint, operation, key, cached) : cached;
+        }
+
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inflight.putIfAbsent(key, loading);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            // 双重检查：等待期间可能已被其他线程加载完成
+            Object value = cacheClient.get(key);
+            if (value == null) {
+                value = load(joinPoint, operation, key);
+                if (value != null) {
+                    cacheClient.put(key, value, operation.ttl());
+                }
+            }
+            loading.complete(value);
+            return value;
+        } catch (Throwable e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(key, loading);
+        }
+    }
+
+    /**
+     * 缓存清除
+     * @param joinPoint 连接点
+     * @return 方法执行结果
+     * @throws Throwable 方法执行异常
+     */
+    @Around("appLayer() && @annotation(org.smm.archetype.domain.shared.cache.CacheEvict)")
+    public Object evict(ProceedingJoinPoint joinPoint) throws Throwable {
+        CacheOperation operation = operationOf(joinPoint);
+        if (operation.beforeInvocation()) {
+            evict(operation, joinPoint.getArgs());
+            return joinPoint.proceed();
+        }
+        Object result = joinPoint.proceed();
+        evict(operation, joinPoint.getArgs());
+        return result;
+    }
+
+    private boolean shouldRecomputeEarly(CacheOperation operation, String key) {
+        if (!expirationPolicy.recomputesEarly(key)) {
+            return false;
+        }
+        long deltaNanos = operation.loadNanos().get();
+        if (deltaNanos <= 0) {
+            return false;
+        }
+        Long expireSeconds = cacheClient.getExpire(key);
+        return expireSeconds != null && expireSeconds >= 0
+                && expirationPolicy.shouldRecomputeEarly(key, expireSeconds * 1000, deltaNanos);
+    }
+
+    private Object recomputeEarly(ProceedingJoinPoint joinPoint, CacheOperation operation, String key, Object cached) {
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        if (inflight.putIfAbsent(key, loading) != null) {
+            // 其他线程正在加载，旧值仍在有效期内
+            return cached;
+        }
+        try {
+            Object value = load(joinPoint, operation, key);
+            if (value == null) {
+                loading.complete(cached);
+                return cached;
+            }
+            cacheClient.put(key, value, operation.ttl());
+            loading.complete(value);
+            return value;
+        } catch (Throwable e) {
+            log.warn("Early cache recompute failed, serving cached value: key={}", key, e);
+            loading.complete(cached);
+            return cached;
+        } finally {
+            inflight.remove(key, loading);
+        }
+    }
+
+    private Object load(ProceedingJoinPoint joinPoint, CacheOperation operation, String key) throws Throwable {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object value = joinPoint.proceed();
+            success = true;
+            return value;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            statsRecorder.recordLoad(key, nanos, success);
+            if (success) {
+                operation.recordLoad(nanos);
+            }
+        }
+    }
+
+    private void evict(CacheOperation operation, Object[] args) {
+        if (operation.allEntries()) {
+            cacheClient.deleteByPrefix(operation.namespace().prefix());
+        } else {
+            cacheClient.delete(operation.key(args));
+        }
+    }
+
+    private CacheOperation operationOf(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return operations.computeIfAbsent(method, this::compile);
+    }
+
+    private CacheOperation compile(Method method) {
+        Cached cached = method.getAnnotation(Cached.class);
+        if (cached != null) {
+            // 启动扫描不到的方法（如非 Spring 管理的调用方）在这里补注册，已注册的规则不会重复
+            CacheHolder.Type namespace = registerEvictionRules(cached);
+            return new CacheOperation(namespace, keyGenerator(cached.keyGenerator(), cached.keyArgs()),
+                    namespaceTtls.getOrDefault(namespace.name(), defaultTtl), false, false, new AtomicLong());
+        }
+        CacheEvict evict = method.getAnnotation(CacheEvict.class);
+        if (evict == null) {
+            throw new IllegalStateException("Method is not annotated with @Cached or @CacheEvict: " + method);
+        }
+        return new CacheOperation(CacheHolder.Type.register(evict.namespace()),
+                keyGenerator(evict.keyGenerator(), evict.keyArgs()),
+                null, evict.allEntries(), evict.beforeInvocation(), new AtomicLong());
+    }
+
+    private CacheHolder.Type registerEvictionRules(Cached cached) {
+        CacheHolder.Type namespace = CacheHolder.Type.register(cached.namespace());
+        for (Type eventType : cached.evictOn()) {
+            if (evictionRules.add(eventType.name() + ':' + namespace.name())) {
+                invalidationBus.register(eventType, namespace.name());
+            }
+        }
+        return namespace;
+    }
+
+    private static CacheKeyGenerator keyGenerator(Class<? extends CacheKeyGenerator> type, int[] keyArgs) {
+        if (type != CacheKeyGenerator.class) {
+            try {
+                return type.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to instantiate cache key generator: " + type.getName(), e);
+            }
+        }
+        return new ArgumentsKeyGenerator(keyArgs);
+    }
+
+    private static Object await(CompletableFuture<Object> future) throws Throwable {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+    /**
+     * 预编译的缓存操作
+     * @param namespace        命名空间
+     * @param keyGenerator     键生成器
+     * @param ttl              过期时间（仅 @Cached）
+     * @param allEntries       是否清空整个命名空间（仅 @CacheEvict）
+     * @param beforeInvocation 是否在方法执行前清除（仅 @CacheEvict）
+     * @param loadNanos        加载耗时的指数移动平均（纳秒，仅 @Cached）
+     */
+    private record CacheOperation(CacheHolder.Type namespace,
+                                  CacheKeyGenerator keyGenerator,
+                                  Duration ttl,
+                                  boolean allEntries,
+                                  boolean beforeInvocation,
+                                  AtomicLong loadNanos) {
+
+        String key(Object[] args) {
+            return namespace.buildKey(keyGenerator.generate(args));
+        }
+
+        void recordLoad(long nanos) {
+            loadNanos.accumulateAndGet(nanos, (average, sample) -> average == 0 ? sample : average + (sample - average) / 8);
+        }
+
+    }
+
+    /**
+     * 默认键生成器：按参数下标顺序拼接，参数之间以 ',' 分隔
+     */
+    private record ArgumentsKeyGenerator(int[] keyArgs) implements CacheKeyGenerator {
+
+        @Override
+        public String generate(Object[] args) {
+            if (keyArgs.length == 0) {
+                return join(args);
+            }
+            if (keyArgs.length == 1) {
+                return String.valueOf(args[keyArgs[0]]);
+            }
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < keyArgs.length; i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                builder.append(args[keyArgs[i]]);
+            }
+            return builder.toString();
+        }
+
+        private static String join(Object[] args) {
+            if (args.length == 0) {
+                return "_";
+            }
+            if (args.length == 1) {
+                return String.valueOf(args[0]);
+            }
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < args.length; i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                builder.append(args[i]);
+            }
+            return builder.toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,44 @@
+package org.smm.archetype.infrastructure.shared.cache;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 缓存失效广播（SPI）
+ *
+ * <p>本节点执行完一批失效后，通过广播通知其他节点执行同样的失效。实现需保证：
+ * <ul>
+ *   <li>{@link #broadcast(Set)} 不阻塞事务提交后的发布线程太久（可异步发送）</li>
+ *   <li>自己发出的消息不再回调给自己，或由 {@link CacheInvalidationBus} 去重后无副作用</li>
+ * </ul>
+ */
+public interface CacheInvalidationBroadcaster {
+
+    /**
+     * 单机部署：不广播
+     */
+    CacheInvalidationBroadcaster NONE = new CacheInvalidationBroadcaster() {
+
+        @Override
+        public void broadcast(Set<String> patterns) {
+        }
+
+        @Override
+        public void subscribe(Consumer<Set<String>> listener) {
+        }
+
+    };
+
+    /**
+     * 广播一批失效模式
+     * @param patterns 失效模式（格式见 {@link CacheInvalidationBus}）
+     */
+    void broadcast(Set<String> patterns);
+
+    /**
+     * 订阅其他节点的失效广播
+     * @param listener 失效处理
+     */
+    void subscribe(Consumer<Set<String>> listener);
+
+}
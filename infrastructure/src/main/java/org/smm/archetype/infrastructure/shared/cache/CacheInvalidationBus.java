@@ -0,0 +1,158 @@
+package org.smm.archetype.infrastructure.shared.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.smm.archetype.domain.shared.client.CacheClient;
+import org.smm.archetype.domain.shared.event.Event;
+import org.smm.archetype.domain.shared.event.Type;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 缓存失效总线：领域事件类型 -> 缓存失效模式。
+ *
+ * <p>失效模式格式：
+ * <ul>
+ *   <li>{@code NS} - 清空整个命名空间</li>
+ *   <li>{@code NS:prefix*} - 删除以 {@code NS:prefix} 开头的键</li>
+ *   <li>{@code NS:key} - 删除单个键</li>
+ * </ul>
+ *
+ * <p>由 {@code DomainEventCollectPublisher} 在事务提交后（afterCommit）以事务为单位调用 {@link #invalidate(Collection)}：
+ * 同一事务内的多个事件产生的模式先去重，再统一执行并广播一次。失效失败只记录日志，不影响事件发布。
+ *
+ * <p>其他需要跟随领域事件更新的缓存组件（如 {@link CachePenetrationGuard}）可通过 {@link #subscribe(Consumer)}
+ * 在失效前收到同一批事件。
+ *
+ * <p>默认只失效本节点（{@link CacheInvalidationBroadcaster#NONE}）。项目目前没有引入消息中间件客户端，
+ * 多节点部署需要自行提供 {@link CacheInvalidationBroadcaster} Bean，否则其他节点的本地缓存只能等待过期。
+ */
+@Slf4j
+public class CacheInvalidationBus {
+
+    private final CacheClient cacheClient;
+
+    private final CacheInvalidationBroadcaster broadcaster;
+
+    private final Map<Type, List<Function<Event<?>, Collection<String>>>> rules = new ConcurrentHashMap<>();
+
+    private final List<Consumer<Collection<Event<?>>>> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param cacheClient 缓存服务
+     * @param broadcaster 失效广播
+     * @param patterns    静态配置：事件类型 -> 失效模式
+     */
+    public CacheInvalidationBus(CacheClient cacheClient,
+                                CacheInvalidationBroadcaster broadcaster,
+                                Map<Type, List<String>> patterns) {
+        this.cacheClient = cacheClient;
+        this.broadcaster = broadcaster;
+        patterns.forEach((type, list) -> list.forEach(pattern -> register(type, pattern)));
+        broadcaster.subscribe(this::applyRemote);
+        log.info("缓存失效总线初始化成功: 规则={}, 广播={}", patterns, broadcaster.getClass().getSimpleName());
+    }
+
+    /**
+     * 注册静态失效模式
+     * @param type    事件类型
+     * @param pattern 失效模式
+     */
+    public void register(Type type, String pattern) {
+        validate(pattern);
+        List<String> patterns = List.of(pattern);
+        register(type, event -> patterns);
+    }
+
+    /**
+     * 注册按事件载荷计算的失效模式（如按聚合ID失效单个键）
+     * @param type     事件类型
+     * @param resolver 失效模式解析器
+     */
+    public void register(Type type, Function<Event<?>, Collection<String>> resolver) {
+        rules.computeIfAbsent(type, t -> new CopyOnWriteArrayList<>()).add(resolver);
+    }
+
+    /**
+     * 订阅事件批次（在失效之前回调）
+     * @param subscriber 订阅者
+     */
+    public void subscribe(Consumer<Collection<Event<?>>> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * 按一批事件执行失效并广播
+     * @param events 同一事务内发布的事件
+     */
+    public void invalidate(Collection<Event<?>> events) {
+        for (Consumer<Collection<Event<?>>> subscriber : subscribers) {
+            try {
+                subscriber.accept(events);
+            } catch (Exception e) {
+                log.error("缓存事件订阅者处理失败: subscriber={}", subscriber, e);
+            }
+        }
+
+        Set<String> patterns = new LinkedHashSet<>();
+        for (Event<?> event : events) {
+            List<Function<Event<?>, Collection<String>>> resolvers = rules.get(event.getType());
+            if (resolvers == null) {
+                continue;
+            }
+            for (Function<Event<?>, Collection<String>> resolver : resolvers) {
+                try {
+                    patterns.addAll(resolver.apply(event));
+                } catch (Exception e) {
+                    log.error("解析缓存失效模式失败: eventId={}, type={}", event.getEid(), event.getType(), e);
+                }
+            }
+        }
+        if (patterns.isEmpty()) {
+            return;
+        }
+
+        apply(patterns);
+        try {
+            broadcaster.broadcast(patterns);
+        } catch (Exception e) {
+            log.error("广播缓存失效失败: patterns={}", patterns, e);
+        }
+    }
+
+    private void applyRemote(Set<String> patterns) {
+        log.debug("收到缓存失效广播: patterns={}", patterns);
+        apply(patterns);
+    }
+
+    private void apply(Set<String> patterns) {
+        for (String pattern : patterns) {
+            try {
+                if (pattern.endsWith("*")) {
+                    cacheClient.deleteByPrefix(pattern.substring(0, pattern.length() - 1));
+                } else if (pattern.indexOf(':') < 0) {
+                    cacheClient.deleteByPrefix(pattern + ":");
+                } else {
+                    cacheClient.delete(pattern);
+                }
+            } catch (Exception e) {
+                log.error("缓存失效失败: pattern={}", pattern, e);
+            }
+        }
+        log.debug("缓存失效完成: patterns={}", patterns);
+    }
+
+    private static void validate(String pattern) {
+        if (pattern == null || pattern.isBlank() || pattern.equals("*") || pattern.startsWith(":")) {
+            throw new IllegalArgumentException("Invalid cache invalidation pattern: " + pattern);
+        }
+    }
+
+}
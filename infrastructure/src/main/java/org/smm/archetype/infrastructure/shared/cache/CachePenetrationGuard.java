@@ -0,0 +1,324 @@
+package org.smm.archetype.infrastructure.shared.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.smm.archetype.domain.shared.event.Event;
+import org.smm.archetype.domain.shared.event.Type;
+import org.smm.archetype.domain.shared.util.CacheHolder;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * 缓存穿透防护：按命名空间（CacheHolder.Type）维护存在键的布隆过滤器，在进程内拒绝一定不存在的键。
+ *
+ * <p>生命周期：
+ * <ul>
+ *   <li>{@link #register(CacheHolder.Type, KeySource)} 后在后台线程按键集分页（keyset）扫描数据库构建过滤器，
+ *   之后按固定间隔重建，清除已删除的键</li>
+ *   <li>首次构建完成前 {@link #mightContain} 始终返回 true（放行），构建失败时保留旧过滤器</li>
+ *   <li>新增的键通过写入路径 {@link #add} 或领域事件（{@link #onEvents}，由缓存失效总线转发）实时写入；
+ *   重建期间的写入同时写入新旧过滤器，切换后不会丢失</li>
+ * </ul>
+ *
+ * <p>布隆过滤器只会误判存在（按配置的误判率放行到数据库），不会误判不存在。
+ *
+ * <p>写入路径和领域事件只更新本节点的过滤器，其他节点新增的键要等到下次重建才会写入，过滤器本身只适用于单机部署。
+ * 多节点部署时注册键顺序（{@link #register(CacheHolder.Type, KeySource, Comparator)}），键单调递增（如自增ID）时
+ * 排在上次重建最大键之后的键一律放行到数据库，只拒绝重建时已经扫描过的范围内的键。
+ */
+@Slf4j
+public class CachePenetrationGuard implements AutoCloseable {
+
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+
+    private final Map<Type, List<EventMapping>> eventMappings = new ConcurrentHashMap<>();
+
+    private final long expectedInsertions;
+
+    private final double fpp;
+
+    private final int batchSize;
+
+    private final Duration rebuildInterval;
+
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param expectedInsertions 每个命名空间的预期键数量（超出后自动扩容）
+     * @param fpp                误判率
+     * @param batchSize          重建时每页扫描的键数量
+     * @param rebuildInterval    重建间隔，为null时只在注册时构建一次
+     */
+    public CachePenetrationGuard(long expectedInsertions, double fpp, int batchSize, Duration rebuildInterval) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.batchSize = batchSize;
+        this.rebuildInterval = rebuildInterval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("cache-penetration-guard").factory());
+        log.info("缓存穿透防护初始化成功: 预期键数量={}, 误判率={}, 分页大小={}, 重建间隔={}",
+                expectedInsertions, fpp, batchSize, rebuildInterval);
+    }
+
+    /**
+     * 为命名空间注册键来源，并在后台构建过滤器
+     * @param namespace 命名空间
+     * @param source    键来源（按键升序分页扫描）
+     */
+    public void register(CacheHolder.Type namespace, KeySource source) {
+        register(namespace, source, null);
+    }
+
+    /**
+     * 为命名空间注册键来源，并在后台构建过滤器。新增的键总是排在已有键之后时，
+     * 排在上次重建最大键之后的键不拒绝（可能是其他节点在重建后新增的）
+     * @param namespace 命名空间
+     * @param source    键来源（按键升序分页扫描）
+     * @param keyOrder  键顺序（与 source 的扫描顺序一致），为null时拒绝所有过滤器中不存在的键
+     */
+    public void register(CacheHolder.Type namespace, KeySource source, Comparator<String> keyOrder) {
+        Registration registration = new Registration(namespace, source, keyOrder);
+        if (registrations.putIfAbsent(namespace.name(), registration) != null) {
+            throw new IllegalStateException("Penetration guard already registered: " + namespace.name());
+        }
+        if (rebuildInterval != null && rebuildInterval.isPositive()) {
+            scheduler.scheduleWithFixedDelay(() -> rebuildQuietly(namespace), 0,
+                    rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            scheduler.execute(() -> rebuildQuietly(namespace));
+        }
+    }
+
+    /**
+     * 注册领域事件到新增键的映射
+     * @param eventType 事件类型
+     * @param namespace 命名空间
+     * @param keys      从事件中解析新增的键
+     */
+    public void register(Type eventType, CacheHolder.Type namespace, Function<Event<?>, Collection<String>> keys) {
+        eventMappings.computeIfAbsent(eventType, t -> new CopyOnWriteArrayList<>()).add(new EventMapping(namespace, keys));
+    }
+
+    /**
+     * 键是否可能存在，未注册或尚未构建完成时返回 true
+     * @param namespace 命名空间
+     * @param key       键（不含命名空间前缀）
+     * @return 是否可能存在
+     */
+    public boolean mightContain(CacheHolder.Type namespace, String key) {
+        Registration registration = registrations.get(namespace.name());
+        if (registration == null) {
+            return true;
+        }
+        ScalableBloomFilter filter = registration.filter;
+        if (filter == null || filter.mightContain(key) || registration.isAfterWatermark(key)) {
+            return true;
+        }
+        registration.rejections.increment();
+        log.debug("Rejected absent key by penetration guard: namespace={}, key={}", namespace.name(), key);
+        return false;
+    }
+
+    /**
+     * 写入新增的键
+     * @param namespace 命名空间
+     * @param key       键（不含命名空间前缀）
+     */
+    public void add(CacheHolder.Type namespace, String key) {
+        Registration registration = registrations.get(namespace.name());
+        if (registration != null) {
+            registration.add(key);
+        }
+    }
+
+    /**
+     * 处理一批领域事件，写入事件对应的新增键
+     * @param events 领域事件
+     */
+    public void onEvents(Collection<Event<?>> events) {
+        for (Event<?> event : events) {
+            List<EventMapping> mappings = eventMappings.get(event.getType());
+            if (mappings == null) {
+                continue;
+            }
+            for (EventMapping mapping : mappings) {
+                try {
+                    mapping.keys().apply(event).forEach(key -> add(mapping.namespace(), key));
+                } catch (Exception e) {
+                    log.error("解析穿透防护键失败: eventId={}, type={}", event.getEid(), event.getType(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 立即重建命名空间的过滤器（在调用线程执行）
+     * @param namespace 命名空间
+     */
+    public void rebuild(CacheHolder.Type namespace) {
+        Registration registration = registrations.get(namespace.name());
+        if (registration == null) {
+            throw new IllegalStateException("Penetration guard not registered: " + namespace.name());
+        }
+        registration.rebuild();
+    }
+
+    /**
+     * 各命名空间被拒绝的查询次数
+     * @return 命名空间 -> 拒绝次数
+     */
+    public Map<String, Long> rejections() {
+        Map<String, Long> result = new ConcurrentHashMap<>();
+        registrations.forEach((name, registration) -> result.put(name, registration.rejections.sum()));
+        return result;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void rebuildQuietly(CacheHolder.Type namespace) {
+        try {
+            rebuild(namespace);
+        } catch (Exception e) {
+            log.error("重建穿透防护过滤器失败，保留旧过滤器: namespace={}", namespace.name(), e);
+        }
+    }
+
+    /**
+     * 键来源：按键升序分页扫描（keyset 分页，避免 OFFSET 深分页）
+     */
+    @FunctionalInterface
+    public interface KeySource {
+
+        /**
+         * 扫描下一页键
+         * @param afterKey 上一页最后一个键，首页为null
+         * @param limit    每页数量
+         * @return 按升序排列的键，少于 limit 表示扫描结束
+         */
+        List<String> scan(String afterKey, int limit);
+
+    }
+
+    private record EventMapping(CacheHolder.Type namespace, Function<Event<?>, Collection<String>> keys) {
+
+    }
+
+    private final class Registration {
+
+        private final CacheHolder.Type namespace;
+
+        private final KeySource source;
+
+        private final Comparator<String> keyOrder;
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final LongAdder rejections = new LongAdder();
+
+        private volatile ScalableBloomFilter filter;
+
+        private ScalableBloomFilter building;
+
+        /**
+         * 上次重建扫描到的最大键，为null表示重建时没有键
+         */
+        private volatile String watermark;
+
+        private Registration(CacheHolder.Type namespace, KeySource source, Comparator<String> keyOrder) {
+            this.namespace = namespace;
+            this.source = source;
+            this.keyOrder = keyOrder;
+        }
+
+        private boolean isAfterWatermark(String key) {
+            if (keyOrder == null) {
+                return false;
+            }
+            String last = watermark;
+            return last == null || keyOrder.compare(key, last) > 0;
+        }
+
+        private void add(String key) {
+            // 读锁只用于和重建切换互斥，写入之间不互斥
+            lock.readLock().lock();
+            try {
+                if (filter != null) {
+                    filter.put(key);
+                }
+                if (building != null) {
+                    building.put(key);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void rebuild() {
+            long start = System.nanoTime();
+            ScalableBloomFilter previous = filter;
+            long capacity = Math.max(expectedInsertions,
+                    previous != null ? previous.approximateElementCount() * 2 : 0);
+            ScalableBloomFilter next = new ScalableBloomFilter(capacity, fpp);
+
+            lock.writeLock().lock();
+            try {
+                building = next;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            long count = 0;
+            String afterKey = null;
+            try {
+                List<String> page;
+                do {
+                    page = source.scan(afterKey, batchSize);
+                    page.forEach(next::put);
+                    count += page.size();
+                    if (!page.isEmpty()) {
+                        afterKey = page.getLast();
+                    }
+                } while (page.size() >= batchSize);
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    building = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                filter = next;
+                watermark = afterKey;
+                building = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("穿透防护过滤器重建完成: namespace={}, 键数量={}, 分段={}, 耗时={}ms",
+                    namespace.name(), count, next.stageCount(), (System.nanoTime() - start) / 1_000_000);
+        }
+
+    }
+
+}
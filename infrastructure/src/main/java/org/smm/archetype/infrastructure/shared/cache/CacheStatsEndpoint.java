@@ -0,0 +1,77 @@
+package org.smm.archetype.infrastructure.shared.cache;
+
+import org.smm.archetype.infrastructure.shared.client.cache.CacheStatsRecorder;
+import org.smm.archetype.infrastructure.shared.client.cache.HotKeyTracker;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 缓存检查端点（/actuator/cachestats），默认不通过 HTTP 暴露，需要时加入 management.endpoints.web.exposure.include
+ *
+ * <p>只返回计数器和估算值，不读取缓存内容：
+ * <ul>
+ *   <li>{@code GET /actuator/cachestats} - 各缓存实例估算条目数、各命名空间统计、最热的 {@value #DEFAULT_TOP} 个键</li>
+ *   <li>{@code GET /actuator/cachestats/{top}} - 最热的 top 个键</li>
+ * </ul>
+ */
+@Endpoint(id = "cachestats")
+public class CacheStatsEndpoint {
+
+    private static final int DEFAULT_TOP = 20;
+
+    private static final int MAX_TOP = 200;
+
+    private final CacheStatsRecorder statsRecorder;
+
+    private final Supplier<Map<String, Long>> estimatedSizes;
+
+    /**
+     * @param statsRecorder  缓存统计记录器
+     * @param estimatedSizes 各缓存实例的估算条目数
+     */
+    public CacheStatsEndpoint(CacheStatsRecorder statsRecorder, Supplier<Map<String, Long>> estimatedSizes) {
+        this.statsRecorder = statsRecorder;
+        this.estimatedSizes = estimatedSizes;
+    }
+
+    /**
+     * 缓存统计概览
+     * @return 统计概览
+     */
+    @ReadOperation
+    public CacheStatsReport report() {
+        return new CacheStatsReport(
+                estimatedSizes.get(),
+                statsRecorder.snapshot(),
+                statsRecorder.hotKeys().hottest(DEFAULT_TOP)
+        );
+    }
+
+    /**
+     * 热点键
+     * @param top 数量
+     * @return 热点键（按估计访问次数倒序）
+     */
+    @ReadOperation
+    public List<HotKeyTracker.HotKey> hotKeys(@Selector int top) {
+        return statsRecorder.hotKeys().hottest(Math.clamp(top, 1, MAX_TOP));
+    }
+
+    /**
+     * 缓存统计概览
+     * @param sizes      缓存实例 -> 估算条目数
+     * @param namespaces 命名空间 -> 统计快照
+     * @param hotKeys    热点键
+     */
+    public record CacheStatsReport(Map<String, Long> sizes,
+                                   Map<String, CacheStatsRecorder.Snapshot> namespaces,
+                                   List<HotKeyTracker.HotKey> hotKeys) {
+
+    }
+
+}
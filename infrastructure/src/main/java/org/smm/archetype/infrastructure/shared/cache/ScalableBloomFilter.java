@@ -0,0 +1,115 @@
+package org.smm.archetype.infrastructure.shared.cache;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 可扩容的布隆过滤器（Scalable Bloom Filter），基于 Guava {@link BloomFilter}。
+ *
+ * <p>当前分段写满预期容量后追加新分段：容量翻倍、误判率减半，总误判率不超过初始误判率的 2 倍，
+ * 不需要预先准确估计元素数量。Guava 布隆过滤器的写入是无锁线程安全的，查询和写入均不加锁，
+ * 只有追加分段时同步。
+ *
+ * <p>布隆过滤器不支持删除，已删除的键需要通过重建清除。
+ */
+public class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+
+    private static final double TIGHTENING_RATIO = 0.5D;
+
+    private final List<Stage> stages = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param initialCapacity 首个分段的预期元素数量
+     * @param fpp             首个分段的误判率
+     */
+    public ScalableBloomFilter(long initialCapacity, double fpp) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be positive");
+        }
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("False positive probability must be in (0, 1)");
+        }
+        stages.add(new Stage(initialCapacity, fpp));
+    }
+
+    /**
+     * 是否可能包含该键，返回 false 时一定不包含
+     * @param key 键
+     * @return 是否可能包含
+     */
+    public boolean mightContain(String key) {
+        for (Stage stage : stages) {
+            if (stage.filter.mightContain(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 写入键
+     * @param key 键
+     */
+    public void put(String key) {
+        if (mightContain(key)) {
+            return;
+        }
+        Stage current = stages.getLast();
+        if (current.filter.put(key) && current.count.incrementAndGet() >= current.capacity) {
+            grow(current);
+        }
+    }
+
+    /**
+     * 估算的元素数量
+     * @return 元素数量
+     */
+    public long approximateElementCount() {
+        long count = 0;
+        for (Stage stage : stages) {
+            count += stage.count.get();
+        }
+        return count;
+    }
+
+    /**
+     * 分段数量
+     * @return 分段数量
+     */
+    public int stageCount() {
+        return stages.size();
+    }
+
+    private synchronized void grow(Stage full) {
+        if (stages.getLast() != full) {
+            return;
+        }
+        stages.add(new Stage(full.capacity * GROWTH_FACTOR, full.fpp * TIGHTENING_RATIO));
+    }
+
+    private static final class Stage {
+
+        private final BloomFilter<CharSequence> filter;
+
+        private final long capacity;
+
+        private final double fpp;
+
+        private final AtomicLong count = new AtomicLong();
+
+        private Stage(long capacity, double fpp) {
+            this.filter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), capacity, fpp);
+            this.capacity = capacity;
+            this.fpp = fpp;
+        }
+
+    }
+
+}
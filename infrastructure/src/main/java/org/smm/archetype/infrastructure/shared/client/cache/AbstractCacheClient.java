@@ -5,6 +5,7 @@ import org.smm.archetype.domain.shared.client.CacheClient;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -25,8 +26,9 @@ import java.util.concurrent.TimeUnit;
  *   <li>{@link #doGetList(String, int, int)} - 获取列表缓存（范围）</li>
  *   <li>{@link #doPut(String, Object)} - 设置缓存</li>
  *   <li>{@link #doPut(String, Object, Duration)} - 设置缓存（带过期时间）</li>
- *   <li>{@link #doAppend(String, Object)} - 追加到列表</li>
+ *   <li>{@link #doAppend(String, Object, int)} - 追加到列表（可限制长度）</li>
  *   <li>{@link #doDelete(String)} - 删除缓存</li>
+ *   <li>{@link #doDeleteByPrefix(String)} - 按前缀删除缓存</li>
  *   <li>{@link #doHasKey(String)} - 检查键是否存在</li>
  *   <li>{@link #doExpire(String, long, TimeUnit)} - 设置过期时间</li>
  *   <li>{@link #doGetExpire(String)} - 获取过期时间</li>
@@ -35,6 +37,16 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public abstract class AbstractCacheClient implements CacheClient {
 
+    /**
+     * 统计记录器（命中/未命中/写入/淘汰），默认仅在内存中计数，由配置类替换为绑定了指标注册表的实例
+     */
+    private volatile CacheStatsRecorder statsRecorder = new CacheStatsRecorder(new HotKeyTracker(16, 20, 1024));
+
+    /**
+     * 过期策略（TTL 抖动），默认不抖动
+     */
+    private volatile CacheExpirationPolicy expirationPolicy = CacheExpirationPolicy.NONE;
+
     // ==================== CacheClient 接口实现（模板方法） ====================
 
     @Override
@@ -44,6 +56,7 @@ public abstract class AbstractCacheClient implements CacheClient {
 
         try {
             T value = doGet(key);
+            statsRecorder.recordGet(key, value != null);
             log.debug("Cache get result: key={}, found={}", key, value != null);
             return value;
         } catch (Exception e) {
@@ -84,11 +97,17 @@ public abstract class AbstractCacheClient implements CacheClient {
 
     @Override
     public final void put(String key, Object value) {
-        log.debug("Putting cache: key={}, value={}", key, value);
+        log.debug("Putting cache: key={}", key);
         validateKey(key);
 
         try {
-            doPut(key, value);
+            Duration defaultTtl = defaultExpireAfterWrite();
+            if (defaultTtl != null && expirationPolicy.jitters(key)) {
+                doPut(key, value, expirationPolicy.jitter(key, defaultTtl));
+            } else {
+                doPut(key, value);
+            }
+            statsRecorder.recordPut(key);
             log.debug("Cache put success: key={}", key);
         } catch (Exception e) {
             log.error("Failed to put cache: key={}", key, e);
@@ -98,14 +117,16 @@ public abstract class AbstractCacheClient implements CacheClient {
 
     @Override
     public final void put(String key, Object value, Duration duration) {
-        log.debug("Putting cache with TTL: key={}, value={}, duration={}", key, value, duration);
+        log.debug("Putting cache with TTL: key={}, duration={}", key, duration);
         validateKey(key);
         if (duration == null || duration.isNegative() || duration.isZero()) {
             throw new IllegalArgumentException("Duration must be positive");
         }
 
         try {
-            doPut(key, value, duration);
+            // 只有开启抖动的命名空间会缩短显式指定的过期时间
+            doPut(key, value, expirationPolicy.jitter(key, duration));
+            statsRecorder.recordPut(key);
             log.debug("Cache put with TTL success: key={}, duration={}", key, duration);
         } catch (Exception e) {
             log.error("Failed to put cache with TTL: key={}", key, e);
@@ -115,11 +136,11 @@ public abstract class AbstractCacheClient implements CacheClient {
 
     @Override
     public final void append(String key, Object value) {
-        log.debug("Appending to cache list: key={}, value={}", key, value);
+        log.debug("Appending to cache list: key={}", key);
         validateKey(key);
 
         try {
-            doAppend(key, value);
+            doAppend(key, value, 0);
             log.debug("Cache append success: key={}", key);
         } catch (Exception e) {
             log.error("Failed to append to cache list: key={}", key, e);
@@ -127,6 +148,23 @@ public abstract class AbstractCacheClient implements CacheClient {
         }
     }
 
+    @Override
+    public final void append(String key, Object value, int maxSize) {
+        log.debug("Appending to capped cache list: key={}, maxSize={}", key, maxSize);
+        validateKey(key);
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max size must be positive");
+        }
+
+        try {
+            doAppend(key, value, maxSize);
+            log.debug("Cache capped append success: key={}, maxSize={}", key, maxSize);
+        } catch (Exception e) {
+            log.error("Failed to append to capped cache list: key={}, maxSize={}", key, maxSize, e);
+            throw wrapException("Failed to append to capped cache list", e);
+        }
+    }
+
     @Override
     public final void delete(String key) {
         log.debug("Deleting cache: key={}", key);
@@ -141,6 +179,22 @@ public abstract class AbstractCacheClient implements CacheClient {
         }
     }
 
+    @Override
+    public final void deleteByPrefix(String prefix) {
+        log.debug("Deleting cache by prefix: prefix={}", prefix);
+        if (prefix == null) {
+            throw new IllegalArgumentException("Cache key prefix cannot be null");
+        }
+
+        try {
+            doDeleteByPrefix(prefix);
+            log.debug("Cache delete by prefix success: prefix={}", prefix);
+        } catch (Exception e) {
+            log.error("Failed to delete cache by prefix: prefix={}", prefix, e);
+            throw wrapException("Failed to delete cache by prefix", e);
+        }
+    }
+
     @Override
     public final Boolean hasKey(String key) {
         log.debug("Checking cache key existence: key={}", key);
@@ -192,6 +246,56 @@ public abstract class AbstractCacheClient implements CacheClient {
         }
     }
 
+    // ==================== 统计 ====================
+
+    /**
+     * 统计记录器
+     * @return 统计记录器
+     */
+    public CacheStatsRecorder getStatsRecorder() {
+        return statsRecorder;
+    }
+
+    /**
+     * 替换统计记录器
+     * @param statsRecorder 统计记录器
+     */
+    public void setStatsRecorder(CacheStatsRecorder statsRecorder) {
+        this.statsRecorder = statsRecorder;
+    }
+
+    /**
+     * 过期策略
+     * @return 过期策略
+     */
+    public CacheExpirationPolicy getExpirationPolicy() {
+        return expirationPolicy;
+    }
+
+    /**
+     * 替换过期策略（写入时按命名空间应用 TTL 抖动）
+     * @param expirationPolicy 过期策略
+     */
+    public void setExpirationPolicy(CacheExpirationPolicy expirationPolicy) {
+        this.expirationPolicy = expirationPolicy;
+    }
+
+    /**
+     * 默认写入后过期时间，返回非null时未指定 TTL 的写入也会应用抖动
+     * @return 默认过期时间，为null表示由实现自行处理
+     */
+    protected Duration defaultExpireAfterWrite() {
+        return null;
+    }
+
+    /**
+     * 各缓存实例的估算条目数（只读取计数，不遍历缓存内容）
+     * @return 缓存实例名称 -> 估算条目数
+     */
+    public Map<String, Long> estimatedSizes() {
+        return Map.of();
+    }
+
     // ==================== 扩展点（由子类实现） ====================
 
     /**
@@ -213,9 +317,9 @@ public abstract class AbstractCacheClient implements CacheClient {
     /**
      * 获取列表缓存（范围）（扩展点）
      * @param key      缓存键
-     * @param beginIdx 开始索引
-     * @param endIdx   结束索引
-     * @return 列表值，不存在返回空列表
+     * @param beginIdx 开始索引，负数表示从尾部倒数
+     * @param endIdx   结束索引（包含），负数表示从尾部倒数
+     * @return 列表值副本，不存在返回空列表
      * @throws Exception 获取失败
      */
     protected abstract <T> List<T> doGetList(String key, int beginIdx, int endIdx) throws Exception;
@@ -239,11 +343,12 @@ public abstract class AbstractCacheClient implements CacheClient {
 
     /**
      * 追加到列表（扩展点）
-     * @param key   缓存键
-     * @param value 追加值
+     * @param key     缓存键
+     * @param value   追加值
+     * @param maxSize 追加后保留的最大元素数（从尾部保留），小于等于0表示不限制
      * @throws Exception 追加失败
      */
-    protected abstract void doAppend(String key, Object value) throws Exception;
+    protected abstract void doAppend(String key, Object value, int maxSize) throws Exception;
 
     /**
      * 删除缓存（扩展点）
@@ -252,6 +357,13 @@ public abstract class AbstractCacheClient implements CacheClient {
      */
     protected abstract void doDelete(String key) throws Exception;
 
+    /**
+     * 按前缀删除缓存（扩展点）
+     * @param prefix 键前缀
+     * @throws Exception 删除失败
+     */
+    protected abstract void doDeleteByPrefix(String prefix) throws Exception;
+
     /**
      * 检查键是否存在（扩展点）
      * @param key 缓存键
@@ -292,6 +404,16 @@ public abstract class AbstractCacheClient implements CacheClient {
         }
     }
 
+    /**
+     * 解析缓存键所属的命名空间（CacheHolder 生成的键格式为 {@code 命名空间:业务键}）
+     * @param key 缓存键
+     * @return 命名空间，键不含命名空间前缀时返回null
+     */
+    protected static String namespaceOf(String key) {
+        int idx = key.indexOf(':');
+        return idx > 0 ? key.substring(0, idx) : null;
+    }
+
     /**
      * 包装异常为统一运行时异常
      * @param message 错误消息
@@ -0,0 +1,45 @@
+package org.smm.archetype.infrastructure.shared.client.cache;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 缓存值编解码器（SPI）
+ *
+ * <p>启用堆外层时，本地缓存的序列化模式和堆外缓存层共用同一个编解码器实例：分层缓存写入时只编码一次，
+ * 编码结果按大小直接写入其中一层，不需要转换格式。
+ * 实现必须线程安全，{@link #decode(byte[])} 每次返回新对象，调用方修改返回值不会影响缓存内容。
+ */
+public interface CacheCodec {
+
+    /**
+     * 编码器名称（用于日志和配置）
+     * @return 名称
+     */
+    String name();
+
+    /**
+     * 编码
+     * @param value 缓存值，不为null
+     * @return 编码后的字节
+     */
+    byte[] encode(Object value);
+
+    /**
+     * 解码
+     * @param bytes 编码后的字节
+     * @return 缓存值
+     */
+    Object decode(byte[] bytes);
+
+    /**
+     * 从 ByteBuffer 解码（读取 position 到 limit），默认复制到字节数组后解码，支持零拷贝的实现可覆盖
+     * @param buffer 编码后的数据
+     * @return 缓存值
+     */
+    default Object decode(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return decode(bytes);
+    }
+
+}
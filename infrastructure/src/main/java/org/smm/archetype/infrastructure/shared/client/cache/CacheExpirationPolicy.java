@@ -0,0 +1,118 @@
+package org.smm.archetype.infrastructure.shared.client.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 缓存过期策略：TTL 抖动 + XFetch 概率提前重算，按命名空间（CacheHolder.Type）配置。
+ *
+ * <p>批量写入的键使用相同 TTL 时会在同一时刻集中过期，引发周期性的回源尖峰。两种手段分散过期时间：
+ * <ul>
+ *   <li>TTL 抖动：写入时把 TTL 随机缩短 [0, jitter) 比例，只缩短不延长，不突破配置的新鲜度上限</li>
+ *   <li>XFetch 提前重算：命中时以概率 {@code delta * beta * -ln(rand) >= 剩余时间} 判定提前回源，
+ *   delta 为回源耗时，越接近过期、回源越慢，提前重算的概率越高；beta 越大越激进，1.0 为论文推荐值</li>
+ * </ul>
+ *
+ * <p>TTL 抖动只能按命名空间开启：抖动会改变调用方显式指定的过期时间（{@code put(key, value, duration)}），
+ * 只有命名空间明确接受时才缩短，默认规则只能配置提前重算。未配置的命名空间使用默认规则。
+ */
+public class CacheExpirationPolicy {
+
+    /**
+     * 不抖动、不提前重算
+     */
+    public static final CacheExpirationPolicy NONE = new CacheExpirationPolicy(Rule.NONE, Map.of());
+
+    private final Rule defaults;
+
+    private final Map<String, Rule> namespaces;
+
+    /**
+     * @param defaults   默认规则（不能抖动）
+     * @param namespaces 命名空间规则（命名空间名称 -> 规则）
+     */
+    public CacheExpirationPolicy(Rule defaults, Map<String, Rule> namespaces) {
+        if (defaults.jitter() > 0) {
+            throw new IllegalArgumentException("TTL jitter must be configured per namespace: " + defaults.jitter());
+        }
+        this.defaults = defaults;
+        this.namespaces = Map.copyOf(namespaces);
+    }
+
+    /**
+     * 对写入 TTL 应用抖动
+     * @param key 缓存键
+     * @param ttl 配置的过期时间
+     * @return 抖动后的过期时间（不大于 ttl，不小于 1 毫秒）
+     */
+    public Duration jitter(String key, Duration ttl) {
+        double jitter = ruleOf(key).jitter();
+        if (jitter <= 0) {
+            return ttl;
+        }
+        long millis = ttl.toMillis();
+        long reduced = (long) (millis * jitter * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis(Math.max(1L, millis - reduced));
+    }
+
+    /**
+     * 该键是否配置了 TTL 抖动
+     * @param key 缓存键
+     * @return 是否抖动
+     */
+    public boolean jitters(String key) {
+        return ruleOf(key).jitter() > 0;
+    }
+
+    /**
+     * 该键是否启用提前重算
+     * @param key 缓存键
+     * @return 是否启用
+     */
+    public boolean recomputesEarly(String key) {
+        return ruleOf(key).beta() > 0;
+    }
+
+    /**
+     * XFetch 判定：命中时是否应提前回源
+     * @param key             缓存键
+     * @param remainingMillis 剩余过期时间（毫秒），小于 0 表示永不过期
+     * @param deltaNanos      回源耗时估计（纳秒）
+     * @return 是否提前回源
+     */
+    public boolean shouldRecomputeEarly(String key, long remainingMillis, long deltaNanos) {
+        double beta = ruleOf(key).beta();
+        if (beta <= 0 || remainingMillis < 0 || deltaNanos <= 0) {
+            return false;
+        }
+        double gapMillis = deltaNanos / 1_000_000D * beta * -Math.log(1D - ThreadLocalRandom.current().nextDouble());
+        return gapMillis >= remainingMillis;
+    }
+
+    private Rule ruleOf(String key) {
+        String namespace = AbstractCacheClient.namespaceOf(key);
+        return namespace != null ? namespaces.getOrDefault(namespace, defaults) : defaults;
+    }
+
+    /**
+     * 过期规则
+     * @param jitter TTL 抖动比例 [0, 1)，0 表示不抖动
+     * @param beta   XFetch 系数，0 表示不提前重算
+     */
+    public record Rule(double jitter, double beta) {
+
+        public static final Rule NONE = new Rule(0D, 0D);
+
+        public Rule {
+            if (jitter < 0 || jitter >= 1) {
+                throw new IllegalArgumentException("TTL jitter must be in [0, 1): " + jitter);
+            }
+            if (beta < 0) {
+                throw new IllegalArgumentException("Early recompute beta must not be negative: " + beta);
+            }
+        }
+
+    }
+
+}
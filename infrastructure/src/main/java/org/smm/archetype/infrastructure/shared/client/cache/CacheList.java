@@ -0,0 +1,211 @@
+package org.smm.archetype.infrastructure.shared.client.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 本地缓存的列表值类型（线程安全），语义对齐 Redis List。
+ *
+ * <p>存储结构：
+ * <ul>
+ *   <li>按固定大小分块（chunk）存储，追加只写入尾块，满了再分配新块，O(1) 且不复制已有元素</li>
+ *   <li>头部裁剪（LTRIM）只移动头偏移量，整块失效后直接丢弃</li>
+ *   <li>范围读取复制出独立的新列表（O(k)），调用方持有的结果不受后续追加/裁剪影响</li>
+ * </ul>
+ *
+ * <p>范围索引语义与 Redis LRANGE 一致：结束索引包含在内，负数表示从尾部倒数（-1 为最后一个元素）。
+ */
+public final class CacheList {
+
+    /**
+     * 每块元素数
+     */
+    static final int CHUNK_SIZE = 64;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ArrayList<Object[]> chunks = new ArrayList<>();
+
+    /**
+     * 第一个元素在首块中的偏移量
+     */
+    private int headOffset;
+
+    private int size;
+
+    /**
+     * 按权重淘汰时缓存的元素大小采样结果，避免每次追加都重新采样
+     */
+    private volatile SizeSample sizeSample;
+
+    /**
+     * 由已有列表构建
+     * @param values 初始元素
+     * @return 列表
+     */
+    public static CacheList of(Collection<?> values) {
+        CacheList list = new CacheList();
+        for (Object value : values) {
+            list.appendUnlocked(value);
+        }
+        return list;
+    }
+
+    /**
+     * 追加到尾部（RPUSH）
+     * @param value 元素
+     * @return 追加后的元素数
+     */
+    public int append(Object value) {
+        return append(value, 0);
+    }
+
+    /**
+     * 追加到尾部，并只保留最后 maxSize 个元素（RPUSH + LTRIM -maxSize -1）
+     * @param value   元素
+     * @param maxSize 最大元素数，小于等于0表示不限制
+     * @return 追加后的元素数
+     */
+    public int append(Object value, int maxSize) {
+        lock.writeLock().lock();
+        try {
+            appendUnlocked(value);
+            if (maxSize > 0 && size > maxSize) {
+                trimHead(size - maxSize);
+            }
+            return size;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 读取范围内的元素（LRANGE），结束索引包含在内，负数从尾部倒数
+     * @param start 开始索引
+     * @param end   结束索引
+     * @return 元素副本
+     */
+    public <T> List<T> range(int start, int end) {
+        lock.readLock().lock();
+        try {
+            int from = Math.max(0, normalize(start, size));
+            int to = Math.min(normalize(end, size), size - 1);
+            if (from > to) {
+                return List.of();
+            }
+            List<T> result = new ArrayList<>(to - from + 1);
+            int position = headOffset + from;
+            int last = headOffset + to;
+            while (position <= last) {
+                Object[] chunk = chunks.get(position / CHUNK_SIZE);
+                int offset = position % CHUNK_SIZE;
+                int count = Math.min(CHUNK_SIZE - offset, last - position + 1);
+                for (int i = 0; i < count; i++) {
+                    result.add((T) chunk[offset + i]);
+                }
+                position += count;
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 读取全部元素
+     * @return 元素副本
+     */
+    public <T> List<T> toList() {
+        return range(0, -1);
+    }
+
+    /**
+     * 元素数（LLEN）
+     * @return 元素数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 上次采样的元素平均大小，元素数相对采样时翻倍或减半后失效
+     * @param currentSize 当前元素数
+     * @return 平均大小（字节），需要重新采样时为-1
+     */
+    long sampledElementSize(int currentSize) {
+        SizeSample sample = sizeSample;
+        if (sample == null || currentSize >= sample.sampledAt() * 2 || currentSize * 2 <= sample.sampledAt()) {
+            return -1L;
+        }
+        return sample.averageSize();
+    }
+
+    /**
+     * 记录元素大小采样结果
+     * @param averageSize 元素平均大小（字节）
+     * @param sampledAt   采样时的元素数
+     */
+    void recordSampledElementSize(long averageSize, int sampledAt) {
+        sizeSample = new SizeSample(averageSize, sampledAt);
+    }
+
+    /**
+     * 对普通列表应用 LRANGE 语义的范围读取
+     * @param list  列表
+     * @param start 开始索引
+     * @param end   结束索引（包含）
+     * @return 元素副本
+     */
+    public static <T> List<T> range(List<T> list, int start, int end) {
+        int size = list.size();
+        int from = Math.max(0, normalize(start, size));
+        int to = Math.min(normalize(end, size), size - 1);
+        if (from > to) {
+            return List.of();
+        }
+        return new ArrayList<>(list.subList(from, to + 1));
+    }
+
+    private void appendUnlocked(Object value) {
+        int position = headOffset + size;
+        if (position == chunks.size() * CHUNK_SIZE) {
+            chunks.add(new Object[CHUNK_SIZE]);
+        }
+        chunks.get(position / CHUNK_SIZE)[position % CHUNK_SIZE] = value;
+        size++;
+    }
+
+    private void trimHead(int count) {
+        // 释放被裁剪元素的引用，整块丢弃的部分无需逐个清理
+        int end = headOffset + count;
+        for (int position = Math.max(headOffset, end / CHUNK_SIZE * CHUNK_SIZE); position < end; position++) {
+            chunks.get(position / CHUNK_SIZE)[position % CHUNK_SIZE] = null;
+        }
+        headOffset += count;
+        size -= count;
+        int dropped = headOffset / CHUNK_SIZE;
+        if (dropped > 0) {
+            chunks.subList(0, dropped).clear();
+            headOffset %= CHUNK_SIZE;
+        }
+    }
+
+    /**
+     * 负数索引从尾部倒数，不做截断：超出头部的负数结束索引小于0，范围为空（与 Redis 一致），开始索引由调用方截断到0
+     */
+    private static int normalize(int index, int size) {
+        return index < 0 ? size + index : index;
+    }
+
+    private record SizeSample(long averageSize, int sampledAt) {
+
+    }
+
+}
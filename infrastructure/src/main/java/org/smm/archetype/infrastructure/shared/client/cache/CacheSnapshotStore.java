@@ -0,0 +1,208 @@
+package org.smm.archetype.infrastructure.shared.client.cache;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.google.common.util.concurrent.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.smm.archetype.infrastructure.shared.util.KryoSerializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本地缓存快照：关闭时把最热的条目写入本地文件，启动后在后台限速加载，减少发布后的回源风暴。
+ *
+ * <p>文件格式（Kryo 流式读写，不需要把整个快照放入内存）：
+ * <pre>
+ * int magic, int version
+ * 重复：byte 类型(VALUE/LIST), String key, long 过期时间戳(0 表示永不过期), int 长度, byte[] Kryo 序列化的值
+ * byte END
+ * </pre>
+ *
+ * <ul>
+ *   <li>写入先落临时文件再原子替换，进程在写入中途退出不会留下损坏的快照</li>
+ *   <li>单个值序列化或反序列化失败只跳过该条目</li>
+ *   <li>加载时保留剩余 TTL，已过期的条目和启动后已被业务写入的键跳过</li>
+ *   <li>加载按字节数限速（{@link RateLimiter}），加载完成后删除快照，避免异常重启时重复加载旧数据</li>
+ * </ul>
+ *
+ * <p>停机期间发生的失效无法感知，快照中的值最多陈旧到其剩余 TTL，对一致性要求高的命名空间应配置较短 TTL。
+ */
+@Slf4j
+public class CacheSnapshotStore {
+
+    private static final int MAGIC = 0x43534E50;
+
+    private static final int VERSION = 1;
+
+    private static final byte VALUE = 0;
+
+    private static final byte LIST = 1;
+
+    private static final byte END = 2;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+
+    private final int hottest;
+
+    private final long bytesPerSecond;
+
+    /**
+     * @param file           快照文件
+     * @param hottest        每个缓存实例保存的最热条目数量
+     * @param bytesPerSecond 预热加载速率上限（字节/秒）
+     */
+    public CacheSnapshotStore(Path file, int hottest, long bytesPerSecond) {
+        if (hottest <= 0 || bytesPerSecond <= 0) {
+            throw new IllegalArgumentException("Snapshot size and warm-up rate must be positive");
+        }
+        this.file = file;
+        this.hottest = hottest;
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    /**
+     * 保存快照
+     * @param cache 本地缓存
+     * @return 写入的条目数量
+     */
+    public int save(CaffeineCacheClientImpl cache) {
+        long start = System.nanoTime();
+        AtomicInteger count = new AtomicInteger();
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream stream = Files.newOutputStream(temp);
+                     Output output = new Output(stream, BUFFER_SIZE)) {
+                    output.writeInt(MAGIC);
+                    output.writeInt(VERSION);
+                    cache.forEachHottest(hottest, (key, stored, expireTime) -> {
+                        if (write(output, key, stored, expireTime)) {
+                            count.incrementAndGet();
+                        }
+                    });
+                    output.writeByte(END);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save cache snapshot: " + file, e);
+        }
+        log.info("本地缓存快照已保存: file={}, 条目数={}, 耗时={}ms",
+                file, count.get(), (System.nanoTime() - start) / 1_000_000);
+        return count.get();
+    }
+
+    /**
+     * 在后台虚拟线程中加载快照
+     * @param cache 本地缓存
+     * @return 加载的条目数量
+     */
+    public CompletableFuture<Integer> warmUpAsync(CaffeineCacheClientImpl cache) {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        Thread.ofVirtual().name("cache-warm-up").start(() -> {
+            try {
+                future.complete(warmUp(cache));
+            } catch (Exception e) {
+                log.warn("本地缓存预热失败: file={}", file, e);
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 加载快照（在调用线程执行，按字节数限速）
+     * @param cache 本地缓存
+     * @return 加载的条目数量
+     */
+    public int warmUp(CaffeineCacheClientImpl cache) {
+        if (!Files.isRegularFile(file)) {
+            log.debug("本地缓存快照不存在，跳过预热: file={}", file);
+            return 0;
+        }
+        long start = System.nanoTime();
+        RateLimiter rateLimiter = RateLimiter.create(bytesPerSecond);
+        int loaded = 0;
+        int skipped = 0;
+        try (InputStream stream = Files.newInputStream(file);
+             Input input = new Input(stream, BUFFER_SIZE)) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                log.warn("本地缓存快照格式不兼容，跳过预热: file={}", file);
+                return 0;
+            }
+            byte type;
+            while ((type = input.readByte()) != END) {
+                String key = input.readString();
+                long expireTime = input.readLong();
+                int length = input.readInt();
+                rateLimiter.acquire(Math.max(1, length));
+                byte[] bytes = input.readBytes(length);
+                if (expireTime != 0 && expireTime <= System.currentTimeMillis()) {
+                    skipped++;
+                    continue;
+                }
+                Object value;
+                try {
+                    value = KryoSerializer.deserialize(ByteBuffer.wrap(bytes));
+                } catch (Exception e) {
+                    // 类结构在两次发布之间发生变化等情况，只跳过该条目
+                    log.debug("Skipping undeserializable cache entry in snapshot: key={}", key, e);
+                    skipped++;
+                    continue;
+                }
+                Object stored = type == LIST ? CacheList.of((List<?>) value) : value;
+                if (cache.restore(key, stored, expireTime)) {
+                    loaded++;
+                } else {
+                    skipped++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load cache snapshot: " + file, e);
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("删除本地缓存快照失败: file={}", file, e);
+            }
+        }
+        log.info("本地缓存预热完成: file={}, 加载={}, 跳过={}, 耗时={}ms",
+                file, loaded, skipped, (System.nanoTime() - start) / 1_000_000);
+        return loaded;
+    }
+
+    private static boolean write(Output output, String key, Object stored, long expireTime) {
+        byte type = stored instanceof CacheList ? LIST : VALUE;
+        byte[] bytes;
+        try {
+            bytes = KryoSerializer.serialize(stored instanceof CacheList list ? new ArrayList<>(list.toList()) : stored);
+        } catch (Exception e) {
+            log.debug("Skipping unserializable cache entry in snapshot: key={}", key, e);
+            return false;
+        }
+        output.writeByte(type);
+        output.writeString(key);
+        output.writeLong(expireTime);
+        output.writeInt(bytes.length);
+        output.writeBytes(bytes);
+        return true;
+    }
+
+}
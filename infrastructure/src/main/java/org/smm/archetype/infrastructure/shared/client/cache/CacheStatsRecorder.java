@@ -0,0 +1,221 @@
+package org.smm.archetype.infrastructure.shared.client.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 缓存统计记录器，按命名空间（CacheHolder.Type）统计命中、未命中、写入、淘汰和加载耗时。
+ *
+ * <p>计数使用 {@link LongAdder}，热路径上没有锁和字符串拼接。绑定到 {@link MeterRegistry} 后，
+ * 每个命名空间注册一组 FunctionCounter（读取计数器当前值）和一个加载耗时 Timer：
+ * <ul>
+ *   <li>cache.gets{namespace, result=hit|miss}</li>
+ *   <li>cache.puts{namespace}</li>
+ *   <li>cache.evictions{namespace}</li>
+ *   <li>cache.load{namespace, result=success|failure}</li>
+ * </ul>
+ * 名称按 Micrometer 约定使用点分，由各监控系统的命名约定转换（如 Prometheus 导出为 cache_gets_total）。
+ * 不含命名空间前缀的键统计在 {@value #DEFAULT_NAMESPACE} 下。
+ */
+public class CacheStatsRecorder implements MeterBinder {
+
+    /**
+     * 无命名空间前缀的键所属的统计分组
+     */
+    public static final String DEFAULT_NAMESPACE = "default";
+
+    private final Map<String, NamespaceStats> namespaces = new ConcurrentHashMap<>();
+
+    private final HotKeyTracker hotKeyTracker;
+
+    private volatile MeterRegistry registry;
+
+    /**
+     * @param hotKeyTracker 热点键追踪器
+     */
+    public CacheStatsRecorder(HotKeyTracker hotKeyTracker) {
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        namespaces.forEach((namespace, stats) -> stats.register(namespace, registry));
+    }
+
+    /**
+     * 记录读取结果
+     * @param key 缓存键
+     * @param hit 是否命中
+     */
+    public void recordGet(String key, boolean hit) {
+        NamespaceStats stats = statsOf(key);
+        if (hit) {
+            stats.hits.increment();
+            hotKeyTracker.record(key);
+        } else {
+            stats.misses.increment();
+        }
+    }
+
+    /**
+     * 记录写入
+     * @param key 缓存键
+     */
+    public void recordPut(String key) {
+        statsOf(key).puts.increment();
+    }
+
+    /**
+     * 记录容量淘汰（不含过期和主动删除）
+     * @param key 缓存键
+     */
+    public void recordEviction(String key) {
+        statsOf(key).evictions.increment();
+    }
+
+    /**
+     * 记录一次回源加载
+     * @param key     缓存键
+     * @param nanos   加载耗时（纳秒）
+     * @param success 是否成功
+     */
+    public void recordLoad(String key, long nanos, boolean success) {
+        NamespaceStats stats = statsOf(key);
+        (success ? stats.loadSuccess : stats.loadFailure).increment();
+        stats.loadNanos.add(nanos);
+        Timer timer = success ? stats.loadSuccessTimer : stats.loadFailureTimer;
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 热点键追踪器
+     * @return 热点键追踪器
+     */
+    public HotKeyTracker hotKeys() {
+        return hotKeyTracker;
+    }
+
+    /**
+     * 各命名空间统计快照
+     * @return 命名空间 -> 统计快照
+     */
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> result = new LinkedHashMap<>();
+        namespaces.forEach((namespace, stats) -> result.put(namespace, stats.snapshot()));
+        return result;
+    }
+
+    private NamespaceStats statsOf(String key) {
+        String namespace = AbstractCacheClient.namespaceOf(key);
+        return namespaces.computeIfAbsent(namespace != null ? namespace : DEFAULT_NAMESPACE, this::create);
+    }
+
+    private NamespaceStats create(String namespace) {
+        NamespaceStats stats = new NamespaceStats();
+        MeterRegistry current = registry;
+        if (current != null) {
+            stats.register(namespace, current);
+        }
+        return stats;
+    }
+
+    /**
+     * 统计快照
+     * @param hits         命中次数
+     * @param misses       未命中次数
+     * @param hitRate      命中率
+     * @param puts         写入次数
+     * @param evictions    淘汰次数
+     * @param loads        加载次数
+     * @param loadFailures 加载失败次数
+     * @param avgLoadMillis 平均加载耗时（毫秒）
+     */
+    public record Snapshot(long hits,
+                           long misses,
+                           double hitRate,
+                           long puts,
+                           long evictions,
+                           long loads,
+                           long loadFailures,
+                           double avgLoadMillis) {
+
+    }
+
+    private static final class NamespaceStats {
+
+        private final LongAdder hits = new LongAdder();
+
+        private final LongAdder misses = new LongAdder();
+
+        private final LongAdder puts = new LongAdder();
+
+        private final LongAdder evictions = new LongAdder();
+
+        private final LongAdder loadSuccess = new LongAdder();
+
+        private final LongAdder loadFailure = new LongAdder();
+
+        private final LongAdder loadNanos = new LongAdder();
+
+        private volatile Timer loadSuccessTimer;
+
+        private volatile Timer loadFailureTimer;
+
+        private void register(String namespace, MeterRegistry registry) {
+            FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                           .description("Cache lookups by namespace")
+                           .tags("namespace", namespace, "result", "hit")
+                           .register(registry);
+            FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                           .description("Cache lookups by namespace")
+                           .tags("namespace", namespace, "result", "miss")
+                           .register(registry);
+            FunctionCounter.builder("cache.puts", puts, LongAdder::sum)
+                           .description("Cache writes by namespace")
+                           .tags("namespace", namespace)
+                           .register(registry);
+            FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                           .description("Cache size-based evictions by namespace")
+                           .tags("namespace", namespace)
+                           .register(registry);
+            this.loadSuccessTimer = Timer.builder("cache.load")
+                                         .description("Cache miss load time by namespace")
+                                         .tags("namespace", namespace, "result", "success")
+                                         .register(registry);
+            this.loadFailureTimer = Timer.builder("cache.load")
+                                         .description("Cache miss load time by namespace")
+                                         .tags("namespace", namespace, "result", "failure")
+                                         .register(registry);
+        }
+
+        private Snapshot snapshot() {
+            long hitCount = hits.sum();
+            long missCount = misses.sum();
+            long requests = hitCount + missCount;
+            long loads = loadSuccess.sum() + loadFailure.sum();
+            return new Snapshot(
+                    hitCount,
+                    missCount,
+                    requests == 0 ? 0D : (double) hitCount / requests,
+                    puts.sum(),
+                    evictions.sum(),
+                    loads,
+                    loadFailure.sum(),
+                    loads == 0 ? 0D : loadNanos.sum() / 1_000_000D / loads
+            );
+        }
+
+    }
+
+}
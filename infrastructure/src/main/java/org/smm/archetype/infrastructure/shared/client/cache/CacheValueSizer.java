@@ -0,0 +1,16 @@
+package org.smm.archetype.infrastructure.shared.client.cache;
+
+/**
+ * 缓存值大小估算器，为基于权重（字节）的淘汰提供每个缓存值的估算大小。
+ */
+@FunctionalInterface
+public interface CacheValueSizer {
+
+    /**
+     * 估算缓存值占用的字节数
+     * @param value 缓存值（可能为null）
+     * @return 估算字节数（非负）
+     */
+    long sizeOf(Object value);
+
+}
@@ -3,23 +3,69 @@ package org.smm.archetype.infrastructure.shared.client.cache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import com.github.benmanes.caffeine.cache.Weigher;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Caffeine本地缓存实现，支持自定义过期和访问追踪。
+ *
+ * <p>容量控制：
+ * <ul>
+ *   <li>未配置最大权重时按条目数（maximumSize）淘汰</li>
+ *   <li>配置最大权重时按 {@link CacheValueSizer} 估算的字节数淘汰</li>
+ *   <li>配置了独立权重预算的命名空间使用独立的缓存实例，淘汰互不影响</li>
+ * </ul>
+ *
+ * <p>存储模式：
+ * <ul>
+ *   <li>引用模式（默认，codec 为null）：直接保存对象引用，读取零开销，但调用方修改返回对象会污染缓存</li>
+ *   <li>序列化模式：保存 {@link CacheCodec} 编码后的不可变字节，每次读取解码出新对象；列表按元素分别编码</li>
+ * </ul>
+ *
+ * <p>启用快照（{@link #enableSnapshot(CacheSnapshotStore)}）后，关闭时保存最热的条目，下次启动在后台限速加载。
  */
 @Slf4j
-public class CaffeineCacheClientImpl extends AbstractCacheClient {
+public class CaffeineCacheClientImpl extends AbstractCacheClient implements AutoCloseable {
 
+    /**
+     * 单个缓存条目的固定开销估算（字节）：Caffeine 节点 + 包装器 + 引用
+     */
+    private static final long ENTRY_OVERHEAD_BYTES = 96L;
+
+    /**
+     * 默认缓存实例（未配置独立预算的命名空间共享）
+     */
     private final Cache<String, CacheValueWrapper> cache;
 
+    /**
+     * 命名空间独立缓存实例
+     */
+    private final Map<String, Cache<String, CacheValueWrapper>> namespaceCaches;
+
     private final Duration defaultExpireAfterWrite;
 
+    /**
+     * 值编解码器，为null时使用引用模式
+     */
+    private final CacheCodec codec;
+
+    /**
+     * 快照存储（可选），关闭时保存最热条目
+     */
+    private volatile CacheSnapshotStore snapshotStore;
+
     /**
      * 初始化Caffeine缓存实例。
      * @param initialCapacity 初始容量
@@ -27,24 +73,209 @@ public class CaffeineCacheClientImpl extends AbstractCacheClient {
      * @param expireAfterWrite 写入后过期时间
      */
     public CaffeineCacheClientImpl(Integer initialCapacity, Long maximumSize, Duration expireAfterWrite) {
+        this(initialCapacity, maximumSize, null, Map.of(), null, expireAfterWrite);
+    }
+
+    /**
+     * 初始化Caffeine缓存实例（支持按权重淘汰）。
+     * @param initialCapacity  初始容量
+     * @param maximumSize      最大容量（条目数），maximumWeight 为null时生效
+     * @param maximumWeight    最大权重（字节），为null时按条目数淘汰
+     * @param namespaceWeights 命名空间独立权重预算（字节）
+     * @param sizer            值大小估算器，配置任意权重时必填
+     * @param expireAfterWrite 写入后过期时间
+     */
+    public CaffeineCacheClientImpl(Integer initialCapacity,
+                                   Long maximumSize,
+                                   Long maximumWeight,
+                                   Map<String, Long> namespaceWeights,
+                                   CacheValueSizer sizer,
+                                   Duration expireAfterWrite) {
+        this(initialCapacity, maximumSize, maximumWeight, namespaceWeights, sizer, null, expireAfterWrite);
+    }
+
+    /**
+     * 初始化Caffeine缓存实例（支持按权重淘汰和序列化模式）。
+     * @param initialCapacity  初始容量
+     * @param maximumSize      最大容量（条目数），maximumWeight 为null时生效
+     * @param maximumWeight    最大权重（字节），为null时按条目数淘汰
+     * @param namespaceWeights 命名空间独立权重预算（字节）
+     * @param sizer            值大小估算器，配置任意权重时必填
+     * @param codec            值编解码器，为null时使用引用模式
+     * @param expireAfterWrite 写入后过期时间
+     */
+    public CaffeineCacheClientImpl(Integer initialCapacity,
+                                   Long maximumSize,
+                                   Long maximumWeight,
+                                   Map<String, Long> namespaceWeights,
+                                   CacheValueSizer sizer,
+                                   CacheCodec codec,
+                                   Duration expireAfterWrite) {
+        if ((maximumWeight != null || !namespaceWeights.isEmpty()) && sizer == null) {
+            throw new IllegalArgumentException("CacheValueSizer is required when maximum weight is configured");
+        }
         this.defaultExpireAfterWrite = expireAfterWrite;
-        CaffeineExpiry expiry = new CaffeineExpiry();
+        this.codec = codec;
+
+        Caffeine<String, CacheValueWrapper> builder = Caffeine.newBuilder()
+                                                              .initialCapacity(initialCapacity)
+                                                              .evictionListener(evictionListener());
+        if (maximumWeight != null) {
+            this.cache = builder.maximumWeight(maximumWeight)
+                                .weigher(weigher(sizer))
+                                .expireAfter(new CaffeineExpiry())
+                                .build();
+        } else {
+            this.cache = builder.maximumSize(maximumSize)
+                                .expireAfter(new CaffeineExpiry())
+                                .build();
+        }
 
-        this.cache = Caffeine.newBuilder()
-                             .initialCapacity(initialCapacity)
-                             .maximumSize(maximumSize)
-                             .expireAfter(expiry)
-                             .build();
+        Map<String, Cache<String, CacheValueWrapper>> caches = new HashMap<>();
+        namespaceWeights.forEach((namespace, weight) -> caches.put(namespace, Caffeine.newBuilder()
+                                                                                      .initialCapacity(initialCapacity)
+                                                                                      .evictionListener(evictionListener())
+                                                                                      .maximumWeight(weight)
+                                                                                      .weigher(weigher(sizer))
+                                                                                      .expireAfter(new CaffeineExpiry())
+                                                                                      .build()));
+        this.namespaceCaches = Map.copyOf(caches);
+
+        log.info("Caffeine缓存初始化成功（自定义过期时间）: 初始容量={}, 最大大小={}, 最大权重={}, 命名空间预算={}, 存储模式={}, 默认写入过期时间={}",
+                initialCapacity, maximumSize, maximumWeight, namespaceWeights,
+                codec != null ? codec.name() : "reference", expireAfterWrite);
+    }
 
-        log.info("Caffeine缓存初始化成功（自定义过期时间）: 初始容量={}, 最大大小={}, 默认写入过期时间={}",
-                initialCapacity, maximumSize, expireAfterWrite);
+    /**
+     * 构建按估算字节数计算权重的 Weigher
+     * @param sizer 值大小估算器
+     * @return Weigher
+     */
+    private static Weigher<String, CacheValueWrapper> weigher(CacheValueSizer sizer) {
+        return (key, wrapper) -> (int) Math.min(Integer.MAX_VALUE,
+                ENTRY_OVERHEAD_BYTES + key.length() * 2L + sizer.sizeOf(wrapper.value()));
+    }
+
+    /**
+     * 容量淘汰监听（过期和主动删除不计入淘汰）
+     * @return 淘汰监听器
+     */
+    private RemovalListener<String, CacheValueWrapper> evictionListener() {
+        return (key, wrapper, cause) -> {
+            if (cause == RemovalCause.SIZE && key != null) {
+                getStatsRecorder().recordEviction(key);
+            }
+        };
+    }
+
+    /**
+     * 启用快照：立即在后台限速加载上次保存的快照，关闭时保存最热条目
+     * @param snapshotStore 快照存储
+     * @return 预热结果（加载的条目数量）
+     */
+    public CompletableFuture<Integer> enableSnapshot(CacheSnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+        return snapshotStore.warmUpAsync(this);
+    }
+
+    @Override
+    public void close() {
+        CacheSnapshotStore store = snapshotStore;
+        if (store == null) {
+            return;
+        }
+        try {
+            store.save(this);
+        } catch (Exception e) {
+            log.warn("保存本地缓存快照失败", e);
+        }
+    }
+
+    /**
+     * 遍历各缓存实例中最热的未过期条目（按 Caffeine 频率估计排序）
+     * @param limit   每个缓存实例的条目数量上限
+     * @param visitor 条目访问器，值为存储形式（序列化模式下为编码后的字节）
+     */
+    void forEachHottest(int limit, EntryVisitor visitor) {
+        List<Cache<String, CacheValueWrapper>> caches = new ArrayList<>(namespaceCaches.values());
+        caches.addFirst(cache);
+        for (Cache<String, CacheValueWrapper> c : caches) {
+            c.policy().eviction().ifPresent(eviction -> eviction.hottest(limit).forEach((key, wrapper) -> {
+                if (!wrapper.isExpired()) {
+                    visitor.visit(key, wrapper.value(), wrapper.getExpireTime());
+                }
+            }));
+        }
+    }
+
+    /**
+     * 恢复快照条目，键已存在（启动后已被写入）或已过期时跳过
+     * @param key        缓存键
+     * @param stored     存储形式的值
+     * @param expireTime 过期时间戳（毫秒），0 表示永不过期
+     * @return 是否写入
+     */
+    boolean restore(String key, Object stored, long expireTime) {
+        CacheValueWrapper wrapper = CacheValueWrapper.restored(stored, expireTime);
+        if (wrapper.isExpired()) {
+            return false;
+        }
+        return cacheOf(key).asMap().putIfAbsent(key, wrapper) == null;
+    }
+
+    @Override
+    protected Duration defaultExpireAfterWrite() {
+        return defaultExpireAfterWrite;
+    }
+
+    @Override
+    public Map<String, Long> estimatedSizes() {
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        sizes.put(CacheStatsRecorder.DEFAULT_NAMESPACE, cache.estimatedSize());
+        namespaceCaches.forEach((namespace, c) -> sizes.put(namespace, c.estimatedSize()));
+        return sizes;
+    }
+
+    /**
+     * 是否以给定编解码器的编码结果保存值（序列化模式且使用同一个编解码器实例）
+     * @param other 编解码器
+     * @return true-可以直接写入 other 编码后的字节
+     */
+    boolean storesEncodedBy(CacheCodec other) {
+        return codec != null && codec == other;
+    }
+
+    /**
+     * 写入已编码的值，分层缓存复用堆外层的编码结果，不再重复编码
+     * @param key      缓存键
+     * @param bytes    本实例编解码器编码后的字节
+     * @param duration 过期时长
+     */
+    void putEncoded(String key, byte[] bytes, Duration duration) {
+        cacheOf(key).put(key, CacheValueWrapper.of(bytes, duration));
+    }
+
+    /**
+     * 根据缓存键路由到所属命名空间的缓存实例
+     * @param key 缓存键
+     * @return 缓存实例
+     */
+    private Cache<String, CacheValueWrapper> cacheOf(String key) {
+        if (namespaceCaches.isEmpty()) {
+            return cache;
+        }
+        String namespace = namespaceOf(key);
+        if (namespace == null) {
+            return cache;
+        }
+        return namespaceCaches.getOrDefault(namespace, cache);
     }
 
     // ==================== 扩展点实现（protected do* 方法） ====================
 
     @Override
     protected <T> T doGet(String key) throws Exception {
-        CacheValueWrapper wrapper = cache.getIfPresent(key);
+        CacheValueWrapper wrapper = cacheOf(key).getIfPresent(key);
         if (wrapper == null) {
             return null;
         }
@@ -52,13 +283,16 @@ public class CaffeineCacheClientImpl extends AbstractCacheClient {
         // 更新访问时间
         wrapper.updateAccessTime();
 
-        // 返回原始值
-        return (T) wrapper.value();
+        Object value = wrapper.value();
+        if (value instanceof CacheList list) {
+            return (T) decodeAll(list.toList());
+        }
+        return (T) decode(value);
     }
 
     @Override
     protected <T> List<T> doGetList(String key) throws Exception {
-        CacheValueWrapper wrapper = cache.getIfPresent(key);
+        CacheValueWrapper wrapper = cacheOf(key).getIfPresent(key);
         if (wrapper == null) {
             return List.of();
         }
@@ -66,7 +300,10 @@ public class CaffeineCacheClientImpl extends AbstractCacheClient {
         wrapper.updateAccessTime();
 
         Object value = wrapper.value();
-        if (value instanceof List<?> list) {
+        if (value instanceof CacheList list) {
+            return decodeAll(list.toList());
+        }
+        if (decode(value) instanceof List<?> list) {
             return (List<T>) list;
         }
         return List.of();
@@ -74,7 +311,7 @@ public class CaffeineCacheClientImpl extends AbstractCacheClient {
 
     @Override
     protected <T> List<T> doGetList(String key, int beginIdx, int endIdx) throws Exception {
-        CacheValueWrapper wrapper = cache.getIfPresent(key);
+        CacheValueWrapper wrapper = cacheOf(key).getIfPresent(key);
         if (wrapper == null) {
             return List.of();
         }
@@ -82,14 +319,11 @@ public class CaffeineCacheClientImpl extends AbstractCacheClient {
         wrapper.updateAccessTime();
 
         Object value = wrapper.value();
-        if (value instanceof List<?> list) {
-            int size = list.size();
-            int fromIndex = Math.max(0, beginIdx);
-            int toIndex = Math.min(size, endIdx);
-            if (fromIndex >= toIndex) {
-                return List.of();
-            }
-            return (List<T>) list.subList(fromIndex, toIndex);
+        if (value instanceof CacheList list) {
+            return decodeAll(list.range(beginIdx, endIdx));
+        }
+        if (decode(value) instanceof List<?> list) {
+            return CacheList.range((List<T>) list, beginIdx, endIdx);
         }
         return List.of();
     }
@@ -97,39 +331,70 @@ public class CaffeineCacheClientImpl extends AbstractCacheClient {
     @Override
     protected void doPut(String key, Object value) throws Exception {
         // 使用默认过期时间（从配置读取）
-        CacheValueWrapper wrapper = CacheValueWrapper.of(value, defaultExpireAfterWrite);
-        cache.put(key, wrapper);
+        CacheValueWrapper wrapper = CacheValueWrapper.of(encode(value), defaultExpireAfterWrite);
+        cacheOf(key).put(key, wrapper);
     }
 
     @Override
     protected void doPut(String key, Object value, Duration duration) throws Exception {
         // 使用指定的过期时间
-        CacheValueWrapper wrapper = CacheValueWrapper.of(value, duration);
-        cache.put(key, wrapper);
+        CacheValueWrapper wrapper = CacheValueWrapper.of(encode(value), duration);
+        cacheOf(key).put(key, wrapper);
     }
 
     @Override
-    protected void doAppend(String key, Object value) throws Exception {
-        // Caffeine 不支持 List 操作，使用 put 覆盖
-        // 实际使用中建议使用 put 而不是 append
-        CacheValueWrapper wrapper = CacheValueWrapper.of(value, defaultExpireAfterWrite);
-        cache.put(key, wrapper);
+    protected void doAppend(String key, Object value, int maxSize) throws Exception {
+        // 序列化模式下列表按元素分别编码，追加不需要重新编码整个列表
+        Object element = encode(value);
+        // 在 compute 中完成创建/转换，保证同一个键的并发追加不会互相覆盖
+        cacheOf(key).asMap().compute(key, (k, wrapper) -> {
+            if (wrapper == null || wrapper.isExpired()) {
+                CacheList list = new CacheList();
+                list.append(element, maxSize);
+                return CacheValueWrapper.of(list, defaultExpireAfterWrite);
+            }
+            Object current = wrapper.value();
+            if (current instanceof CacheList list) {
+                list.append(element, maxSize);
+                return wrapper;
+            }
+            if (decode(current) instanceof List<?> plain) {
+                // 通过 put 写入的普通列表，转换为 CacheList 并保留原过期时间
+                CacheList list = CacheList.of(plain.stream().map(this::encode).toList());
+                list.append(element, maxSize);
+                return wrapper.withValue(list);
+            }
+            throw new IllegalStateException("WRONGTYPE Cache value is not a list: " + k);
+        });
     }
 
     @Override
     protected void doDelete(String key) throws Exception {
-        cache.invalidate(key);
+        cacheOf(key).invalidate(key);
+    }
+
+    @Override
+    protected void doDeleteByPrefix(String prefix) throws Exception {
+        String namespace = namespaceOf(prefix);
+        if (namespace != null && namespaceCaches.containsKey(namespace)) {
+            namespaceCaches.get(namespace).asMap().keySet().removeIf(key -> key.startsWith(prefix));
+            return;
+        }
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        if (namespace == null) {
+            namespaceCaches.values().forEach(c -> c.asMap().keySet().removeIf(key -> key.startsWith(prefix)));
+        }
     }
 
     @Override
     protected Boolean doHasKey(String key) throws Exception {
-        CacheValueWrapper wrapper = cache.getIfPresent(key);
+        CacheValueWrapper wrapper = cacheOf(key).getIfPresent(key);
         return wrapper != null;
     }
 
     @Override
     protected Boolean doExpire(String key, long timeout, TimeUnit unit) throws Exception {
-        CacheValueWrapper wrapper = cache.getIfPresent(key);
+        CacheValueWrapper wrapper = cacheOf(key).getIfPresent(key);
         if (wrapper == null) {
             return false;
         }
@@ -143,13 +408,13 @@ public class CaffeineCacheClientImpl extends AbstractCacheClient {
         // 注意：CacheValueWrapper 的 createTime 是 final，无法修改
         // 如果需要保持原创建时间，需要在 CacheValueWrapper 中添加相应的工厂方法
 
-        cache.put(key, newWrapper);
+        cacheOf(key).put(key, newWrapper);
         return true;
     }
 
     @Override
     protected Long doGetExpire(String key) throws Exception {
-        CacheValueWrapper wrapper = cache.getIfPresent(key);
+        CacheValueWrapper wrapper = cacheOf(key).getIfPresent(key);
         if (wrapper == null) {
             return -1L;
         }
@@ -162,6 +427,35 @@ public class CaffeineCacheClientImpl extends AbstractCacheClient {
         return wrapper.getRemainingTimeMillis() / 1000;
     }
 
+    private Object encode(Object value) {
+        return codec != null && value != null ? codec.encode(value) : value;
+    }
+
+    private Object decode(Object stored) {
+        return codec != null && stored instanceof byte[] bytes ? codec.decode(bytes) : stored;
+    }
+
+    private <T> List<T> decodeAll(List<Object> elements) {
+        if (codec == null) {
+            return (List<T>) elements;
+        }
+        List<T> result = new ArrayList<>(elements.size());
+        for (Object element : elements) {
+            result.add((T) decode(element));
+        }
+        return result;
+    }
+
+    /**
+     * 快照条目访问器
+     */
+    @FunctionalInterface
+    interface EntryVisitor {
+
+        void visit(String key, Object stored, long expireTime);
+
+    }
+
     /**
      * Caffeine 自定义过期策略（私有内部类）
      *
@@ -381,6 +675,26 @@ public class CaffeineCacheClientImpl extends AbstractCacheClient {
             return new CacheValueWrapper(value, now, expireTime, now);
         }
 
+        /**
+         * 从快照恢复的 Wrapper，保留原过期时间戳
+         * @param value      原始值
+         * @param expireTime 过期时间戳（毫秒），0 表示永不过期
+         * @return Wrapper 实例
+         */
+        public static CacheValueWrapper restored(Object value, long expireTime) {
+            long now = System.currentTimeMillis();
+            return new CacheValueWrapper(value, now, expireTime, now);
+        }
+
+        /**
+         * 替换原始值，保留创建时间和过期时间
+         * @param newValue 新的原始值
+         * @return Wrapper 实例
+         */
+        public CacheValueWrapper withValue(Object newValue) {
+            return new CacheValueWrapper(newValue, createTime, expireTime, System.currentTimeMillis());
+        }
+
         /**
          * 是否已过期
          *
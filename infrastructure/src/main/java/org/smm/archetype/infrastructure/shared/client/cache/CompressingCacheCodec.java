@@ -0,0 +1,124 @@
+package org.smm.archetype.infrastructure.shared.client.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 压缩编解码器（装饰器）：编码结果达到阈值时使用 Deflate 压缩。
+ *
+ * <p>格式：首字节为标记（0-未压缩，1-Deflate），压缩数据在标记后写入 4 字节原始长度。
+ * 压缩后没有变小的值按未压缩保存。未压缩数据解码时直接把剩余部分交给内层编解码器，保留零拷贝读取。
+ */
+public class CompressingCacheCodec implements CacheCodec {
+
+    private static final byte PLAIN = 0;
+
+    private static final byte DEFLATE = 1;
+
+    private static final int HEADER_BYTES = 1;
+
+    private static final int DEFLATE_HEADER_BYTES = HEADER_BYTES + Integer.BYTES;
+
+    private final CacheCodec delegate;
+
+    private final int threshold;
+
+    private final int level;
+
+    /**
+     * @param delegate  内层编解码器
+     * @param threshold 压缩阈值（字节），编码结果小于该值时不压缩
+     * @param level     压缩级别（{@link Deflater#BEST_SPEED} ~ {@link Deflater#BEST_COMPRESSION}）
+     */
+    public CompressingCacheCodec(CacheCodec delegate, int threshold, int level) {
+        this.delegate = delegate;
+        this.threshold = threshold;
+        this.level = level;
+    }
+
+    @Override
+    public String name() {
+        return delegate.name() + "+deflate";
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        byte[] raw = delegate.encode(value);
+        if (raw.length >= threshold) {
+            byte[] compressed = deflate(raw);
+            if (compressed != null) {
+                return compressed;
+            }
+        }
+        byte[] result = new byte[raw.length + HEADER_BYTES];
+        result[0] = PLAIN;
+        System.arraycopy(raw, 0, result, HEADER_BYTES, raw.length);
+        return result;
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    @Override
+    public Object decode(ByteBuffer buffer) {
+        byte flag = buffer.get();
+        if (flag == PLAIN) {
+            return delegate.decode(buffer.slice());
+        }
+        if (flag != DEFLATE) {
+            throw new IllegalStateException("Unknown cache value compression flag: " + flag);
+        }
+        int length = buffer.getInt();
+        byte[] raw = new byte[length];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(buffer.slice());
+            int offset = 0;
+            while (offset < length && !inflater.finished()) {
+                int n = inflater.inflate(raw, offset, length - offset);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed cache value");
+                }
+                offset += n;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted compressed cache value", e);
+        } finally {
+            inflater.end();
+        }
+        return delegate.decode(raw);
+    }
+
+    /**
+     * 压缩，压缩后未变小时返回null
+     */
+    private byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + DEFLATE_HEADER_BYTES);
+            out.write(DEFLATE);
+            out.write(raw.length >>> 24);
+            out.write(raw.length >>> 16);
+            out.write(raw.length >>> 8);
+            out.write(raw.length);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+                if (out.size() >= raw.length + HEADER_BYTES) {
+                    return null;
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+}
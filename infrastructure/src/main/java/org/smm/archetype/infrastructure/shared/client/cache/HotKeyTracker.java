@@ -0,0 +1,154 @@
+package org.smm.archetype.infrastructure.shared.client.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 热点键追踪器：采样 + Count-Min Sketch 频率估计 + Top-K 候选集。
+ *
+ * <p>实现要点：
+ * <ul>
+ *   <li>按 1/sampleRate 概率采样访问，未采样的访问只有一次随机数开销</li>
+ *   <li>Count-Min Sketch（depth 行 × width 列）估计键的访问次数，内存固定，与键数量无关</li>
+ *   <li>估计值超过候选集最小值的键进入候选集，候选集超过 2K 时裁剪回 K</li>
+ *   <li>采样次数达到 width × 10 后所有计数减半（老化），使热点随时间变化</li>
+ * </ul>
+ *
+ * <p>结果是近似值：Count-Min Sketch 只会高估，不会低估。
+ */
+public class HotKeyTracker {
+
+    private static final int DEPTH = 4;
+
+    private static final long[] SEEDS = {0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+    private final int sampleRate;
+
+    private final int topK;
+
+    private final int widthMask;
+
+    private final AtomicLongArray counters;
+
+    private final AtomicLong samples = new AtomicLong();
+
+    private final long resetThreshold;
+
+    private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+
+    /**
+     * @param sampleRate 采样率分母（1 表示全部记录）
+     * @param topK       保留的热点键数量
+     * @param width      每行计数器数量（向上取整为 2 的幂）
+     */
+    public HotKeyTracker(int sampleRate, int topK, int width) {
+        if (sampleRate <= 0 || topK <= 0 || width <= 0) {
+            throw new IllegalArgumentException("Sample rate, top K and width must be positive");
+        }
+        int tableWidth = Integer.highestOneBit(Math.max(16, width - 1) << 1);
+        this.sampleRate = sampleRate;
+        this.topK = topK;
+        this.widthMask = tableWidth - 1;
+        this.counters = new AtomicLongArray(DEPTH * tableWidth);
+        this.resetThreshold = tableWidth * 10L;
+    }
+
+    /**
+     * 记录一次访问（按采样率）
+     * @param key 缓存键
+     */
+    public void record(String key) {
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return;
+        }
+        int hash = spread(key.hashCode());
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(indexOf(hash, row)));
+        }
+        offer(key, estimate);
+        if (samples.incrementAndGet() >= resetThreshold) {
+            age();
+        }
+    }
+
+    /**
+     * 获取最热的键
+     * @param limit 数量
+     * @return 热点键（按估计访问次数倒序），次数已按采样率换算
+     */
+    public List<HotKey> hottest(int limit) {
+        List<HotKey> result = new ArrayList<>(candidates.size());
+        candidates.forEach((key, count) -> result.add(new HotKey(key, count * sampleRate)));
+        result.sort(Comparator.comparingLong(HotKey::estimatedCount).reversed());
+        return result.size() > limit ? List.copyOf(result.subList(0, limit)) : result;
+    }
+
+    private void offer(String key, long estimate) {
+        if (candidates.size() < topK || candidates.containsKey(key)) {
+            candidates.put(key, estimate);
+            return;
+        }
+        long min = Long.MAX_VALUE;
+        for (long count : candidates.values()) {
+            min = Math.min(min, count);
+        }
+        if (estimate > min) {
+            candidates.put(key, estimate);
+            if (candidates.size() > topK * 2) {
+                trim();
+            }
+        }
+    }
+
+    private synchronized void trim() {
+        if (candidates.size() <= topK) {
+            return;
+        }
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(candidates.entrySet());
+        entries.sort(Map.Entry.comparingByValue());
+        for (int i = 0; i < entries.size() - topK; i++) {
+            candidates.remove(entries.get(i).getKey(), entries.get(i).getValue());
+        }
+    }
+
+    private synchronized void age() {
+        if (samples.get() < resetThreshold) {
+            return;
+        }
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, counters.get(i) >>> 1);
+        }
+        candidates.replaceAll((key, count) -> count >>> 1);
+        samples.set(0);
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return row * (widthMask + 1) + ((int) h & widthMask);
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 17;
+        hash *= 0xed5ad4bb;
+        hash ^= hash >>> 11;
+        return hash;
+    }
+
+    /**
+     * 热点键
+     * @param key            缓存键
+     * @param estimatedCount 估计访问次数
+     */
+    public record HotKey(String key, long estimatedCount) {
+
+    }
+
+}
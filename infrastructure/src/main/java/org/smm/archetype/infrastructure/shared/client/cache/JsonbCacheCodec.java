@@ -0,0 +1,51 @@
+package org.smm.archetype.infrastructure.shared.client.cache;
+
+import com.alibaba.fastjson2.JSONB;
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.JSONWriter;
+import com.alibaba.fastjson2.filter.Filter;
+
+/**
+ * 基于 fastjson2 JSONB 的编解码器。
+ *
+ * <p>按字段序列化并写入类名（与 Redis 链路使用的 WriteClassName 一致），反序列化时只允许白名单包下的类型
+ * 自动识别，避免任意类型实例化。
+ */
+public class JsonbCacheCodec implements CacheCodec {
+
+    private static final JSONWriter.Feature[] WRITE_FEATURES = {
+            JSONWriter.Feature.WriteClassName,
+            JSONWriter.Feature.FieldBased,
+            JSONWriter.Feature.ReferenceDetection,
+            JSONWriter.Feature.WriteNulls
+    };
+
+    private static final JSONReader.Feature[] READ_FEATURES = {
+            JSONReader.Feature.FieldBased
+    };
+
+    private final Filter autoTypeFilter;
+
+    /**
+     * @param acceptPackages 允许自动识别类型的包名前缀（如 org.smm.archetype.）
+     */
+    public JsonbCacheCodec(String... acceptPackages) {
+        this.autoTypeFilter = JSONReader.autoTypeFilter(acceptPackages);
+    }
+
+    @Override
+    public String name() {
+        return "jsonb";
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        return JSONB.toBytes(value, WRITE_FEATURES);
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        return JSONB.parseObject(bytes, Object.class, autoTypeFilter, READ_FEATURES);
+    }
+
+}
@@ -0,0 +1,33 @@
+package org.smm.archetype.infrastructure.shared.client.cache;
+
+import org.smm.archetype.infrastructure.shared.util.KryoSerializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 基于 {@link KryoSerializer} 的编解码器（默认），体积小、速度快，支持从堆外内存零拷贝读取。
+ * 编码结果包含类名，只适合同一应用版本的节点之间共享。
+ */
+public class KryoCacheCodec implements CacheCodec {
+
+    @Override
+    public String name() {
+        return "kryo";
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        return KryoSerializer.serialize(value);
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        return KryoSerializer.deserialize(bytes, Object.class);
+    }
+
+    @Override
+    public Object decode(ByteBuffer buffer) {
+        return KryoSerializer.deserialize(buffer);
+    }
+
+}
@@ -0,0 +1,131 @@
+package org.smm.archetype.infrastructure.shared.client.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.smm.archetype.infrastructure.shared.util.KryoSerializer;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * 基于 Kryo 序列化大小的缓存值估算器。
+ *
+ * <p>估算规则：
+ * <ul>
+ *   <li>byte[] 按长度、String 按 UTF-8 编码长度计算，不做序列化</li>
+ *   <li>元素数超过采样数的集合只序列化前 {@code sampleSize} 个元素，按平均大小外推</li>
+ *   <li>{@link CacheList} 同样采样外推，采样结果缓存在列表上，元素数翻倍或减半后才重新采样，追加时不重复序列化</li>
+ *   <li>其他对象按 Kryo 序列化后的字节数计算</li>
+ *   <li>无法序列化的对象返回 {@code fallbackSize}</li>
+ * </ul>
+ */
+@Slf4j
+public class KryoCacheValueSizer implements CacheValueSizer {
+
+    /**
+     * 默认集合采样数
+     */
+    private static final int DEFAULT_SAMPLE_SIZE = 16;
+
+    /**
+     * 默认兜底大小（字节）
+     */
+    private static final long DEFAULT_FALLBACK_SIZE = 1024L;
+
+    private final int sampleSize;
+
+    private final long fallbackSize;
+
+    public KryoCacheValueSizer() {
+        this(DEFAULT_SAMPLE_SIZE, DEFAULT_FALLBACK_SIZE);
+    }
+
+    /**
+     * @param sampleSize   集合采样数
+     * @param fallbackSize 无法序列化时的兜底大小（字节）
+     */
+    public KryoCacheValueSizer(int sampleSize, long fallbackSize) {
+        if (sampleSize <= 0) {
+            throw new IllegalArgumentException("Sample size must be positive");
+        }
+        this.sampleSize = sampleSize;
+        this.fallbackSize = fallbackSize;
+    }
+
+    @Override
+    public long sizeOf(Object value) {
+        if (value == null) {
+            return 0L;
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (value instanceof String str) {
+            return utf8Length(str);
+        }
+        if (value instanceof CacheList list) {
+            return sizeOfList(list);
+        }
+        if (value instanceof Collection<?> collection && collection.size() > sampleSize) {
+            return sizeOfSampled(collection, collection.size());
+        }
+        return serializedSize(value);
+    }
+
+    private long sizeOfList(CacheList list) {
+        int size = list.size();
+        long average = list.sampledElementSize(size);
+        if (average < 0) {
+            average = averageSize(list.range(0, sampleSize - 1));
+            list.recordSampledElementSize(average, size);
+        }
+        return average * size;
+    }
+
+    /**
+     * 采样估算大集合大小
+     */
+    private long sizeOfSampled(Collection<?> collection, int totalSize) {
+        return averageSize(collection) * totalSize;
+    }
+
+    /**
+     * 前 sampleSize 个元素的平均大小
+     */
+    private long averageSize(Collection<?> collection) {
+        long sampled = 0L;
+        int count = 0;
+        Iterator<?> iterator = collection.iterator();
+        while (count < sampleSize && iterator.hasNext()) {
+            sampled += sizeOf(iterator.next());
+            count++;
+        }
+        return count == 0 ? 0L : sampled / count;
+    }
+
+    /**
+     * UTF-8 编码后的字节数（不分配编码结果）
+     */
+    private static long utf8Length(String str) {
+        long length = str.length();
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c >= 0x800) {
+                // 代理对两个 char 共 4 字节，其他 3 字节
+                length += Character.isSurrogate(c) ? 1 : 2;
+            } else if (c >= 0x80) {
+                length += 1;
+            }
+        }
+        return length;
+    }
+
+    private long serializedSize(Object value) {
+        try {
+            return KryoSerializer.serialize(value).length;
+        } catch (Exception e) {
+            log.debug("Failed to estimate cache value size, using fallback: type={}", value.getClass().getName(), e);
+            return fallbackSize;
+        }
+    }
+
+}
@@ -0,0 +1,524 @@
+package org.smm.archetype.infrastructure.shared.client.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 堆外缓存实现，基于 Foreign Memory API（{@link Arena}/{@link MemorySegment}）存储 {@link CacheCodec} 编码后的字节（默认 Kryo）。
+ *
+ * <p>内存布局：
+ * <ul>
+ *   <li>按 2 的幂划分 chunk 大小等级（slab class），最小为 minChunkSize，最大为 slabSize</li>
+ *   <li>每个等级按需从共享 Arena 分配固定大小的 slab，再切分为等长 chunk</li>
+ *   <li>所有 slab 的总大小不超过 capacity，超出后在同等级内按 CLOCK 算法淘汰</li>
+ * </ul>
+ *
+ * <p>读取时直接把 chunk 的 {@link MemorySegment} 视图交给编解码器，Kryo 反序列化不经过中间字节数组。
+ * 超过 slabSize 的值无法存放，写入会被忽略；值所属等级没有 slab、且其他等级已占满全部容量时同样无法存放
+ * （slab 分配后不在等级之间回收），写入被忽略，由 {@link TieredCacheClientImpl} 改写到堆内层。
+ *
+ * <p>列表追加（append）读改写整个编码后的列表，同一个键的追加按分段锁串行，写回时保留原过期时间；
+ * 频繁追加的列表在 {@link TieredCacheClientImpl} 中路由到堆内缓存，按元素追加不重新编码。
+ */
+@Slf4j
+public class OffHeapCacheClientImpl extends AbstractCacheClient implements AutoCloseable {
+
+    private static final int APPEND_LOCK_STRIPES = 64;
+
+    /**
+     * chunk 已被淘汰并复用时 {@link SlabClass#read} 的返回值
+     */
+    private static final Object STALE = new Object();
+
+    private final Arena arena;
+
+    private final int slabSize;
+
+    private final int maxSlabs;
+
+    private final AtomicInteger allocatedSlabs = new AtomicInteger();
+
+    private final SlabClass[] slabClasses;
+
+    private final ConcurrentHashMap<String, Slot> index = new ConcurrentHashMap<>();
+
+    /**
+     * 列表追加的分段锁，同一个键的并发追加串行执行
+     */
+    private final ReentrantLock[] appendLocks = new ReentrantLock[APPEND_LOCK_STRIPES];
+
+    private final Duration defaultExpireAfterWrite;
+
+    private final CacheCodec codec;
+
+    private volatile boolean closed;
+
+    /**
+     * 初始化堆外缓存。
+     * @param capacity                堆外内存总容量（字节）
+     * @param slabSize                单个 slab 大小（字节），也是可缓存值的大小上限
+     * @param minChunkSize            最小 chunk 大小（字节）
+     * @param defaultExpireAfterWrite 默认写入后过期时间
+     */
+    public OffHeapCacheClientImpl(long capacity, int slabSize, int minChunkSize, Duration defaultExpireAfterWrite) {
+        this(capacity, slabSize, minChunkSize, new KryoCacheCodec(), defaultExpireAfterWrite);
+    }
+
+    /**
+     * 初始化堆外缓存。
+     * @param capacity                堆外内存总容量（字节）
+     * @param slabSize                单个 slab 大小（字节），也是可缓存值的大小上限
+     * @param minChunkSize            最小 chunk 大小（字节）
+     * @param codec                   值编解码器
+     * @param defaultExpireAfterWrite 默认写入后过期时间
+     */
+    public OffHeapCacheClientImpl(long capacity,
+                                  int slabSize,
+                                  int minChunkSize,
+                                  CacheCodec codec,
+                                  Duration defaultExpireAfterWrite) {
+        if (minChunkSize <= 0 || slabSize < minChunkSize) {
+            throw new IllegalArgumentException("Slab size must be greater than or equal to min chunk size");
+        }
+        if (capacity < slabSize) {
+            throw new IllegalArgumentException("Capacity must be greater than or equal to slab size");
+        }
+        this.arena = Arena.ofShared();
+        this.slabSize = slabSize;
+        this.maxSlabs = (int) Math.min(Integer.MAX_VALUE, capacity / slabSize);
+        this.defaultExpireAfterWrite = defaultExpireAfterWrite;
+        this.codec = codec;
+
+        List<SlabClass> classes = new ArrayList<>();
+        for (long chunkSize = minChunkSize; chunkSize < slabSize; chunkSize <<= 1) {
+            classes.add(new SlabClass((int) chunkSize));
+        }
+        classes.add(new SlabClass(slabSize));
+        this.slabClasses = classes.toArray(SlabClass[]::new);
+        for (int i = 0; i < appendLocks.length; i++) {
+            appendLocks[i] = new ReentrantLock();
+        }
+
+        log.info("堆外缓存初始化成功: 容量={}, slab大小={}, 最小chunk={}, 等级数={}",
+                capacity, slabSize, minChunkSize, slabClasses.length);
+    }
+
+    // ==================== 扩展点实现（protected do* 方法） ====================
+
+    @Override
+    protected <T> T doGet(String key) throws Exception {
+        return read(key);
+    }
+
+    @Override
+    protected <T> List<T> doGetList(String key) throws Exception {
+        Object value = read(key);
+        if (value instanceof List<?> list) {
+            return (List<T>) list;
+        }
+        return List.of();
+    }
+
+    @Override
+    protected <T> List<T> doGetList(String key, int beginIdx, int endIdx) throws Exception {
+        return CacheList.range(doGetList(key), beginIdx, endIdx);
+    }
+
+    @Override
+    protected void doPut(String key, Object value) throws Exception {
+        doPut(key, value, defaultExpireAfterWrite);
+    }
+
+    @Override
+    protected void doPut(String key, Object value, Duration duration) throws Exception {
+        if (!putSerialized(key, codec.encode(value), duration)) {
+            log.debug("Value cannot be stored off-heap, ignored: key={}", key);
+        }
+    }
+
+    @Override
+    protected void doAppend(String key, Object value, int maxSize) throws Exception {
+        ReentrantLock lock = appendLocks[Math.floorMod(key.hashCode(), appendLocks.length)];
+        lock.lock();
+        try {
+            Object current = read(key);
+            Slot slot = index.get(key);
+            List<Object> list = new ArrayList<>();
+            if (current instanceof List<?> existing) {
+                list.addAll(existing);
+            } else if (current != null) {
+                throw new IllegalStateException("WRONGTYPE Cache value is not a list: " + key);
+            }
+            list.add(value);
+            if (maxSize > 0 && list.size() > maxSize) {
+                list = new ArrayList<>(list.subList(list.size() - maxSize, list.size()));
+            }
+            // 已有列表保留原过期时间，新列表使用默认过期时间
+            long expireAt = current != null && slot != null ? slot.expireAt() : expireAt(defaultExpireAfterWrite);
+            if (!store(key, codec.encode(list), expireAt)) {
+                log.debug("List cannot be stored off-heap, ignored: key={}", key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    protected void doDelete(String key) throws Exception {
+        Slot slot = index.remove(key);
+        if (slot != null) {
+            slot.slabClass().release(slot);
+        }
+    }
+
+    @Override
+    protected void doDeleteByPrefix(String prefix) throws Exception {
+        for (String key : index.keySet()) {
+            if (key.startsWith(prefix)) {
+                doDelete(key);
+            }
+        }
+    }
+
+    @Override
+    protected Boolean doHasKey(String key) throws Exception {
+        Slot slot = index.get(key);
+        return slot != null && !slot.isExpired(System.currentTimeMillis());
+    }
+
+    @Override
+    protected Boolean doExpire(String key, long timeout, TimeUnit unit) throws Exception {
+        long expireAt = System.currentTimeMillis() + unit.toMillis(timeout);
+        return index.computeIfPresent(key, (k, slot) -> slot.withExpireAt(expireAt)) != null;
+    }
+
+    @Override
+    protected Long doGetExpire(String key) throws Exception {
+        Slot slot = index.get(key);
+        long now = System.currentTimeMillis();
+        if (slot == null || slot.isExpired(now) || slot.expireAt() == 0) {
+            return -1L;
+        }
+        return (slot.expireAt() - now) / 1000;
+    }
+
+    // ==================== 堆外存储 ====================
+
+    /**
+     * 写入已序列化的值
+     * @param key      缓存键
+     * @param bytes    {@link #encode(Object)} 编码后的字节
+     * @param duration 过期时长，null表示永不过期
+     * @return true-写入成功，false-值超过 slab 大小无法存放
+     */
+    boolean putSerialized(String key, byte[] bytes, Duration duration) {
+        return store(key, bytes, expireAt(duration));
+    }
+
+    /**
+     * 写入已序列化的值，无法存放时删除旧值（保证读不到过期的旧值）
+     * @return true-写入成功，false-值超过 slab 大小，或所属等级没有可用 chunk
+     */
+    private boolean store(String key, byte[] bytes, long expireAt) {
+        ensureOpen();
+        Slot slot = bytes.length > slabSize ? null : slabClassFor(bytes.length).store(key, bytes, expireAt);
+        if (slot == null) {
+            doDeleteQuietly(key);
+            return false;
+        }
+
+        Slot previous = index.put(key, slot);
+        if (previous != null) {
+            previous.slabClass().release(previous);
+        }
+        return true;
+    }
+
+    private static long expireAt(Duration duration) {
+        return duration == null ? 0L : System.currentTimeMillis() + duration.toMillis();
+    }
+
+    @Override
+    protected Duration defaultExpireAfterWrite() {
+        return defaultExpireAfterWrite;
+    }
+
+    @Override
+    public Map<String, Long> estimatedSizes() {
+        return Map.of("off-heap", (long) index.size());
+    }
+
+    /**
+     * 使用堆外层的编解码器编码
+     * @param value 缓存值
+     * @return 编码后的字节
+     */
+    byte[] encode(Object value) {
+        return codec.encode(value);
+    }
+
+    /**
+     * 堆外层的编解码器
+     * @return 编解码器
+     */
+    CacheCodec codec() {
+        return codec;
+    }
+
+    /**
+     * 堆外缓存可存放的最大值大小（字节）
+     * @return slab 大小
+     */
+    int maxValueSize() {
+        return slabSize;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        for (SlabClass slabClass : slabClasses) {
+            slabClass.lock.writeLock().lock();
+        }
+        try {
+            closed = true;
+            index.clear();
+            arena.close();
+            log.info("堆外缓存已释放: slab数={}", allocatedSlabs.get());
+        } finally {
+            for (SlabClass slabClass : slabClasses) {
+                slabClass.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private <T> T read(String key) {
+        ensureOpen();
+        Slot slot = index.get(key);
+        if (slot == null) {
+            return null;
+        }
+        if (slot.isExpired(System.currentTimeMillis())) {
+            if (index.remove(key, slot)) {
+                slot.slabClass().release(slot);
+            }
+            return null;
+        }
+        Object value = slot.slabClass().read(slot);
+        if (value == STALE) {
+            // chunk 已被淘汰并复用，移除指向它的索引
+            index.remove(key, slot);
+            return null;
+        }
+        return (T) value;
+    }
+
+    private void doDeleteQuietly(String key) {
+        Slot slot = index.remove(key);
+        if (slot != null) {
+            slot.slabClass().release(slot);
+        }
+    }
+
+    private SlabClass slabClassFor(int length) {
+        for (SlabClass slabClass : slabClasses) {
+            if (slabClass.chunkSize >= length) {
+                return slabClass;
+            }
+        }
+        throw new IllegalArgumentException("Value too large: " + length);
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Off-heap cache is closed");
+        }
+    }
+
+    /**
+     * 索引槽位：记录值所在的 chunk 及其代数（chunk 被复用后代数递增，旧槽位失效）
+     */
+    private record Slot(SlabClass slabClass, int chunk, int generation, int length, long expireAt) {
+
+        boolean isExpired(long now) {
+            return expireAt != 0 && now >= expireAt;
+        }
+
+        Slot withExpireAt(long newExpireAt) {
+            return new Slot(slabClass, chunk, generation, length, newExpireAt);
+        }
+
+    }
+
+    /**
+     * slab 等级：管理同一 chunk 大小的所有 slab，内部使用 CLOCK 算法淘汰
+     */
+    private final class SlabClass {
+
+        private final int chunkSize;
+
+        private final int chunksPerSlab;
+
+        private final List<MemorySegment> slabs = new ArrayList<>();
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        /**
+         * chunk 当前持有的缓存键，null 表示空闲
+         */
+        private String[] owners = new String[0];
+
+        /**
+         * chunk 代数
+         */
+        private int[] generations = new int[0];
+
+        /**
+         * CLOCK 访问位（读锁下写入，允许竞争，仅作为淘汰提示）
+         */
+        private boolean[] referenced = new boolean[0];
+
+        /**
+         * 空闲 chunk 栈
+         */
+        private int[] freeChunks = new int[0];
+
+        private int freeCount;
+
+        private int hand;
+
+        private SlabClass(int chunkSize) {
+            this.chunkSize = chunkSize;
+            this.chunksPerSlab = slabSize / chunkSize;
+        }
+
+        /**
+         * 写入 chunk
+         * @return 槽位，所属等级没有可用 chunk 时为null
+         */
+        private Slot store(String key, byte[] bytes, long expireAt) {
+            lock.writeLock().lock();
+            try {
+                ensureOpen();
+                int chunk = allocate();
+                if (chunk < 0) {
+                    return null;
+                }
+                MemorySegment.copy(MemorySegment.ofArray(bytes), 0, segmentOf(chunk), 0, bytes.length);
+                owners[chunk] = key;
+                referenced[chunk] = true;
+                return new Slot(this, chunk, ++generations[chunk], bytes.length, expireAt);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private Object read(Slot slot) {
+            lock.readLock().lock();
+            try {
+                ensureOpen();
+                if (generations[slot.chunk()] != slot.generation()) {
+                    return STALE;
+                }
+                referenced[slot.chunk()] = true;
+                return codec.decode(segmentOf(slot.chunk()).asSlice(0, slot.length()).asByteBuffer());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void release(Slot slot) {
+            lock.writeLock().lock();
+            try {
+                if (!closed && generations[slot.chunk()] == slot.generation() && owners[slot.chunk()] != null) {
+                    free(slot.chunk());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * 分配 chunk：优先空闲 chunk，其次申请新 slab，最后按 CLOCK 淘汰（需持有写锁）
+         * @return chunk 序号，本等级没有 slab 且容量已被其他等级占满时为-1
+         */
+        private int allocate() {
+            if (freeCount > 0) {
+                return freeChunks[--freeCount];
+            }
+            if (allocatedSlabs.getAndIncrement() < maxSlabs) {
+                growSlab();
+                return freeChunks[--freeCount];
+            }
+            allocatedSlabs.decrementAndGet();
+            if (owners.length == 0) {
+                return -1;
+            }
+            return evict();
+        }
+
+        private void growSlab() {
+            slabs.add(arena.allocate(slabSize, Long.BYTES));
+            int oldChunks = owners.length;
+            int newChunks = oldChunks + chunksPerSlab;
+            owners = Arrays.copyOf(owners, newChunks);
+            generations = Arrays.copyOf(generations, newChunks);
+            referenced = Arrays.copyOf(referenced, newChunks);
+            freeChunks = Arrays.copyOf(freeChunks, newChunks);
+            for (int chunk = newChunks - 1; chunk >= oldChunks; chunk--) {
+                freeChunks[freeCount++] = chunk;
+            }
+        }
+
+        private int evict() {
+            long now = System.currentTimeMillis();
+            while (true) {
+                int chunk = hand;
+                hand = (hand + 1) % owners.length;
+                String owner = owners[chunk];
+                if (owner == null) {
+                    return chunk;
+                }
+                Slot current = index.get(owner);
+                boolean expired = current != null && current.isExpired(now);
+                if (referenced[chunk] && !expired) {
+                    referenced[chunk] = false;
+                    continue;
+                }
+                if (current != null && current.slabClass() == this && current.chunk() == chunk
+                        && index.remove(owner, current) && !expired) {
+                    getStatsRecorder().recordEviction(owner);
+                }
+                owners[chunk] = null;
+                return chunk;
+            }
+        }
+
+        private void free(int chunk) {
+            owners[chunk] = null;
+            referenced[chunk] = false;
+            generations[chunk]++;
+            freeChunks[freeCount++] = chunk;
+        }
+
+        private MemorySegment segmentOf(int chunk) {
+            MemorySegment slab = slabs.get(chunk / chunksPerSlab);
+            return slab.asSlice((long) (chunk % chunksPerSlab) * chunkSize, chunkSize);
+        }
+
+    }
+
+}
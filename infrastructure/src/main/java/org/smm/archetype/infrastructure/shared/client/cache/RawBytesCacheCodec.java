@@ -0,0 +1,27 @@
+package org.smm.archetype.infrastructure.shared.client.cache;
+
+/**
+ * 原始字节编解码器：只接受 byte[]，不做任何转换。
+ * 适用于调用方自行序列化（如缓存已渲染的响应体）的场景，解码时返回副本。
+ */
+public class RawBytesCacheCodec implements CacheCodec {
+
+    @Override
+    public String name() {
+        return "raw";
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        if (value instanceof byte[] bytes) {
+            return bytes.clone();
+        }
+        throw new IllegalArgumentException("Raw bytes codec only accepts byte[]: " + value.getClass().getName());
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        return bytes.clone();
+    }
+
+}
@@ -3,15 +3,21 @@
 // import lombok.extern.slf4j.Slf4j;
 // import org.smm.archetype.domain.shared.client.CacheClient;
 // import org.smm.archetype.infrastructure.shared.client.cache.AbstractCacheClient;
+// import org.springframework.data.redis.core.Cursor;
 // import org.springframework.data.redis.core.RedisTemplate;
+// import org.springframework.data.redis.core.ScanOptions;
 //
 // import java.time.Duration;
+// import java.util.ArrayList;
 // import java.util.List;
 // import java.util.concurrent.TimeUnit;
 // import java.util.stream.Collectors;
 //
 // /**
 //  * Redis缓存实现，基于Fastjson2序列化，适用于分布式场景。
+//  *
+//  * <p>如需与本地序列化模式、堆外缓存层共用编码，可将 RedisTemplate 的 valueSerializer
+//  * 配置为委托给 {@link CacheCodec} 的 RedisSerializer（serialize -> encode，deserialize -> decode）。
 //  */
 // @Slf4j
 // public class RedisCacheClientImpl extends AbstractCacheClient {
@@ -70,8 +76,11 @@
 //     }
 //
 //     @Override
-//     protected void doAppend(String key, Object value) throws Exception {
+//     protected void doAppend(String key, Object value, int maxSize) throws Exception {
 //         redisTemplate.opsForList().rightPush(key, value);
+//         if (maxSize > 0) {
+//             redisTemplate.opsForList().trim(key, -maxSize, -1);
+//         }
 //     }
 //
 //     @Override
@@ -80,6 +89,24 @@
 //     }
 //
 //     @Override
+//     protected void doDeleteByPrefix(String prefix) throws Exception {
+//         ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(1000).build();
+//         List<String> batch = new ArrayList<>();
+//         try (Cursor<String> cursor = redisTemplate.scan(options)) {
+//             while (cursor.hasNext()) {
+//                 batch.add(cursor.next());
+//                 if (batch.size() >= 1000) {
+//                     redisTemplate.unlink(batch);
+//                     batch.clear();
+//                 }
+//             }
+//         }
+//         if (!batch.isEmpty()) {
+//             redisTemplate.unlink(batch);
+//         }
+//     }
+//
+//     @Override
 //     protected Boolean doHasKey(String key) throws Exception {
 //         return redisTemplate.hasKey(key);
 //     }
@@ -0,0 +1,198 @@
+package org.smm.archetype.infrastructure.shared.client.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分层缓存实现：小值放堆内缓存，大值放堆外缓存。
+ *
+ * <p>写入时先用堆外层的编解码器编码：编码后大小达到阈值的值直接写入堆外层（并清除堆内旧值），
+ * 否则写入堆内层（并清除堆外旧值），保证同一个键只存在于一层。堆内层是使用同一个编解码器的序列化模式时，
+ * 直接写入已编码的字节，每次写入只编码一次；长度不可能达到阈值的 byte[] 和字符串不编码，直接写入堆内层。
+ * 读取时先查堆内层，未命中再查堆外层。
+ *
+ * <p>大值移出堆内后不再参与 GC 扫描和复制，降低老年代压力和停顿时间。
+ */
+@Slf4j
+public class TieredCacheClientImpl extends AbstractCacheClient implements AutoCloseable {
+
+    private final AbstractCacheClient heap;
+
+    private final OffHeapCacheClientImpl offHeap;
+
+    private final int offHeapThreshold;
+
+    private final Duration defaultExpireAfterWrite;
+
+    /**
+     * 堆内层与堆外层共用编解码器时的堆内层，写入时复用编码结果；否则为null
+     */
+    private final CaffeineCacheClientImpl encodedHeap;
+
+    /**
+     * 初始化分层缓存。
+     * @param heap                    堆内缓存
+     * @param offHeap                 堆外缓存
+     * @param offHeapThreshold        写入堆外层的最小序列化大小（字节）
+     * @param defaultExpireAfterWrite 默认写入后过期时间
+     */
+    public TieredCacheClientImpl(AbstractCacheClient heap,
+                                 OffHeapCacheClientImpl offHeap,
+                                 int offHeapThreshold,
+                                 Duration defaultExpireAfterWrite) {
+        this.heap = heap;
+        this.offHeap = offHeap;
+        this.offHeapThreshold = offHeapThreshold;
+        this.defaultExpireAfterWrite = defaultExpireAfterWrite;
+        this.encodedHeap = heap instanceof CaffeineCacheClientImpl caffeine && caffeine.storesEncodedBy(offHeap.codec())
+                ? caffeine
+                : null;
+        log.info("分层缓存初始化成功: 堆外阈值={}, 堆外单值上限={}", offHeapThreshold, offHeap.maxValueSize());
+    }
+
+    // ==================== 扩展点实现（protected do* 方法） ====================
+
+    @Override
+    protected <T> T doGet(String key) throws Exception {
+        T value = heap.doGet(key);
+        if (value != null) {
+            return value;
+        }
+        return offHeap.doGet(key);
+    }
+
+    @Override
+    protected <T> List<T> doGetList(String key) throws Exception {
+        if (heap.doHasKey(key)) {
+            return heap.doGetList(key);
+        }
+        return offHeap.doGetList(key);
+    }
+
+    @Override
+    protected <T> List<T> doGetList(String key, int beginIdx, int endIdx) throws Exception {
+        if (heap.doHasKey(key)) {
+            return heap.doGetList(key, beginIdx, endIdx);
+        }
+        return offHeap.doGetList(key, beginIdx, endIdx);
+    }
+
+    @Override
+    protected void doPut(String key, Object value) throws Exception {
+        doPut(key, value, defaultExpireAfterWrite);
+    }
+
+    @Override
+    protected void doPut(String key, Object value, Duration duration) throws Exception {
+        byte[] bytes = isSmall(value) ? null : offHeap.encode(value);
+        if (bytes != null && bytes.length >= offHeapThreshold && offHeap.putSerialized(key, bytes, duration)) {
+            heap.doDelete(key);
+            return;
+        }
+        if (bytes != null && encodedHeap != null) {
+            encodedHeap.putEncoded(key, bytes, duration);
+        } else {
+            heap.doPut(key, value, duration);
+        }
+        offHeap.doDelete(key);
+    }
+
+    @Override
+    protected void doAppend(String key, Object value, int maxSize) throws Exception {
+        // 列表追加需要读改写，统一在堆内层完成；堆外层已有的列表先迁回堆内
+        List<Object> existing = offHeap.doGetList(key);
+        if (!existing.isEmpty()) {
+            heap.doPut(key, existing, remainingTtl(offHeap.doGetExpire(key)));
+            offHeap.doDelete(key);
+        }
+        heap.doAppend(key, value, maxSize);
+    }
+
+    @Override
+    protected void doDelete(String key) throws Exception {
+        heap.doDelete(key);
+        offHeap.doDelete(key);
+    }
+
+    @Override
+    protected void doDeleteByPrefix(String prefix) throws Exception {
+        heap.doDeleteByPrefix(prefix);
+        offHeap.doDeleteByPrefix(prefix);
+    }
+
+    @Override
+    protected Boolean doHasKey(String key) throws Exception {
+        return heap.doHasKey(key) || offHeap.doHasKey(key);
+    }
+
+    @Override
+    protected Boolean doExpire(String key, long timeout, TimeUnit unit) throws Exception {
+        if (heap.doHasKey(key)) {
+            return heap.doExpire(key, timeout, unit);
+        }
+        return offHeap.doExpire(key, timeout, unit);
+    }
+
+    @Override
+    protected Long doGetExpire(String key) throws Exception {
+        if (heap.doHasKey(key)) {
+            return heap.doGetExpire(key);
+        }
+        return offHeap.doGetExpire(key);
+    }
+
+    @Override
+    protected Duration defaultExpireAfterWrite() {
+        return defaultExpireAfterWrite;
+    }
+
+    @Override
+    public Map<String, Long> estimatedSizes() {
+        Map<String, Long> sizes = new LinkedHashMap<>(heap.estimatedSizes());
+        sizes.putAll(offHeap.estimatedSizes());
+        return sizes;
+    }
+
+    @Override
+    public void setStatsRecorder(CacheStatsRecorder statsRecorder) {
+        super.setStatsRecorder(statsRecorder);
+        // 两层的淘汰统计汇总到同一个记录器
+        heap.setStatsRecorder(statsRecorder);
+        offHeap.setStatsRecorder(statsRecorder);
+    }
+
+    /**
+     * 不编码即可判定写入堆内层的值（UTF-8 每个字符最多 3 字节，编码开销按 16 字节预留）
+     */
+    private boolean isSmall(Object value) {
+        if (value instanceof byte[] raw) {
+            return raw.length + 16 < offHeapThreshold;
+        }
+        if (value instanceof String str) {
+            return str.length() * 3L + 16 < offHeapThreshold;
+        }
+        return false;
+    }
+
+    private Duration remainingTtl(long expireSeconds) {
+        return expireSeconds > 0 ? Duration.ofSeconds(expireSeconds) : defaultExpireAfterWrite;
+    }
+
+    @Override
+    public void close() {
+        if (heap instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("关闭堆内缓存失败", e);
+            }
+        }
+        offHeap.close();
+    }
+
+}
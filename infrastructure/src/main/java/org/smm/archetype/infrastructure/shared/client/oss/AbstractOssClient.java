@@ -1,19 +1,52 @@
 package org.smm.archetype.infrastructure.shared.client.oss;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.io.ByteStreams;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.smm.archetype.domain.platform.file.FileMetadata;
 import org.smm.archetype.domain.platform.file.FileMetadata.Status;
+import org.smm.archetype.domain.shared.base.PageResult;
+import org.smm.archetype.domain.shared.base.SimplePageResult;
 import org.smm.archetype.domain.shared.client.OssClient;
+import org.smm.archetype.domain.shared.client.dto.FileSearchRequest;
 import org.smm.archetype.domain.shared.exception.ClientErrorCode;
 import org.smm.archetype.domain.shared.exception.ClientException;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileBusinessDO;
 import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileMetadataDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileUploadPartDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileUploadSessionDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileBusinessMapper;
 import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileUploadPartMapper;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileUploadSessionMapper;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
 
 /**
  * 对象存储服务抽象基类，提供通用文件操作流程。
@@ -23,21 +56,139 @@ import java.util.List;
  *   <li>数据库操作：统一由抽象基类负责（查询、保存、删除元数据）</li>
  *   <li>外部能力：由具体实现类负责（文件系统、S3等）</li>
  * </ul>
+ *
+ * <p>存储按内容寻址（{@link #contentKey}），相同内容只存一份：计算出 MD5 后若内容已存在则跳过写入，
+ * 直接返回已有路径；对象的引用由 file_business 关联计数，没有引用的对象由 {@link #collectGarbage} 回收。
+ * {@link #delete} 只释放引用，不删除可能被其他业务文件共享的对象和元数据。
+ *
+ * <p>存储路径只包含内容的 MD5，不保存原始文件名（相同内容可能有多个名称），文件名由 file_business.name 记录；
+ * 配置业务文件 Mapper（{@link #setBusinessMapper}）后文件搜索按 file_business.name 匹配原始文件名，
+ * 未配置时按存储路径匹配，即按 MD5 前缀或片段查找内容。
+ *
+ * <p>大文件可使用分片上传：会话和分片记录持久化在 file_upload_session / file_upload_part 表，
+ * 分片可乱序、并行、重传，完成时由存储端组装。
+ *
+ * <p>上传流程是流式的：请求流经 {@link ChecksumInputStream} 写入暂存文件，边写边计算 MD5（可选 CRC32C）和大小，
+ * 写完后再交给实现类上传并保存元数据。每次上传占用的堆内存只有固定大小的复制缓冲区，与文件大小无关。
+ *
+ * <p>下载和删除前按路径查询元数据ID，可启用本地缓存（{@link #enableMetadataCache}）；
+ * 调用方已持有元数据时可关闭读取校验（{@link #setVerifyReads}），读取不再访问数据库。
+ *
+ * <p>有时效的 URL 可启用缓存（{@link #enableUrlCache}），按有效期档位复用并写回 file_metadata，供其他实例复用。
  */
 @Slf4j
 @RequiredArgsConstructor
 public abstract class AbstractOssClient implements OssClient {
 
+    /**
+     * 单个文件的最大分片数（与 S3 限制一致）
+     */
+    private static final int MAX_PARTS = 10_000;
+
+    /**
+     * 文件搜索默认每页数量
+     */
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 100;
+
+    /**
+     * 文件搜索最大每页数量
+     */
+    private static final int MAX_SEARCH_PAGE_SIZE = 1000;
+
+    /**
+     * MySQL ngram 全文解析器的分词长度（ngram_token_size 默认值）
+     */
+    private static final int NGRAM_TOKEN_SIZE = 2;
+
+    /**
+     * 内容寻址的存储路径（见 {@link #contentKey}），分片上传的内容标识带分片数后缀
+     */
+    private static final Pattern CONTENT_KEY = Pattern.compile("[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{32}(-\\d+)?");
+
+    private static final String UPLOADING = "UPLOADING";
+
+    private static final String COMPLETING = "COMPLETING";
+
+    private static final String COMPLETED = "COMPLETED";
+
+    private static final String ABORTED = "ABORTED";
+
     /**
      * 文件元数据 Mapper（数据库访问）
      */
     protected final FileMetadataMapper metadataMapper;
 
+    /**
+     * 业务文件 Mapper（可选），配置后文件搜索按 file_business.name 匹配原始文件名，未配置时按存储路径匹配
+     */
+    @Setter
+    protected FileBusinessMapper businessMapper;
+
+    /**
+     * 分片上传会话 Mapper（可选，未配置时不支持分片上传）
+     */
+    @Setter
+    protected FileUploadSessionMapper sessionMapper;
+
+    /**
+     * 分片上传分片 Mapper（可选，未配置时不支持分片上传）
+     */
+    @Setter
+    protected FileUploadPartMapper partMapper;
+
+    /**
+     * 分片上传会话有效期，过期未完成的会话由 {@link #abortExpiredMultipartUploads} 中止
+     */
+    @Setter
+    private Duration multipartExpiry = Duration.ofHours(24);
+
+    /**
+     * 下载/传输前是否校验文件元数据存在；调用方已从数据库取得元数据的可信内部读取可关闭，直接访问存储
+     */
+    @Setter
+    private boolean verifyReads = true;
+
+    /**
+     * 路径到元数据ID的本地缓存（可选，未启用时每次都查询数据库），见 {@link #enableMetadataCache}
+     */
+    private volatile Cache<String, Long> metadataIdCache;
+
+    /**
+     * 有时效 URL 的缓存（可选，未启用时每次都重新签发），见 {@link #enableUrlCache}
+     */
+    private volatile PresignedUrlCache urlCache;
+
+    /**
+     * 搜索列是否建有 ngram 全文索引（按文件名搜索为 ft_file_business_name，按路径搜索为 ft_file_metadata_path），
+     * 启用后中缀搜索先走全文索引
+     */
+    @Setter
+    private boolean fullTextSearch;
+
+    /**
+     * 上传时是否同时计算 CRC32C（保存到元数据，支持的存储端据此校验写入完整性）
+     */
+    @Setter
+    private boolean crc32cEnabled = true;
+
+    /**
+     * 上传长度达到该值（或长度未知）时，校验和在独立线程上计算，与写入暂存文件重叠；小于0表示不重叠
+     */
+    @Setter
+    private long overlappedChecksumThreshold = 8L * 1024 * 1024;
+
+    /**
+     * 事务模板（可选），孤立对象回收在事务中删除元数据和对象，见 {@link #collectGarbage}
+     */
+    @Setter
+    private TransactionTemplate transactionTemplate;
+
     // ==================== OssClient 接口实现（模板方法） ====================
 
     @Override
-    public final String upload(InputStream inputStream, String fileName, String contentType) {
-        log.info("正在上传文件: 文件名={}, 内容类型={}", fileName, contentType);
+    public final FileMetadata uploadContent(InputStream inputStream, String fileName, String contentType,
+                                            long contentLength) {
+        log.info("正在上传文件: 文件名={}, 内容类型={}, 长度={}", fileName, contentType, contentLength);
 
         try {
             // 1. 参数验证
@@ -48,20 +199,37 @@ public abstract class AbstractOssClient implements OssClient {
                 throw new IllegalArgumentException("FileName cannot be null or blank");
             }
 
-            // 2. 计算文件大小和 MD5
-            byte[] contentBytes = inputStream.readAllBytes();
-            long fileSize = contentBytes.length;
-            String md5 = calculateMd5(contentBytes);
+            // 2. 流式写入暂存文件，同时计算文件大小和校验和
+            Path stagedFile = Files.createTempFile(stagingDirectory(), "upload-", ".tmp");
+            try {
+                ChecksumInputStream checksumStream = new ChecksumInputStream(inputStream, crc32cEnabled,
+                        overlapChecksum(contentLength));
+                long fileSize;
+                try (checksumStream) {
+                    fileSize = doStage(checksumStream, stagedFile, contentLength);
+                }
+                ChecksumInputStream.Checksums checksums = checksumStream.checksums();
+                String md5 = checksums.md5();
+
+                // 3. 内容已存在时直接复用，跳过写入（暂存文件在 finally 中删除）
+                String existingPath = findReusablePath(md5);
+                if (existingPath != null) {
+                    log.info("文件内容已存在，跳过写入: 文件名={}, 路径={}", fileName, existingPath);
+                    return storedContent(fileName, existingPath, checksums, contentType, fileSize);
+                }
 
-            // 3. 调用扩展点（由子类实现 - 外部能力）
-            String filePath = doUpload(contentBytes, fileName, contentType);
-            log.debug("文件已上传到: 路径={}", filePath);
+                // 4. 调用扩展点（由子类实现 - 外部能力），按内容寻址的键存储，实现类可直接移动暂存文件
+                String filePath = doUpload(stagedFile, fileSize, contentKey(md5), contentType, checksums.crc32c());
+                log.debug("文件已上传到: 路径={}, 大小={}", filePath, fileSize);
 
-            // 4. 持久化元数据到 file_metadata 表（数据库操作）
-            saveFileMetadata(md5, contentType, fileSize, filePath);
+                // 5. 持久化元数据到 file_metadata 表（数据库操作）
+                saveFileMetadata(md5, checksums.crc32c(), contentType, fileSize, filePath);
 
-            log.info("文件上传成功: 文件名={}, 路径={}", fileName, filePath);
-            return filePath;
+                log.info("文件上传成功: 文件名={}, 路径={}", fileName, filePath);
+                return storedContent(fileName, filePath, checksums, contentType, fileSize);
+            } finally {
+                Files.deleteIfExists(stagedFile);
+            }
 
         } catch (Exception e) {
             log.error("文件上传失败: 文件名={}", fileName, e);
@@ -70,27 +238,25 @@ public abstract class AbstractOssClient implements OssClient {
     }
 
     @Override
-    public final InputStream download(String filePath) {
-        log.info("正在下载文件: 路径={}", filePath);
+    public final InputStream download(String filePath, long offset, long length) {
+        log.info("正在下载文件: 路径={}, 偏移量={}, 长度={}", filePath, offset, length);
 
         try {
             // 1. 参数验证
             if (filePath == null || filePath.isBlank()) {
                 throw new IllegalArgumentException("FilePath cannot be null or blank");
             }
+            validateRange(offset, length);
 
-            // 2. 从数据库查询文件元数据（数据库操作）
-            FileMetadataDO metadata = metadataMapper.selectOne(
-                    Wrappers.<FileMetadataDO>lambdaQuery()
-                            .eq(FileMetadataDO::getPath, filePath)
-            );
-
-            if (metadata == null) {
+            // 2. 校验文件元数据存在（数据库操作，启用缓存时优先读缓存；可信读取可关闭校验）
+            if (verifyReads && findMetadataId(filePath) == null) {
                 throw new IllegalArgumentException("File not found: " + filePath);
             }
 
             // 3. 调用扩展点（由子类实现 - 外部能力）
-            InputStream inputStream = doDownload(filePath);
+            InputStream inputStream = offset == 0 && length < 0
+                                              ? doDownload(filePath)
+                                              : doDownload(filePath, offset, length);
             log.info("File downloaded successfully: filePath={}", filePath);
 
             return inputStream;
@@ -101,6 +267,37 @@ public abstract class AbstractOssClient implements OssClient {
         }
     }
 
+    @Override
+    public final long transferTo(String filePath, long offset, long length, WritableByteChannel target) {
+        log.info("正在传输文件: 路径={}, 偏移量={}, 长度={}", filePath, offset, length);
+
+        try {
+            // 1. 参数验证
+            if (filePath == null || filePath.isBlank()) {
+                throw new IllegalArgumentException("FilePath cannot be null or blank");
+            }
+            validateRange(offset, length);
+            if (target == null) {
+                throw new IllegalArgumentException("Target channel cannot be null");
+            }
+
+            // 2. 校验文件元数据存在（数据库操作，启用缓存时优先读缓存；可信读取可关闭校验）
+            if (verifyReads && findMetadataId(filePath) == null) {
+                throw new IllegalArgumentException("File not found: " + filePath);
+            }
+
+            // 3. 调用扩展点（由子类实现 - 外部能力）
+            long transferred = doTransferTo(filePath, offset, length, target);
+            log.info("File transferred successfully: filePath={}, size={}", filePath, transferred);
+
+            return transferred;
+
+        } catch (Exception e) {
+            log.error("文件传输失败: 路径={}", filePath, e);
+            throw new ClientException("File transfer failed: " + filePath, e, ClientErrorCode.OPERATION_FAILED);
+        }
+    }
+
     @Override
     public final void delete(String filePath) {
         log.info("Deleting file: filePath={}", filePath);
@@ -111,24 +308,15 @@ public abstract class AbstractOssClient implements OssClient {
                 throw new IllegalArgumentException("FilePath cannot be null or blank");
             }
 
-            // 2. 从数据库查询文件元数据（数据库操作）
-            FileMetadataDO metadata = metadataMapper.selectOne(
-                    Wrappers.<FileMetadataDO>lambdaQuery()
-                            .eq(FileMetadataDO::getPath, filePath)
-            );
-
-            if (metadata == null) {
+            // 2. 查询文件元数据ID（数据库操作，启用缓存时优先读缓存）
+            if (findMetadataId(filePath) == null) {
                 log.warn("删除时文件元数据未找到: 路径={}", filePath);
                 return;
             }
 
-            // 3. 调用扩展点（由子类实现 - 外部能力）
-            doDelete(filePath);
-
-            // 4. 标记删除元数据（数据库操作）
-            deleteFileMetadata(metadata.getId());
-
-            log.info("文件删除成功: 路径={}", filePath);
+            // 3. 相同内容只存一份，对象可能被其他业务文件引用：这里不删除对象和元数据，
+            //    调用方删除自己的 file_business 关联后，没有引用的对象由 collectGarbage 在宽限期后回收
+            log.info("文件引用已释放，对象由孤立对象回收处理: 路径={}", filePath);
 
         } catch (Exception e) {
             log.error("Failed to delete file: filePath={}", filePath, e);
@@ -146,8 +334,11 @@ public abstract class AbstractOssClient implements OssClient {
                 throw new IllegalArgumentException("FilePath cannot be null or blank");
             }
 
-            // 2. 调用扩展点（由子类实现 - 外部能力）
-            String url = doGenerateUrl(filePath, expireSeconds);
+            // 2. 有时效 URL 优先复用缓存；否则调用扩展点（由子类实现 - 外部能力）
+            PresignedUrlCache cache = urlCache;
+            String url = cache != null && expireSeconds > 0
+                                 ? cache.get(List.of(filePath), expireSeconds, this::doGenerateUrl).get(filePath)
+                                 : doGenerateUrl(filePath, expireSeconds);
             log.debug("URL generated successfully: filePath={}, url={}", filePath, url);
 
             return url;
@@ -159,25 +350,147 @@ public abstract class AbstractOssClient implements OssClient {
     }
 
     @Override
+    public final Map<String, String> generateUrls(Collection<String> filePaths, long expireSeconds) {
+        log.debug("Generating URLs in batch: count={}, expireSeconds={}", filePaths.size(), expireSeconds);
+
+        try {
+            // 1. 参数验证
+            for (String filePath : filePaths) {
+                if (filePath == null || filePath.isBlank()) {
+                    throw new IllegalArgumentException("FilePath cannot be null or blank");
+                }
+            }
+
+            // 2. 有时效 URL 走缓存：未命中的路径一次查询数据库、一次写回
+            PresignedUrlCache cache = urlCache;
+            if (cache != null && expireSeconds > 0) {
+                return cache.get(filePaths, expireSeconds, this::doGenerateUrl);
+            }
+            Map<String, String> urls = new LinkedHashMap<>();
+            for (String filePath : filePaths) {
+                urls.put(filePath, doGenerateUrl(filePath, expireSeconds));
+            }
+            return urls;
+
+        } catch (Exception e) {
+            log.error("批量生成URL失败: 数量={}", filePaths.size(), e);
+            throw new ClientException("URL generation failed", e, ClientErrorCode.OPERATION_FAILED);
+        }
+    }
+
+    @Override
+    @Deprecated
     public final List<FileMetadata> searchFiles(String fileNamePattern) {
         log.debug("Searching files: fileNamePattern={}", fileNamePattern);
 
+        // 兼容旧接口：逐页读取全部结果，每页仍走分页查询
+        List<FileMetadata> files = new ArrayList<>();
+        String lastId = null;
+        do {
+            PageResult<FileMetadata> page = searchFiles(FileSearchRequest.builder()
+                                                                .setFileNamePattern(fileNamePattern)
+                                                                .setPreLastId(lastId)
+                                                                .setPageSize((long) MAX_SEARCH_PAGE_SIZE)
+                                                                .build());
+            files.addAll(page.getRecords());
+            lastId = page.getLastId();
+        } while (lastId != null);
+        return files;
+    }
+
+    @Override
+    public final PageResult<FileMetadata> searchFiles(FileSearchRequest request) {
+        log.debug("Searching files: fileNamePattern={}, preLastId={}, pageSize={}",
+                request.getFileNamePattern(), request.getPreLastId(), request.getPageSize());
+
         try {
-            // 1. 从数据库查询文件元数据（数据库操作）
-            List<FileMetadataDO> metadataDOs = queryFileMetadataByPattern(fileNamePattern);
-            log.debug("Found {} fileMetadata", metadataDOs.size());
+            // 1. 参数验证
+            int pageSize = request.getPageSize() == null ? DEFAULT_SEARCH_PAGE_SIZE
+                                   : (int) Math.min(request.getPageSize(), MAX_SEARCH_PAGE_SIZE);
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("Page size must be positive: " + request.getPageSize());
+            }
 
-            // 2. 转换为领域对象
-            return metadataDOs.stream()
-                           .map(this::convertToFileMetadata)
-                           .toList();
+            // 2. 多查一条判断是否有下一页（数据库操作）
+            String pattern = request.getFileNamePattern();
+            boolean byPath = pattern != null && !pattern.isBlank() && !isWildcard(pattern.charAt(0));
+            if (businessMapper != null) {
+                return searchByName(pattern, byPath, request.getPreLastId(), pageSize);
+            }
+            List<FileMetadataDO> metadataDOs = metadataMapper.selectList(
+                    searchQuery(pattern, byPath, request.getPreLastId()).last("LIMIT " + (pageSize + 1)));
+            boolean hasNext = metadataDOs.size() > pageSize;
+            List<FileMetadataDO> page = hasNext ? metadataDOs.subList(0, pageSize) : metadataDOs;
+            log.debug("Found {} fileMetadata, hasNext={}", page.size(), hasNext);
+
+            // 3. 转换为领域对象，游标为本页最后一条的排序键
+            String lastId = null;
+            if (hasNext) {
+                FileMetadataDO last = page.getLast();
+                lastId = byPath ? last.getPath() : String.valueOf(last.getId());
+            }
+            return SimplePageResult.<FileMetadata>builder()
+                           .setPageSize((long) pageSize)
+                           .setRecords(page.stream().map(this::convertToFileMetadata).toList())
+                           .setLastId(lastId)
+                           .build();
 
         } catch (Exception e) {
-            log.error("文件搜索失败: 文件名模式={}", fileNamePattern, e);
+            log.error("文件搜索失败: 文件名模式={}", request.getFileNamePattern(), e);
             throw new ClientException("FileMetadata search failed", e, ClientErrorCode.OPERATION_FAILED);
         }
     }
 
+    /**
+     * 按原始文件名（file_business.name）搜索，每条业务文件返回一条结果，文件名为业务文件名称
+     * @param pattern   文件名模式（支持通配符 * 和 ?）
+     * @param byName    是否按文件名排序（前缀模式）
+     * @param preLastId 上一页最后一条的游标，首页为null
+     * @param pageSize  每页数量
+     * @return 本页文件
+     */
+    private PageResult<FileMetadata> searchByName(String pattern, boolean byName, String preLastId, int pageSize) {
+        List<FileBusinessDO> businessDOs = businessMapper.selectList(
+                nameSearchQuery(pattern, byName, preLastId).last("LIMIT " + (pageSize + 1)));
+        boolean hasNext = businessDOs.size() > pageSize;
+        List<FileBusinessDO> page = hasNext ? businessDOs.subList(0, pageSize) : businessDOs;
+        log.debug("Found {} business files, hasNext={}", page.size(), hasNext);
+
+        // 本页关联的元数据一次 IN 查询加载，保持业务文件的顺序
+        Map<Long, FileMetadataDO> metadataById = new HashMap<>();
+        List<Long> metadataIds = page.stream()
+                                         .map(businessDO -> Long.parseLong(businessDO.getFileMetaId()))
+                                         .distinct()
+                                         .toList();
+        if (!metadataIds.isEmpty()) {
+            metadataMapper.selectList(Wrappers.<FileMetadataDO>lambdaQuery().in(FileMetadataDO::getId, metadataIds))
+                    .forEach(metadataDO -> metadataById.put(metadataDO.getId(), metadataDO));
+        }
+        List<FileMetadata> records = new ArrayList<>(page.size());
+        for (FileBusinessDO businessDO : page) {
+            FileMetadataDO metadataDO = metadataById.get(Long.parseLong(businessDO.getFileMetaId()));
+            if (metadataDO == null) {
+                log.warn("File metadata not found for business file: fileMetaId={}", businessDO.getFileMetaId());
+                continue;
+            }
+            FileMetadata fileMetadata = convertToFileMetadata(metadataDO);
+            fileMetadata.setFileName(businessDO.getName());
+            records.add(fileMetadata);
+        }
+
+        // 前缀模式按 (name, id) 排序，游标为 "id:name"；其他模式按ID排序，游标为ID
+        String lastId = null;
+        if (hasNext) {
+            FileBusinessDO last = page.getLast();
+            lastId = byName ? last.getId() + ":" + last.getName() : String.valueOf(last.getId());
+        }
+        return SimplePageResult.<FileMetadata>builder()
+                       .setPageSize((long) pageSize)
+                       .setRecords(records)
+                       .setLastId(lastId)
+                       .build();
+    }
+
     @Override
     public final boolean exists(String filePath) {
         log.debug("Checking file existence: filePath={}", filePath);
@@ -222,17 +535,322 @@ public abstract class AbstractOssClient implements OssClient {
         }
     }
 
+    // ==================== 分片上传（模板方法） ====================
+
+    @Override
+    public final String initiateMultipartUpload(String fileName, String contentType, long totalSize, long partSize) {
+        log.info("正在发起分片上传: 文件名={}, 内容类型={}, 总大小={}, 分片大小={}", fileName, contentType, totalSize, partSize);
+
+        try {
+            // 1. 参数验证
+            requireMultipartSupport();
+            if (fileName == null || fileName.isBlank()) {
+                throw new IllegalArgumentException("FileName cannot be null or blank");
+            }
+            if (partSize < minimumPartSize()) {
+                throw new IllegalArgumentException("Part size must be at least " + minimumPartSize() + " bytes");
+            }
+            if (totalSize >= 0 && (totalSize + partSize - 1) / partSize > MAX_PARTS) {
+                throw new IllegalArgumentException("Too many parts, increase part size: max=" + MAX_PARTS);
+            }
+
+            // 2. 调用扩展点（由子类实现 - 外部能力）
+            String uploadId = UUID.randomUUID().toString().replace("-", "");
+            String storageUploadId = doInitiateMultipart(uploadId, contentType, totalSize);
+
+            // 3. 持久化会话（数据库操作）
+            FileUploadSessionDO session = FileUploadSessionDO.builder()
+                                                  .uploadId(uploadId)
+                                                  .storageUploadId(storageUploadId)
+                                                  .fileName(fileName)
+                                                  .contentType(contentType)
+                                                  .totalSize(totalSize)
+                                                  .partSize(partSize)
+                                                  .status(UPLOADING)
+                                                  .expireTime(Instant.now().plus(multipartExpiry))
+                                                  .build();
+            sessionMapper.insert(session);
+
+            log.info("分片上传已发起: uploadId={}", uploadId);
+            return uploadId;
+
+        } catch (Exception e) {
+            log.error("发起分片上传失败: 文件名={}", fileName, e);
+            throw new ClientException("Multipart upload initiation failed: " + fileName, e,
+                    ClientErrorCode.OPERATION_FAILED);
+        }
+    }
+
+    @Override
+    public final String uploadPart(String uploadId, int partNumber, InputStream content, String md5) {
+        log.debug("正在上传分片: uploadId={}, 序号={}", uploadId, partNumber);
+
+        try {
+            // 1. 参数验证
+            if (content == null) {
+                throw new IllegalArgumentException("Content cannot be null");
+            }
+            FileUploadSessionDO session = requireSession(uploadId, UPLOADING);
+            long partCount = partCount(session);
+            if (partNumber < 1 || partNumber > (partCount >= 0 ? partCount : MAX_PARTS)) {
+                throw new IllegalArgumentException("Part number out of range: " + partNumber);
+            }
+            long expectedSize = partCount >= 0 && partNumber == partCount
+                                        ? session.getTotalSize() - (partCount - 1) * session.getPartSize()
+                                        : session.getPartSize();
+
+            // 2. 流式写入暂存文件，同时计算分片 MD5
+            Path stagedPart = Files.createTempFile(stagingDirectory(), "part-", ".tmp");
+            try {
+                ChecksumInputStream checksumStream = new ChecksumInputStream(content, false,
+                        overlapChecksum(expectedSize));
+                long size;
+                try (checksumStream) {
+                    size = doStage(checksumStream, stagedPart, expectedSize);
+                }
+                String partMd5 = checksumStream.checksums().md5();
+
+                // 3. 校验分片：总大小已知时除最后一个分片外大小必须等于分片大小，未知时不能超过分片大小
+                boolean sizeMatches = partCount >= 0 ? size == expectedSize : size > 0 && size <= expectedSize;
+                if (!sizeMatches) {
+                    throw new IllegalArgumentException("Unexpected part size: part=" + partNumber + ", size=" + size);
+                }
+                if (md5 != null && !md5.equalsIgnoreCase(partMd5)) {
+                    throw new IllegalArgumentException("Part checksum mismatch: part=" + partNumber);
+                }
+
+                // 4. 调用扩展点（由子类实现 - 外部能力）
+                long offset = (partNumber - 1) * session.getPartSize();
+                String etag = doUploadPart(session, partNumber, offset, stagedPart, size, partMd5);
+
+                // 5. 记录分片（数据库操作），重传时覆盖
+                partMapper.upsertByPartNumber(FileUploadPartDO.builder()
+                                                      .uploadId(uploadId)
+                                                      .partNumber(partNumber)
+                                                      .size(size)
+                                                      .md5(partMd5)
+                                                      .etag(etag)
+                                                      .build());
+
+                log.debug("分片上传成功: uploadId={}, 序号={}, 大小={}", uploadId, partNumber, size);
+                return partMd5;
+            } finally {
+                Files.deleteIfExists(stagedPart);
+            }
+
+        } catch (Exception e) {
+            log.error("分片上传失败: uploadId={}, 序号={}", uploadId, partNumber, e);
+            throw new ClientException("Part upload failed: " + uploadId + "#" + partNumber, e,
+                    ClientErrorCode.OPERATION_FAILED);
+        }
+    }
+
+    @Override
+    public final List<Integer> listUploadedParts(String uploadId) {
+        try {
+            requireSession(uploadId, UPLOADING);
+            return queryParts(uploadId).stream()
+                           .map(FileUploadPartDO::getPartNumber)
+                           .toList();
+        } catch (Exception e) {
+            log.error("查询已上传分片失败: uploadId={}", uploadId, e);
+            throw new ClientException("Failed to list uploaded parts: " + uploadId, e, ClientErrorCode.OPERATION_FAILED);
+        }
+    }
+
+    @Override
+    public final String completeMultipartUpload(String uploadId) {
+        log.info("正在完成分片上传: uploadId={}", uploadId);
+
+        try {
+            // 1. 原子地把会话切换为组装中，防止并发重复完成
+            FileUploadSessionDO session = requireSession(uploadId, UPLOADING);
+            if (sessionMapper.transition(uploadId, UPLOADING, COMPLETING, null) == 0) {
+                throw new IllegalStateException("Multipart upload is being completed or aborted: " + uploadId);
+            }
+
+            try {
+                // 2. 校验分片连续且大小一致
+                List<FileUploadPartDO> parts = queryParts(uploadId);
+                long totalSize = validateParts(session, parts);
+
+                // 3. 计算内容标识：各分片 MD5 拼接后的 MD5 加分片数（与 S3 分片上传的 ETag 规则一致）
+                MessageDigest digest = newMd5Digest();
+                parts.forEach(part -> digest.update(HexFormat.of().parseHex(part.getMd5())));
+                String md5 = toHex(digest.digest()) + "-" + parts.size();
+
+                // 4. 内容已存在时复用并清理已上传的分片，否则调用扩展点组装
+                String filePath = findReusablePath(md5);
+                if (filePath != null) {
+                    doAbortMultipart(session);
+                    log.info("文件内容已存在，跳过组装: uploadId={}, 路径={}", uploadId, filePath);
+                } else {
+                    filePath = doCompleteMultipart(session, parts, contentKey(md5));
+                    // 分片组装的对象没有整体 CRC32C（不能由分片的校验和合并得到）
+                    saveFileMetadata(md5, null, session.getContentType(), totalSize, filePath);
+                }
+
+                // 5. 更新会话状态并清理分片记录（数据库操作）
+                sessionMapper.transition(uploadId, COMPLETING, COMPLETED, filePath);
+                partMapper.delete(Wrappers.<FileUploadPartDO>lambdaQuery().eq(FileUploadPartDO::getUploadId, uploadId));
+
+                log.info("分片上传完成: uploadId={}, 分片数={}, 路径={}", uploadId, parts.size(), filePath);
+                return filePath;
+            } catch (Exception e) {
+                // 组装失败时恢复为上传中，客户端可以补传分片后重试
+                sessionMapper.transition(uploadId, COMPLETING, UPLOADING, null);
+                throw e;
+            }
+
+        } catch (Exception e) {
+            log.error("完成分片上传失败: uploadId={}", uploadId, e);
+            throw new ClientException("Multipart upload completion failed: " + uploadId, e,
+                    ClientErrorCode.OPERATION_FAILED);
+        }
+    }
+
+    @Override
+    public final void abortMultipartUpload(String uploadId) {
+        log.info("正在中止分片上传: uploadId={}", uploadId);
+
+        try {
+            FileUploadSessionDO session = requireSession(uploadId, UPLOADING);
+            if (sessionMapper.transition(uploadId, UPLOADING, ABORTED, null) == 0) {
+                throw new IllegalStateException("Multipart upload is being completed or aborted: " + uploadId);
+            }
+            doAbortMultipart(session);
+            partMapper.delete(Wrappers.<FileUploadPartDO>lambdaQuery().eq(FileUploadPartDO::getUploadId, uploadId));
+            log.info("分片上传已中止: uploadId={}", uploadId);
+        } catch (Exception e) {
+            log.error("中止分片上传失败: uploadId={}", uploadId, e);
+            throw new ClientException("Multipart upload abort failed: " + uploadId, e, ClientErrorCode.OPERATION_FAILED);
+        }
+    }
+
+    /**
+     * 中止已过期的分片上传会话，清理存储端的分片数据
+     * @param batchSize 每批处理的数量
+     * @return 中止的会话数量
+     */
+    public int abortExpiredMultipartUploads(int batchSize) {
+        if (sessionMapper == null) {
+            return 0;
+        }
+        int aborted = 0;
+        int batchAborted;
+        List<FileUploadSessionDO> expired;
+        do {
+            expired = sessionMapper.selectList(
+                    Wrappers.<FileUploadSessionDO>lambdaQuery()
+                            .eq(FileUploadSessionDO::getStatus, UPLOADING)
+                            .lt(FileUploadSessionDO::getExpireTime, Instant.now())
+                            .last("LIMIT " + batchSize));
+            batchAborted = 0;
+            for (FileUploadSessionDO session : expired) {
+                try {
+                    abortMultipartUpload(session.getUploadId());
+                    batchAborted++;
+                } catch (ClientException e) {
+                    log.warn("中止过期分片上传失败: uploadId={}", session.getUploadId(), e);
+                }
+            }
+            aborted += batchAborted;
+            // 整批都失败时停止，避免反复查询到同一批会话
+        } while (expired.size() >= batchSize && batchAborted > 0);
+        if (aborted > 0) {
+            log.info("已中止过期分片上传: 数量={}", aborted);
+        }
+        return aborted;
+    }
+
     // ==================== 扩展点（由子类实现 - 仅处理外部能力） ====================
 
     /**
      * 上传文件（扩展点 - 外部能力）
-     * @param contentBytes 文件内容字节数组
-     * @param fileName     文件名
-     * @param contentType  MIME 类型
+     *
+     * <p>内容已完整写入暂存文件，实现类可以移动（rename）该文件或从中流式读取；调用返回后暂存文件若仍存在会被删除。
+     * 相同内容的键相同，并发上传相同内容时实现类需要允许覆盖已存在的对象。
+     * @param stagedFile  暂存文件
+     * @param size        文件大小（字节）
+     * @param key         内容寻址的存储键（见 {@link #contentKey}）
+     * @param contentType MIME 类型
+     * @return 文件存储路径
+     * @throws Exception 上传失败
+     */
+    protected abstract String doUpload(Path stagedFile, long size, String key, String contentType) throws Exception;
+
+    /**
+     * 上传文件（扩展点 - 外部能力），携带 CRC32C；支持校验和的存储端应覆盖此方法，由存储端校验写入完整性。
+     * 默认忽略 CRC32C，调用 {@link #doUpload(Path, long, String, String)}
+     * @param stagedFile  暂存文件（已完整写入）
+     * @param size        文件大小（字节）
+     * @param key         存储键
+     * @param contentType MIME 类型
+     * @param crc32c      CRC32C（8位十六进制），未计算时为null
      * @return 文件存储路径
      * @throws Exception 上传失败
      */
-    protected abstract String doUpload(byte[] contentBytes, String fileName, String contentType) throws Exception;
+    protected String doUpload(Path stagedFile, long size, String key, String contentType, String crc32c)
+            throws Exception {
+        return doUpload(stagedFile, size, key, contentType);
+    }
+
+    /**
+     * 将上传流写入暂存文件（扩展点），默认使用 {@link Files#copy(InputStream, Path, java.nio.file.CopyOption...)}
+     * @param source        上传流（已包装摘要计算，实现类必须完整读取）
+     * @param stagedFile    暂存文件（已创建）
+     * @param contentLength 文件长度（字节），未知时为-1
+     * @return 写入的字节数
+     * @throws IOException 写入失败
+     */
+    protected long doStage(InputStream source, Path stagedFile, long contentLength) throws IOException {
+        return Files.copy(source, stagedFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 下载文件的一个字节范围并写入目标通道（扩展点），默认从 {@link #doDownload(String, long, long)} 的流复制
+     * @param filePath 文件路径
+     * @param offset   起始偏移量
+     * @param length   传输长度，-1表示传输到文件末尾
+     * @param target   目标通道
+     * @return 写入的字节数
+     * @throws Exception 传输失败
+     */
+    protected long doTransferTo(String filePath, long offset, long length, WritableByteChannel target) throws Exception {
+        try (InputStream inputStream = offset == 0 && length < 0
+                                               ? doDownload(filePath)
+                                               : doDownload(filePath, offset, length)) {
+            return inputStream.transferTo(Channels.newOutputStream(target));
+        }
+    }
+
+    /**
+     * 下载文件的一个字节范围（扩展点），默认跳过完整文件流的前 offset 个字节；支持随机读或范围请求的实现应覆盖
+     * @param filePath 文件路径
+     * @param offset   起始偏移量
+     * @param length   读取长度，-1表示读取到文件末尾
+     * @return 文件流
+     * @throws Exception 下载失败
+     */
+    protected InputStream doDownload(String filePath, long offset, long length) throws Exception {
+        InputStream inputStream = doDownload(filePath);
+        try {
+            inputStream.skipNBytes(offset);
+        } catch (IOException e) {
+            inputStream.close();
+            throw e;
+        }
+        return length < 0 ? inputStream : ByteStreams.limit(inputStream, length);
+    }
+
+    /**
+     * 暂存目录（扩展点），默认为系统临时目录；与存储目录位于同一文件系统时，实现类可以原子移动暂存文件
+     * @return 暂存目录
+     * @throws IOException 目录创建失败
+     */
+    protected Path stagingDirectory() throws IOException {
+        return Path.of(System.getProperty("java.io.tmpdir"));
+    }
 
     /**
      * 下载文件（扩展点 - 外部能力）
@@ -258,6 +876,14 @@ public abstract class AbstractOssClient implements OssClient {
      */
     protected abstract String doGenerateUrl(String filePath, long expireSeconds) throws Exception;
 
+    /**
+     * 存储允许的最长 URL 有效期，签发时复用窗口不超过该值（扩展点，默认不限制）
+     * @return 最长有效期，null 表示不限制
+     */
+    protected Duration maximumUrlLifetime() {
+        return null;
+    }
+
     /**
      * 检查文件是否存在（扩展点 - 外部能力）
      * @param filePath 文件存储路径
@@ -274,76 +900,439 @@ public abstract class AbstractOssClient implements OssClient {
      */
     protected abstract long doGetFileSize(String filePath) throws Exception;
 
+    /**
+     * 发起分片上传（扩展点 - 外部能力）
+     * @param uploadId    上传会话ID
+     * @param contentType MIME 类型
+     * @param totalSize   文件总大小（字节），未知时为-1
+     * @return 存储端的上传ID
+     * @throws Exception 发起失败
+     */
+    protected abstract String doInitiateMultipart(String uploadId, String contentType, long totalSize) throws Exception;
+
+    /**
+     * 上传分片（扩展点 - 外部能力），分片可能乱序、并行到达
+     * @param session    上传会话
+     * @param partNumber 分片序号，从1开始
+     * @param offset     分片在文件中的偏移量
+     * @param stagedPart 已校验的分片暂存文件
+     * @param size       分片大小（字节）
+     * @param md5        分片MD5值
+     * @return 存储端的分片标识
+     * @throws Exception 上传失败
+     */
+    protected abstract String doUploadPart(FileUploadSessionDO session, int partNumber, long offset, Path stagedPart,
+                                           long size, String md5) throws Exception;
+
+    /**
+     * 完成分片上传（扩展点 - 外部能力），在存储端按序号组装分片
+     * @param session 上传会话
+     * @param parts   按序号升序排列的全部分片
+     * @param key     内容寻址的存储键
+     * @return 文件存储路径
+     * @throws Exception 组装失败
+     */
+    protected abstract String doCompleteMultipart(FileUploadSessionDO session, List<FileUploadPartDO> parts, String key)
+            throws Exception;
+
+    /**
+     * 中止分片上传（扩展点 - 外部能力），清理已上传的分片
+     * @param session 上传会话
+     * @throws Exception 清理失败
+     */
+    protected abstract void doAbortMultipart(FileUploadSessionDO session) throws Exception;
+
+    /**
+     * 最小分片大小（扩展点），默认不限制；S3 要求除最后一个分片外不小于 5MB
+     * @return 最小分片大小（字节）
+     */
+    protected long minimumPartSize() {
+        return 1;
+    }
+
     // ==================== 数据库操作（统一在基类中） ====================
 
     /**
      * 保存文件元数据到 file_metadata 表
      * @param md5         文件 MD5
+     * @param crc32c      文件 CRC32C，未计算时为null
      * @param contentType MIME 类型
      * @param size        文件大小（字节）
      * @param path        文件存储路径
      */
-    protected void saveFileMetadata(String md5, String contentType, long size, String path) {
+    protected void saveFileMetadata(String md5, String crc32c, String contentType, long size, String path) {
         FileMetadataDO metadata = new FileMetadataDO();
         metadata.setMd5(md5);
+        metadata.setCrc32c(crc32c);
         metadata.setContentType(contentType);
         metadata.setSize(size);
         metadata.setPath(path);
 
-        metadataMapper.insert(metadata);
+        try {
+            metadataMapper.insert(metadata);
+        } catch (DuplicateKeyException e) {
+            // md5 已有元数据：并发上传了相同内容（对象已写入同一个键），或旧版本逻辑删除的行仍占用唯一键；
+            // 恢复被逻辑删除的行并刷新更新时间，保证上传返回后存在有效的元数据
+            metadataMapper.revive(md5, path);
+            log.debug("File metadata already exists, revived: md5={}, path={}", md5, path);
+            return;
+        }
         log.debug("File metadata saved: id={}, path={}", metadata.getId(), path);
     }
 
     /**
-     * 删除文件元数据（逻辑删除）
+     * 上传结果：存储路径和本次上传流计算的校验和、大小（复用已有内容时与已有内容相同）
+     */
+    private static FileMetadata storedContent(String fileName, String filePath, ChecksumInputStream.Checksums checksums,
+                                              String contentType, long fileSize) {
+        return FileMetadata.builder()
+                       .setFileName(fileName)
+                       .setFilePath(filePath)
+                       .setMd5(checksums.md5())
+                       .setCrc32c(checksums.crc32c())
+                       .setContentType(contentType)
+                       .setFileSize(fileSize)
+                       .setStatus(Status.ACTIVE)
+                       .build();
+    }
+
+    /**
+     * 是否在独立线程上计算校验和：长度未知或达到阈值时重叠，小文件同步计算避免复制开销
+     * @param contentLength 上传长度，未知时为-1
+     */
+    private boolean overlapChecksum(long contentLength) {
+        return overlappedChecksumThreshold >= 0 && (contentLength < 0 || contentLength >= overlappedChecksumThreshold);
+    }
+
+    /**
+     * 查找可复用的已有内容：按 MD5 查询元数据，刷新其更新时间（避免被垃圾回收）并确认对象仍存在
+     * @param md5 文件MD5值
+     * @return 已有内容的存储路径，不可复用时为null
+     * @throws Exception 检查对象是否存在失败
+     */
+    protected String findReusablePath(String md5) throws Exception {
+        FileMetadataDO existing = metadataMapper.selectOne(
+                Wrappers.<FileMetadataDO>lambdaQuery()
+                        .eq(FileMetadataDO::getMd5, md5)
+        );
+        if (existing == null || existing.getPath() == null || metadataMapper.touch(existing.getId()) == 0) {
+            return null;
+        }
+        return doExists(existing.getPath()) ? existing.getPath() : null;
+    }
+
+    /**
+     * 内容寻址的存储键：{md5[0..2]}/{md5[2..4]}/{md5}，前两级目录把对象分散到 65536 个目录中
+     * @param md5 文件MD5值
+     * @return 存储键
+     */
+    protected String contentKey(String md5) {
+        return md5.substring(0, 2) + "/" + md5.substring(2, 4) + "/" + md5;
+    }
+
+    /**
+     * 回收孤立对象：删除没有任何有效 file_business 引用、且在宽限期内未被上传复用的元数据及其对象。
      *
-     * <p>使用 MyBatis Plus 的 @TableLogic 自动处理逻辑删除：
-     * <ul>
-     *   <li>deleteById 会自动转换为 UPDATE SET delete_time = UNIX_TIMESTAMP(NOW()) * 1000</li>
-     *   <li>SELECT 会自动添加 WHERE delete_time = 0 条件</li>
-     * </ul>
+     * <p>引用计数即有效的 file_business 关联数。宽限期覆盖"对象已上传、业务关联尚未保存"的窗口，
+     * 删除元数据时会再次校验引用和更新时间，查询后被复用的内容不会被删除。
      *
-     * @param metadataId 元数据ID
+     * <p>配置了 {@link #setTransactionTemplate 事务} 时，元数据和对象在同一个事务中删除（见 {@link #collectOrphan}），
+     * 并发上传相同内容不会在对象删除前保存元数据；未配置时删除元数据和删除对象之间存在竞争窗口。
+     * @param gracePeriod 宽限期
+     * @param batchSize   每批处理的数量
+     * @return 回收的对象数量
      */
-    protected void deleteFileMetadata(Long metadataId) {
-        if (metadataId == null) {
-            log.warn("元数据ID为空，跳过删除");
-            return;
+    public int collectGarbage(Duration gracePeriod, int batchSize) {
+        Instant before = Instant.now().minus(gracePeriod);
+        int collected = 0;
+        long afterId = 0;
+        List<FileMetadataDO> orphans;
+        do {
+            orphans = metadataMapper.selectOrphans(afterId, before, batchSize);
+            for (FileMetadataDO orphan : orphans) {
+                afterId = orphan.getId();
+                try {
+                    if (collectOrphan(orphan, before)) {
+                        collected++;
+                    }
+                } catch (Exception e) {
+                    log.error("回收孤立对象失败: 路径={}", orphan.getPath(), e);
+                }
+            }
+        } while (orphans.size() >= batchSize);
+        log.info("孤立对象回收完成: 回收数量={}, 宽限期={}", collected, gracePeriod);
+        return collected;
+    }
+
+    /**
+     * 回收一个孤立对象：条件删除元数据后删除对象，两步在同一个事务中执行。
+     *
+     * <p>被删除的元数据行在提交前持有 md5 唯一键上的锁，并发上传相同内容时复用（touch）或插入元数据都会等到提交后，
+     * 此时对象已删除，上传发现内容不可复用并重新写入对象；对象删除失败时回滚，元数据保留，下次回收重试。
+     * @return 是否回收，查询后被引用或复用时为false
+     */
+    private boolean collectOrphan(FileMetadataDO orphan, Instant before) {
+        TransactionTemplate template = transactionTemplate;
+        if (template == null) {
+            return deleteOrphan(orphan, before);
         }
+        return Boolean.TRUE.equals(template.execute(status -> deleteOrphan(orphan, before)));
+    }
 
+    private boolean deleteOrphan(FileMetadataDO orphan, Instant before) {
+        if (metadataMapper.deleteOrphan(orphan.getId(), before) == 0) {
+            return false;
+        }
+        evictMetadataId(orphan.getPath());
         try {
-            // 使用 MyBatis Plus 逻辑删除（自动转换为 UPDATE）
-            int deleted = metadataMapper.deleteById(metadataId);
+            doDelete(orphan.getPath());
+        } catch (Exception e) {
+            throw new ClientException("Orphan object delete failed: " + orphan.getPath(), e,
+                    ClientErrorCode.OPERATION_FAILED);
+        }
+        return true;
+    }
+
+    /**
+     * 启用路径到元数据ID的本地缓存，下载、传输和删除不再每次查询数据库。
+     *
+     * <p>只缓存存在的元数据。本实例删除和回收时立即失效对应条目；其他实例的删除在条目过期后才可见，
+     * 期间读取已删除的对象由存储返回不存在错误。
+     * @param maximumSize      最大条目数
+     * @param expireAfterWrite 写入后过期时间
+     */
+    public void enableMetadataCache(long maximumSize, Duration expireAfterWrite) {
+        this.metadataIdCache = Caffeine.newBuilder()
+                                       .maximumSize(maximumSize)
+                                       .expireAfterWrite(expireAfterWrite)
+                                       .build();
+        log.info("文件元数据缓存已启用: 最大条目数={}, 过期时间={}", maximumSize, expireAfterWrite);
+    }
+
+    /**
+     * 启用有时效 URL 的缓存，见 {@link PresignedUrlCache}。
+     * @param maximumSize 本地缓存最大条目数
+     * @param bucket      有效期档位，请求的有效期向上取整到档位后共用 URL
+     * @param reuseRatio  签发时额外的复用窗口占档位的比例
+     */
+    public void enableUrlCache(long maximumSize, Duration bucket, double reuseRatio) {
+        this.urlCache = new PresignedUrlCache(metadataMapper, maximumSize, bucket, reuseRatio, maximumUrlLifetime());
+        log.info("URL缓存已启用: 最大条目数={}, 档位={}, 复用比例={}", maximumSize, bucket, reuseRatio);
+    }
+
+    /**
+     * 按存储路径查询文件元数据ID，启用缓存时优先读缓存
+     * @param filePath 文件路径
+     * @return 元数据ID，不存在时为null
+     */
+    protected Long findMetadataId(String filePath) {
+        Cache<String, Long> cache = metadataIdCache;
+        return cache != null ? cache.get(filePath, this::selectMetadataId) : selectMetadataId(filePath);
+    }
+
+    /**
+     * 按存储路径查询文件元数据ID（走 idx_file_metadata_path 覆盖索引，不回表）
+     */
+    private Long selectMetadataId(String filePath) {
+        FileMetadataDO metadata = metadataMapper.selectOne(
+                Wrappers.<FileMetadataDO>lambdaQuery()
+                        .select(FileMetadataDO::getId)
+                        .eq(FileMetadataDO::getPath, filePath)
+        );
+        return metadata != null ? metadata.getId() : null;
+    }
+
+    /**
+     * 失效路径对应的元数据ID缓存条目
+     */
+    private void evictMetadataId(String filePath) {
+        Cache<String, Long> cache = metadataIdCache;
+        if (cache != null) {
+            cache.invalidate(filePath);
+        }
+    }
+
+    /**
+     * 校验字节范围参数
+     * @param offset 起始偏移量
+     * @param length 长度，-1表示到文件末尾
+     */
+    private static void validateRange(long offset, long length) {
+        if (offset < 0 || length < -1) {
+            throw new IllegalArgumentException("Invalid range: offset=" + offset + ", length=" + length);
+        }
+    }
+
+    /**
+     * 查询处于指定状态的分片上传会话
+     * @param uploadId 上传会话ID
+     * @param status   期望的状态
+     * @return 上传会话
+     */
+    private FileUploadSessionDO requireSession(String uploadId, String status) {
+        requireMultipartSupport();
+        if (uploadId == null || uploadId.isBlank()) {
+            throw new IllegalArgumentException("UploadId cannot be null or blank");
+        }
+        FileUploadSessionDO session = sessionMapper.selectOne(
+                Wrappers.<FileUploadSessionDO>lambdaQuery()
+                        .eq(FileUploadSessionDO::getUploadId, uploadId)
+        );
+        if (session == null) {
+            throw new IllegalArgumentException("Multipart upload not found: " + uploadId);
+        }
+        if (!status.equals(session.getStatus())) {
+            throw new IllegalStateException("Multipart upload is " + session.getStatus() + ": " + uploadId);
+        }
+        return session;
+    }
+
+    private List<FileUploadPartDO> queryParts(String uploadId) {
+        return partMapper.selectList(
+                Wrappers.<FileUploadPartDO>lambdaQuery()
+                        .eq(FileUploadPartDO::getUploadId, uploadId)
+                        .orderByAsc(FileUploadPartDO::getPartNumber)
+        );
+    }
+
+    private void requireMultipartSupport() {
+        if (sessionMapper == null || partMapper == null) {
+            throw new UnsupportedOperationException("Multipart upload is not configured");
+        }
+    }
 
-            if (deleted > 0) {
-                log.info("文件元数据逻辑删除成功: id={}", metadataId);
-            } else {
-                log.warn("文件元数据删除失败或已删除: id={}", metadataId);
+    /**
+     * 分片数量，总大小未知时为-1
+     */
+    private static long partCount(FileUploadSessionDO session) {
+        long totalSize = session.getTotalSize();
+        return totalSize >= 0 ? Math.max(1, (totalSize + session.getPartSize() - 1) / session.getPartSize()) : -1;
+    }
+
+    /**
+     * 校验分片从1开始连续，且除最后一个分片外大小都等于分片大小
+     * @return 文件总大小
+     */
+    private static long validateParts(FileUploadSessionDO session, List<FileUploadPartDO> parts) {
+        if (parts.isEmpty()) {
+            throw new IllegalStateException("No parts uploaded: " + session.getUploadId());
+        }
+        long totalSize = 0;
+        for (int i = 0; i < parts.size(); i++) {
+            FileUploadPartDO part = parts.get(i);
+            if (part.getPartNumber() != i + 1) {
+                throw new IllegalStateException("Missing part: " + (i + 1));
+            }
+            if (i < parts.size() - 1 && part.getSize() != session.getPartSize().longValue()) {
+                throw new IllegalStateException("Only the last part may be smaller than the part size: " + (i + 1));
             }
+            totalSize += part.getSize();
+        }
+        if (session.getTotalSize() >= 0 && totalSize != session.getTotalSize()) {
+            throw new IllegalStateException("Size mismatch: expected=" + session.getTotalSize() + ", actual=" + totalSize);
+        }
+        return totalSize;
+    }
 
-        } catch (Exception e) {
-            log.error("文件元数据删除异常: id={}", metadataId, e);
-            // 不抛出异常，避免影响外部文件删除操作
+    /**
+     * 构建按存储路径搜索的条件（不含分页）
+     * <ul>
+     *   <li>前缀模式：{@code path LIKE 'prefix%'} 走 idx_file_metadata_path 范围扫描，按路径排序，游标为路径</li>
+     *   <li>中缀模式：按ID排序，游标为ID；启用全文索引且模式中有足够长的字面量时先用 ngram 全文索引缩小范围</li>
+     *   <li>空模式：按ID排序列出全部</li>
+     * </ul>
+     * @param fileNamePattern 文件路径模式（支持通配符 * 和 ?）
+     * @param byPath          是否按路径排序（前缀模式）
+     * @param preLastId       上一页最后一条的游标，首页为null
+     * @return 查询条件
+     */
+    protected LambdaQueryWrapper<FileMetadataDO> searchQuery(String fileNamePattern, boolean byPath,
+                                                             String preLastId) {
+        LambdaQueryWrapper<FileMetadataDO> query = Wrappers.lambdaQuery();
+        if (fileNamePattern != null && !fileNamePattern.isBlank()) {
+            query.apply("path LIKE {0}", toLikePattern(fileNamePattern));
+            String term = byPath || !fullTextSearch ? null : longestLiteral(fileNamePattern);
+            if (term != null) {
+                query.apply("MATCH(path) AGAINST({0} IN BOOLEAN MODE)", "\"" + term + "\"");
+            }
         }
+        if (byPath) {
+            return query.gt(preLastId != null, FileMetadataDO::getPath, preLastId)
+                           .orderByAsc(FileMetadataDO::getPath);
+        }
+        return query.gt(preLastId != null, FileMetadataDO::getId, preLastId != null ? Long.valueOf(preLastId) : null)
+                       .orderByAsc(FileMetadataDO::getId);
     }
 
     /**
-     * 根据文件名模式查询文件元数据
+     * 构建按文件名搜索的条件（不含分页）
+     * <ul>
+     *   <li>前缀模式：{@code name LIKE 'prefix%'} 走 idx_file_business_name 范围扫描，按 (name, id) 排序，游标为 "id:name"</li>
+     *   <li>中缀模式：按ID排序，游标为ID；启用全文索引且模式中有足够长的字面量时先用 ngram 全文索引缩小范围</li>
+     *   <li>空模式：按ID排序列出全部</li>
+     * </ul>
      * @param fileNamePattern 文件名模式（支持通配符 * 和 ?）
-     * @return 文件元数据列表
+     * @param byName          是否按文件名排序（前缀模式）
+     * @param preLastId       上一页最后一条的游标，首页为null
+     * @return 查询条件
      */
-    protected List<FileMetadataDO> queryFileMetadataByPattern(String fileNamePattern) {
+    protected LambdaQueryWrapper<FileBusinessDO> nameSearchQuery(String fileNamePattern, boolean byName,
+                                                                 String preLastId) {
+        LambdaQueryWrapper<FileBusinessDO> query = Wrappers.lambdaQuery();
         if (fileNamePattern != null && !fileNamePattern.isBlank()) {
-            // 将通配符 * 和 ? 转换为 SQL 的 % 和 _
-            String sqlPattern = fileNamePattern.replace("*", "%").replace("?", "_");
-            return metadataMapper.selectList(
-                    Wrappers.<FileMetadataDO>lambdaQuery()
-                            .like(FileMetadataDO::getPath, sqlPattern)
-            );
-        }
-        return metadataMapper.selectList(
-                Wrappers.lambdaQuery()
-        );
+            query.apply("name LIKE {0}", toLikePattern(fileNamePattern));
+            String term = byName || !fullTextSearch ? null : longestLiteral(fileNamePattern);
+            if (term != null) {
+                query.apply("MATCH(name) AGAINST({0} IN BOOLEAN MODE)", "\"" + term + "\"");
+            }
+        }
+        if (byName) {
+            if (preLastId != null) {
+                // 游标中ID在前，名称可以包含冒号
+                int separator = preLastId.indexOf(':');
+                Long lastId = Long.valueOf(preLastId.substring(0, separator));
+                String lastName = preLastId.substring(separator + 1);
+                query.and(cursor -> cursor.gt(FileBusinessDO::getName, lastName)
+                                            .or(same -> same.eq(FileBusinessDO::getName, lastName)
+                                                                .gt(FileBusinessDO::getId, lastId)));
+            }
+            return query.orderByAsc(FileBusinessDO::getName).orderByAsc(FileBusinessDO::getId);
+        }
+        return query.gt(preLastId != null, FileBusinessDO::getId, preLastId != null ? Long.valueOf(preLastId) : null)
+                       .orderByAsc(FileBusinessDO::getId);
+    }
+
+    /**
+     * 将通配符 * 和 ? 转换为 SQL 的 % 和 _，模式中的 %、_ 和 \ 按字面量转义
+     */
+    private static String toLikePattern(String fileNamePattern) {
+        StringBuilder like = new StringBuilder(fileNamePattern.length() + 8);
+        for (char c : fileNamePattern.toCharArray()) {
+            switch (c) {
+                case '*' -> like.append('%');
+                case '?' -> like.append('_');
+                case '%', '_', '\\' -> like.append('\\').append(c);
+                default -> like.append(c);
+            }
+        }
+        return like.toString();
+    }
+
+    /**
+     * 模式中最长的字面量片段（去掉全文检索的引号），短于 ngram 分词长度时返回null
+     */
+    private static String longestLiteral(String fileNamePattern) {
+        String longest = "";
+        for (String literal : fileNamePattern.replace("\"", "").split("[*?]")) {
+            if (literal.length() > longest.length()) {
+                longest = literal;
+            }
+        }
+        return longest.length() >= NGRAM_TOKEN_SIZE ? longest : null;
+    }
+
+    private static boolean isWildcard(char c) {
+        return c == '*' || c == '?';
     }
 
     /**
@@ -356,13 +1345,14 @@ public abstract class AbstractOssClient implements OssClient {
             return null;
         }
 
-        // 从path中提取文件名
-        String fileName = metadataDO.getPath();
-        if (fileName != null && fileName.contains("/")) {
-            fileName = fileName.substring(fileName.lastIndexOf("/") + 1);
-            // 移除时间戳前缀（如果存在）
+        // 内容寻址路径（{ab}/{cd}/{md5} 或分片上传的 {ab}/{cd}/{md5}-N）不含文件名，文件名见 file_business.name；
+        // 旧版本的路径为 {目录}/{时间戳}-{文件名}，去掉时间戳前缀
+        String fileName = null;
+        String path = metadataDO.getPath();
+        if (path != null && !CONTENT_KEY.matcher(path).matches()) {
+            fileName = path.substring(path.lastIndexOf('/') + 1);
             if (fileName.contains("-")) {
-                fileName = fileName.substring(fileName.indexOf("-") + 1);
+                fileName = fileName.substring(fileName.indexOf('-') + 1);
             }
         }
 
@@ -371,6 +1361,7 @@ public abstract class AbstractOssClient implements OssClient {
                        .setFilePath(metadataDO.getPath())
                        .setFileUrl(metadataDO.getUrl())
                        .setMd5(metadataDO.getMd5())
+                       .setCrc32c(metadataDO.getCrc32c())
                        .setContentType(metadataDO.getContentType())
                        .setFileSize(metadataDO.getSize())
                        .setStatus(Status.ACTIVE)
@@ -382,27 +1373,24 @@ public abstract class AbstractOssClient implements OssClient {
     // ==================== 辅助方法 ====================
 
     /**
-     * 计算 MD5 哈希值
-     * @param data 字节数组
-     * @return MD5 哈希值（32 位十六进制字符串）
+     * 创建 MD5 摘要
+     * @return MD5 摘要
      */
-    protected String calculateMd5(byte[] data) {
+    protected static MessageDigest newMd5Digest() {
         try {
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            byte[] hash = md.digest(data);
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (Exception e) {
-            log.error("Failed to calculate MD5", e);
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
             throw new ClientException("MD5 calculation failed", e, ClientErrorCode.OPERATION_FAILED);
         }
     }
 
+    /**
+     * 字节数组转小写十六进制字符串
+     * @param bytes 字节数组
+     * @return 十六进制字符串
+     */
+    protected static String toHex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+
 }
@@ -0,0 +1,333 @@
+package org.smm.archetype.infrastructure.shared.client.oss;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.google.common.io.ByteStreams;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.smm.archetype.domain.platform.file.FileMetadata;
+import org.smm.archetype.domain.shared.base.PageResult;
+import org.smm.archetype.domain.shared.client.OssClient;
+import org.smm.archetype.domain.shared.client.dto.FileSearchRequest;
+import org.smm.archetype.domain.shared.exception.ClientErrorCode;
+import org.smm.archetype.domain.shared.exception.ClientException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * 带本地磁盘读缓存的对象存储客户端：装饰任意 {@link OssClient}，把远程对象的内容缓存到本地磁盘。
+ *
+ * <ul>
+ *   <li>按路径缓存，填充时计算 MD5，内容寻址路径（{ab}/{cd}/{md5}）的内容与路径中的 MD5 不一致时不缓存</li>
+ *   <li>同一对象的并发未命中只从远程读取一次，其他请求等待同一次填充</li>
+ *   <li>按总字节数淘汰（Caffeine 按权重淘汰），超过单对象上限的对象不缓存，直接读远程</li>
+ *   <li>命中时字节范围读取直接定位，传输使用 {@link FileChannel#transferTo}</li>
+ * </ul>
+ *
+ * <p>内容寻址路径下内容不可变，本实例删除文件时立即失效；其他实例删除的文件在写入后过期时间内仍可能被读到。
+ * 缓存不跨重启保留，启动时清空缓存目录。
+ */
+@Slf4j
+public class CachingOssClientImpl implements OssClient, AutoCloseable {
+
+    /**
+     * 权重单位（字节），Caffeine 权重为 int，按 KB 计算以支持超过 2GB 的缓存
+     */
+    private static final long WEIGHT_UNIT = 1024;
+
+    /**
+     * 记录超过单对象上限的路径数，这些路径之后直接读远程，不再尝试填充
+     */
+    private static final long OVERSIZED_PATHS = 10_000;
+
+    private static final Pattern MD5 = Pattern.compile("[0-9a-f]{32}");
+
+    /**
+     * 被装饰的对象存储客户端
+     */
+    @Getter
+    private final OssClient delegate;
+
+    private final Path cacheDirectory;
+
+    private final long maxObjectBytes;
+
+    private final AsyncCache<String, CachedObject> cache;
+
+    private final Cache<String, Boolean> oversized;
+
+    private final ExecutorService fillExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * 缓存的对象
+     * @param file 缓存文件
+     * @param size 文件大小（字节）
+     * @param md5  内容 MD5
+     */
+    private record CachedObject(Path file, long size, String md5) {}
+
+    /**
+     * 超过单对象上限，不缓存
+     */
+    private static final class ObjectTooLargeException extends RuntimeException {
+
+        ObjectTooLargeException() {
+            super(null, null, false, false);
+        }
+
+    }
+
+    /**
+     * @param delegate         被装饰的对象存储客户端
+     * @param cacheDirectory   缓存目录（启动时清空）
+     * @param maxBytes         缓存总字节数上限
+     * @param maxObjectBytes   单个对象字节数上限，超过时不缓存
+     * @param expireAfterWrite 写入后过期时间，即其他实例删除文件后本实例仍可读到的最长时间
+     * @throws IOException 缓存目录创建或清理失败
+     */
+    public CachingOssClientImpl(OssClient delegate, Path cacheDirectory, long maxBytes, long maxObjectBytes,
+                                Duration expireAfterWrite) throws IOException {
+        this.delegate = delegate;
+        this.cacheDirectory = Files.createDirectories(cacheDirectory);
+        this.maxObjectBytes = maxObjectBytes;
+        clearDirectory();
+        this.cache = Caffeine.newBuilder()
+                             .maximumWeight(Math.max(1, maxBytes / WEIGHT_UNIT))
+                             .weigher((String path, CachedObject object) ->
+                                              (int) Math.min(Integer.MAX_VALUE,
+                                                      (object.size() + WEIGHT_UNIT - 1) / WEIGHT_UNIT))
+                             .expireAfterWrite(expireAfterWrite)
+                             .removalListener((String path, CachedObject object, RemovalCause cause) -> {
+                                 // 正在读取的文件删除后仍可读（打开的文件句柄不受影响）
+                                 if (object != null) {
+                                     deleteQuietly(object.file());
+                                 }
+                             })
+                             .buildAsync();
+        this.oversized = Caffeine.newBuilder().maximumSize(OVERSIZED_PATHS).build();
+        log.info("对象存储读缓存已启用: 目录={}, 总大小上限={}, 单对象上限={}, 过期时间={}",
+                cacheDirectory, maxBytes, maxObjectBytes, expireAfterWrite);
+    }
+
+    // ==================== 读取（经过缓存） ====================
+
+    @Override
+    public InputStream download(String filePath, long offset, long length) {
+        CachedObject object = cached(filePath);
+        if (object != null) {
+            try {
+                FileChannel channel = FileChannel.open(object.file(), StandardOpenOption.READ);
+                channel.position(offset);
+                InputStream inputStream = Channels.newInputStream(channel);
+                return length < 0 ? inputStream : ByteStreams.limit(inputStream, length);
+            } catch (NoSuchFileException e) {
+                // 查询后被淘汰，直接读远程
+                log.debug("缓存文件已淘汰，读取远程: 路径={}", filePath);
+            } catch (IOException e) {
+                throw new ClientException("File download failed: " + filePath, e, ClientErrorCode.OPERATION_FAILED);
+            }
+        }
+        return delegate.download(filePath, offset, length);
+    }
+
+    @Override
+    public long transferTo(String filePath, long offset, long length, WritableByteChannel target) {
+        CachedObject object = cached(filePath);
+        if (object != null) {
+            try (FileChannel channel = FileChannel.open(object.file(), StandardOpenOption.READ)) {
+                long end = length < 0 ? object.size() : Math.min(object.size(), offset + length);
+                long position = offset;
+                while (position < end) {
+                    long transferred = channel.transferTo(position, end - position, target);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    position += transferred;
+                }
+                return Math.max(0, position - offset);
+            } catch (NoSuchFileException e) {
+                log.debug("缓存文件已淘汰，读取远程: 路径={}", filePath);
+            } catch (IOException e) {
+                throw new ClientException("File transfer failed: " + filePath, e, ClientErrorCode.OPERATION_FAILED);
+            }
+        }
+        return delegate.transferTo(filePath, offset, length, target);
+    }
+
+    /**
+     * 查询缓存，未命中时填充（同一路径的并发未命中共用一次填充）
+     * @return 缓存的对象，超过单对象上限时为null
+     */
+    private CachedObject cached(String filePath) {
+        if (filePath == null || filePath.isBlank() || oversized.getIfPresent(filePath) != null) {
+            return null;
+        }
+        CompletableFuture<CachedObject> future = cache.get(filePath,
+                (path, executor) -> CompletableFuture.supplyAsync(() -> fill(path), fillExecutor));
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // 失败的填充立即移除（只移除本次的填充），下一次请求重新读取
+            cache.asMap().remove(filePath, future);
+            if (e.getCause() instanceof ObjectTooLargeException) {
+                return null;
+            }
+            throw e.getCause() instanceof RuntimeException cause
+                          ? cause
+                          : new ClientException("File download failed: " + filePath, e.getCause(),
+                                  ClientErrorCode.OPERATION_FAILED);
+        }
+    }
+
+    /**
+     * 从远程读取完整对象写入缓存文件，同时计算 MD5 并与内容寻址路径校验
+     */
+    private CachedObject fill(String filePath) {
+        Path file = null;
+        try {
+            file = Files.createTempFile(cacheDirectory, "object-", ".cache");
+            ChecksumInputStream checksumStream = new ChecksumInputStream(delegate.download(filePath), false, false);
+            long size;
+            try (checksumStream; OutputStream outputStream = Files.newOutputStream(file)) {
+                size = ByteStreams.copy(ByteStreams.limit(checksumStream, maxObjectBytes + 1), outputStream);
+            }
+            if (size > maxObjectBytes) {
+                oversized.put(filePath, Boolean.TRUE);
+                throw new ObjectTooLargeException();
+            }
+            String md5 = checksumStream.checksums().md5();
+            String expected = filePath.substring(filePath.lastIndexOf('/') + 1);
+            if (MD5.matcher(expected).matches() && !expected.equals(md5)) {
+                throw new IOException("Content MD5 mismatch: expected=" + expected + ", actual=" + md5);
+            }
+            log.debug("对象已缓存: 路径={}, 大小={}", filePath, size);
+            return new CachedObject(file, size, md5);
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new ClientException("File cache fill failed: " + filePath, e, ClientErrorCode.OPERATION_FAILED);
+        }
+    }
+
+    // ==================== 写入和其他操作（委托） ====================
+
+    @Override
+    public FileMetadata uploadContent(InputStream inputStream, String fileName, String contentType,
+                                      long contentLength) {
+        return delegate.uploadContent(inputStream, fileName, contentType, contentLength);
+    }
+
+    @Override
+    public String initiateMultipartUpload(String fileName, String contentType, long totalSize, long partSize) {
+        return delegate.initiateMultipartUpload(fileName, contentType, totalSize, partSize);
+    }
+
+    @Override
+    public String uploadPart(String uploadId, int partNumber, InputStream content, String md5) {
+        return delegate.uploadPart(uploadId, partNumber, content, md5);
+    }
+
+    @Override
+    public List<Integer> listUploadedParts(String uploadId) {
+        return delegate.listUploadedParts(uploadId);
+    }
+
+    @Override
+    public String completeMultipartUpload(String uploadId) {
+        return delegate.completeMultipartUpload(uploadId);
+    }
+
+    @Override
+    public void abortMultipartUpload(String uploadId) {
+        delegate.abortMultipartUpload(uploadId);
+    }
+
+    @Override
+    public void delete(String filePath) {
+        delegate.delete(filePath);
+        cache.synchronous().invalidate(filePath);
+    }
+
+    @Override
+    public String generateUrl(String filePath, long expireSeconds) {
+        return delegate.generateUrl(filePath, expireSeconds);
+    }
+
+    @Override
+    public Map<String, String> generateUrls(Collection<String> filePaths, long expireSeconds) {
+        return delegate.generateUrls(filePaths, expireSeconds);
+    }
+
+    @Override
+    @Deprecated
+    public List<FileMetadata> searchFiles(String fileNamePattern) {
+        return delegate.searchFiles(fileNamePattern);
+    }
+
+    @Override
+    public PageResult<FileMetadata> searchFiles(FileSearchRequest request) {
+        return delegate.searchFiles(request);
+    }
+
+    @Override
+    public boolean exists(String filePath) {
+        return delegate.exists(filePath);
+    }
+
+    @Override
+    public long getFileSize(String filePath) {
+        return delegate.getFileSize(filePath);
+    }
+
+    @Override
+    public void close() throws Exception {
+        fillExecutor.shutdownNow();
+        cache.synchronous().invalidateAll();
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void clearDirectory() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDirectory, "object-*.cache")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除缓存文件失败: {}", file, e);
+        }
+    }
+
+}
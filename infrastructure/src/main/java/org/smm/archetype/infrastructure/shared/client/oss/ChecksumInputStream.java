@@ -0,0 +1,210 @@
+package org.smm.archetype.infrastructure.shared.client.oss;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32C;
+
+/**
+ * 边读边计算校验和的输入流：MD5（兼容已有的内容寻址键）和可选的 CRC32C（JDK 使用硬件指令加速）。
+ *
+ * <p>启用重叠计算时，读到的数据块复制后交给独立的虚拟线程计算，调用线程继续读取和写入存储，
+ * 摘要计算与 I/O 重叠；在途的数据块数有上限（{@link #QUEUE_DEPTH}），内存占用固定。
+ * 未启用时在调用线程上同步计算，与 {@link java.security.DigestInputStream} 相同。
+ *
+ * <p>读取完成后调用 {@link #checksums()} 获取结果（会等待后台计算结束），关闭流后仍可调用；
+ * 跳过的字节同样参与计算。
+ */
+public class ChecksumInputStream extends FilterInputStream {
+
+    /**
+     * 重叠计算时在途的最大数据块数
+     */
+    private static final int QUEUE_DEPTH = 8;
+
+    private static final byte[] END = new byte[0];
+
+    private final MessageDigest md5;
+
+    private final CRC32C crc32c;
+
+    private final BlockingQueue<byte[]> queue;
+
+    private final Thread worker;
+
+    private volatile Throwable failure;
+
+    private boolean ended;
+
+    private Checksums checksums;
+
+    /**
+     * 校验和
+     * @param md5    MD5（32位小写十六进制）
+     * @param crc32c CRC32C（8位小写十六进制），未启用时为null
+     */
+    public record Checksums(String md5, String crc32c) {}
+
+    /**
+     * @param in         原始输入流
+     * @param withCrc32c 是否同时计算 CRC32C
+     * @param overlapped 是否在独立线程上计算，与读取和写入重叠
+     */
+    public ChecksumInputStream(InputStream in, boolean withCrc32c, boolean overlapped) {
+        super(in);
+        this.md5 = AbstractOssClient.newMd5Digest();
+        this.crc32c = withCrc32c ? new CRC32C() : null;
+        if (overlapped) {
+            this.queue = new ArrayBlockingQueue<>(QUEUE_DEPTH);
+            this.worker = Thread.ofVirtual().name("checksum-", 0).start(this::drain);
+        } else {
+            this.queue = null;
+            this.worker = null;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            accept(new byte[]{(byte) b}, 0, 1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            accept(b, off, n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // 跳过的字节也要计算，否则校验和与内容不一致
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * 结束计算并返回校验和（需在读取完成后调用，可重复调用）
+     * @return 校验和
+     * @throws IOException 后台计算失败或等待被中断
+     */
+    public Checksums checksums() throws IOException {
+        if (checksums == null) {
+            finish();
+            checksums = new Checksums(HexFormat.of().formatHex(md5.digest()),
+                    crc32c != null ? HexFormat.of().toHexDigits((int) crc32c.getValue()) : null);
+        }
+        return checksums;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            endInput();
+        }
+    }
+
+    private void accept(byte[] b, int off, int len) throws IOException {
+        if (worker == null) {
+            update(b, off, len);
+            return;
+        }
+        checkFailure();
+        try {
+            // 调用方会复用缓冲区，必须复制
+            queue.put(Arrays.copyOfRange(b, off, off + len));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while queueing checksum block");
+        }
+    }
+
+    private void update(byte[] b, int off, int len) {
+        md5.update(b, off, len);
+        if (crc32c != null) {
+            crc32c.update(b, off, len);
+        }
+    }
+
+    private void drain() {
+        try {
+            byte[] block;
+            while ((block = queue.take()) != END) {
+                // 失败后继续取出数据块直到结束标记，调用线程不会阻塞在满队列上
+                if (failure == null) {
+                    try {
+                        update(block, 0, block.length);
+                    } catch (Throwable e) {
+                        failure = e;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 通知后台线程输入已结束（关闭流或取结果时调用，只发送一次）
+     */
+    private void endInput() throws IOException {
+        if (worker == null || ended) {
+            return;
+        }
+        ended = true;
+        try {
+            queue.put(END);
+        } catch (InterruptedException e) {
+            worker.interrupt();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while finishing checksum");
+        }
+    }
+
+    private void finish() throws IOException {
+        if (worker == null) {
+            return;
+        }
+        endInput();
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while finishing checksum");
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("Checksum calculation failed", failure);
+        }
+    }
+
+}
@@ -1,21 +1,40 @@
 package org.smm.archetype.infrastructure.shared.client.oss;
 
+import com.google.common.io.ByteStreams;
 import lombok.extern.slf4j.Slf4j;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileUploadPartDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileUploadSessionDO;
 import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 /**
- * 本地文件系统OSS实现，支持零拷贝和日期分层存储。
+ * 本地文件系统OSS实现，支持零拷贝和内容寻址存储（{ab}/{cd}/{md5}）。
+ *
+ * <p>零拷贝模式：
+ * <ul>
+ *   <li>上传：请求流经通道直接写入存储目录下预分配长度的暂存文件（{@link FileChannel#transferFrom}），
+ *   写完后原子重命名到目标路径，数据只落盘一次</li>
+ *   <li>下载：大文件使用 {@link FileChannel#transferTo} 写入目标通道（Socket 目标时由内核 sendfile 完成），
+ *   小文件使用内存映射，避免逐块系统调用；字节范围请求直接从偏移量开始定位读取</li>
+ * </ul>
+ *
+ * <p>分片上传：分片按偏移量写入存储目录下的稀疏文件，乱序、并行写入互不影响，完成时截断到实际大小并原子重命名。
  *
  * <p>职责划分：
  * <ul>
@@ -26,6 +45,26 @@ import java.time.format.DateTimeFormatter;
 @Slf4j
 public class LocalOssClientImpl extends AbstractOssClient {
 
+    /**
+     * 暂存目录名（位于存储根目录下，保证与存储文件在同一文件系统）
+     */
+    private static final String STAGING_DIRECTORY = ".staging";
+
+    /**
+     * 分片上传组装目录名（位于存储根目录下，完成后原子重命名到目标路径）
+     */
+    private static final String MULTIPART_DIRECTORY = ".multipart";
+
+    /**
+     * 不超过该大小的文件下载时使用内存映射
+     */
+    private static final long MMAP_THRESHOLD = 256 * 1024;
+
+    /**
+     * 单次 transferFrom/transferTo 的最大字节数
+     */
+    private static final long TRANSFER_CHUNK = 8 * 1024 * 1024;
+
     private final Path baseStoragePath;
     private final boolean zeroCopy;
 
@@ -60,48 +99,146 @@ public class LocalOssClientImpl extends AbstractOssClient {
     // ==================== 外部能力实现（子类职责） ====================
 
     @Override
-    protected String doUpload(byte[] contentBytes, String fileName, String contentType) throws Exception {
-        // 生成文件路径: {year}/{month}/{timestamp}-{fileName}
-        String datePath = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy/MM"));
-        Path targetPath = baseStoragePath.resolve(datePath);
-
-        // 创建日期目录
-        Files.createDirectories(targetPath);
-
-        // 使用纳秒时间戳作为文件标识（保证唯一性）
-        String timestamp = String.valueOf(System.nanoTime());
-        Path filePath = targetPath.resolve(timestamp + "-" + fileName);
-
-        // 零拷贝上传
-        if (zeroCopy) {
-            // 先写入临时文件
-            Path tempFile = Files.createTempFile("upload-", ".tmp");
-            try {
-                Files.write(tempFile, contentBytes, StandardOpenOption.WRITE);
-
-                // NIO transferTo 零拷贝
-                try (FileChannel sourceChannel = FileChannel.open(tempFile, StandardOpenOption.READ);
-                     FileChannel targetChannel = FileChannel.open(filePath,
-                             StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
-                    long size = sourceChannel.transferTo(0, sourceChannel.size(), targetChannel);
-                    log.debug("零拷贝上传完成: 大小={}, 路径={}", size, filePath);
+    protected String doUpload(Path stagedFile, long size, String key, String contentType) throws Exception {
+        // 内容寻址路径: {ab}/{cd}/{md5}
+        Path filePath = baseStoragePath.resolve(key);
+        Files.createDirectories(filePath.getParent());
+
+        // 暂存文件与存储目录在同一文件系统，直接原子重命名，不再复制数据；相同内容并发上传时覆盖结果一致
+        Files.move(stagedFile, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("文件写入完成: 大小={}, 路径={}", size, filePath);
+
+        // 返回相对路径
+        return key;
+    }
+
+    @Override
+    protected long doStage(InputStream source, Path stagedFile, long contentLength) throws IOException {
+        if (!zeroCopy) {
+            return super.doStage(source, stagedFile, contentLength);
+        }
+        ReadableByteChannel sourceChannel = Channels.newChannel(source);
+        try (FileChannel targetChannel = FileChannel.open(stagedFile,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // 已知长度时先把文件扩展到目标大小，写入过程中不再逐块增长
+            if (contentLength > 0) {
+                targetChannel.write(ByteBuffer.allocate(1), contentLength - 1);
+            }
+            long position = 0;
+            long transferred;
+            while ((transferred = targetChannel.transferFrom(sourceChannel, position, TRANSFER_CHUNK)) > 0) {
+                position += transferred;
+            }
+            // 实际长度与声明长度不一致时以实际写入为准
+            if (targetChannel.size() != position) {
+                targetChannel.truncate(position);
+            }
+            return position;
+        }
+    }
+
+    @Override
+    protected long doTransferTo(String filePath, long offset, long length, WritableByteChannel target)
+            throws Exception {
+        if (!zeroCopy) {
+            return super.doTransferTo(filePath, offset, length, target);
+        }
+        Path fullPath = baseStoragePath.resolve(filePath);
+
+        if (!Files.exists(fullPath)) {
+            throw new FileNotFoundException("File not found: " + filePath);
+        }
+
+        try (FileChannel sourceChannel = FileChannel.open(fullPath, StandardOpenOption.READ)) {
+            long end = rangeEnd(sourceChannel.size(), offset, length);
+            long count = end - offset;
+            if (count <= MMAP_THRESHOLD) {
+                MappedByteBuffer buffer = sourceChannel.map(FileChannel.MapMode.READ_ONLY, offset, count);
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
                 }
-            } finally {
-                // 删除临时文件
-                Files.deleteIfExists(tempFile);
+                return count;
             }
-        } else {
-            // 传统拷贝方式
-            Files.write(filePath, contentBytes, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
-            log.debug("传统上传完成: 路径={}", filePath);
+            long position = offset;
+            while (position < end) {
+                long transferred = sourceChannel.transferTo(position, Math.min(TRANSFER_CHUNK, end - position), target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+            log.debug("零拷贝下载完成: 大小={}, 路径={}", position - offset, fullPath);
+            return position - offset;
         }
+    }
 
-        // 返回相对路径
-        return datePath + "/" + timestamp + "-" + fileName;
+    @Override
+    protected String doInitiateMultipart(String uploadId, String contentType, long totalSize) throws Exception {
+        Path assembly = Files.createDirectories(baseStoragePath.resolve(MULTIPART_DIRECTORY)).resolve(uploadId);
+        try (FileChannel channel = FileChannel.open(assembly, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            // 总大小已知时扩展为稀疏文件，分片按偏移量写入
+            if (totalSize > 0) {
+                channel.write(ByteBuffer.allocate(1), totalSize - 1);
+            }
+        }
+        return uploadId;
+    }
+
+    @Override
+    protected String doUploadPart(FileUploadSessionDO session, int partNumber, long offset, Path stagedPart,
+                                  long size, String md5) throws Exception {
+        Path assembly = multipartFile(session);
+        try (FileChannel source = FileChannel.open(stagedPart, StandardOpenOption.READ);
+             FileChannel target = FileChannel.open(assembly, StandardOpenOption.WRITE)) {
+            // transferFrom 不会写入超出文件末尾的位置，总大小未知时先扩展到分片末尾（并发分片各自扩展，互不覆盖）
+            if (target.size() < offset + size) {
+                target.write(ByteBuffer.allocate(1), offset + size - 1);
+            }
+            long position = 0;
+            while (position < size) {
+                long transferred = target.transferFrom(source, offset + position, size - position);
+                if (transferred <= 0) {
+                    throw new IOException("Incomplete part write: part=" + partNumber);
+                }
+                position += transferred;
+            }
+        }
+        log.debug("分片写入完成: uploadId={}, 序号={}, 偏移量={}, 大小={}", session.getUploadId(), partNumber, offset, size);
+        return md5;
+    }
+
+    @Override
+    protected String doCompleteMultipart(FileUploadSessionDO session, List<FileUploadPartDO> parts, String key)
+            throws Exception {
+        Path assembly = multipartFile(session);
+        long totalSize = parts.stream().mapToLong(FileUploadPartDO::getSize).sum();
+        try (FileChannel channel = FileChannel.open(assembly, StandardOpenOption.WRITE)) {
+            if (channel.size() != totalSize) {
+                channel.truncate(totalSize);
+            }
+        }
+        Path filePath = baseStoragePath.resolve(key);
+        Files.createDirectories(filePath.getParent());
+        Files.move(assembly, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return key;
+    }
+
+    @Override
+    protected void doAbortMultipart(FileUploadSessionDO session) throws Exception {
+        Files.deleteIfExists(multipartFile(session));
+    }
+
+    private Path multipartFile(FileUploadSessionDO session) {
+        return baseStoragePath.resolve(MULTIPART_DIRECTORY).resolve(session.getStorageUploadId());
+    }
+
+    @Override
+    protected Path stagingDirectory() throws IOException {
+        return Files.createDirectories(baseStoragePath.resolve(STAGING_DIRECTORY));
     }
 
     @Override
-    protected java.io.InputStream doDownload(String filePath) throws Exception {
+    protected InputStream doDownload(String filePath) throws Exception {
         Path fullPath = baseStoragePath.resolve(filePath);
 
         if (!Files.exists(fullPath)) {
@@ -112,6 +249,36 @@ public class LocalOssClientImpl extends AbstractOssClient {
         return new FileInputStream(fullPath.toFile());
     }
 
+    @Override
+    protected InputStream doDownload(String filePath, long offset, long length) throws Exception {
+        Path fullPath = baseStoragePath.resolve(filePath);
+
+        if (!Files.exists(fullPath)) {
+            throw new FileNotFoundException("File not found: " + filePath);
+        }
+
+        // 定位读取：直接从偏移量开始，不读取前面的内容
+        FileChannel channel = FileChannel.open(fullPath, StandardOpenOption.READ);
+        try {
+            long end = rangeEnd(channel.size(), offset, length);
+            channel.position(offset);
+            return ByteStreams.limit(Channels.newInputStream(channel), end - offset);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 计算范围的结束位置（不含），超出文件末尾时截断到文件末尾
+     */
+    private static long rangeEnd(long size, long offset, long length) throws IOException {
+        if (offset > size) {
+            throw new IOException("Range start beyond end of file: offset=" + offset + ", size=" + size);
+        }
+        return length < 0 ? size : Math.min(size, offset + length);
+    }
+
     @Override
     protected void doDelete(String filePath) throws Exception {
         Path fullPath = baseStoragePath.resolve(filePath);
@@ -0,0 +1,69 @@
+package org.smm.archetype.infrastructure.shared.client.oss;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对象存储垃圾回收器：在后台线程按固定间隔调用 {@link AbstractOssClient#collectGarbage}，回收没有引用的对象，
+ * 并中止过期未完成的分片上传。
+ *
+ * <p>多实例部署时每个实例都会执行回收，删除元数据是带条件的原子操作，重复执行只会跳过已回收的对象。
+ */
+@Slf4j
+public class OssGarbageCollector implements AutoCloseable {
+
+    private final AbstractOssClient ossClient;
+
+    private final Duration gracePeriod;
+
+    private final int batchSize;
+
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param ossClient   对象存储客户端
+     * @param interval    回收间隔
+     * @param gracePeriod 宽限期，上传后超过宽限期仍没有引用的对象才会被回收
+     * @param batchSize   每批处理的数量
+     */
+    public OssGarbageCollector(AbstractOssClient ossClient, Duration interval, Duration gracePeriod, int batchSize) {
+        if (!interval.isPositive() || gracePeriod.isNegative() || batchSize <= 0) {
+            throw new IllegalArgumentException("Interval and batch size must be positive, grace period non-negative");
+        }
+        this.ossClient = ossClient;
+        this.gracePeriod = gracePeriod;
+        this.batchSize = batchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("oss-garbage-collector").factory());
+        scheduler.scheduleWithFixedDelay(this::collectQuietly, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        log.info("对象存储垃圾回收初始化成功: 间隔={}, 宽限期={}, 分页大小={}", interval, gracePeriod, batchSize);
+    }
+
+    /**
+     * 立即执行一次回收（在调用线程执行）：先中止过期的分片上传会话，再回收孤立对象
+     * @return 回收的对象数量
+     */
+    public int collect() {
+        ossClient.abortExpiredMultipartUploads(batchSize);
+        return ossClient.collectGarbage(gracePeriod, batchSize);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void collectQuietly() {
+        try {
+            collect();
+        } catch (Exception e) {
+            log.error("对象存储垃圾回收失败", e);
+        }
+    }
+
+}
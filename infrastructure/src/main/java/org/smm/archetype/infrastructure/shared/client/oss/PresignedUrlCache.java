@@ -0,0 +1,220 @@
+package org.smm.archetype.infrastructure.shared.client.oss;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.google.common.collect.Lists;
+import lombok.extern.slf4j.Slf4j;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileMetadataDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预签名 URL 缓存，按 路径 + 有效期档位 复用已签发的 URL。
+ *
+ * <p>复用规则：
+ * <ul>
+ *   <li>请求的有效期向上取整到档位（{@code bucket}），同一档位的请求共用一个 URL</li>
+ *   <li>签发时在档位之上多签一段复用窗口（档位 × {@code reuseRatio}，不超过存储允许的最长有效期），
+ *   剩余有效期不少于本次请求的有效期时直接复用，否则重新签发；调用方拿到的 URL 始终满足请求的有效期</li>
+ *   <li>本地未命中时读取 file_metadata 的 url / url_expire，其他实例签发且仍足够新的 URL 可以直接复用；
+ *   新签发的 URL 批量写回这两列</li>
+ * </ul>
+ *
+ * <p>写回不修改 update_time：URL 刷新不是内容变化，不应推迟孤立对象回收。
+ * 路径按内容寻址，对象删除后不需要失效缓存：已删除对象的 URL 由存储返回不存在，相同内容重新上传后 URL 仍然有效。
+ */
+@Slf4j
+public class PresignedUrlCache {
+
+    /**
+     * 单条 IN 查询 / 批量更新的最大路径数
+     */
+    private static final int BATCH_SIZE = 500;
+
+    private final FileMetadataMapper metadataMapper;
+
+    private final long bucketSeconds;
+
+    private final double reuseRatio;
+
+    /**
+     * 存储允许的最长签名有效期（秒），0 表示不限制
+     */
+    private final long maximumLifetimeSeconds;
+
+    private final Clock clock;
+
+    private final Cache<String, SignedUrl> cache;
+
+    /**
+     * URL 签发函数（扩展点，由对象存储实现）
+     */
+    @FunctionalInterface
+    public interface Signer {
+
+        /**
+         * 签发 URL
+         * @param filePath        文件存储路径
+         * @param lifetimeSeconds 有效期（秒）
+         * @return 访问 URL
+         * @throws Exception 签发失败
+         */
+        String sign(String filePath, long lifetimeSeconds) throws Exception;
+
+    }
+
+    /**
+     * @param metadataMapper  文件元数据Mapper
+     * @param maximumSize     本地缓存最大条目数
+     * @param bucket          有效期档位
+     * @param reuseRatio      复用窗口占档位的比例
+     * @param maximumLifetime 存储允许的最长签名有效期，null 表示不限制
+     */
+    public PresignedUrlCache(FileMetadataMapper metadataMapper, long maximumSize, Duration bucket,
+                             double reuseRatio, Duration maximumLifetime) {
+        if (bucket.toSeconds() <= 0 || reuseRatio < 0) {
+            throw new IllegalArgumentException("Bucket must be positive and reuse ratio must not be negative");
+        }
+        this.metadataMapper = metadataMapper;
+        this.bucketSeconds = bucket.toSeconds();
+        this.reuseRatio = reuseRatio;
+        this.maximumLifetimeSeconds = maximumLifetime != null ? maximumLifetime.toSeconds() : 0;
+        this.clock = Clock.systemUTC();
+        this.cache = Caffeine.newBuilder()
+                             .maximumSize(maximumSize)
+                             .expireAfter(new UntilExpireAt(clock))
+                             .build();
+    }
+
+    /**
+     * 批量获取 URL：本地缓存 → 数据库 → 签发，新签发的 URL 一次写回数据库
+     * @param filePaths     文件存储路径
+     * @param expireSeconds 请求的有效期（秒），必须大于0
+     * @param signer        签发函数
+     * @return 路径到 URL 的映射，按传入顺序
+     * @throws Exception 签发失败
+     */
+    public Map<String, String> get(Collection<String> filePaths, long expireSeconds, Signer signer)
+            throws Exception {
+        long bucketed = Math.ceilDiv(expireSeconds, bucketSeconds) * bucketSeconds;
+        Instant now = clock.instant();
+        Instant requiredUntil = now.plusSeconds(expireSeconds);
+
+        Map<String, String> urls = new LinkedHashMap<>();
+        LinkedHashSet<String> misses = new LinkedHashSet<>();
+        for (String filePath : filePaths) {
+            SignedUrl signed = cache.getIfPresent(key(filePath, bucketed));
+            if (signed != null && !signed.expireAt().isBefore(requiredUntil)) {
+                urls.put(filePath, signed.url());
+            } else {
+                urls.put(filePath, null); // 占位，保持传入顺序
+                misses.add(filePath);
+            }
+        }
+        if (misses.isEmpty()) {
+            return urls;
+        }
+
+        // 其他实例签发且仍足够新的 URL
+        for (List<String> partition : Lists.partition(new ArrayList<>(misses), BATCH_SIZE)) {
+            List<FileMetadataDO> stored = metadataMapper.selectList(
+                    Wrappers.<FileMetadataDO>lambdaQuery()
+                            .select(FileMetadataDO::getPath, FileMetadataDO::getUrl, FileMetadataDO::getUrlExpire)
+                            .in(FileMetadataDO::getPath, partition)
+            );
+            for (FileMetadataDO metadata : stored) {
+                if (metadata.getUrlExpire() != null && !metadata.getUrlExpire().isBefore(requiredUntil)
+                            && misses.remove(metadata.getPath())) {
+                    cache.put(key(metadata.getPath(), bucketed),
+                            new SignedUrl(metadata.getUrl(), metadata.getUrlExpire()));
+                    urls.put(metadata.getPath(), metadata.getUrl());
+                }
+            }
+        }
+        if (misses.isEmpty()) {
+            return urls;
+        }
+
+        long lifetime = lifetime(bucketed);
+        Instant expireAt = now.plusSeconds(lifetime);
+        List<FileMetadataDO> signedRows = new ArrayList<>(misses.size());
+        for (String filePath : misses) {
+            String url = signer.sign(filePath, lifetime);
+            cache.put(key(filePath, bucketed), new SignedUrl(url, expireAt));
+            urls.put(filePath, url);
+
+            FileMetadataDO row = new FileMetadataDO();
+            row.setPath(filePath);
+            row.setUrl(url);
+            row.setUrlExpire(expireAt);
+            signedRows.add(row);
+        }
+        persist(signedRows);
+        log.debug("预签名URL已签发: 数量={}, 有效期={}s", signedRows.size(), lifetime);
+        return urls;
+    }
+
+    /**
+     * 签发有效期：档位 + 复用窗口，不超过存储允许的最长有效期
+     */
+    long lifetime(long bucketed) {
+        long lifetime = bucketed + (long) Math.ceil(bucketed * reuseRatio);
+        if (maximumLifetimeSeconds > 0) {
+            lifetime = Math.min(lifetime, Math.max(bucketed, maximumLifetimeSeconds));
+        }
+        return lifetime;
+    }
+
+    /**
+     * 写回数据库失败不影响本次返回，其他实例只是无法复用
+     */
+    private void persist(List<FileMetadataDO> signedRows) {
+        try {
+            for (List<FileMetadataDO> partition : Lists.partition(signedRows, BATCH_SIZE)) {
+                metadataMapper.updateUrlsByPath(partition);
+            }
+        } catch (Exception e) {
+            log.warn("预签名URL写回失败: 数量={}", signedRows.size(), e);
+        }
+    }
+
+    private static String key(String filePath, long bucketed) {
+        return filePath + "@" + bucketed;
+    }
+
+    private record SignedUrl(String url, Instant expireAt) {}
+
+    /**
+     * 条目在 URL 过期时移出本地缓存；覆盖写入时按新 URL 重新计算
+     */
+    private record UntilExpireAt(Clock clock) implements Expiry<String, SignedUrl> {
+
+        @Override
+        public long expireAfterCreate(String key, SignedUrl value, long currentTime) {
+            return Math.max(0, Duration.between(clock.instant(), value.expireAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, SignedUrl value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, SignedUrl value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
+}
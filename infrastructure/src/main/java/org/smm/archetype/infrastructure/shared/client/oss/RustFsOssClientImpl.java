@@ -1,204 +1,530 @@
-// package org.smm.archetype.infrastructure.shared.client.oss;
-//
-// import lombok.extern.slf4j.Slf4j;
-// import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
-// import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-// import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-// import software.amazon.awssdk.core.sync.RequestBody;
-// import software.amazon.awssdk.regions.Region;
-// import software.amazon.awssdk.services.s3.S3Client;
-// import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
-// import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
-// import software.amazon.awssdk.services.s3.model.GetObjectRequest;
-// import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
-// import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
-// import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
-// import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
-// import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
-// import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-//
-// import java.io.ByteArrayInputStream;
-// import java.io.InputStream;
-// import java.net.URI;
-//
-// /**
-//  * RustFS OSS实现，基于AWS S3 SDK。
-//  *
-//  * <p>职责划分：
-//  * <ul>
-//  *   <li>外部能力：RustFS S3 API 操作（上传、下载、删除等）</li>
-//  *   <li>数据库操作：委托给父类 AbstractOssClient 处理</li>
-//  * </ul>
-//  */
-// @Slf4j
-// public class RustFsOssClientImpl extends AbstractOssClient {
-//
-//     private final S3Client s3Client;
-//     private final String bucket;
-//
-//     /**
-//      * 上传文件到RustFS，返回S3 key。
-//      */
-//     public RustFsOssClientImpl(
-//             String endpoint,
-//             String accessKey,
-//             String secretKey,
-//             String bucket,
-//             FileMetadataMapper metadataMapper) {
-//
-//         super(metadataMapper);
-//         this.bucket = bucket;
-//
-//         // 创建 S3 Client（参考 RustFS 官方文档）
-//         this.s3Client = S3Client.builder()
-//                                 .endpointOverride(URI.create(endpoint))
-//                                 .region(Region.US_EAST_1) // RustFS 不校验 region
-//                                 .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
-//                                 .forcePathStyle(true) // 关键配置！RustFS 需启用 Path-Style
-//                                 .build();
-//
-//         // 确保 bucket 存在
-//         ensureBucketExists();
-//     }
-//
-//     /**
-//      * 确保bucket存在，不存在则创建。
-//      */
-//     private void ensureBucketExists() {
-//         try {
-//             s3Client.headBucket(HeadBucketRequest.builder().bucket(bucket).build());
-//             log.debug("RustFS bucket already exists: {}", bucket);
-//         } catch (NoSuchBucketException e) {
-//             s3Client.createBucket(CreateBucketRequest.builder().bucket(bucket).build());
-//             log.info("RustFS bucket created: {}", bucket);
-//         } catch (Exception e) {
-//             log.warn("Failed to check/create bucket: {}, assuming it exists", bucket, e);
-//         }
-//     }
-//
-//     // ==================== 外部能力实现（子类职责） ====================
-//
-//     @Override
-//     protected String doUpload(byte[] contentBytes, String fileName, String contentType) {
-//         // 生成 S3 key：yyyy/MM/timestamp-fileName
-//         String datePath = java.time.LocalDate.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyy/MM"));
-//
-//         // 使用纳秒时间戳作为文件标识（与 LocalOssClientImpl 保持一致）
-//         String timestamp = String.valueOf(System.nanoTime());
-//         String key = datePath + "/" + timestamp + "-" + fileName;
-//
-//         // 上传文件到 RustFS
-//         PutObjectRequest putRequest = PutObjectRequest.builder()
-//                                               .bucket(bucket)
-//                                               .key(key)
-//                                               .contentType(contentType)
-//                                               .build();
-//
-//         s3Client.putObject(putRequest, RequestBody.fromBytes(contentBytes));
-//
-//         log.debug("File uploaded to RustFS: bucket={}, key={}, size={}", bucket, key, contentBytes.length);
-//         return key;
-//     }
-//
-//     @Override
-//     protected InputStream doDownload(String filePath) throws Exception {
-//         // filePath 就是 S3 key
-//         GetObjectRequest getRequest = GetObjectRequest.builder()
-//                                               .bucket(bucket)
-//                                               .key(filePath)
-//                                               .build();
-//
-//         byte[] bytes = s3Client.getObject(getRequest).readAllBytes();
-//         log.debug("File downloaded from RustFS: bucket={}, key={}, size={}", bucket, filePath, bytes.length);
-//         return new ByteArrayInputStream(bytes);
-//     }
-//
-//     @Override
-//     protected void doDelete(String filePath) {
-//         // filePath 就是 S3 key
-//         DeleteObjectRequest deleteRequest = DeleteObjectRequest.builder()
-//                                                     .bucket(bucket)
-//                                                     .key(filePath)
-//                                                     .build();
-//
-//         s3Client.deleteObject(deleteRequest);
-//         log.debug("File deleted from RustFS: bucket={}, key={}", bucket, filePath);
-//     }
-//
-//     @Override
-//     protected String doGenerateUrl(String filePath, long expireSeconds) {
-//         // 生成 S3 预签名 URL
-//         //
-//         // 注意：预签名 URL 需要添加 s3-presigner 依赖
-//         // 依赖配置：
-//         // <dependency>
-//         //     <groupId>software.amazon.awssdk</groupId>
-//         //     <artifactId>s3-presigner</artifactId>
-//         //     <version>${aws.java.sdk.version}</version>
-//         // </dependency>
-//         //
-//         // 参考文档：https://docs.rustfs.com.cn/developer/sdk/java.html
-//
-//         if (expireSeconds == 0) {
-//             // 永久有效 URL（需要 bucket 设置为公开访问）
-//             // 格式: http://endpoint:port/bucket/key
-//             return buildPublicUrl(filePath);
-//         } else {
-//             // 临时有效 URL（需要预签名）
-//             // 由于当前项目未引入 s3-presigner 依赖，提供降级方案
-//             log.warn("预签名 URL 功能需要 s3-presigner 依赖，返回公开 URL 作为降级方案");
-//
-//             // 降级方案：返回公开 URL（假设 bucket 已配置为公开访问）
-//             // 注意：如果 bucket 未公开访问，此 URL 将无法访问
-//             return buildPublicUrl(filePath);
-//         }
-//     }
-//
-//     /**
-//      * 构建公开访问 URL
-//      * @param filePath 文件路径（S3 key）
-//      * @return 公开访问 URL
-//      */
-//     private String buildPublicUrl(String filePath) {
-//         // 从 S3Client 获取 endpoint
-//         String endpoint = s3Client.serviceClientConfiguration().endpointOverride().toString();
-//
-//         // 构建公开 URL: {endpoint}/{bucket}/{filePath}
-//         // 注意：如果 endpoint 以 / 结尾，需要去掉
-//         String url = endpoint;
-//         if (!url.endsWith("/")) {
-//             url += "/";
-//         }
-//         url += bucket + "/" + filePath;
-//
-//         log.debug("生成公开访问 URL: path={}, url={}", filePath, url);
-//         return url;
-//     }
-//
-//     @Override
-//     protected boolean doExists(String filePath) {
-//         try {
-//             HeadObjectRequest headRequest = HeadObjectRequest.builder()
-//                                                     .bucket(bucket)
-//                                                     .key(filePath)
-//                                                     .build();
-//
-//             s3Client.headObject(headRequest);
-//             return true;
-//         } catch (NoSuchKeyException e) {
-//             return false;
-//         }
-//     }
-//
-//     @Override
-//     protected long doGetFileSize(String filePath) {
-//         HeadObjectRequest headRequest = HeadObjectRequest.builder()
-//                                                 .bucket(bucket)
-//                                                 .key(filePath)
-//                                                 .build();
-//
-//         HeadObjectResponse response = s3Client.headObject(headRequest);
-//         return response.contentLength();
-//     }
-//
-// }
+package org.smm.archetype.infrastructure.shared.client.oss;
+
+import lombok.extern.slf4j.Slf4j;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileUploadPartDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileUploadSessionDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * RustFS OSS实现，基于AWS S3 SDK。
+ *
+ * <p>职责划分：
+ * <ul>
+ *   <li>外部能力：RustFS S3 API 操作（上传、下载、删除等）</li>
+ *   <li>数据库操作：委托给父类 AbstractOssClient 处理</li>
+ * </ul>
+ *
+ * <p>传输：
+ * <ul>
+ *   <li>同步客户端使用 Apache 连接池，下载直接返回 {@link ResponseInputStream}，调用方边读边从连接取数据，
+ *   关闭流后连接归还连接池</li>
+ *   <li>配置了异步客户端（Netty）时，大于并行阈值的传输拆成多个范围 GET 并发下载，按顺序写入目标通道；
+ *   同时在途的分片数有上限，内存占用为 并发数 × 分片大小</li>
+ * </ul>
+ *
+ * <p>有时效的 URL 由 {@link S3Presigner} 本地签名生成（不访问存储），未配置签名器时降级为公开 URL。
+ */
+@Slf4j
+public class RustFsOssClientImpl extends AbstractOssClient implements AutoCloseable {
+
+    private final S3Client s3Client;
+
+    /**
+     * 异步客户端（可选），为null时所有传输使用同步客户端
+     */
+    private final S3AsyncClient s3AsyncClient;
+
+    /**
+     * URL 签名器（可选），为null时有时效的 URL 降级为公开 URL
+     */
+    private final S3Presigner s3Presigner;
+
+    private final String bucket;
+
+    /**
+     * 并行范围下载的阈值（字节），传输长度达到该值时使用异步并行下载
+     */
+    private final long parallelThreshold;
+
+    /**
+     * 并行范围下载的分片大小（字节）
+     */
+    private final long partSize;
+
+    /**
+     * 并行范围下载同时在途的最大分片数
+     */
+    private final int parallelism;
+
+    /**
+     * 初始化RustFS客户端（客户端的生命周期由本对象管理，{@link #close()} 时关闭）。
+     * @param s3Client          同步客户端
+     * @param s3AsyncClient     异步客户端（可选），为null时不使用并行范围下载
+     * @param s3Presigner       URL 签名器（可选），为null时有时效的 URL 降级为公开 URL
+     * @param bucket            Bucket 名称
+     * @param parallelThreshold 并行范围下载的阈值（字节）
+     * @param partSize          并行范围下载的分片大小（字节）
+     * @param parallelism       并行范围下载同时在途的最大分片数
+     * @param metadataMapper    文件元数据Mapper
+     */
+    public RustFsOssClientImpl(
+            S3Client s3Client,
+            S3AsyncClient s3AsyncClient,
+            S3Presigner s3Presigner,
+            String bucket,
+            long parallelThreshold,
+            long partSize,
+            int parallelism,
+            FileMetadataMapper metadataMapper) {
+        super(metadataMapper);
+        if (partSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("Part size and parallelism must be positive");
+        }
+        this.s3Client = s3Client;
+        this.s3AsyncClient = s3AsyncClient;
+        this.s3Presigner = s3Presigner;
+        this.bucket = bucket;
+        this.parallelThreshold = parallelThreshold;
+        this.partSize = partSize;
+        this.parallelism = parallelism;
+
+        // 确保 bucket 存在
+        ensureBucketExists();
+    }
+
+    /**
+     * 创建使用 Apache 连接池的同步客户端（参考 RustFS 官方文档）
+     * @param endpoint       RustFS 服务器地址
+     * @param accessKey      Access Key
+     * @param secretKey      Secret Key
+     * @param connectTimeout 连接超时
+     * @param readTimeout    读取超时
+     * @param maxConnections 最大连接数
+     * @return 同步客户端
+     */
+    public static S3Client newClient(String endpoint, String accessKey, String secretKey,
+                                     Duration connectTimeout, Duration readTimeout, int maxConnections) {
+        return S3Client.builder()
+                       .endpointOverride(URI.create(endpoint))
+                       .region(Region.US_EAST_1) // RustFS 不校验 region
+                       .credentialsProvider(credentials(accessKey, secretKey))
+                       .forcePathStyle(true) // 关键配置！RustFS 需启用 Path-Style
+                       .httpClientBuilder(ApacheHttpClient.builder()
+                                                          .maxConnections(maxConnections)
+                                                          .connectionTimeout(connectTimeout)
+                                                          .socketTimeout(readTimeout))
+                       .build();
+    }
+
+    /**
+     * 创建使用 Netty 的异步客户端，用于并行范围下载
+     * @param endpoint       RustFS 服务器地址
+     * @param accessKey      Access Key
+     * @param secretKey      Secret Key
+     * @param connectTimeout 连接超时
+     * @param readTimeout    读取超时
+     * @param maxConcurrency 最大并发连接数
+     * @return 异步客户端
+     */
+    public static S3AsyncClient newAsyncClient(String endpoint, String accessKey, String secretKey,
+                                               Duration connectTimeout, Duration readTimeout, int maxConcurrency) {
+        return S3AsyncClient.builder()
+                            .endpointOverride(URI.create(endpoint))
+                            .region(Region.US_EAST_1)
+                            .credentialsProvider(credentials(accessKey, secretKey))
+                            .forcePathStyle(true)
+                            .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                                                                      .maxConcurrency(maxConcurrency)
+                                                                      .connectionTimeout(connectTimeout)
+                                                                      .readTimeout(readTimeout))
+                            .build();
+    }
+
+    /**
+     * 创建 URL 签名器（本地计算签名，不建立连接）
+     * @param endpoint  RustFS 服务器地址
+     * @param accessKey Access Key
+     * @param secretKey Secret Key
+     * @return URL 签名器
+     */
+    public static S3Presigner newPresigner(String endpoint, String accessKey, String secretKey) {
+        return S3Presigner.builder()
+                          .endpointOverride(URI.create(endpoint))
+                          .region(Region.US_EAST_1)
+                          .credentialsProvider(credentials(accessKey, secretKey))
+                          .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                          .build();
+    }
+
+    private static StaticCredentialsProvider credentials(String accessKey, String secretKey) {
+        return StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+    }
+
+    /**
+     * 确保bucket存在，不存在则创建。
+     */
+    private void ensureBucketExists() {
+        try {
+            s3Client.headBucket(HeadBucketRequest.builder().bucket(bucket).build());
+            log.debug("RustFS bucket already exists: {}", bucket);
+        } catch (NoSuchBucketException e) {
+            s3Client.createBucket(CreateBucketRequest.builder().bucket(bucket).build());
+            log.info("RustFS bucket created: {}", bucket);
+        } catch (Exception e) {
+            log.warn("Failed to check/create bucket: {}, assuming it exists", bucket, e);
+        }
+    }
+
+    // ==================== 外部能力实现（子类职责） ====================
+
+    @Override
+    protected String doUpload(Path stagedFile, long size, String key, String contentType) {
+        return doUpload(stagedFile, size, key, contentType, null);
+    }
+
+    @Override
+    protected String doUpload(Path stagedFile, long size, String key, String contentType, String crc32c) {
+        // key 由父类按内容寻址生成：{ab}/{cd}/{md5}（与 LocalOssClientImpl 保持一致）
+
+        // 上传文件到 RustFS；携带 CRC32C 时由存储端校验写入完整性，不一致时拒绝写入
+        PutObjectRequest.Builder putRequest = PutObjectRequest.builder()
+                                                      .bucket(bucket)
+                                                      .key(key)
+                                                      .contentType(contentType)
+                                                      .contentLength(size);
+        if (crc32c != null) {
+            putRequest.checksumCRC32C(Base64.getEncoder().encodeToString(HexFormat.of().parseHex(crc32c)));
+        }
+
+        // 从暂存文件流式上传，不把文件读入内存
+        s3Client.putObject(putRequest.build(), RequestBody.fromFile(stagedFile));
+
+        log.debug("File uploaded to RustFS: bucket={}, key={}, size={}", bucket, key, size);
+        return key;
+    }
+
+    @Override
+    protected String doInitiateMultipart(String uploadId, String contentType, long totalSize) {
+        // 内容寻址的键在完成时才能确定，分片先上传到临时键
+        CreateMultipartUploadResponse response = s3Client.createMultipartUpload(
+                CreateMultipartUploadRequest.builder()
+                        .bucket(bucket)
+                        .key(multipartKey(uploadId))
+                        .contentType(contentType)
+                        .build());
+        return response.uploadId();
+    }
+
+    @Override
+    protected String doUploadPart(FileUploadSessionDO session, int partNumber, long offset,
+                                  Path stagedPart, long size, String md5) {
+        // Content-MD5 由 S3 端再次校验分片完整性
+        UploadPartResponse response = s3Client.uploadPart(
+                UploadPartRequest.builder()
+                        .bucket(bucket)
+                        .key(multipartKey(session.getUploadId()))
+                        .uploadId(session.getStorageUploadId())
+                        .partNumber(partNumber)
+                        .contentLength(size)
+                        .contentMD5(Base64.getEncoder().encodeToString(HexFormat.of().parseHex(md5)))
+                        .build(),
+                RequestBody.fromFile(stagedPart));
+        return response.eTag();
+    }
+
+    @Override
+    protected String doCompleteMultipart(FileUploadSessionDO session, List<FileUploadPartDO> parts, String key) {
+        String temporaryKey = multipartKey(session.getUploadId());
+        s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(temporaryKey)
+                .uploadId(session.getStorageUploadId())
+                .multipartUpload(CompletedMultipartUpload.builder()
+                        .parts(parts.stream()
+                                       .map(part -> CompletedPart.builder()
+                                                            .partNumber(part.getPartNumber())
+                                                            .eTag(part.getEtag())
+                                                            .build())
+                                       .toList())
+                        .build())
+                .build());
+        // 服务端复制到内容寻址的键（超过 5GB 时需改用 UploadPartCopy）
+        s3Client.copyObject(CopyObjectRequest.builder()
+                .sourceBucket(bucket).sourceKey(temporaryKey)
+                .destinationBucket(bucket).destinationKey(key)
+                .build());
+        s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(temporaryKey).build());
+        return key;
+    }
+
+    @Override
+    protected void doAbortMultipart(FileUploadSessionDO session) {
+        s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(multipartKey(session.getUploadId()))
+                .uploadId(session.getStorageUploadId())
+                .build());
+    }
+
+    @Override
+    protected long minimumPartSize() {
+        // S3 要求除最后一个分片外不小于 5MB
+        return 5L * 1024 * 1024;
+    }
+
+    private static String multipartKey(String uploadId) {
+        return "multipart/" + uploadId;
+    }
+
+    @Override
+    protected InputStream doDownload(String filePath) {
+        // filePath 就是 S3 key；直接返回响应流，不在堆上缓冲整个对象
+        GetObjectRequest getRequest = GetObjectRequest.builder()
+                                              .bucket(bucket)
+                                              .key(filePath)
+                                              .build();
+
+        return s3Client.getObject(getRequest);
+    }
+
+    @Override
+    protected InputStream doDownload(String filePath, long offset, long length) {
+        // 长度为0时 Range 无法表示（bytes=o-(o-1) 无效，服务端会忽略并返回整个对象），不发请求
+        if (length == 0) {
+            return InputStream.nullInputStream();
+        }
+        // 范围 GET，只传输请求的字节
+        return s3Client.getObject(rangeRequest(filePath, offset, length));
+    }
+
+    @Override
+    protected long doTransferTo(String filePath, long offset, long length, WritableByteChannel target)
+            throws Exception {
+        if (s3AsyncClient == null || (length >= 0 && length < parallelThreshold)) {
+            return transferSequentially(filePath, offset, length, target);
+        }
+
+        // 长度未知或达到阈值时，先取对象大小确定实际传输范围
+        long size = doGetFileSize(filePath);
+        if (offset > size) {
+            throw new IOException("Range start beyond end of object: offset=" + offset + ", size=" + size);
+        }
+        long end = length < 0 ? size : Math.min(size, offset + length);
+        if (end - offset < parallelThreshold) {
+            return transferSequentially(filePath, offset, end - offset, target);
+        }
+        return transferInParallel(filePath, offset, end, target);
+    }
+
+    /**
+     * 单个 GET 请求流式写入目标通道
+     */
+    private long transferSequentially(String filePath, long offset, long length, WritableByteChannel target)
+            throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        GetObjectRequest request = offset == 0 && length < 0
+                                           ? GetObjectRequest.builder().bucket(bucket).key(filePath).build()
+                                           : rangeRequest(filePath, offset, length);
+        try (ResponseInputStream<GetObjectResponse> inputStream = s3Client.getObject(request)) {
+            return inputStream.transferTo(Channels.newOutputStream(target));
+        }
+    }
+
+    /**
+     * 按分片大小拆成多个范围 GET 并发下载，按顺序写入目标通道；同时在途的分片数不超过 {@link #parallelism}
+     */
+    private long transferInParallel(String filePath, long offset, long end, WritableByteChannel target)
+            throws Exception {
+        Deque<CompletableFuture<ResponseBytes<GetObjectResponse>>> inFlight = new ArrayDeque<>();
+        long next = offset;
+        long written = 0;
+        try {
+            while (next < end || !inFlight.isEmpty()) {
+                while (next < end && inFlight.size() < parallelism) {
+                    long count = Math.min(partSize, end - next);
+                    inFlight.add(s3AsyncClient.getObject(rangeRequest(filePath, next, count),
+                            AsyncResponseTransformer.toBytes()));
+                    next += count;
+                }
+                ByteBuffer buffer = inFlight.poll().get().asByteBuffer();
+                while (buffer.hasRemaining()) {
+                    written += target.write(buffer);
+                }
+            }
+        } finally {
+            // 失败时取消尚未完成的分片请求
+            inFlight.forEach(future -> future.cancel(true));
+        }
+        log.debug("并行范围下载完成: 路径={}, 大小={}", filePath, written);
+        return written;
+    }
+
+    private GetObjectRequest rangeRequest(String filePath, long offset, long length) {
+        String range = "bytes=" + offset + "-" + (length < 0 ? "" : String.valueOf(offset + length - 1));
+        return GetObjectRequest.builder()
+                       .bucket(bucket)
+                       .key(filePath)
+                       .range(range)
+                       .build();
+    }
+
+    @Override
+    protected void doDelete(String filePath) {
+        // filePath 就是 S3 key
+        DeleteObjectRequest deleteRequest = DeleteObjectRequest.builder()
+                                                    .bucket(bucket)
+                                                    .key(filePath)
+                                                    .build();
+
+        s3Client.deleteObject(deleteRequest);
+        log.debug("File deleted from RustFS: bucket={}, key={}", bucket, filePath);
+    }
+
+    @Override
+    protected String doGenerateUrl(String filePath, long expireSeconds) {
+        if (expireSeconds == 0) {
+            // 永久有效 URL（需要 bucket 设置为公开访问）
+            // 格式: http://endpoint:port/bucket/key
+            return buildPublicUrl(filePath);
+        }
+        if (s3Presigner == null) {
+            // 降级方案：返回公开 URL（假设 bucket 已配置为公开访问）
+            log.warn("未配置 URL 签名器，返回公开 URL 作为降级方案: path={}", filePath);
+            return buildPublicUrl(filePath);
+        }
+
+        // 临时有效 URL：预签名 GET
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+                                                         .signatureDuration(Duration.ofSeconds(expireSeconds))
+                                                         .getObjectRequest(GetObjectRequest.builder()
+                                                                                   .bucket(bucket)
+                                                                                   .key(filePath)
+                                                                                   .build())
+                                                         .build();
+        return s3Presigner.presignGetObject(presignRequest).url().toString();
+    }
+
+    @Override
+    protected Duration maximumUrlLifetime() {
+        // S3 签名 V4 的最长有效期为 7 天
+        return Duration.ofDays(7);
+    }
+
+    /**
+     * 构建公开访问 URL
+     * @param filePath 文件路径（S3 key）
+     * @return 公开访问 URL
+     */
+    private String buildPublicUrl(String filePath) {
+        // 从 S3Client 获取 endpoint
+        String endpoint = s3Client.serviceClientConfiguration().endpointOverride()
+                                  .map(URI::toString)
+                                  .orElse("");
+
+        // 构建公开 URL: {endpoint}/{bucket}/{filePath}
+        // 注意：如果 endpoint 以 / 结尾，需要去掉
+        String url = endpoint;
+        if (!url.endsWith("/")) {
+            url += "/";
+        }
+        url += bucket + "/" + filePath;
+
+        log.debug("生成公开访问 URL: path={}, url={}", filePath, url);
+        return url;
+    }
+
+    @Override
+    protected boolean doExists(String filePath) {
+        try {
+            HeadObjectRequest headRequest = HeadObjectRequest.builder()
+                                                    .bucket(bucket)
+                                                    .key(filePath)
+                                                    .build();
+
+            s3Client.headObject(headRequest);
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            // HEAD 响应没有错误体，部分兼容实现只返回 404 状态码
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    protected long doGetFileSize(String filePath) {
+        HeadObjectRequest headRequest = HeadObjectRequest.builder()
+                                                .bucket(bucket)
+                                                .key(filePath)
+                                                .build();
+
+        HeadObjectResponse response = s3Client.headObject(headRequest);
+        return response.contentLength();
+    }
+
+    @Override
+    public void close() {
+        s3Client.close();
+        if (s3AsyncClient != null) {
+            s3AsyncClient.close();
+        }
+        if (s3Presigner != null) {
+            s3Presigner.close();
+        }
+    }
+
+}
@@ -0,0 +1,378 @@
+package org.smm.archetype.infrastructure.shared.client.oss;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileMetadataDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileUploadPartDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileUploadSessionDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 分层对象存储实现：热层（本地快速磁盘）+ 冷层（RustFS 或慢速磁盘），按访问频率在两层之间迁移文件。
+ *
+ * <p>两层都是 {@link AbstractOssClient} 实现，本类只调用它们的扩展点（外部能力），元数据、去重、校验和、
+ * URL 缓存和搜索仍由基类统一处理，file_metadata 中的路径在迁移前后不变（两层使用相同的内容寻址键）。
+ * <ul>
+ *   <li>写入：新文件和分片上传都写入热层</li>
+ *   <li>读取：热层存在时读热层，否则读冷层；读取期间文件被降级时回退到冷层，对调用方透明</li>
+ *   <li>降级：{@link #migrate} 按ID分批扫描元数据，写入超过保留期、且上一个统计窗口内访问次数不超过阈值的热层文件
+ *   复制到冷层（冷层已有时跳过复制）后从热层删除</li>
+ *   <li>升级（可选）：从冷层读取的文件访问次数达到阈值时，后台复制回热层，冷层副本保留，之后降级只需删除热层副本</li>
+ *   <li>URL：始终由冷层签发，只在热层的文件先复制到冷层；URL 会被缓存并写回 file_metadata，热层 URL 在降级后失效</li>
+ * </ul>
+ *
+ * <p>访问次数按统计窗口记录在本实例内存中，每次 {@link #migrate} 开始时切换窗口。
+ * 热层为本地磁盘时只适用于单实例部署或共享磁盘，与 {@link LocalOssClientImpl} 相同。
+ */
+@Slf4j
+public class TieredOssClientImpl extends AbstractOssClient implements AutoCloseable {
+
+    /**
+     * 同时进行的最大升级数
+     */
+    private static final int PROMOTION_PARALLELISM = 4;
+
+    private final AbstractOssClient hotTier;
+
+    private final AbstractOssClient coldTier;
+
+    private final ExecutorService promotionExecutor;
+
+    /**
+     * 正在升级的文件路径，同一文件只升级一次
+     */
+    private final Set<String> promoting = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 当前统计窗口的访问次数
+     */
+    private volatile Map<String, LongAdder> currentAccesses = new ConcurrentHashMap<>();
+
+    /**
+     * 上一个统计窗口的访问次数
+     */
+    private volatile Map<String, LongAdder> previousAccesses = Map.of();
+
+    /**
+     * 写入后至少在热层保留的时间（按元数据更新时间计算，去重复用会刷新）
+     */
+    @Setter
+    private Duration hotRetention = Duration.ofHours(24);
+
+    /**
+     * 上一个统计窗口内访问次数不超过该值的热层文件被降级
+     */
+    @Setter
+    private long coldAccessThreshold = 0;
+
+    /**
+     * 是否在读取冷层文件时升级到热层
+     */
+    @Setter
+    private boolean promoteOnRead = true;
+
+    /**
+     * 升级所需的访问次数（当前和上一个统计窗口之和）
+     */
+    @Setter
+    private long promoteThreshold = 2;
+
+    /**
+     * @param hotTier        热层存储
+     * @param coldTier       冷层存储
+     * @param metadataMapper 文件元数据 Mapper
+     */
+    public TieredOssClientImpl(AbstractOssClient hotTier, AbstractOssClient coldTier,
+                               FileMetadataMapper metadataMapper) {
+        super(metadataMapper);
+        this.hotTier = hotTier;
+        this.coldTier = coldTier;
+        this.promotionExecutor = Executors.newFixedThreadPool(PROMOTION_PARALLELISM,
+                Thread.ofVirtual().name("oss-tier-promotion-", 0).factory());
+        log.info("分层对象存储初始化: 热层={}, 冷层={}",
+                hotTier.getClass().getSimpleName(), coldTier.getClass().getSimpleName());
+    }
+
+    // ==================== 分层迁移 ====================
+
+    /**
+     * 执行一次降级：切换统计窗口，按ID分批扫描元数据，把冷文件从热层迁移到冷层
+     * @param batchSize 每批处理的数量
+     * @return 降级的文件数量
+     */
+    public int migrate(int batchSize) {
+        previousAccesses = currentAccesses;
+        currentAccesses = new ConcurrentHashMap<>();
+
+        Instant before = Instant.now().minus(hotRetention);
+        int demoted = 0;
+        long afterId = 0;
+        List<FileMetadataDO> batch;
+        do {
+            batch = metadataMapper.selectList(
+                    Wrappers.<FileMetadataDO>lambdaQuery()
+                            .select(FileMetadataDO::getId, FileMetadataDO::getPath,
+                                    FileMetadataDO::getContentType, FileMetadataDO::getCrc32c)
+                            .gt(FileMetadataDO::getId, afterId)
+                            .lt(FileMetadataDO::getUpdateTime, before)
+                            .orderByAsc(FileMetadataDO::getId)
+                            .last("LIMIT " + batchSize)
+            );
+            for (FileMetadataDO metadata : batch) {
+                afterId = metadata.getId();
+                if (metadata.getPath() == null || accessCount(metadata.getPath()) > coldAccessThreshold) {
+                    continue;
+                }
+                try {
+                    if (hotTier.doExists(metadata.getPath())) {
+                        demote(metadata);
+                        demoted++;
+                    }
+                } catch (Exception e) {
+                    log.error("文件降级失败: 路径={}", metadata.getPath(), e);
+                }
+            }
+        } while (batch.size() >= batchSize);
+        log.info("分层迁移完成: 降级数量={}, 保留期={}", demoted, hotRetention);
+        return demoted;
+    }
+
+    /**
+     * 降级：冷层没有副本时先复制到冷层，再删除热层副本
+     */
+    private void demote(FileMetadataDO metadata) throws Exception {
+        String path = metadata.getPath();
+        if (!coldTier.doExists(path)) {
+            // 热层副本在冷层写入成功后才删除
+            copyToColdTier(path, metadata.getContentType(), metadata.getCrc32c());
+        }
+        hotTier.doDelete(path);
+        log.debug("文件已降级到冷层: 路径={}", path);
+    }
+
+    /**
+     * 把热层文件复制到冷层，热层副本保留
+     */
+    private void copyToColdTier(String path, String contentType, String crc32c) throws Exception {
+        // 冷层实现可能移动传入的文件，复制一份暂存文件
+        Path staged = Files.createTempFile(coldTier.stagingDirectory(), "cold-", ".tmp");
+        try {
+            try (InputStream inputStream = hotTier.doDownload(path)) {
+                Files.copy(inputStream, staged, StandardCopyOption.REPLACE_EXISTING);
+            }
+            coldTier.doUpload(staged, Files.size(staged), path, contentType, crc32c);
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    /**
+     * 冷层读取后按访问次数在后台升级，同一文件同时只升级一次
+     */
+    private void promoteIfHot(String filePath) {
+        if (!promoteOnRead || accessCount(filePath) < promoteThreshold || !promoting.add(filePath)) {
+            return;
+        }
+        try {
+            promotionExecutor.execute(() -> {
+                try {
+                    promote(filePath);
+                } catch (Exception e) {
+                    log.warn("文件升级失败: 路径={}", filePath, e);
+                } finally {
+                    promoting.remove(filePath);
+                }
+            });
+        } catch (RuntimeException e) {
+            // 已关闭时放弃升级，不影响本次读取
+            promoting.remove(filePath);
+        }
+    }
+
+    /**
+     * 升级：从冷层复制到热层，冷层副本保留
+     */
+    private void promote(String filePath) throws Exception {
+        if (hotTier.doExists(filePath)) {
+            return;
+        }
+        Path staged = Files.createTempFile(hotTier.stagingDirectory(), "promote-", ".tmp");
+        try {
+            try (InputStream inputStream = coldTier.doDownload(filePath)) {
+                Files.copy(inputStream, staged, StandardCopyOption.REPLACE_EXISTING);
+            }
+            hotTier.doUpload(staged, Files.size(staged), filePath, null, null);
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+        log.debug("文件已升级到热层: 路径={}", filePath);
+    }
+
+    private void recordAccess(String filePath) {
+        currentAccesses.computeIfAbsent(filePath, key -> new LongAdder()).increment();
+    }
+
+    private long accessCount(String filePath) {
+        LongAdder current = currentAccesses.get(filePath);
+        LongAdder previous = previousAccesses.get(filePath);
+        return (current != null ? current.sum() : 0) + (previous != null ? previous.sum() : 0);
+    }
+
+    /**
+     * 读取文件：热层存在时读热层，读取期间被降级时回退到冷层；从冷层读取后按访问次数升级
+     */
+    private <T> T read(String filePath, TierRead<T> read) throws Exception {
+        recordAccess(filePath);
+        if (hotTier.doExists(filePath)) {
+            try {
+                return read.apply(hotTier);
+            } catch (FileNotFoundException | NoSuchFileException e) {
+                log.debug("热层文件已降级，改读冷层: 路径={}", filePath);
+            }
+        }
+        T result = read.apply(coldTier);
+        promoteIfHot(filePath);
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface TierRead<T> {
+
+        T apply(AbstractOssClient tier) throws Exception;
+
+    }
+
+    // ==================== 外部能力实现（委托给热层/冷层） ====================
+
+    @Override
+    protected String doUpload(Path stagedFile, long size, String key, String contentType) throws Exception {
+        return hotTier.doUpload(stagedFile, size, key, contentType);
+    }
+
+    @Override
+    protected String doUpload(Path stagedFile, long size, String key, String contentType, String crc32c)
+            throws Exception {
+        return hotTier.doUpload(stagedFile, size, key, contentType, crc32c);
+    }
+
+    @Override
+    protected long doStage(InputStream source, Path stagedFile, long contentLength) throws IOException {
+        return hotTier.doStage(source, stagedFile, contentLength);
+    }
+
+    @Override
+    protected Path stagingDirectory() throws IOException {
+        return hotTier.stagingDirectory();
+    }
+
+    @Override
+    protected InputStream doDownload(String filePath) throws Exception {
+        return read(filePath, tier -> tier.doDownload(filePath));
+    }
+
+    @Override
+    protected InputStream doDownload(String filePath, long offset, long length) throws Exception {
+        return read(filePath, tier -> tier.doDownload(filePath, offset, length));
+    }
+
+    @Override
+    protected long doTransferTo(String filePath, long offset, long length, WritableByteChannel target)
+            throws Exception {
+        return read(filePath, tier -> tier.doTransferTo(filePath, offset, length, target));
+    }
+
+    @Override
+    protected void doDelete(String filePath) throws Exception {
+        hotTier.doDelete(filePath);
+        coldTier.doDelete(filePath);
+    }
+
+    @Override
+    protected String doGenerateUrl(String filePath, long expireSeconds) throws Exception {
+        // URL 被缓存并写回 file_metadata，由冷层签发才能在降级后继续有效；冷层副本之后保留，降级只需删除热层副本
+        if (!coldTier.doExists(filePath)) {
+            FileMetadataDO metadata = metadataMapper.selectOne(
+                    Wrappers.<FileMetadataDO>lambdaQuery()
+                            .select(FileMetadataDO::getContentType, FileMetadataDO::getCrc32c)
+                            .eq(FileMetadataDO::getPath, filePath)
+            );
+            copyToColdTier(filePath, metadata != null ? metadata.getContentType() : null,
+                    metadata != null ? metadata.getCrc32c() : null);
+            log.debug("签发URL前复制到冷层: 路径={}", filePath);
+        }
+        return coldTier.doGenerateUrl(filePath, expireSeconds);
+    }
+
+    @Override
+    protected Duration maximumUrlLifetime() {
+        return coldTier.maximumUrlLifetime();
+    }
+
+    @Override
+    protected boolean doExists(String filePath) throws Exception {
+        return hotTier.doExists(filePath) || coldTier.doExists(filePath);
+    }
+
+    @Override
+    protected long doGetFileSize(String filePath) throws Exception {
+        return hotTier.doExists(filePath) ? hotTier.doGetFileSize(filePath) : coldTier.doGetFileSize(filePath);
+    }
+
+    @Override
+    protected String doInitiateMultipart(String uploadId, String contentType, long totalSize) throws Exception {
+        return hotTier.doInitiateMultipart(uploadId, contentType, totalSize);
+    }
+
+    @Override
+    protected String doUploadPart(FileUploadSessionDO session, int partNumber, long offset, Path stagedPart,
+                                  long size, String md5) throws Exception {
+        return hotTier.doUploadPart(session, partNumber, offset, stagedPart, size, md5);
+    }
+
+    @Override
+    protected String doCompleteMultipart(FileUploadSessionDO session, List<FileUploadPartDO> parts, String key)
+            throws Exception {
+        return hotTier.doCompleteMultipart(session, parts, key);
+    }
+
+    @Override
+    protected void doAbortMultipart(FileUploadSessionDO session) throws Exception {
+        hotTier.doAbortMultipart(session);
+    }
+
+    @Override
+    protected long minimumPartSize() {
+        return hotTier.minimumPartSize();
+    }
+
+    @Override
+    public void close() throws Exception {
+        promotionExecutor.shutdownNow();
+        if (hotTier instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+        if (coldTier instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+}
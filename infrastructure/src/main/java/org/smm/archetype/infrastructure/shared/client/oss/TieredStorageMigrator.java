@@ -0,0 +1,63 @@
+package org.smm.archetype.infrastructure.shared.client.oss;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分层存储迁移器：在后台线程按固定间隔调用 {@link TieredOssClientImpl#migrate}，把冷文件从热层分批迁移到冷层。
+ *
+ * <p>迁移间隔同时是访问次数的统计窗口，见 {@link TieredOssClientImpl}。
+ */
+@Slf4j
+public class TieredStorageMigrator implements AutoCloseable {
+
+    private final TieredOssClientImpl ossClient;
+
+    private final int batchSize;
+
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param ossClient 分层对象存储客户端
+     * @param interval  迁移间隔（访问次数统计窗口）
+     * @param batchSize 每批处理的数量
+     */
+    public TieredStorageMigrator(TieredOssClientImpl ossClient, Duration interval, int batchSize) {
+        if (!interval.isPositive() || batchSize <= 0) {
+            throw new IllegalArgumentException("Interval and batch size must be positive");
+        }
+        this.ossClient = ossClient;
+        this.batchSize = batchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("oss-tier-migrator").factory());
+        scheduler.scheduleWithFixedDelay(this::migrateQuietly, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        log.info("分层存储迁移初始化成功: 间隔={}, 分页大小={}", interval, batchSize);
+    }
+
+    /**
+     * 立即执行一次迁移（在调用线程执行）
+     * @return 降级的文件数量
+     */
+    public int migrate() {
+        return ossClient.migrate(batchSize);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void migrateQuietly() {
+        try {
+            migrate();
+        } catch (Exception e) {
+            log.error("分层存储迁移失败", e);
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package org.smm.archetype.infrastructure.shared.dal.generated.entity;
 
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableLogic;
 import com.baomidou.mybatisplus.annotation.TableName;
 import lombok.AllArgsConstructor;
@@ -49,8 +50,9 @@ public class FileBusinessDO extends BaseDO implements Serializable {
     private String type;
 
     /**
-     * 使用场景
+     * 使用场景（USAGE 是 MySQL 保留字，列名需要转义）
      */
+    @TableField("`usage`")
     private String usage;
 
     /**
@@ -34,6 +34,11 @@ public class FileMetadataDO extends BaseDO implements Serializable {
      */
     private String md5;
 
+    /**
+     * 文件CRC32C值（十六进制），分片上传的文件为空
+     */
+    private String crc32c;
+
     /**
      * 文件MIME类型
      */
@@ -0,0 +1,53 @@
+package org.smm.archetype.infrastructure.shared.dal.generated.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.smm.archetype.infrastructure.shared.dal.BaseDO;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 分片上传分片表DO实体。
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("file_upload_part")
+public class FileUploadPartDO extends BaseDO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 上传会话ID，关联file_upload_session.upload_id
+     */
+    private String uploadId;
+
+    /**
+     * 分片序号，从1开始
+     */
+    private Integer partNumber;
+
+    /**
+     * 分片大小（字节）
+     */
+    private Long size;
+
+    /**
+     * 分片MD5值
+     */
+    private String md5;
+
+    /**
+     * 存储端返回的分片标识（S3 ETag）
+     */
+    private String etag;
+
+}
@@ -0,0 +1,74 @@
+package org.smm.archetype.infrastructure.shared.dal.generated.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.smm.archetype.infrastructure.shared.dal.BaseDO;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * 分片上传会话表DO实体。
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("file_upload_session")
+public class FileUploadSessionDO extends BaseDO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 上传会话ID（对外暴露）
+     */
+    private String uploadId;
+
+    /**
+     * 存储端的上传ID（S3 UploadId / 本地组装文件名）
+     */
+    private String storageUploadId;
+
+    /**
+     * 文件名
+     */
+    private String fileName;
+
+    /**
+     * 文件MIME类型
+     */
+    private String contentType;
+
+    /**
+     * 文件总大小（字节），-1表示未知
+     */
+    private Long totalSize;
+
+    /**
+     * 分片大小（字节），最后一个分片可以更小
+     */
+    private Long partSize;
+
+    /**
+     * 状态：UPLOADING/COMPLETING/COMPLETED/ABORTED
+     */
+    private String status;
+
+    /**
+     * 完成后的文件存储路径
+     */
+    private String path;
+
+    /**
+     * 会话过期时间
+     */
+    private Instant expireTime;
+
+}
@@ -6,6 +6,8 @@ import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileBusinessDO;
 
+import java.util.List;
+
 /**
  * 文件业务关联表 映射层。
 
@@ -20,7 +22,7 @@ public interface FileBusinessMapper extends BaseMapper<FileBusinessDO> {
      * @return 影响行数
      */
     @Insert("""
-            INSERT INTO file_business (id, file_meta_id, business_id, name, type, usage, sort, remark,
+            INSERT INTO file_business (id, file_meta_id, business_id, name, type, `usage`, sort, remark,
                                        create_time, update_time, create_user, update_user, delete_time, delete_user)
             VALUES (#{entity.id}, #{entity.fileMetaId}, #{entity.businessId}, #{entity.name}, 
                     #{entity.type}, #{entity.usage}, #{entity.sort}, #{entity.remark},
@@ -30,7 +32,7 @@ public interface FileBusinessMapper extends BaseMapper<FileBusinessDO> {
                 business_id = #{entity.businessId},
                 name = #{entity.name},
                 type = #{entity.type},
-                usage = #{entity.usage},
+                `usage` = #{entity.usage},
                 sort = #{entity.sort},
                 remark = #{entity.remark},
                 update_time = #{entity.updateTime},
@@ -39,4 +41,55 @@ public interface FileBusinessMapper extends BaseMapper<FileBusinessDO> {
     @Options(useGeneratedKeys = true, keyProperty = "entity.id")
     int upsertById(@Param("entity") FileBusinessDO entity);
 
+    /**
+     * 批量插入文件业务关联（单条多行语句），自增ID按行顺序回填。
+     * 不带 ON DUPLICATE KEY UPDATE，驱动按连续自增值回填每行ID。
+     * @param entities 文件业务关联实体（ID为空）
+     * @return 影响行数
+     */
+    @Insert("""
+            <script>
+            INSERT INTO file_business (file_meta_id, business_id, name, type, `usage`, sort, remark,
+                                       create_time, update_time, create_user, update_user, delete_time, delete_user)
+            VALUES
+            <foreach collection="entities" item="entity" separator=",">
+                (#{entity.fileMetaId}, #{entity.businessId}, #{entity.name},
+                 #{entity.type}, #{entity.usage}, #{entity.sort}, #{entity.remark},
+                 #{entity.createTime}, #{entity.updateTime}, #{entity.createUser}, #{entity.updateUser}, 0, NULL)
+            </foreach>
+            </script>
+            """)
+    @Options(useGeneratedKeys = true, keyProperty = "entities.id", keyColumn = "id")
+    int insertBatch(@Param("entities") List<FileBusinessDO> entities);
+
+    /**
+     * 批量插入或更新文件业务关联（单条多行语句，基于 id 主键）。
+     * 多行 upsert 不能可靠回填自增ID，只用于已有ID的记录，新记录使用 {@link #insertBatch}。
+     * @param entities 文件业务关联实体
+     * @return 影响行数
+     */
+    @Insert("""
+            <script>
+            INSERT INTO file_business (id, file_meta_id, business_id, name, type, `usage`, sort, remark,
+                                       create_time, update_time, create_user, update_user, delete_time, delete_user)
+            VALUES
+            <foreach collection="entities" item="entity" separator=",">
+                (#{entity.id}, #{entity.fileMetaId}, #{entity.businessId}, #{entity.name},
+                 #{entity.type}, #{entity.usage}, #{entity.sort}, #{entity.remark},
+                 #{entity.createTime}, #{entity.updateTime}, #{entity.createUser}, #{entity.updateUser}, 0, NULL)
+            </foreach>
+            ON DUPLICATE KEY UPDATE
+                file_meta_id = VALUES(file_meta_id),
+                business_id = VALUES(business_id),
+                name = VALUES(name),
+                type = VALUES(type),
+                `usage` = VALUES(`usage`),
+                sort = VALUES(sort),
+                remark = VALUES(remark),
+                update_time = VALUES(update_time),
+                update_user = VALUES(update_user)
+            </script>
+            """)
+    int upsertBatchById(@Param("entities") List<FileBusinessDO> entities);
+
 }
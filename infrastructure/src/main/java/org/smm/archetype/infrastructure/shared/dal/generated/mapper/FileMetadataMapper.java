@@ -1,11 +1,17 @@
 package org.smm.archetype.infrastructure.shared.dal.generated.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileMetadataDO;
 
+import java.time.Instant;
+import java.util.List;
+
 /**
  * 文件元数据表 映射层。
  *
@@ -17,25 +23,141 @@ public interface FileMetadataMapper extends BaseMapper<FileMetadataDO> {
     /**
      * 插入或更新文件元数据（原子操作，基于 md5 唯一键）。
      * 使用 MySQL 的 INSERT ... ON DUPLICATE KEY UPDATE 实现并发安全的 upsert。
+     * crc32c 为空时保留已有值（由对象存储上传时写入）；被逻辑删除的行会被恢复，避免其占用 md5 唯一键后再无有效行。
      * @param entity 文件元数据实体
      * @return 影响行数
      */
     @Insert("""
-            INSERT INTO file_metadata (id, md5, content_type, size, url, url_expire, path, 
+            INSERT INTO file_metadata (id, md5, crc32c, content_type, size, url, url_expire, path,
                                        create_time, update_time, create_user, update_user, delete_time, delete_user)
-            VALUES (#{entity.id}, #{entity.md5}, #{entity.contentType}, #{entity.size}, #{entity.url}, 
+            VALUES (#{entity.id}, #{entity.md5}, #{entity.crc32c}, #{entity.contentType}, #{entity.size}, #{entity.url},
                     #{entity.urlExpire}, #{entity.path}, #{entity.createTime}, #{entity.updateTime},
                     #{entity.createUser}, #{entity.updateUser}, 0, NULL)
             ON DUPLICATE KEY UPDATE
+                crc32c = COALESCE(#{entity.crc32c}, crc32c),
                 content_type = #{entity.contentType},
                 size = #{entity.size},
                 url = #{entity.url},
                 url_expire = #{entity.urlExpire},
                 path = #{entity.path},
                 update_time = #{entity.updateTime},
-                update_user = #{entity.updateUser}
+                update_user = #{entity.updateUser},
+                delete_time = 0,
+                delete_user = NULL
             """)
     @Options(useGeneratedKeys = true, keyProperty = "entity.id")
     int upsertByMd5(@Param("entity") FileMetadataDO entity);
 
+    /**
+     * 批量插入或更新文件元数据（单条多行语句，基于 md5 唯一键）。
+     * 多行 upsert 不能可靠回填自增ID，调用方需按 md5 查询ID；crc32c 为空时保留已有值，被逻辑删除的行会被恢复。
+     * @param entities 文件元数据实体
+     * @return 影响行数
+     */
+    @Insert("""
+            <script>
+            INSERT INTO file_metadata (id, md5, crc32c, content_type, size, url, url_expire, path,
+                                       create_time, update_time, create_user, update_user, delete_time, delete_user)
+            VALUES
+            <foreach collection="entities" item="entity" separator=",">
+                (#{entity.id}, #{entity.md5}, #{entity.crc32c}, #{entity.contentType}, #{entity.size}, #{entity.url},
+                 #{entity.urlExpire}, #{entity.path}, #{entity.createTime}, #{entity.updateTime},
+                 #{entity.createUser}, #{entity.updateUser}, 0, NULL)
+            </foreach>
+            ON DUPLICATE KEY UPDATE
+                crc32c = COALESCE(VALUES(crc32c), crc32c),
+                content_type = VALUES(content_type),
+                size = VALUES(size),
+                url = VALUES(url),
+                url_expire = VALUES(url_expire),
+                path = VALUES(path),
+                update_time = VALUES(update_time),
+                update_user = VALUES(update_user),
+                delete_time = 0,
+                delete_user = NULL
+            </script>
+            """)
+    int upsertBatchByMd5(@Param("entities") List<FileMetadataDO> entities);
+
+    /**
+     * 恢复 md5 对应的元数据行并刷新更新时间：上传时 md5 唯一键已被占用（并发上传了相同内容，
+     * 或旧版本逻辑删除的行），保证上传返回后存在指向该路径的有效元数据。
+     * @param md5  文件MD5值
+     * @param path 文件存储路径
+     * @return 影响行数
+     */
+    @Update("""
+            UPDATE file_metadata
+            SET path = #{path}, delete_time = 0, delete_user = NULL, update_time = CURRENT_TIMESTAMP
+            WHERE md5 = #{md5}
+            """)
+    int revive(@Param("md5") String md5, @Param("path") String path);
+
+    /**
+     * 刷新文件元数据的更新时间（去重上传命中已有内容时调用，使其不会被垃圾回收）。
+     * @param id 元数据ID
+     * @return 影响行数，0 表示元数据已被删除
+     */
+    @Update("""
+            UPDATE file_metadata SET update_time = CURRENT_TIMESTAMP
+            WHERE id = #{id} AND delete_time = 0
+            """)
+    int touch(@Param("id") Long id);
+
+    /**
+     * 按存储路径批量更新访问URL和过期时间（单条语句）。
+     * 显式保留 update_time：URL 刷新不是内容变化，不应推迟孤立对象回收。
+     * @param entities 只需设置 path、url、urlExpire
+     * @return 影响行数
+     */
+    @Update("""
+            <script>
+            UPDATE file_metadata
+            SET url = CASE path
+                    <foreach collection="entities" item="entity">WHEN #{entity.path} THEN #{entity.url} </foreach>
+                    END,
+                url_expire = CASE path
+                    <foreach collection="entities" item="entity">WHEN #{entity.path} THEN #{entity.urlExpire} </foreach>
+                    END,
+                update_time = update_time
+            WHERE delete_time = 0 AND path IN
+            <foreach collection="entities" item="entity" open="(" separator="," close=")">#{entity.path}</foreach>
+            </script>
+            """)
+    int updateUrlsByPath(@Param("entities") List<FileMetadataDO> entities);
+
+    /**
+     * 按ID升序查询孤立的文件元数据：没有任何有效的 file_business 引用，且在 before 之前未被更新。
+     * @param afterId 上一页最后一个ID，首页为0
+     * @param before  宽限期截止时间
+     * @param limit   每页数量
+     * @return 孤立的文件元数据
+     */
+    @Select("""
+            SELECT m.id, m.md5, m.path FROM file_metadata m
+            WHERE m.id > #{afterId} AND m.delete_time = 0 AND m.update_time < #{before}
+              AND NOT EXISTS (SELECT 1 FROM file_business b
+                              WHERE b.file_meta_id = CAST(m.id AS CHAR) AND b.delete_time = 0)
+            ORDER BY m.id
+            LIMIT #{limit}
+            """)
+    List<FileMetadataDO> selectOrphans(@Param("afterId") long afterId,
+                                       @Param("before") Instant before,
+                                       @Param("limit") int limit);
+
+    /**
+     * 物理删除孤立的文件元数据（条件与 {@link #selectOrphans} 相同，查询后被引用或刷新的行不会被删除）。
+     * 使用物理删除，避免逻辑删除的行占用 md5 唯一键，导致相同内容无法再次上传。
+     * @param id     元数据ID
+     * @param before 宽限期截止时间
+     * @return 影响行数
+     */
+    @Delete("""
+            DELETE FROM file_metadata
+            WHERE id = #{id} AND delete_time = 0 AND update_time < #{before}
+              AND NOT EXISTS (SELECT 1 FROM file_business b
+                              WHERE b.file_meta_id = CAST(#{id} AS CHAR) AND b.delete_time = 0)
+            """)
+    int deleteOrphan(@Param("id") Long id, @Param("before") Instant before);
+
 }
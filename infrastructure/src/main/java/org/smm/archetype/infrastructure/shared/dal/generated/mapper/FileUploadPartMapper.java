@@ -0,0 +1,33 @@
+package org.smm.archetype.infrastructure.shared.dal.generated.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileUploadPartDO;
+
+/**
+ * 分片上传分片表 映射层。
+ */
+public interface FileUploadPartMapper extends BaseMapper<FileUploadPartDO> {
+
+    /**
+     * 插入或更新分片（原子操作，基于 upload_id + part_number 唯一键），重传分片时覆盖旧记录。
+     * @param entity 分片实体
+     * @return 影响行数
+     */
+    @Insert("""
+            INSERT INTO file_upload_part (id, upload_id, part_number, size, md5, etag, create_time, update_time,
+                                          create_user, update_user)
+            VALUES (#{entity.id}, #{entity.uploadId}, #{entity.partNumber}, #{entity.size}, #{entity.md5},
+                    #{entity.etag}, #{entity.createTime}, #{entity.updateTime}, #{entity.createUser},
+                    #{entity.updateUser})
+            ON DUPLICATE KEY UPDATE
+                size = #{entity.size},
+                md5 = #{entity.md5},
+                etag = #{entity.etag},
+                update_time = #{entity.updateTime},
+                update_user = #{entity.updateUser}
+            """)
+    int upsertByPartNumber(@Param("entity") FileUploadPartDO entity);
+
+}
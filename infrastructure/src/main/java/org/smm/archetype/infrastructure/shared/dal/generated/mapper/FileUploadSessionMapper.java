@@ -0,0 +1,30 @@
+package org.smm.archetype.infrastructure.shared.dal.generated.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileUploadSessionDO;
+
+/**
+ * 分片上传会话表 映射层。
+ */
+public interface FileUploadSessionMapper extends BaseMapper<FileUploadSessionDO> {
+
+    /**
+     * 按状态条件更新会话状态（原子操作，用于完成/中止时防止并发重复处理）。
+     * @param uploadId   上传会话ID
+     * @param fromStatus 期望的当前状态
+     * @param toStatus   目标状态
+     * @param path       完成后的文件存储路径，中止时为null
+     * @return 影响行数，0 表示状态已被其他请求修改
+     */
+    @Update("""
+            UPDATE file_upload_session SET status = #{toStatus}, path = #{path}, update_time = CURRENT_TIMESTAMP
+            WHERE upload_id = #{uploadId} AND status = #{fromStatus}
+            """)
+    int transition(@Param("uploadId") String uploadId,
+                   @Param("fromStatus") String fromStatus,
+                   @Param("toStatus") String toStatus,
+                   @Param("path") String path);
+
+}
@@ -8,6 +8,7 @@ import org.smm.archetype.domain.shared.event.DomainEventPublisher;
 import org.smm.archetype.domain.shared.event.Event;
 import org.smm.archetype.domain.shared.event.Source;
 import org.smm.archetype.domain.shared.event.Status;
+import org.smm.archetype.infrastructure.shared.cache.CacheInvalidationBus;
 import org.smm.archetype.infrastructure.shared.dal.generated.entity.EventDO;
 import org.smm.archetype.infrastructure.shared.dal.generated.mapper.EventMapper;
 import org.smm.archetype.infrastructure.shared.util.context.ScopedThreadContext;
@@ -28,6 +29,7 @@ import java.util.List;
  *   <li>持久化事件到数据库（状态为 CREATED）</li>
  *   <li>调用 doPublish 方法进行实际发布</li>
  *   <li>根据发布结果更新状态（PUBLISHED 或保持 CREATED）</li>
+ *   <li>整批事件发布完成后，按事件类型执行缓存失效（配置了 {@link CacheInvalidationBus} 时）</li>
  * </ol>
 
 
@@ -44,10 +46,23 @@ public abstract class DomainEventCollectPublisher implements DomainEventPublishe
     @Value("${spring.application.name}")
     private String appName;
 
+    /**
+     * 缓存失效总线（可选）
+     */
+    private CacheInvalidationBus cacheInvalidationBus;
+
     protected DomainEventCollectPublisher(EventMapper eventMapper) {
         this.eventMapper = eventMapper;
     }
 
+    /**
+     * 设置缓存失效总线，事务提交后按本事务发布的事件批量失效缓存
+     * @param cacheInvalidationBus 缓存失效总线
+     */
+    public void setCacheInvalidationBus(CacheInvalidationBus cacheInvalidationBus) {
+        this.cacheInvalidationBus = cacheInvalidationBus;
+    }
+
     @Override
     public final void publish(@NonNull Event<?> event) {
         List<Event<?>> events = ScopedThreadContext.getDomainEvents();
@@ -109,6 +124,11 @@ public abstract class DomainEventCollectPublisher implements DomainEventPublishe
             }
         });
 
+        // 同一事务内的事件统一失效缓存（失效异常在总线内部处理，不影响事件发布）
+        if (cacheInvalidationBus != null) {
+            cacheInvalidationBus.invalidate(events);
+        }
+
         // 清空已发布的事件
         events.clear();
     }
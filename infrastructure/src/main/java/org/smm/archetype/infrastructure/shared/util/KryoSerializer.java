@@ -3,6 +3,7 @@ package org.smm.archetype.infrastructure.shared.util;
 import com.alibaba.fastjson2.TypeReference;
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryo.serializers.DefaultSerializers.BigDecimalSerializer;
@@ -21,6 +22,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -172,6 +174,29 @@ public final class KryoSerializer {
         }
     }
 
+    /**
+     * 从ByteBuffer反序列化对象（零拷贝读取）
+     *
+     * 直接从ByteBuffer（可以是堆外内存的视图）读取数据，不会把数据拷贝到中间字节数组。
+     * 调用方需保证读取期间ByteBuffer背后的内存不被修改或释放。
+     * @param buffer 序列化数据所在的ByteBuffer，读取范围为 position 到 limit
+     * @return 反序列化后的对象
+     * @throws IllegalArgumentException 当buffer为空时抛出
+     */
+    public static Object deserialize(ByteBuffer buffer) {
+        if (buffer == null || !buffer.hasRemaining()) {
+            throw new IllegalArgumentException("Invalid byte buffer");
+        }
+
+        Kryo kryo = KYRO_THREAD_LOCAL.get();
+        try (Input input = new ByteBufferInput(buffer)) {
+            return kryo.readClassAndObject(input);
+        } finally {
+            // 清理可能存在的循环引用跟踪等状态
+            kryo.reset();
+        }
+    }
+
     /**
      * 获取Type对应的原始Class类型
      *
@@ -2,10 +2,41 @@ package org.smm.archetype.config;
 
 import org.smm.archetype.config.properties.CacheProperties;
 import org.smm.archetype.domain.shared.client.CacheClient;
+import org.smm.archetype.infrastructure.shared.cache.CacheAspect;
+import org.smm.archetype.infrastructure.shared.cache.CacheInvalidationBroadcaster;
+import org.smm.archetype.infrastructure.shared.cache.CacheInvalidationBus;
+import org.smm.archetype.infrastructure.shared.cache.CachePenetrationGuard;
+import org.smm.archetype.infrastructure.shared.cache.CacheStatsEndpoint;
+import org.smm.archetype.infrastructure.shared.client.cache.AbstractCacheClient;
+import org.smm.archetype.infrastructure.shared.client.cache.CacheCodec;
+import org.smm.archetype.infrastructure.shared.client.cache.CacheExpirationPolicy;
+import org.smm.archetype.infrastructure.shared.client.cache.CacheSnapshotStore;
+import org.smm.archetype.infrastructure.shared.client.cache.CacheStatsRecorder;
 import org.smm.archetype.infrastructure.shared.client.cache.CaffeineCacheClientImpl;
+import org.smm.archetype.infrastructure.shared.client.cache.CompressingCacheCodec;
+import org.smm.archetype.infrastructure.shared.client.cache.HotKeyTracker;
+import org.smm.archetype.infrastructure.shared.client.cache.JsonbCacheCodec;
+import org.smm.archetype.infrastructure.shared.client.cache.KryoCacheCodec;
+import org.smm.archetype.infrastructure.shared.client.cache.KryoCacheValueSizer;
+import org.smm.archetype.infrastructure.shared.client.cache.OffHeapCacheClientImpl;
+import org.smm.archetype.infrastructure.shared.client.cache.RawBytesCacheCodec;
+import org.smm.archetype.infrastructure.shared.client.cache.TieredCacheClientImpl;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * 缓存服务配置类，自动检测Redis并配置缓存客户端。
@@ -20,19 +51,225 @@ public class CacheConfigure {
         this.properties = properties;
     }
 
+    /**
+     * 缓存统计记录器（按命名空间统计，自动绑定到 MeterRegistry）
+     * @return 缓存统计记录器
+     */
+    @Bean
+    public CacheStatsRecorder cacheStatsRecorder() {
+        CacheProperties.Stats stats = properties.getStats();
+        return new CacheStatsRecorder(new HotKeyTracker(
+                stats.getHotKeySampleRate(),
+                stats.getHotKeyTopK(),
+                stats.getHotKeySketchWidth()
+        ));
+    }
+
+    /**
+     * 缓存过期策略（TTL 抖动 + XFetch 提前重算）
+     * TTL 抖动只对配置了 ttlJitter 的命名空间生效；提前重算未配置时使用全局配置。
+     * @return 缓存过期策略
+     */
+    @Bean
+    public CacheExpirationPolicy cacheExpirationPolicy() {
+        CacheExpirationPolicy.Rule defaults = new CacheExpirationPolicy.Rule(0D, properties.getEarlyRecomputeBeta());
+        Map<String, CacheExpirationPolicy.Rule> rules = new LinkedHashMap<>();
+        properties.getNamespaces().forEach((namespace, config) -> {
+            if (config.getTtlJitter() != null || config.getEarlyRecomputeBeta() != null) {
+                rules.put(namespace, new CacheExpirationPolicy.Rule(
+                        config.getTtlJitter() != null ? config.getTtlJitter() : defaults.jitter(),
+                        config.getEarlyRecomputeBeta() != null ? config.getEarlyRecomputeBeta() : defaults.beta()));
+            }
+        });
+        return new CacheExpirationPolicy(defaults, rules);
+    }
+
     /**
      * 本地组件：Caffeine缓存服务（默认实现）
      * 作为兜底方案，当RedisTemplate不存在时才创建此Bean。
      * 使用@ConditionalOnMissingBean确保Redis优先级更高（@Primary）。
+     * 配置 maximum-weight 或命名空间权重预算时，使用 Kryo 序列化大小估算值的字节数。
+     * 启用堆外缓存层时，返回堆内 + 堆外的分层缓存，容器关闭时释放堆外内存。
+     * 配置 codec.type 后本地缓存使用序列化模式，保存编码后的字节。
+     * 启用快照时，堆内缓存在后台加载上次保存的快照，容器关闭时保存最热条目。
+     * @param cacheStatsRecorder    缓存统计记录器
+     * @param cacheExpirationPolicy 缓存过期策略
+     * @param appName               应用名称（默认快照路径）
      * @return Caffeine缓存服务实现
      */
     @Bean
-    public CacheClient caffeineCacheService() {
-        return new CaffeineCacheClientImpl(
+    public CacheClient caffeineCacheService(CacheStatsRecorder cacheStatsRecorder,
+                                            CacheExpirationPolicy cacheExpirationPolicy,
+                                            @Value("${spring.application.name}") String appName) {
+        Map<String, Long> namespaceWeights = new LinkedHashMap<>();
+        properties.getNamespaces().forEach((namespace, config) -> {
+            if (config.getMaximumWeight() != null) {
+                namespaceWeights.put(namespace, config.getMaximumWeight().toBytes());
+            }
+        });
+        DataSize maximumWeight = properties.getMaximumWeight();
+        boolean weighted = maximumWeight != null || !namespaceWeights.isEmpty();
+        CacheCodec heapCodec = codec(properties.getCodec().getType());
+
+        CaffeineCacheClientImpl caffeine = new CaffeineCacheClientImpl(
                 properties.getInitialCapacity(),
                 properties.getMaximumSize(),
+                maximumWeight != null ? maximumWeight.toBytes() : null,
+                namespaceWeights,
+                weighted ? new KryoCacheValueSizer() : null,
+                heapCodec,
                 properties.getExpireAfterWrite()
         );
+
+        CacheProperties.Snapshot snapshot = properties.getSnapshot();
+        if (snapshot.isEnabled()) {
+            Path path = snapshot.getPath() != null
+                    ? Path.of(snapshot.getPath())
+                    : Path.of(System.getProperty("user.home"), ".project", appName, "cache-snapshot.bin");
+            caffeine.enableSnapshot(new CacheSnapshotStore(path, snapshot.getHottest(),
+                    snapshot.getWarmUpRate().toBytes()));
+        }
+
+        CacheProperties.OffHeap offHeap = properties.getOffHeap();
+        if (!offHeap.isEnabled()) {
+            caffeine.setStatsRecorder(cacheStatsRecorder);
+            caffeine.setExpirationPolicy(cacheExpirationPolicy);
+            return caffeine;
+        }
+        TieredCacheClientImpl tiered = new TieredCacheClientImpl(
+                caffeine,
+                new OffHeapCacheClientImpl(
+                        offHeap.getCapacity().toBytes(),
+                        (int) offHeap.getSlabSize().toBytes(),
+                        (int) offHeap.getMinChunkSize().toBytes(),
+                        heapCodec != null ? heapCodec : codec("kryo"),
+                        properties.getExpireAfterWrite()
+                ),
+                (int) offHeap.getThreshold().toBytes(),
+                properties.getExpireAfterWrite()
+        );
+        tiered.setStatsRecorder(cacheStatsRecorder);
+        tiered.setExpirationPolicy(cacheExpirationPolicy);
+        return tiered;
+    }
+
+    /**
+     * 缓存检查端点（/actuator/cachestats），查看各命名空间统计和热点键
+     * 默认不暴露，需要时在 management.endpoints.web.exposure.include 中加入 cachestats。
+     * @param cacheStatsRecorder 缓存统计记录器
+     * @param cacheClient        缓存服务（非本地实现时不返回估算条目数）
+     * @return 缓存检查端点
+     */
+    @Bean
+    public CacheStatsEndpoint cacheStatsEndpoint(CacheStatsRecorder cacheStatsRecorder, CacheClient cacheClient) {
+        return new CacheStatsEndpoint(cacheStatsRecorder,
+                cacheClient instanceof AbstractCacheClient client ? client::estimatedSizes : Map::of);
+    }
+
+    /**
+     * 缓存失效总线
+     * 领域事件发布器在事务提交后调用，按 middleware.cache.invalidation 和 @Cached(evictOn) 失效缓存。
+     * 未提供广播实现时只失效本节点。启用穿透防护时，防护过滤器订阅同一批事件。
+     * @param cacheClient      缓存服务
+     * @param broadcasters     失效广播实现（可选）
+     * @param penetrationGuard 缓存穿透防护（可选）
+     * @return 缓存失效总线
+     */
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(CacheClient cacheClient,
+                                                     ObjectProvider<CacheInvalidationBroadcaster> broadcasters,
+                                                     ObjectProvider<CachePenetrationGuard> penetrationGuard) {
+        CacheInvalidationBus bus = new CacheInvalidationBus(
+                cacheClient,
+                broadcasters.getIfAvailable(() -> CacheInvalidationBroadcaster.NONE),
+                properties.getInvalidation()
+        );
+        penetrationGuard.ifAvailable(guard -> bus.subscribe(guard::onEvents));
+        return bus;
+    }
+
+    /**
+     * 缓存穿透防护（布隆过滤器），各仓储按命名空间注册键来源，容器关闭时停止后台重建
+     * @return 缓存穿透防护
+     */
+    @Bean
+    @ConditionalOnProperty(
+            prefix = "middleware.cache.penetration-guard",
+            name = "enabled",
+            havingValue = "true"
+    )
+    public CachePenetrationGuard cachePenetrationGuard() {
+        CacheProperties.PenetrationGuard guard = properties.getPenetrationGuard();
+        return new CachePenetrationGuard(
+                guard.getExpectedInsertions(),
+                guard.getFpp(),
+                guard.getBatchSize(),
+                guard.getRebuildInterval()
+        );
+    }
+
+    /**
+     * 缓存切面
+     * 处理Application层方法上的@Cached/@CacheEvict注解，顺序在领域事件收集切面之前。
+     * @param cacheClient          缓存服务
+     * @param cacheInvalidationBus 缓存失效总线
+     * @param cacheStatsRecorder    缓存统计记录器
+     * @param cacheExpirationPolicy 缓存过期策略
+     * @return 缓存切面
+     */
+    @Bean
+    @Order(1)
+    public CacheAspect cacheAspect(CacheClient cacheClient,
+                                   CacheInvalidationBus cacheInvalidationBus,
+                                   CacheStatsRecorder cacheStatsRecorder,
+                                   CacheExpirationPolicy cacheExpirationPolicy) {
+        Map<String, Duration> namespaceTtls = new LinkedHashMap<>();
+        properties.getNamespaces().forEach((namespace, config) -> {
+            if (config.getTtl() != null) {
+                namespaceTtls.put(namespace, config.getTtl());
+            }
+        });
+        return new CacheAspect(cacheClient, properties.getExpireAfterWrite(), namespaceTtls, cacheInvalidationBus,
+                cacheStatsRecorder, cacheExpirationPolicy);
+    }
+
+    /**
+     * 启动时注册所有 @Cached 方法的 evictOn 失效规则（所有单例创建完成后扫描 Bean 类型）
+     * @param beanFactory Bean 工厂
+     * @param cacheAspect 缓存切面
+     * @return 失效规则注册器
+     */
+    @Bean
+    public SmartInitializingSingleton cacheEvictionRuleRegistrar(ListableBeanFactory beanFactory, CacheAspect cacheAspect) {
+        return () -> {
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                Class<?> type = beanFactory.getType(beanName, false);
+                if (type != null) {
+                    cacheAspect.registerEvictionRules(ClassUtils.getUserClass(type));
+                }
+            }
+        };
+    }
+
+    /**
+     * 按名称创建编解码器，配置压缩阈值时包装为压缩编解码器
+     * @param type 编解码器类型，none 返回null
+     * @return 编解码器
+     */
+    private CacheCodec codec(String type) {
+        CacheProperties.Codec config = properties.getCodec();
+        CacheCodec codec = switch (type) {
+            case "none" -> null;
+            case "kryo" -> new KryoCacheCodec();
+            case "jsonb" -> new JsonbCacheCodec(config.getAcceptPackages().toArray(String[]::new));
+            case "raw" -> new RawBytesCacheCodec();
+            default -> throw new IllegalArgumentException("Unknown cache codec: " + type);
+        };
+        if (codec == null || config.getCompressionThreshold() == null) {
+            return codec;
+        }
+        return new CompressingCacheCodec(codec, (int) config.getCompressionThreshold().toBytes(),
+                config.getCompressionLevel());
     }
 
     // /**
@@ -11,12 +11,14 @@ import org.smm.archetype.config.properties.EventProperties;
 import org.smm.archetype.domain.shared.event.DomainEventPublisher;
 import org.smm.archetype.domain.shared.event.PayloadParser;
 import org.smm.archetype.domain.shared.event.PayloadParserHolder;
+import org.smm.archetype.infrastructure.shared.cache.CacheInvalidationBus;
 import org.smm.archetype.infrastructure.shared.dal.generated.mapper.EventMapper;
 import org.smm.archetype.infrastructure.shared.event.EventRecordConverter;
 import org.smm.archetype.infrastructure.shared.event.FastJsonPayloadParser;
 import org.smm.archetype.infrastructure.shared.event.publisher.DomainEventCollectAspectJ;
 import org.smm.archetype.infrastructure.shared.event.publisher.SpringDomainEventPublisher;
 import org.smm.archetype.infrastructure.shared.event.persistence.EventRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationEventPublisher;
@@ -117,15 +119,19 @@ public class EventConfigure implements AsyncConfigurer {
 
     /**
      * Spring 事件发布器
-     * @param publisher Application 事件发布器
-     * @param mapper    事件 Mapper
+     * @param publisher             Application 事件发布器
+     * @param mapper                事件 Mapper
+     * @param cacheInvalidationBus  缓存失效总线（可选）
      * @return Spring 事件发布器
      */
     @Bean
     public SpringDomainEventPublisher springEventPublisher(
             ApplicationEventPublisher publisher,
-            EventMapper mapper) {
-        return new SpringDomainEventPublisher(publisher, mapper);
+            EventMapper mapper,
+            ObjectProvider<CacheInvalidationBus> cacheInvalidationBus) {
+        SpringDomainEventPublisher eventPublisher = new SpringDomainEventPublisher(publisher, mapper);
+        cacheInvalidationBus.ifAvailable(eventPublisher::setCacheInvalidationBus);
+        return eventPublisher;
     }
 
     /**
@@ -1,23 +1,47 @@
 package org.smm.archetype.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.smm.archetype.adapter.event.FileUploadedEventHandler;
 import org.smm.archetype.config.properties.OssProperties;
+import org.smm.archetype.domain.platform.file.FileBusiness;
 import org.smm.archetype.domain.platform.file.FileDomainService;
 import org.smm.archetype.domain.platform.file.FileRepository;
 import org.smm.archetype.domain.shared.client.OssClient;
+import org.smm.archetype.domain.shared.event.DomainEventPublisher;
+import org.smm.archetype.domain.shared.util.CacheHolder;
 import org.smm.archetype.infrastructure.platform.file.FileBusinessConverter;
 import org.smm.archetype.infrastructure.platform.file.FileDomainServiceImpl;
 import org.smm.archetype.infrastructure.platform.file.FileMetaConverter;
+import org.smm.archetype.infrastructure.platform.file.ImageDerivativeGenerator;
 import org.smm.archetype.infrastructure.platform.file.persistence.FileRepositoryImpl;
+import org.smm.archetype.infrastructure.shared.cache.CachePenetrationGuard;
+import org.smm.archetype.infrastructure.shared.client.oss.AbstractOssClient;
+import org.smm.archetype.infrastructure.shared.client.oss.CachingOssClientImpl;
 import org.smm.archetype.infrastructure.shared.client.oss.LocalOssClientImpl;
+import org.smm.archetype.infrastructure.shared.client.oss.OssGarbageCollector;
+import org.smm.archetype.infrastructure.shared.client.oss.RustFsOssClientImpl;
+import org.smm.archetype.infrastructure.shared.client.oss.TieredOssClientImpl;
+import org.smm.archetype.infrastructure.shared.client.oss.TieredStorageMigrator;
 import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileBusinessMapper;
 import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileUploadPartMapper;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileUploadSessionMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
 
 /**
- * 对象存储服务配置类，支持本地存储和RustFS对象存储。
+ * 对象存储服务配置类，支持本地存储、RustFS对象存储和两者组合的分层存储。
  */
 @Slf4j
 @Configuration
@@ -26,8 +50,14 @@ public class OssConfigure {
 
     private final OssProperties properties;
 
-    public OssConfigure(OssProperties properties) {
+    /**
+     * 事务模板，孤立对象回收在事务中删除元数据和对象
+     */
+    private final ObjectProvider<TransactionTemplate> transactionTemplate;
+
+    public OssConfigure(OssProperties properties, ObjectProvider<TransactionTemplate> transactionTemplate) {
         this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
     }
 
     // ==================== 本地组件 Bean（默认实现） ====================
@@ -36,64 +66,232 @@ public class OssConfigure {
      * 本地组件：本地对象存储服务（默认实现，兜底方案）
      * 存储路径：用户文件夹/.project/${spring.application.name}/oss
      * 使用 NIO FileChannel.transferTo 实现零拷贝，提高性能。
-     * 条件：当不存在 RustFsOssClientImpl Bean 时才创建
+     * 条件：middleware.object-storage.type 为 local 或未配置
      * @param metadataMapper 文件元数据 Mapper
+     * @param businessMapper 业务文件 Mapper（按文件名搜索）
+     * @param sessionMapper  分片上传会话 Mapper
+     * @param partMapper     分片上传分片 Mapper
      * @return 本地对象存储服务实现
      */
     @Bean
-    public OssClient localObjectStorageService(FileMetadataMapper metadataMapper) {
+    @ConditionalOnProperty(prefix = "middleware.object-storage", name = "type", havingValue = "local",
+            matchIfMissing = true)
+    public OssClient localObjectStorageService(FileMetadataMapper metadataMapper,
+                                               FileBusinessMapper businessMapper,
+                                               FileUploadSessionMapper sessionMapper,
+                                               FileUploadPartMapper partMapper) {
         try {
             OssProperties.Local local = properties.getLocal();
             log.info("Initializing Local Object Storage Service: basePath={}, zeroCopy={}",
                     local.getBasePath(), local.isZeroCopy());
-            return new LocalOssClientImpl(
+            LocalOssClientImpl client = new LocalOssClientImpl(
                     local.getBasePath(),
                     local.isZeroCopy(),
                     metadataMapper
             );
+            return withReadCache(configure(client, businessMapper, sessionMapper, partMapper));
         } catch (Exception e) {
             log.error("Failed to initialize Local Object Storage Service", e);
             throw new RuntimeException("Failed to initialize Local Object Storage Service", e);
         }
     }
 
+    /**
+     * 对象存储垃圾回收器：回收没有业务引用的内容寻址对象
+     * @param ossClient 对象存储服务
+     * @return 对象存储垃圾回收器
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "middleware.object-storage.gc", name = "enabled", havingValue = "true")
+    public OssGarbageCollector ossGarbageCollector(OssClient ossClient) {
+        if (!(unwrap(ossClient) instanceof AbstractOssClient abstractOssClient)) {
+            throw new IllegalStateException("Garbage collection requires an AbstractOssClient: " + ossClient.getClass());
+        }
+        OssProperties.Gc gc = properties.getGc();
+        return new OssGarbageCollector(abstractOssClient, gc.getInterval(), gc.getGracePeriod(), gc.getBatchSize());
+    }
+
     // ==================== 外部中间件 Bean（RustFS） ====================
-    // /**
-    //  * @param metadataMapper 文件元数据 Mapper
-    //  * @return RustFS 对象存储服务实现
-    //  */
-    // @Bean
-    // @Primary
-    // @ConditionalOnBooleanProperty("middleware.object-storage.rustfs")
-    // public OssClient rustfsObjectStorageService(FileMetadataMapper metadataMapper) {
-    //     try {
-    //         OssProperties.RustFs rustfs = properties.getRustfs();
-    //         log.info("Initializing RustFS Object Storage Service: endpoint={}, bucket={}",
-    //                 rustfs.getEndpoint(),
-    //                 rustfs.getBucket());
-    //
-    //         return new RustFsOssClientImpl(
-    //                 rustfs.getEndpoint(),
-    //                 rustfs.getAccessKey(),
-    //                 rustfs.getSecretKey(),
-    //                 rustfs.getBucket(),
-    //                 metadataMapper
-    //         );
-    //     } catch (Exception e) {
-    //         log.error("Failed to initialize RustFS Object Storage Service", e);
-    //         throw new RuntimeException("Failed to initialize RustFS Object Storage Service", e);
-    //     }
-    // }
+
+    /**
+     * 外部中间件：RustFS 对象存储服务（S3 协议）
+     * 同步客户端使用 Apache 连接池；启用并行范围下载时另建 Netty 异步客户端；有时效 URL 由预签名生成
+     * 条件：middleware.object-storage.type 为 rustfs
+     * @param metadataMapper 文件元数据 Mapper
+     * @param businessMapper 业务文件 Mapper（按文件名搜索）
+     * @param sessionMapper  分片上传会话 Mapper
+     * @param partMapper     分片上传分片 Mapper
+     * @return RustFS 对象存储服务实现
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "middleware.object-storage", name = "type", havingValue = "rustfs")
+    public OssClient rustfsObjectStorageService(FileMetadataMapper metadataMapper,
+                                                FileBusinessMapper businessMapper,
+                                                FileUploadSessionMapper sessionMapper,
+                                                FileUploadPartMapper partMapper) {
+        try {
+            RustFsOssClientImpl client = newRustFsClient(metadataMapper);
+            return withReadCache(configure(client, businessMapper, sessionMapper, partMapper));
+        } catch (Exception e) {
+            log.error("Failed to initialize RustFS Object Storage Service", e);
+            throw new RuntimeException("Failed to initialize RustFS Object Storage Service", e);
+        }
+    }
+
+    // ==================== 分层存储 Bean（本地热层 + 冷层） ====================
+
+    /**
+     * 分层对象存储服务：热层为本地存储，冷层为 RustFS 或慢速磁盘上的本地目录，按访问频率迁移
+     * 条件：middleware.object-storage.type 为 tiered
+     * @param metadataMapper 文件元数据 Mapper
+     * @param businessMapper 业务文件 Mapper（按文件名搜索）
+     * @param sessionMapper  分片上传会话 Mapper
+     * @param partMapper     分片上传分片 Mapper
+     * @return 分层对象存储服务实现
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "middleware.object-storage", name = "type", havingValue = "tiered")
+    public OssClient tieredObjectStorageService(FileMetadataMapper metadataMapper,
+                                                FileBusinessMapper businessMapper,
+                                                FileUploadSessionMapper sessionMapper,
+                                                FileUploadPartMapper partMapper) {
+        try {
+            OssProperties.Local local = properties.getLocal();
+            OssProperties.Tiered tiered = properties.getTiered();
+            log.info("Initializing Tiered Object Storage Service: hotBasePath={}, cold={}, interval={}",
+                    local.getBasePath(), tiered.getCold(), tiered.getInterval());
+
+            LocalOssClientImpl hotTier = new LocalOssClientImpl(local.getBasePath(), local.isZeroCopy(), metadataMapper);
+            AbstractOssClient coldTier = "local".equals(tiered.getCold())
+                                                 ? new LocalOssClientImpl(tiered.getColdBasePath(), local.isZeroCopy(),
+                    metadataMapper)
+                                                 : newRustFsClient(metadataMapper);
+
+            TieredOssClientImpl client = new TieredOssClientImpl(hotTier, coldTier, metadataMapper);
+            client.setHotRetention(tiered.getHotRetention());
+            client.setColdAccessThreshold(tiered.getColdAccessThreshold());
+            client.setPromoteOnRead(tiered.isPromoteOnRead());
+            client.setPromoteThreshold(tiered.getPromoteThreshold());
+            return withReadCache(configure(client, businessMapper, sessionMapper, partMapper));
+        } catch (Exception e) {
+            log.error("Failed to initialize Tiered Object Storage Service", e);
+            throw new RuntimeException("Failed to initialize Tiered Object Storage Service", e);
+        }
+    }
+
+    /**
+     * 分层存储迁移器：按迁移间隔把冷文件从热层迁移到冷层
+     * 条件：middleware.object-storage.type 为 tiered
+     * @param ossClient 对象存储服务
+     * @return 分层存储迁移器
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "middleware.object-storage", name = "type", havingValue = "tiered")
+    public TieredStorageMigrator tieredStorageMigrator(OssClient ossClient) {
+        if (!(unwrap(ossClient) instanceof TieredOssClientImpl tieredOssClient)) {
+            throw new IllegalStateException("Tiered migration requires a TieredOssClientImpl: " + ossClient.getClass());
+        }
+        OssProperties.Tiered tiered = properties.getTiered();
+        return new TieredStorageMigrator(tieredOssClient, tiered.getInterval(), tiered.getBatchSize());
+    }
+
+    /**
+     * 创建 RustFS 对象存储客户端：同步客户端使用 Apache 连接池；启用并行范围下载时另建 Netty 异步客户端
+     */
+    private RustFsOssClientImpl newRustFsClient(FileMetadataMapper metadataMapper) {
+        OssProperties.RustFs rustfs = properties.getRustfs();
+        OssProperties.ParallelDownload parallel = rustfs.getParallelDownload();
+        log.info("Initializing RustFS Object Storage Service: endpoint={}, bucket={}, maxConnections={}",
+                rustfs.getEndpoint(),
+                rustfs.getBucket(),
+                rustfs.getMaxConnections());
+
+        S3Client s3Client = RustFsOssClientImpl.newClient(
+                rustfs.getEndpoint(), rustfs.getAccessKey(), rustfs.getSecretKey(),
+                rustfs.getConnectTimeout(), rustfs.getReadTimeout(), rustfs.getMaxConnections());
+        S3AsyncClient s3AsyncClient = parallel.isEnabled()
+                                              ? RustFsOssClientImpl.newAsyncClient(
+                rustfs.getEndpoint(), rustfs.getAccessKey(), rustfs.getSecretKey(),
+                rustfs.getConnectTimeout(), rustfs.getReadTimeout(), rustfs.getMaxConnections())
+                                              : null;
+        S3Presigner s3Presigner = RustFsOssClientImpl.newPresigner(
+                rustfs.getEndpoint(), rustfs.getAccessKey(), rustfs.getSecretKey());
+
+        return new RustFsOssClientImpl(
+                s3Client,
+                s3AsyncClient,
+                s3Presigner,
+                rustfs.getBucket(),
+                parallel.getThreshold().toBytes(),
+                parallel.getPartSize().toBytes(),
+                parallel.getParallelism(),
+                metadataMapper
+        );
+    }
+
+    /**
+     * 对象存储服务的公共配置：分片上传、元数据查询、URL 缓存、文件搜索、上传校验和和回收事务
+     */
+    private AbstractOssClient configure(AbstractOssClient client,
+                                        FileBusinessMapper businessMapper,
+                                        FileUploadSessionMapper sessionMapper,
+                                        FileUploadPartMapper partMapper) {
+        client.setBusinessMapper(businessMapper);
+        client.setSessionMapper(sessionMapper);
+        client.setPartMapper(partMapper);
+        client.setMultipartExpiry(properties.getMultipart().getExpiry());
+        OssProperties.MetadataLookup lookup = properties.getMetadataLookup();
+        client.setVerifyReads(lookup.isVerifyReads());
+        if (lookup.isCacheEnabled()) {
+            client.enableMetadataCache(lookup.getMaximumSize(), lookup.getExpireAfterWrite());
+        }
+        OssProperties.UrlCache urlCache = properties.getUrlCache();
+        if (urlCache.isEnabled()) {
+            client.enableUrlCache(urlCache.getMaximumSize(), urlCache.getBucket(), urlCache.getReuseRatio());
+        }
+        client.setFullTextSearch(properties.getSearch().isFullTextIndex());
+        OssProperties.Checksum checksum = properties.getChecksum();
+        client.setCrc32cEnabled(checksum.isCrc32c());
+        client.setOverlappedChecksumThreshold(checksum.isOverlapped() ? checksum.getOverlapThreshold().toBytes() : -1);
+        transactionTemplate.ifAvailable(client::setTransactionTemplate);
+        return client;
+    }
+
+    /**
+     * 启用本地磁盘读缓存时，用 {@link CachingOssClientImpl} 装饰对象存储服务
+     */
+    private OssClient withReadCache(AbstractOssClient client) throws IOException {
+        OssProperties.ReadCache readCache = properties.getReadCache();
+        if (!readCache.isEnabled()) {
+            return client;
+        }
+        return new CachingOssClientImpl(
+                client,
+                Path.of(readCache.getDirectory()),
+                readCache.getMaxSize().toBytes(),
+                readCache.getMaxObjectSize().toBytes(),
+                readCache.getExpireAfterWrite()
+        );
+    }
+
+    /**
+     * 取得被读缓存装饰的对象存储服务，未装饰时返回自身
+     */
+    private static OssClient unwrap(OssClient ossClient) {
+        return ossClient instanceof CachingOssClientImpl caching ? caching.getDelegate() : ossClient;
+    }
 
     // ==================== 文件仓储 Bean ====================
 
     /**
      * 通用文件仓储
      * 负责FileBusiness和FileMeta的持久化操作
+     * 启用缓存穿透防护时，按业务文件ID注册 FILE 命名空间的过滤器
      * @param businessMapper        业务文件Mapper
      * @param metadataMapper        文件元数据Mapper
      * @param fileBusinessConverter 业务文件转换器
      * @param fileMetaConverter     文件元数据转换器
+     * @param penetrationGuard      缓存穿透防护（可选）
      * @return 通用文件仓储实现
      */
     @Bean
@@ -101,22 +299,75 @@ public class OssConfigure {
             final FileBusinessMapper businessMapper,
             final FileMetadataMapper metadataMapper,
             final FileBusinessConverter fileBusinessConverter,
-            final FileMetaConverter fileMetaConverter) {
-        return new FileRepositoryImpl(businessMapper, metadataMapper, fileBusinessConverter, fileMetaConverter);
+            final FileMetaConverter fileMetaConverter,
+            final ObjectProvider<CachePenetrationGuard> penetrationGuard) {
+        FileRepositoryImpl repository =
+                new FileRepositoryImpl(businessMapper, metadataMapper, fileBusinessConverter, fileMetaConverter);
+        penetrationGuard.ifAvailable(guard -> {
+            repository.setPenetrationGuard(guard);
+            // 其他节点新增的ID在下次重建前不在过滤器中，大于上次重建最大ID的查询放行到数据库
+            guard.register(CacheHolder.Type.FILE, repository::scanIds, FileRepositoryImpl.ID_ORDER);
+        });
+        return repository;
     }
 
     /**
      * 通用文件服务
      * 整合OssClient、FileRepository，提供完整的文件管理功能
-     * @param ossClient      对象存储服务
-     * @param fileRepository 通用文件仓储
+     * 启用衍生文件时，上传提交后发布文件上传事件，并按需生成缩略图、预览图
+     * @param ossClient            对象存储服务
+     * @param fileRepository       通用文件仓储
+     * @param derivativeGenerator  衍生文件生成器（可选）
+     * @param domainEventPublisher 领域事件发布器（可选）
      * @return 通用文件服务实现
      */
     @Bean
     public FileDomainService commonFileService(
             final OssClient ossClient,
-            final FileRepository fileRepository) {
-        return new FileDomainServiceImpl(ossClient, fileRepository);
+            final FileRepository fileRepository,
+            final ObjectProvider<ImageDerivativeGenerator> derivativeGenerator,
+            final ObjectProvider<DomainEventPublisher> domainEventPublisher) {
+        FileDomainServiceImpl fileDomainService = new FileDomainServiceImpl(ossClient, fileRepository);
+        fileDomainService.setBulkParallelism(properties.getBulk().getParallelism());
+        derivativeGenerator.ifAvailable(generator -> {
+            OssProperties.Derivative derivative = properties.getDerivative();
+            fileDomainService.enableDerivatives(generator, derivative.getCacheMaximumSize(),
+                    derivative.getCacheExpire());
+            domainEventPublisher.ifAvailable(fileDomainService::setEventPublisher);
+        });
+        return fileDomainService;
+    }
+
+    // ==================== 衍生文件 Bean ====================
+
+    /**
+     * 衍生文件生成器：在固定大小的 CPU 线程池上缩放图片
+     * 条件：middleware.object-storage.derivative.enabled 为 true
+     * @return 衍生文件生成器
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "middleware.object-storage.derivative", name = "enabled", havingValue = "true")
+    public ImageDerivativeGenerator imageDerivativeGenerator() {
+        OssProperties.Derivative derivative = properties.getDerivative();
+        log.info("Initializing image derivative generator: parallelism={}, thumbnailSize={}, previewSize={}",
+                derivative.getParallelism(), derivative.getThumbnailSize(), derivative.getPreviewSize());
+        return new ImageDerivativeGenerator(
+                derivative.getParallelism(),
+                Map.of(FileBusiness.Usage.THUMBNAIL, derivative.getThumbnailSize(),
+                        FileBusiness.Usage.PREVIEW, derivative.getPreviewSize()),
+                derivative.getMaxSourceSize().toBytes());
+    }
+
+    /**
+     * 文件上传事件处理器：上传提交后异步生成衍生文件
+     * 条件：middleware.object-storage.derivative.enabled 为 true
+     * @param fileDomainService 通用文件服务
+     * @return 文件上传事件处理器
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "middleware.object-storage.derivative", name = "enabled", havingValue = "true")
+    public FileUploadedEventHandler fileUploadedEventHandler(FileDomainService fileDomainService) {
+        return new FileUploadedEventHandler(fileDomainService);
     }
 
 }
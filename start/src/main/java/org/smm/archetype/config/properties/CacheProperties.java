@@ -2,9 +2,15 @@ package org.smm.archetype.config.properties;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.smm.archetype.domain.shared.event.Type;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 缓存配置属性类。
@@ -20,10 +26,15 @@ public class CacheProperties {
     private Integer initialCapacity = 1000;
 
     /**
-     * 最大容量
+     * 最大容量（条目数），未配置 maximumWeight 时生效
      */
     private Long maximumSize = 10000L;
 
+    /**
+     * 最大权重（按值估算字节数淘汰），配置后优先于 maximumSize
+     */
+    private DataSize maximumWeight;
+
     /**
      * 写入后过期时间
      */
@@ -34,4 +45,225 @@ public class CacheProperties {
      */
     private Duration expireAfterAccess = Duration.ofDays(30);
 
+    /**
+     * XFetch 提前重算系数（@Cached 命中时按概率提前回源），0 表示关闭，1.0 为推荐值
+     */
+    private double earlyRecomputeBeta = 0D;
+
+    /**
+     * 命名空间（CacheHolder.Type）独立配置，key 为命名空间名称
+     */
+    private Map<String, Namespace> namespaces = new LinkedHashMap<>();
+
+    /**
+     * 值编解码配置（本地缓存序列化模式和堆外缓存层共用）
+     */
+    private Codec codec = new Codec();
+
+    /**
+     * 堆外缓存层配置
+     */
+    private OffHeap offHeap = new OffHeap();
+
+    /**
+     * 缓存统计配置
+     */
+    private Stats stats = new Stats();
+
+    /**
+     * 本地缓存快照配置
+     */
+    private Snapshot snapshot = new Snapshot();
+
+    /**
+     * 缓存穿透防护（布隆过滤器）配置
+     */
+    private PenetrationGuard penetrationGuard = new PenetrationGuard();
+
+    /**
+     * 领域事件驱动的缓存失效规则：事件类型 -> 失效模式（NS / NS:prefix* / NS:key）
+     */
+    private Map<Type, List<String>> invalidation = new LinkedHashMap<>();
+
+    /**
+     * 命名空间配置
+     */
+    @Getter
+    @Setter
+    public static class Namespace {
+
+        /**
+         * 命名空间独立的权重预算，配置后该命名空间使用独立缓存实例，淘汰不影响其他命名空间
+         */
+        private DataSize maximumWeight;
+
+        /**
+         * 命名空间过期时间（@Cached 写入时使用），未配置时使用 expireAfterWrite
+         */
+        private Duration ttl;
+
+        /**
+         * 命名空间 TTL 抖动比例 [0, 1)，写入时把过期时间（包括显式指定的过期时间）随机缩短该比例以内，
+         * 避免批量写入的键同时过期；未配置时不抖动
+         */
+        private Double ttlJitter;
+
+        /**
+         * 命名空间 XFetch 提前重算系数，未配置时使用全局 earlyRecomputeBeta
+         */
+        private Double earlyRecomputeBeta;
+
+    }
+
+    /**
+     * 值编解码配置
+     */
+    @Getter
+    @Setter
+    public static class Codec {
+
+        /**
+         * 本地缓存存储模式：none（保存对象引用）、kryo、jsonb、raw（仅 byte[]）
+         * 堆外缓存层始终序列化，type 为 none 时使用 kryo
+         */
+        private String type = "none";
+
+        /**
+         * 压缩阈值，编码结果达到该大小时使用 Deflate 压缩，未配置时不压缩
+         */
+        private DataSize compressionThreshold;
+
+        /**
+         * 压缩级别（1 最快 ~ 9 最小）
+         */
+        private int compressionLevel = 1;
+
+        /**
+         * jsonb 反序列化时允许自动识别的类型包名前缀
+         */
+        private List<String> acceptPackages = new ArrayList<>(List.of("org.smm.archetype."));
+
+    }
+
+    /**
+     * 堆外缓存层配置
+     */
+    @Getter
+    @Setter
+    public static class OffHeap {
+
+        /**
+         * 是否启用堆外缓存层，启用后序列化大小达到阈值的值存放在堆外内存
+         */
+        private boolean enabled = false;
+
+        /**
+         * 堆外内存总容量
+         */
+        private DataSize capacity = DataSize.ofMegabytes(256);
+
+        /**
+         * 单个 slab 大小，也是堆外层可存放的单值大小上限
+         */
+        private DataSize slabSize = DataSize.ofMegabytes(1);
+
+        /**
+         * 最小 chunk 大小
+         */
+        private DataSize minChunkSize = DataSize.ofKilobytes(1);
+
+        /**
+         * 写入堆外层的最小序列化大小
+         */
+        private DataSize threshold = DataSize.ofKilobytes(64);
+
+    }
+
+    /**
+     * 缓存穿透防护配置
+     */
+    @Getter
+    @Setter
+    public static class PenetrationGuard {
+
+        /**
+         * 是否启用，启用后按命名空间在进程内拒绝一定不存在的键
+         */
+        private boolean enabled = false;
+
+        /**
+         * 每个命名空间的预期键数量（超出后自动扩容）
+         */
+        private long expectedInsertions = 1_000_000L;
+
+        /**
+         * 误判率
+         */
+        private double fpp = 0.01D;
+
+        /**
+         * 重建时每页扫描的键数量
+         */
+        private int batchSize = 1000;
+
+        /**
+         * 重建间隔（清除已删除的键）
+         */
+        private Duration rebuildInterval = Duration.ofHours(6);
+
+    }
+
+    /**
+     * 本地缓存快照配置
+     */
+    @Getter
+    @Setter
+    public static class Snapshot {
+
+        /**
+         * 是否启用，启用后关闭时保存最热条目，启动后在后台加载
+         */
+        private boolean enabled = false;
+
+        /**
+         * 快照文件路径（可选，默认：用户文件夹/.project/${spring.application.name}/cache-snapshot.bin）
+         */
+        private String path;
+
+        /**
+         * 每个缓存实例保存的最热条目数量
+         */
+        private int hottest = 10000;
+
+        /**
+         * 预热加载速率上限（每秒）
+         */
+        private DataSize warmUpRate = DataSize.ofMegabytes(8);
+
+    }
+
+    /**
+     * 缓存统计配置
+     */
+    @Getter
+    @Setter
+    public static class Stats {
+
+        /**
+         * 热点键采样率分母（每 N 次命中采样 1 次）
+         */
+        private int hotKeySampleRate = 16;
+
+        /**
+         * 保留的热点键数量
+         */
+        private int hotKeyTopK = 20;
+
+        /**
+         * Count-Min Sketch 每行计数器数量
+         */
+        private int hotKeySketchWidth = 4096;
+
+    }
+
 }
@@ -3,6 +3,7 @@ package org.smm.archetype.config.properties;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
 
@@ -15,7 +16,7 @@ import java.time.Duration;
 public class OssProperties {
 
     /**
-     * 存储类型：local | rustfs
+     * 存储类型：local | rustfs | tiered
      */
     private String type = "local";
 
@@ -29,6 +30,56 @@ public class OssProperties {
      */
     private Local local = new Local();
 
+    /**
+     * 分层存储配置（type 为 tiered 时生效，热层使用本地存储配置）
+     */
+    private Tiered tiered = new Tiered();
+
+    /**
+     * 孤立对象回收配置
+     */
+    private Gc gc = new Gc();
+
+    /**
+     * 分片上传配置
+     */
+    private Multipart multipart = new Multipart();
+
+    /**
+     * 文件元数据查询配置
+     */
+    private MetadataLookup metadataLookup = new MetadataLookup();
+
+    /**
+     * 批量上传配置
+     */
+    private Bulk bulk = new Bulk();
+
+    /**
+     * 有时效 URL 缓存配置
+     */
+    private UrlCache urlCache = new UrlCache();
+
+    /**
+     * 文件搜索配置
+     */
+    private Search search = new Search();
+
+    /**
+     * 上传校验和配置
+     */
+    private Checksum checksum = new Checksum();
+
+    /**
+     * 衍生文件（缩略图、预览图）配置
+     */
+    private Derivative derivative = new Derivative();
+
+    /**
+     * 本地磁盘读缓存配置
+     */
+    private ReadCache readCache = new ReadCache();
+
     /**
      * RustFS 配置
      */
@@ -66,6 +117,45 @@ public class OssProperties {
          */
         private Duration readTimeout = Duration.ofSeconds(30);
 
+        /**
+         * 连接池最大连接数（同步、异步客户端各自独立）
+         */
+        private int maxConnections = 64;
+
+        /**
+         * 并行范围下载配置
+         */
+        private ParallelDownload parallelDownload = new ParallelDownload();
+
+    }
+
+    /**
+     * 并行范围下载配置：大对象拆成多个范围 GET 并发下载
+     */
+    @Getter
+    @Setter
+    public static class ParallelDownload {
+
+        /**
+         * 是否启用（启用时创建异步客户端）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 阈值：传输长度达到该值时并行下载
+         */
+        private DataSize threshold = DataSize.ofMegabytes(64);
+
+        /**
+         * 分片大小
+         */
+        private DataSize partSize = DataSize.ofMegabytes(8);
+
+        /**
+         * 同时在途的最大分片数，内存占用为 分片大小 × 该值
+         */
+        private int parallelism = 4;
+
     }
 
     /**
@@ -87,4 +177,284 @@ public class OssProperties {
 
     }
 
+    /**
+     * 分层存储配置：热层为本地存储（local 配置），冷层为 RustFS（rustfs 配置）或另一个本地目录
+     */
+    @Getter
+    @Setter
+    public static class Tiered {
+
+        /**
+         * 冷层类型：rustfs | local
+         */
+        private String cold = "rustfs";
+
+        /**
+         * 冷层为 local 时的存储路径（慢速磁盘）
+         */
+        private String coldBasePath;
+
+        /**
+         * 迁移间隔，同时是访问次数的统计窗口
+         */
+        private Duration interval = Duration.ofHours(1);
+
+        /**
+         * 写入后至少在热层保留的时间
+         */
+        private Duration hotRetention = Duration.ofHours(24);
+
+        /**
+         * 上一个统计窗口内访问次数不超过该值的热层文件降级到冷层
+         */
+        private long coldAccessThreshold = 0;
+
+        /**
+         * 是否在读取冷层文件时升级到热层
+         */
+        private boolean promoteOnRead = true;
+
+        /**
+         * 升级所需的访问次数（当前和上一个统计窗口之和）
+         */
+        private long promoteThreshold = 2;
+
+        /**
+         * 每批处理的数量
+         */
+        private int batchSize = 500;
+
+    }
+
+    /**
+     * 孤立对象回收配置
+     */
+    @Getter
+    @Setter
+    public static class Gc {
+
+        /**
+         * 是否启用
+         */
+        private boolean enabled = false;
+
+        /**
+         * 回收间隔
+         */
+        private Duration interval = Duration.ofHours(1);
+
+        /**
+         * 宽限期：上传后超过该时间仍没有业务引用的对象才会被回收
+         */
+        private Duration gracePeriod = Duration.ofHours(24);
+
+        /**
+         * 每批处理的数量
+         */
+        private int batchSize = 500;
+
+    }
+
+    /**
+     * 分片上传配置
+     */
+    @Getter
+    @Setter
+    public static class Multipart {
+
+        /**
+         * 会话有效期，过期未完成的会话由孤立对象回收任务中止
+         */
+        private Duration expiry = Duration.ofHours(24);
+
+    }
+
+    /**
+     * 文件元数据查询配置（下载、传输和删除前按路径查询元数据）
+     */
+    @Getter
+    @Setter
+    public static class MetadataLookup {
+
+        /**
+         * 是否启用路径到元数据ID的本地缓存
+         */
+        private boolean cacheEnabled = true;
+
+        /**
+         * 缓存最大条目数
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * 缓存写入后过期时间，即其他实例删除文件后本实例可见的最长延迟
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+
+        /**
+         * 下载/传输前是否校验元数据存在；所有读取都来自已查询过元数据的内部调用时可关闭
+         */
+        private boolean verifyReads = true;
+
+    }
+
+    /**
+     * 批量上传配置
+     */
+    @Getter
+    @Setter
+    public static class Bulk {
+
+        /**
+         * 同时上传到对象存储的最大文件数（每个文件一个虚拟线程）
+         */
+        private int parallelism = 8;
+
+    }
+
+    /**
+     * 有时效 URL 缓存配置（按 路径 + 有效期档位 复用预签名 URL，并写回 file_metadata 供其他实例复用）
+     */
+    @Getter
+    @Setter
+    public static class UrlCache {
+
+        /**
+         * 是否启用
+         */
+        private boolean enabled = true;
+
+        /**
+         * 本地缓存最大条目数
+         */
+        private long maximumSize = 100_000;
+
+        /**
+         * 有效期档位，请求的有效期向上取整到档位后共用 URL
+         */
+        private Duration bucket = Duration.ofMinutes(5);
+
+        /**
+         * 签发时额外的复用窗口占档位的比例，剩余有效期不少于请求的有效期时复用
+         */
+        private double reuseRatio = 0.5;
+
+    }
+
+    /**
+     * 文件搜索配置
+     */
+    @Getter
+    @Setter
+    public static class Search {
+
+        /**
+         * file_business.name 列是否已建 ngram 全文索引（ft_file_business_name），启用后以通配符开头的中缀搜索先走全文索引
+         */
+        private boolean fullTextIndex = false;
+
+    }
+
+    /**
+     * 上传校验和配置（MD5 始终计算，作为内容寻址的键）
+     */
+    @Getter
+    @Setter
+    public static class Checksum {
+
+        /**
+         * 是否同时计算 CRC32C（硬件加速），保存到元数据并交给支持的存储端校验
+         */
+        private boolean crc32c = true;
+
+        /**
+         * 是否在独立线程上计算校验和，与写入暂存文件重叠
+         */
+        private boolean overlapped = true;
+
+        /**
+         * 重叠计算的最小上传长度（长度未知时总是重叠），小文件同步计算避免复制开销
+         */
+        private DataSize overlapThreshold = DataSize.ofMegabytes(8);
+
+    }
+
+    /**
+     * 衍生文件（缩略图、预览图）配置：上传提交后由文件上传事件异步生成，未生成时首次请求同步生成
+     */
+    @Getter
+    @Setter
+    public static class Derivative {
+
+        /**
+         * 是否启用
+         */
+        private boolean enabled = false;
+
+        /**
+         * 同时处理的最大图片数（CPU 线程数），默认为处理器核数
+         */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * 缩略图最大边长（像素）
+         */
+        private int thumbnailSize = 256;
+
+        /**
+         * 预览图最大边长（像素）
+         */
+        private int previewSize = 1024;
+
+        /**
+         * 原图大小上限，超过时不生成，避免解码占用过多内存
+         */
+        private DataSize maxSourceSize = DataSize.ofMegabytes(50);
+
+        /**
+         * 衍生文件查询缓存最大条目数
+         */
+        private long cacheMaximumSize = 10_000;
+
+        /**
+         * 衍生文件查询缓存写入后过期时间
+         */
+        private Duration cacheExpire = Duration.ofMinutes(30);
+
+    }
+
+    /**
+     * 本地磁盘读缓存配置：远程对象存储（RustFS/分层冷层）的对象内容缓存到本地磁盘，按总字节数淘汰
+     */
+    @Getter
+    @Setter
+    public static class ReadCache {
+
+        /**
+         * 是否启用
+         */
+        private boolean enabled = false;
+
+        /**
+         * 缓存目录（启动时清空），默认：系统临时目录/oss-read-cache
+         */
+        private String directory = System.getProperty("java.io.tmpdir") + "/oss-read-cache";
+
+        /**
+         * 缓存总大小上限
+         */
+        private DataSize maxSize = DataSize.ofGigabytes(10);
+
+        /**
+         * 单个对象大小上限，超过时不缓存，直接读远程
+         */
+        private DataSize maxObjectSize = DataSize.ofMegabytes(256);
+
+        /**
+         * 写入后过期时间，即其他实例删除文件后本实例仍可读到的最长时间
+         */
+        private Duration expireAfterWrite = Duration.ofHours(24);
+
+    }
+
 }
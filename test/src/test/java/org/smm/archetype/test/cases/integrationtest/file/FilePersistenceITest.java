@@ -0,0 +1,239 @@
+package org.smm.archetype.test.cases.integrationtest.file;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import com.baomidou.mybatisplus.core.toolkit.GlobalConfigUtils;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.SqlSessionManager;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mapstruct.factory.Mappers;
+import org.smm.archetype.domain.platform.file.FileBusiness;
+import org.smm.archetype.domain.platform.file.FileMetadata;
+import org.smm.archetype.domain.platform.file.FileUpload;
+import org.smm.archetype.domain.shared.base.PageResult;
+import org.smm.archetype.domain.shared.client.dto.FileSearchRequest;
+import org.smm.archetype.infrastructure.platform.file.FileBusinessConverter;
+import org.smm.archetype.infrastructure.platform.file.FileDomainServiceImpl;
+import org.smm.archetype.infrastructure.platform.file.FileMetaConverter;
+import org.smm.archetype.infrastructure.platform.file.ImageDerivativeGenerator;
+import org.smm.archetype.infrastructure.platform.file.persistence.FileRepositoryImpl;
+import org.smm.archetype.infrastructure.shared.client.oss.LocalOssClientImpl;
+import org.smm.archetype.infrastructure.shared.dal.MyMetaObjectHandler;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileBusinessDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileMetadataDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileBusinessMapper;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import javax.imageio.ImageIO;
+import javax.sql.DataSource;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 文件持久化集成测试
+ *
+ * <p>使用 MySQL 容器（建表脚本为 MySQL-Scheme.sql）和真实的 Mapper、仓储、本地对象存储，
+ * 验证业务关联指向实际存储内容对应的元数据行、按业务文件名称分页搜索、衍生文件带 MD5 保存；没有 Docker 环境时跳过
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("文件持久化集成测试")
+public class FilePersistenceITest {
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.36")
+            .withCopyFileToContainer(MountableFile.forHostPath("MySQL-Scheme.sql"),
+                    "/docker-entrypoint-initdb.d/schema.sql");
+
+    private static DataSource dataSource;
+
+    private static FileMetadataMapper metadataMapper;
+
+    private static FileBusinessMapper businessMapper;
+
+    @TempDir
+    Path storageDir;
+
+    private LocalOssClientImpl ossClient;
+
+    private FileDomainServiceImpl service;
+
+    @BeforeAll
+    static void setUpMappers() {
+        dataSource = new PooledDataSource(MYSQL.getDriverClassName(), MYSQL.getJdbcUrl(), MYSQL.getUsername(),
+                MYSQL.getPassword());
+        MybatisConfiguration configuration =
+                new MybatisConfiguration(new Environment("it", new JdbcTransactionFactory(), dataSource));
+        GlobalConfigUtils.getGlobalConfig(configuration).setMetaObjectHandler(new MyMetaObjectHandler());
+        configuration.addMapper(FileMetadataMapper.class);
+        configuration.addMapper(FileBusinessMapper.class);
+        // 每次调用使用独立会话并提交，批量上传的并发线程可以共用同一个 Mapper
+        SqlSessionManager sessions =
+                SqlSessionManager.newInstance(new MybatisSqlSessionFactoryBuilder().build(configuration));
+        metadataMapper = sessions.getMapper(FileMetadataMapper.class);
+        businessMapper = sessions.getMapper(FileBusinessMapper.class);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE file_business");
+            statement.execute("TRUNCATE TABLE file_metadata");
+        }
+        FileRepositoryImpl repository = new FileRepositoryImpl(businessMapper, metadataMapper,
+                Mappers.getMapper(FileBusinessConverter.class), Mappers.getMapper(FileMetaConverter.class));
+        ossClient = new LocalOssClientImpl(storageDir.toString(), false, metadataMapper);
+        ossClient.setBusinessMapper(businessMapper);
+        service = new FileDomainServiceImpl(ossClient, repository);
+    }
+
+    @Test
+    @DisplayName("should_LinkStoredContent_When_CallerMetadataDiffers")
+    void should_LinkStoredContent_When_CallerMetadataDiffers() throws Exception {
+        byte[] content = "hello".getBytes(StandardCharsets.UTF_8);
+        // 调用方提供的 MD5 与实际内容不符，以存储端计算的为准
+        FileMetadata metadata = FileMetadata.builder()
+                                        .setFileName("hello.txt")
+                                        .setContentType("text/plain")
+                                        .setMd5("caller-md5")
+                                        .setFileSize((long) content.length)
+                                        .build();
+
+        service.uploadFile(new ByteArrayInputStream(content), metadata, attachment("order-1"));
+
+        String md5 = md5Hex(content);
+        List<FileMetadataDO> metadataRows = metadataMapper.selectList(null);
+        assertThat(metadataRows).singleElement().satisfies(row -> {
+            assertThat(row.getMd5()).isEqualTo(md5);
+            assertThat(row.getPath()).endsWith("/" + md5);
+        });
+        assertThat(businessMapper.selectList(null)).singleElement().satisfies(row -> {
+            assertThat(row.getFileMetaId()).isEqualTo(String.valueOf(metadataRows.getFirst().getId()));
+            assertThat(row.getName()).isEqualTo("hello.txt");
+        });
+        assertThat(metadata.getMd5()).isEqualTo(md5);
+    }
+
+    @Test
+    @DisplayName("should_LinkEachRowToItsContent_When_UploadingInBatch")
+    void should_LinkEachRowToItsContent_When_UploadingInBatch() throws Exception {
+        byte[] first = "first".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "second".getBytes(StandardCharsets.UTF_8);
+        // 调用方不提供 MD5，第一个和第三个文件内容相同
+        List<FileUpload> uploads = List.of(upload("a.txt", first), upload("b.txt", second), upload("c.txt", first));
+
+        service.uploadFiles(uploads);
+
+        Map<String, Long> metadataIds = metadataMapper.selectList(null).stream()
+                                                      .collect(Collectors.toMap(FileMetadataDO::getMd5,
+                                                              FileMetadataDO::getId));
+        assertThat(metadataIds).containsOnlyKeys(md5Hex(first), md5Hex(second));
+        List<FileBusinessDO> rows = businessMapper.selectList(
+                Wrappers.<FileBusinessDO>lambdaQuery().orderByAsc(FileBusinessDO::getId));
+        assertThat(rows).extracting(FileBusinessDO::getName).containsExactly("a.txt", "b.txt", "c.txt");
+        assertThat(rows).extracting(FileBusinessDO::getFileMetaId).containsExactly(
+                String.valueOf(metadataIds.get(md5Hex(first))),
+                String.valueOf(metadataIds.get(md5Hex(second))),
+                String.valueOf(metadataIds.get(md5Hex(first))));
+        // 数据库自增ID，与单个保存的ID顺序一致
+        assertThat(rows).extracting(FileBusinessDO::getId).isSorted().doesNotContainNull();
+    }
+
+    @Test
+    @DisplayName("should_PageThroughBusinessNames_When_SearchingByPrefix")
+    void should_PageThroughBusinessNames_When_SearchingByPrefix() {
+        byte[] content = "report".getBytes(StandardCharsets.UTF_8);
+        // 同名文件按ID排序，名称中的冒号不影响游标
+        service.uploadFiles(List.of(upload("report:b.pdf", content), upload("notes.txt", content),
+                upload("report:a.pdf", content), upload("report:a.pdf", content)));
+
+        List<String> names = new ArrayList<>();
+        String lastId = null;
+        do {
+            PageResult<FileMetadata> page = ossClient.searchFiles(FileSearchRequest.builder()
+                                                                          .setFileNamePattern("report*")
+                                                                          .setPreLastId(lastId)
+                                                                          .setPageSize(1L)
+                                                                          .build());
+            page.getRecords().forEach(file -> names.add(file.getFileName()));
+            lastId = page.getLastId();
+        } while (lastId != null);
+
+        assertThat(names).containsExactly("report:a.pdf", "report:a.pdf", "report:b.pdf");
+        assertThat(ossClient.searchFiles(FileSearchRequest.builder().setFileNamePattern("*otes*").build())
+                           .getRecords()).extracting(FileMetadata::getFileName).containsExactly("notes.txt");
+    }
+
+    @Test
+    @DisplayName("should_StoreDerivativeWithMd5_When_GeneratingThumbnail")
+    void should_StoreDerivativeWithMd5_When_GeneratingThumbnail() throws Exception {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB), "png", png);
+        FileMetadata source = FileMetadata.builder()
+                                      .setFileName("photo.png")
+                                      .setContentType("image/png")
+                                      .build();
+        service.uploadFile(new ByteArrayInputStream(png.toByteArray()), source, attachment("order-1"));
+        String sourceId = String.valueOf(metadataMapper.selectList(null).getFirst().getId());
+
+        try (ImageDerivativeGenerator generator = new ImageDerivativeGenerator(1,
+                Map.of(FileBusiness.Usage.THUMBNAIL, 16), 1024 * 1024)) {
+            service.enableDerivatives(generator, 100, Duration.ofMinutes(1));
+            Optional<FileMetadata> derivative = service.getDerivative(sourceId, FileBusiness.Usage.THUMBNAIL);
+
+            // 衍生文件的元数据行使用存储端计算的 MD5，而不是空值
+            assertThat(derivative).hasValueSatisfying(file -> assertThat(file.getMd5()).isNotNull());
+            FileMetadataDO row = metadataMapper.selectOne(Wrappers.<FileMetadataDO>lambdaQuery()
+                                                                  .eq(FileMetadataDO::getPath,
+                                                                          derivative.get().getFilePath()));
+            assertThat(row.getMd5()).isEqualTo(derivative.get().getMd5());
+            assertThat(row.getPath()).endsWith("/" + row.getMd5());
+        }
+    }
+
+    private static FileUpload upload(String fileName, byte[] content) {
+        FileMetadata metadata = FileMetadata.builder()
+                                        .setFileName(fileName)
+                                        .setContentType("text/plain")
+                                        .build();
+        return new FileUpload(new ByteArrayInputStream(content), metadata, attachment("order-1"));
+    }
+
+    private static FileBusiness attachment(String businessId) {
+        return FileBusiness.builder()
+                       .setBusinessId(businessId)
+                       .setType(FileBusiness.Type.ORDER)
+                       .setUsage(FileBusiness.Usage.ATTACHMENT)
+                       .build();
+    }
+
+    private static String md5Hex(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content));
+    }
+
+}
@@ -0,0 +1,136 @@
+package org.smm.archetype.test.cases.integrationtest.oss;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smm.archetype.infrastructure.shared.client.oss.RustFsOssClientImpl;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileMetadataDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.core.ResponseInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.Channels;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * RustFS（S3 协议）对象存储集成测试
+ *
+ * <p>使用 MinIO 容器作为本地 S3 兼容服务，验证流式下载、范围下载、并行范围下载和预签名 URL；没有 Docker 环境时跳过
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("RustFS 对象存储集成测试")
+public class RustFsOssClientITest {
+
+    private static final int PARALLEL_THRESHOLD = 1024 * 1024;
+
+    private static final int PART_SIZE = 256 * 1024;
+
+    @Container
+    private static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2024-12-18T13-15-44Z");
+
+    private static RustFsOssClientImpl client;
+
+    private static String smallPath;
+
+    private static String largePath;
+
+    private static byte[] large;
+
+    @BeforeAll
+    static void setUp() {
+        FileMetadataMapper metadataMapper = mock(FileMetadataMapper.class);
+        FileMetadataDO metadata = new FileMetadataDO();
+        metadata.setId(1L);
+        when(metadataMapper.selectOne(any())).thenReturn(metadata);
+
+        Duration timeout = Duration.ofSeconds(10);
+        client = new RustFsOssClientImpl(
+                RustFsOssClientImpl.newClient(MINIO.getS3URL(), MINIO.getUserName(), MINIO.getPassword(),
+                        timeout, timeout, 8),
+                RustFsOssClientImpl.newAsyncClient(MINIO.getS3URL(), MINIO.getUserName(), MINIO.getPassword(),
+                        timeout, timeout, 8),
+                RustFsOssClientImpl.newPresigner(MINIO.getS3URL(), MINIO.getUserName(), MINIO.getPassword()),
+                "it-bucket", PARALLEL_THRESHOLD, PART_SIZE, 3, metadataMapper);
+
+        smallPath = client.upload(new ByteArrayInputStream("hello s3".getBytes()), "small.txt", "text/plain");
+        large = new byte[PARALLEL_THRESHOLD * 3 + 123];
+        new Random(42).nextBytes(large);
+        largePath = client.upload(new ByteArrayInputStream(large), "large.bin", "application/octet-stream",
+                large.length);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    @DisplayName("should_StreamResponse_When_Downloading")
+    void should_StreamResponse_When_Downloading() throws Exception {
+        try (InputStream inputStream = client.download(smallPath)) {
+            // 直接返回响应流，不在堆上缓冲
+            assertThat(inputStream).isInstanceOf(ResponseInputStream.class);
+            assertThat(inputStream.readAllBytes()).isEqualTo("hello s3".getBytes());
+        }
+        try (InputStream inputStream = client.download(largePath, 10, 100)) {
+            assertThat(inputStream.readAllBytes()).isEqualTo(Arrays.copyOfRange(large, 10, 110));
+        }
+        // 长度为0不发送无效的 Range（服务端会忽略并返回整个对象）
+        try (InputStream inputStream = client.download(largePath, 10, 0)) {
+            assertThat(inputStream.readAllBytes()).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("should_ReassembleInOrder_When_TransferringInParallelRanges")
+    void should_ReassembleInOrder_When_TransferringInParallelRanges() {
+        ByteArrayOutputStream whole = new ByteArrayOutputStream();
+        long transferred = client.transferTo(largePath, Channels.newChannel(whole));
+
+        assertThat(transferred).isEqualTo(large.length);
+        assertThat(whole.toByteArray()).isEqualTo(large);
+
+        int offset = PART_SIZE / 2;
+        int length = PARALLEL_THRESHOLD * 2;
+        ByteArrayOutputStream range = new ByteArrayOutputStream();
+        client.transferTo(largePath, offset, length, Channels.newChannel(range));
+
+        assertThat(range.toByteArray()).isEqualTo(Arrays.copyOfRange(large, offset, offset + length));
+    }
+
+    @Test
+    @DisplayName("should_ServeObject_When_FetchingPresignedUrl")
+    void should_ServeObject_When_FetchingPresignedUrl() throws Exception {
+        String url = client.generateUrl(smallPath, 60);
+
+        HttpResponse<byte[]> response;
+        try (HttpClient httpClient = HttpClient.newHttpClient()) {
+            response = httpClient.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+        }
+
+        assertThat(url).contains("X-Amz-Signature=");
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("hello s3".getBytes());
+    }
+
+}
@@ -9,6 +9,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.smm.archetype.adapter.web.config.WebExceptionAdvise;
 import org.smm.archetype.app.shared.result.BaseResult;
+import org.smm.archetype.domain.shared.exception.BizException;
+import org.smm.archetype.domain.shared.exception.CommonErrorCode;
 import org.smm.archetype.test.support.UnitTestBase;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -33,6 +35,7 @@ import static org.mockito.Mockito.when;
  *   <li>MethodArgumentNotValidException - @RequestBody 参数校验失败</li>
  *   <li>BindException - 表单绑定异常</li>
  *   <li>ConstraintViolationException - @RequestParam 约束违反</li>
+ *   <li>BizException - 数据不存在时返回 404，其他业务异常返回 200</li>
  * </ul>
  */
 @DisplayName("WebExceptionAdvise 单元测试")
@@ -225,4 +228,30 @@ class WebExceptionAdviseUTest extends UnitTestBase {
 
     }
 
+    @Nested
+    @DisplayName("BizException 处理测试")
+    class BizExceptionTests {
+
+        @Test
+        @DisplayName("数据不存在 - 返回 HTTP 404")
+        void dataNotFound() {
+            ResponseEntity<BaseResult<Void>> response = webExceptionAdvise.handleBizException(
+                    new BizException("文件元数据未找到: 1", CommonErrorCode.DATA_NOT_FOUND));
+
+            assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+            assertEquals("BIZ-003", response.getBody().getCode());
+        }
+
+        @Test
+        @DisplayName("其他业务异常 - 返回 HTTP 200")
+        void otherBizException() {
+            ResponseEntity<BaseResult<Void>> response = webExceptionAdvise.handleBizException(
+                    new BizException(CommonErrorCode.OPERATION_NOT_ALLOWED));
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("BIZ-004", response.getBody().getCode());
+        }
+
+    }
+
 }
@@ -0,0 +1,135 @@
+package org.smm.archetype.test.cases.unittest.adapter.web;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smm.archetype.adapter.web.api.FileController;
+import org.smm.archetype.domain.platform.file.FileDomainService;
+import org.smm.archetype.domain.platform.file.FileBusiness.Usage;
+import org.smm.archetype.domain.platform.file.FileMetadata;
+import org.smm.archetype.domain.shared.exception.BizException;
+import org.smm.archetype.domain.shared.exception.CommonErrorCode;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * FileController 单元测试
+ *
+ * <p>验证范围请求（206/416）、If-Range、基于 ETag 的条件请求（304），以及无权访问原文件时不生成衍生文件
+ */
+@DisplayName("FileController 单元测试")
+class FileControllerUTest {
+
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8);
+
+    private static final String MD5 = "d41d8cd98f00b204e9800998ecf8427e";
+
+    private final FileDomainService fileDomainService = mock(FileDomainService.class);
+
+    private final FileController controller = new FileController(fileDomainService);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        FileMetadata metadata = FileMetadata.builder()
+                .setMd5(MD5)
+                .setFileSize((long) CONTENT.length)
+                .setContentType("text/plain")
+                .setCreateTime(Instant.parse("2026-01-01T00:00:00Z"))
+                .build();
+        when(fileDomainService.getAccessibleFileMeta("1")).thenReturn(metadata);
+        when(fileDomainService.transferContent(any(), anyLong(), anyLong(), any())).thenAnswer(invocation -> {
+            int offset = (int) invocation.<Long>getArgument(1).longValue();
+            int length = (int) invocation.<Long>getArgument(2).longValue();
+            WritableByteChannel target = invocation.getArgument(3);
+            return (long) target.write(ByteBuffer.wrap(Arrays.copyOfRange(CONTENT, offset, offset + length)));
+        });
+    }
+
+    @Test
+    @DisplayName("should_ReturnPartialContent_When_SingleRangeRequested")
+    void should_ReturnPartialContent_When_SingleRangeRequested() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/1/content");
+        request.addHeader("Range", "bytes=5-9");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.download("1", request, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 5-9/20");
+        assertThat(response.getHeader("ETag")).isEqualTo("\"" + MD5 + "\"");
+        assertThat(response.getContentAsString()).isEqualTo("56789");
+    }
+
+    @Test
+    @DisplayName("should_ReturnFullContent_When_IfRangeDoesNotMatch")
+    void should_ReturnFullContent_When_IfRangeDoesNotMatch() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/1/content");
+        request.addHeader("Range", "bytes=5-9");
+        request.addHeader("If-Range", "\"stale\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.download("1", request, response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    @DisplayName("should_Return416_When_RangeNotSatisfiable")
+    void should_Return416_When_RangeNotSatisfiable() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/1/content");
+        request.addHeader("Range", "bytes=100-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.download("1", request, response);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */20");
+        verify(fileDomainService, never()).transferContent(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("should_Return304_When_ETagMatches")
+    void should_Return304_When_ETagMatches() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/1/content");
+        request.addHeader("If-None-Match", "\"" + MD5 + "\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.download("1", request, response);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentLength()).isZero();
+        verify(fileDomainService, never()).transferContent(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("should_NotServeDerivative_When_OriginalNotAccessible")
+    void should_NotServeDerivative_When_OriginalNotAccessible() {
+        when(fileDomainService.getAccessibleFileMeta("2"))
+                .thenThrow(new BizException("文件元数据未找到: 2", CommonErrorCode.DATA_NOT_FOUND));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/2/derivatives/THUMBNAIL");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThatThrownBy(() -> controller.downloadDerivative("2", Usage.THUMBNAIL, request, response))
+                .isInstanceOf(BizException.class);
+
+        verify(fileDomainService, never()).getDerivative(anyString(), any());
+    }
+
+}
@@ -0,0 +1,156 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.cache;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smm.archetype.domain.shared.cache.CacheEvict;
+import org.smm.archetype.domain.shared.cache.Cached;
+import org.smm.archetype.domain.shared.event.Event;
+import org.smm.archetype.domain.shared.event.Type;
+import org.smm.archetype.infrastructure.shared.cache.CacheAspect;
+import org.smm.archetype.infrastructure.shared.cache.CacheInvalidationBroadcaster;
+import org.smm.archetype.infrastructure.shared.cache.CacheInvalidationBus;
+import org.smm.archetype.infrastructure.shared.client.cache.CaffeineCacheClientImpl;
+import org.smm.archetype.test.support.UnitTestBase;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 缓存切面单元测试
+ *
+ * <p>不启动 Spring 上下文，直接以模拟的连接点调用切面，验证：
+ * <ul>
+ *   <li>命中缓存时不执行目标方法</li>
+ *   <li>并发未命中时只加载一次（single-flight）</li>
+ *   <li>@CacheEvict 与领域事件触发的失效（失效总线）</li>
+ *   <li>失效规则在方法首次调用前注册</li>
+ * </ul>
+ */
+@DisplayName("缓存切面单元测试")
+public class CacheAspectUTest extends UnitTestBase {
+
+    private final CaffeineCacheClientImpl cacheClient = new CaffeineCacheClientImpl(16, 1000L, Duration.ofMinutes(1));
+
+    private final CacheInvalidationBus invalidationBus =
+            new CacheInvalidationBus(cacheClient, CacheInvalidationBroadcaster.NONE, Map.of());
+
+    private final CacheAspect aspect = new CacheAspect(cacheClient, Duration.ofMinutes(1), Map.of(), invalidationBus,
+            cacheClient.getStatsRecorder());
+
+    @Test
+    @DisplayName("should_ReturnCachedValue_When_CalledTwice")
+    void should_ReturnCachedValue_When_CalledTwice() throws Throwable {
+        AtomicInteger loads = new AtomicInteger();
+        ProceedingJoinPoint joinPoint = joinPoint("getOrder", new Object[]{"o-1"}, () -> "order-" + loads.incrementAndGet());
+
+        assertThat(aspect.cached(joinPoint)).isEqualTo("order-1");
+        assertThat(aspect.cached(joinPoint)).isEqualTo("order-1");
+        assertThat(loads).hasValue(1);
+        assertThat(cacheClient.<String>get("UTEST_ORDER:o-1")).isEqualTo("order-1");
+        assertThat(cacheClient.getStatsRecorder().snapshot().get("UTEST_ORDER").loads()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should_LoadOnce_When_ConcurrentMisses")
+    void should_LoadOnce_When_ConcurrentMisses() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ProceedingJoinPoint joinPoint = joinPoint("getOrder", new Object[]{"o-2"}, () -> {
+            loads.incrementAndGet();
+            release.await();
+            return "order";
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Object> first = executor.submit(() -> invoke(joinPoint));
+            Future<Object> second = executor.submit(() -> invoke(joinPoint));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(first.get()).isEqualTo("order");
+            assertThat(second.get()).isEqualTo("order");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("should_EvictEntry_When_EvictMethodOrEventInvoked")
+    void should_EvictEntry_When_EvictMethodOrEventInvoked() throws Throwable {
+        aspect.cached(joinPoint("getOrder", new Object[]{"o-3"}, () -> "order"));
+        aspect.evict(joinPoint("updateOrder", new Object[]{"o-3"}, () -> null));
+        assertThat(cacheClient.hasKey("UTEST_ORDER:o-3")).isFalse();
+
+        aspect.cached(joinPoint("getOrder", new Object[]{"o-4"}, () -> "order"));
+        invalidationBus.invalidate(List.<Event<?>>of(Event.builder().setEid("e-1").setType(Type.ORDER_PAID).build()));
+        assertThat(cacheClient.hasKey("UTEST_ORDER:o-4")).isFalse();
+    }
+
+    @Test
+    @DisplayName("should_EvictRestoredEntry_When_EventArrivesBeforeFirstCall")
+    void should_EvictRestoredEntry_When_EventArrivesBeforeFirstCall() throws Throwable {
+        // 快照恢复或其他节点写入的条目，本节点尚未调用过方法
+        cacheClient.put("UTEST_ORDER:o-5", "order");
+        aspect.registerEvictionRules(OrderAppService.class);
+
+        invalidationBus.invalidate(List.<Event<?>>of(Event.builder().setEid("e-2").setType(Type.ORDER_PAID).build()));
+        assertThat(cacheClient.hasKey("UTEST_ORDER:o-5")).isFalse();
+
+        // 提前注册不影响首次调用的缓存
+        aspect.cached(joinPoint("getOrder", new Object[]{"o-6"}, () -> "order"));
+        assertThat(aspect.cached(joinPoint("getOrder", new Object[]{"o-6"}, () -> "changed"))).isEqualTo("order");
+    }
+
+    private Object invoke(ProceedingJoinPoint joinPoint) throws Exception {
+        try {
+            return aspect.cached(joinPoint);
+        } catch (Throwable e) {
+            throw new Exception(e);
+        }
+    }
+
+    private static ProceedingJoinPoint joinPoint(String methodName, Object[] args, Loader loader) throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(OrderAppService.class.getMethod(methodName, String.class));
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(args);
+        when(joinPoint.proceed()).thenAnswer(invocation -> loader.load());
+        return joinPoint;
+    }
+
+    @FunctionalInterface
+    private interface Loader {
+
+        Object load() throws Exception;
+
+    }
+
+    /**
+     * 测试用 AppService
+     */
+    public static class OrderAppService {
+
+        @Cached(namespace = "UTEST_ORDER", keyArgs = 0, evictOn = Type.ORDER_PAID)
+        public String getOrder(String orderId) {
+            return orderId;
+        }
+
+        @CacheEvict(namespace = "UTEST_ORDER", keyArgs = 0)
+        public void updateOrder(String orderId) {
+        }
+
+    }
+
+}
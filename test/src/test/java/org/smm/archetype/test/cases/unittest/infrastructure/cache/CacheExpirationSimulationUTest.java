@@ -0,0 +1,130 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smm.archetype.infrastructure.shared.client.cache.CacheExpirationPolicy;
+import org.smm.archetype.infrastructure.shared.client.cache.CaffeineCacheClientImpl;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 缓存过期策略模拟测试
+ *
+ * <p>使用虚拟时钟模拟读写流量，对比策略开启前后的回源分布：
+ * <ul>
+ *   <li>TTL 抖动：批量写入的键不再在同一秒集中过期</li>
+ *   <li>XFetch：热点键在过期前由单个请求提前重算，过期瞬间不再出现回源风暴</li>
+ * </ul>
+ */
+@DisplayName("缓存过期策略模拟测试")
+public class CacheExpirationSimulationUTest {
+
+    private static final String KEY = "SIM:hot";
+
+    @Test
+    @DisplayName("should_SpreadReloads_When_TtlJitterEnabled")
+    void should_SpreadReloads_When_TtlJitterEnabled() {
+        CacheExpirationPolicy jittered = new CacheExpirationPolicy(CacheExpirationPolicy.Rule.NONE,
+                Map.of("SIM", new CacheExpirationPolicy.Rule(0.2D, 0D)));
+
+        int baselinePeak = peakReloadsPerSecond(CacheExpirationPolicy.NONE, 10_000, 600, 3_600);
+        int jitteredPeak = peakReloadsPerSecond(jittered, 10_000, 600, 3_600);
+
+        System.out.printf("TTL jitter simulation: peak reloads/s without jitter=%d, with 20%% jitter=%d%n",
+                baselinePeak, jitteredPeak);
+        assertThat(baselinePeak).isEqualTo(10_000);
+        assertThat(jitteredPeak).isLessThan(baselinePeak / 20);
+    }
+
+    @Test
+    @DisplayName("should_AvoidStampede_When_EarlyRecomputeEnabled")
+    void should_AvoidStampede_When_EarlyRecomputeEnabled() {
+        CacheExpirationPolicy xfetch = new CacheExpirationPolicy(CacheExpirationPolicy.Rule.NONE,
+                Map.of("SIM", new CacheExpirationPolicy.Rule(0D, 1D)));
+
+        StampedeResult baseline = simulateHotKey(CacheExpirationPolicy.NONE);
+        StampedeResult early = simulateHotKey(xfetch);
+
+        System.out.printf("XFetch simulation: blocked reads %d -> %d, recomputes %d -> %d%n",
+                baseline.blockedReads(), early.blockedReads(), baseline.recomputes(), early.recomputes());
+        assertThat(baseline.blockedReads()).isGreaterThan(100);
+        assertThat(early.blockedReads()).isLessThan(baseline.blockedReads() / 10);
+        // 提前重算只发生在过期前很短的窗口内，不应显著增加回源次数
+        assertThat(early.recomputes()).isLessThanOrEqualTo(baseline.recomputes() * 2);
+    }
+
+    @Test
+    @DisplayName("should_ShortenTtlWithinBound_When_WritingWithJitter")
+    void should_ShortenTtlWithinBound_When_WritingWithJitter() {
+        CaffeineCacheClientImpl cache = new CaffeineCacheClientImpl(16, 100L, Duration.ofMinutes(10));
+        cache.setExpirationPolicy(new CacheExpirationPolicy(CacheExpirationPolicy.Rule.NONE,
+                Map.of("SIM", new CacheExpirationPolicy.Rule(0.5D, 0D))));
+
+        for (int i = 0; i < 20; i++) {
+            cache.put("SIM:" + i, i, Duration.ofSeconds(1000));
+            assertThat(cache.getExpire("SIM:" + i)).isBetween(499L, 1000L);
+            // 未开启抖动的命名空间保持显式指定的过期时间
+            cache.put("PLAIN:" + i, i, Duration.ofSeconds(1000));
+            assertThat(cache.getExpire("PLAIN:" + i)).isBetween(999L, 1000L);
+        }
+    }
+
+    /**
+     * 模拟 keys 个键在 0 秒批量写入，过期后立即被读取并重新写入，统计每秒回源次数的峰值
+     */
+    private static int peakReloadsPerSecond(CacheExpirationPolicy policy, int keys, int ttlSeconds, int seconds) {
+        int[] reloads = new int[seconds + 1];
+        for (int i = 0; i < keys; i++) {
+            String key = "SIM:" + i;
+            long expireAt = policy.jitter(key, Duration.ofSeconds(ttlSeconds)).toSeconds();
+            while (expireAt <= seconds) {
+                reloads[(int) expireAt]++;
+                expireAt += policy.jitter(key, Duration.ofSeconds(ttlSeconds)).toSeconds();
+            }
+        }
+        int peak = 0;
+        for (int count : reloads) {
+            peak = Math.max(peak, count);
+        }
+        return peak;
+    }
+
+    /**
+     * 模拟热点键每 20 毫秒被读取一次，TTL 60 秒，回源耗时 500 毫秒，运行 1 小时。
+     * 过期后到重算完成之间的读取记为阻塞读取（无 single-flight 时每个都会回源）。
+     */
+    private static StampedeResult simulateHotKey(CacheExpirationPolicy policy) {
+        long ttlMillis = 60_000;
+        long deltaMillis = 500;
+        long expireAt = ttlMillis;
+        long recomputeDoneAt = -1;
+        int blockedReads = 0;
+        int recomputes = 0;
+        for (long now = 0; now < 3_600_000; now += 20) {
+            if (recomputeDoneAt >= 0 && now >= recomputeDoneAt) {
+                expireAt = recomputeDoneAt + ttlMillis;
+                recomputeDoneAt = -1;
+            }
+            if (now >= expireAt) {
+                blockedReads++;
+                if (recomputeDoneAt < 0) {
+                    recomputes++;
+                    recomputeDoneAt = now + deltaMillis;
+                }
+            } else if (recomputeDoneAt < 0
+                    && policy.shouldRecomputeEarly(KEY, expireAt - now, deltaMillis * 1_000_000)) {
+                recomputes++;
+                recomputeDoneAt = now + deltaMillis;
+            }
+        }
+        return new StampedeResult(blockedReads, recomputes);
+    }
+
+    private record StampedeResult(int blockedReads, int recomputes) {
+
+    }
+
+}
@@ -0,0 +1,101 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smm.archetype.infrastructure.shared.client.cache.CacheList;
+import org.smm.archetype.infrastructure.shared.client.cache.CaffeineCacheClientImpl;
+import org.smm.archetype.test.support.UnitTestBase;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 本地缓存列表单元测试
+ *
+ * <p>验证 {@link CacheList} 与 Caffeine 缓存的列表操作，包括：
+ * <ul>
+ *   <li>追加与跨块范围读取</li>
+ *   <li>LRANGE 索引语义（结束索引包含、负数索引）</li>
+ *   <li>限长追加（LTRIM）</li>
+ *   <li>范围读取结果与缓存值隔离</li>
+ * </ul>
+ */
+@DisplayName("本地缓存列表单元测试")
+public class CacheListUTest extends UnitTestBase {
+
+    @Test
+    @DisplayName("should_ReturnInclusiveRange_When_RangeAcrossChunks")
+    void should_ReturnInclusiveRange_When_RangeAcrossChunks() {
+        CacheList list = new CacheList();
+        IntStream.range(0, 200).forEach(list::append);
+
+        assertThat(list.size()).isEqualTo(200);
+        assertThat(list.<Integer>range(60, 70)).containsExactlyElementsOf(IntStream.rangeClosed(60, 70).boxed().toList());
+        assertThat(list.<Integer>range(-3, -1)).containsExactly(197, 198, 199);
+        assertThat(list.<Integer>range(195, 1000)).containsExactly(195, 196, 197, 198, 199);
+        assertThat(list.range(10, 5)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should_ReturnEmpty_When_NegativeEndBeforeHead")
+    void should_ReturnEmpty_When_NegativeEndBeforeHead() {
+        CacheList list = new CacheList();
+        IntStream.range(0, 5).forEach(list::append);
+
+        // 与 Redis 一致：结束索引超出头部时为空，开始索引超出头部时截断到0
+        assertThat(list.range(0, -6)).isEmpty();
+        assertThat(list.range(-100, -6)).isEmpty();
+        assertThat(CacheList.range(List.of(0, 1, 2, 3, 4), 0, -6)).isEmpty();
+        assertThat(list.<Integer>range(-100, -5)).containsExactly(0);
+        assertThat(list.<Integer>range(-100, 1)).containsExactly(0, 1);
+    }
+
+    @Test
+    @DisplayName("should_KeepLatestElements_When_AppendWithMaxSize")
+    void should_KeepLatestElements_When_AppendWithMaxSize() {
+        CacheList list = new CacheList();
+        IntStream.range(0, 150).forEach(i -> list.append(i, 100));
+
+        assertThat(list.size()).isEqualTo(100);
+        assertThat(list.<Integer>toList()).containsExactlyElementsOf(IntStream.range(50, 150).boxed().toList());
+        assertThat(list.<Integer>range(0, 0)).containsExactly(50);
+    }
+
+    @Test
+    @DisplayName("should_AppendAndReadRange_When_UsingCaffeineCache")
+    void should_AppendAndReadRange_When_UsingCaffeineCache() {
+        CaffeineCacheClientImpl cache = new CaffeineCacheClientImpl(16, 100L, Duration.ofMinutes(1));
+        IntStream.range(0, 10).forEach(i -> cache.append("FEED:1", i, 5));
+
+        List<Integer> range = cache.getList("FEED:1", 0, -1);
+        assertThat(range).containsExactly(5, 6, 7, 8, 9);
+
+        cache.append("FEED:1", 10);
+        assertThat(range).hasSize(5);
+        assertThat(cache.<Integer>getList("FEED:1", -2, -1)).containsExactly(9, 10);
+    }
+
+    @Test
+    @DisplayName("should_ConvertPlainList_When_AppendAfterPut")
+    void should_ConvertPlainList_When_AppendAfterPut() {
+        CaffeineCacheClientImpl cache = new CaffeineCacheClientImpl(16, 100L, Duration.ofMinutes(1));
+        cache.put("FEED:2", List.of(1, 2));
+        cache.append("FEED:2", 3);
+
+        assertThat(cache.<Integer>getList("FEED:2")).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    @DisplayName("should_Throw_When_AppendToNonListValue")
+    void should_Throw_When_AppendToNonListValue() {
+        CaffeineCacheClientImpl cache = new CaffeineCacheClientImpl(16, 100L, Duration.ofMinutes(1));
+        cache.put("FEED:3", "text");
+
+        assertThatThrownBy(() -> cache.append("FEED:3", 1)).isInstanceOf(RuntimeException.class);
+    }
+
+}
@@ -0,0 +1,129 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smm.archetype.domain.shared.event.Event;
+import org.smm.archetype.domain.shared.event.Type;
+import org.smm.archetype.domain.shared.util.CacheHolder;
+import org.smm.archetype.infrastructure.shared.cache.CachePenetrationGuard;
+import org.smm.archetype.infrastructure.shared.cache.ScalableBloomFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 缓存穿透防护单元测试
+ *
+ * <p>验证可扩容布隆过滤器不漏判、键集分页重建、写入/事件增量更新以及重建后新增键的放行
+ */
+@DisplayName("缓存穿透防护单元测试")
+public class CachePenetrationGuardUTest {
+
+    private static final CacheHolder.Type NAMESPACE = CacheHolder.Type.register("UTEST_GUARD");
+
+    private final CachePenetrationGuard guard = new CachePenetrationGuard(100, 0.01D, 50, null);
+
+    @AfterEach
+    void tearDown() {
+        guard.close();
+    }
+
+    @Test
+    @DisplayName("should_GrowWithoutFalseNegatives_When_CapacityExceeded")
+    void should_GrowWithoutFalseNegatives_When_CapacityExceeded() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01D);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("key-" + i);
+        }
+
+        assertThat(filter.stageCount()).isGreaterThan(1);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("key-" + i)).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("absent-" + i)) {
+                falsePositives++;
+            }
+        }
+        // 总误判率不超过初始误判率的 2 倍
+        assertThat(falsePositives).isLessThan(200);
+    }
+
+    @Test
+    @DisplayName("should_RejectAbsentKeys_When_RebuiltFromKeySource")
+    void should_RejectAbsentKeys_When_RebuiltFromKeySource() {
+        NavigableSet<String> ids = new TreeSet<>();
+        for (int i = 0; i < 120; i++) {
+            ids.add(String.format("%05d", i));
+        }
+        AtomicInteger pages = new AtomicInteger();
+        guard.register(NAMESPACE, (afterKey, limit) -> {
+            pages.incrementAndGet();
+            NavigableSet<String> tail = afterKey == null ? ids : ids.tailSet(afterKey, false);
+            List<String> page = new ArrayList<>(limit);
+            for (String id : tail) {
+                if (page.size() == limit) {
+                    break;
+                }
+                page.add(id);
+            }
+            return page;
+        });
+        guard.rebuild(NAMESPACE);
+
+        assertThat(pages.get()).isGreaterThanOrEqualTo(3);
+        assertThat(ids).allMatch(id -> guard.mightContain(NAMESPACE, id));
+        assertThat(guard.mightContain(NAMESPACE, "bogus-id")).isFalse();
+        assertThat(guard.rejections()).containsEntry(NAMESPACE.name(), 1L);
+    }
+
+    @Test
+    @DisplayName("should_AcceptNewKeys_When_AddedByWriteOrEvent")
+    void should_AcceptNewKeys_When_AddedByWriteOrEvent() {
+        // 模拟数据库：后台重建随时可能发生，重建结果必须包含已写入的键
+        NavigableSet<String> stored = new ConcurrentSkipListSet<>();
+        guard.register(NAMESPACE, (afterKey, limit) ->
+                List.copyOf(afterKey == null ? stored : stored.tailSet(afterKey, false)));
+        guard.register(Type.ORDER_CREATED, NAMESPACE, event -> List.of(event.getEid()));
+        guard.rebuild(NAMESPACE);
+        assertThat(guard.mightContain(NAMESPACE, "new-1")).isFalse();
+
+        stored.add("new-1");
+        guard.add(NAMESPACE, "new-1");
+        stored.add("new-2");
+        guard.onEvents(List.<Event<?>>of(Event.builder().setEid("new-2").setType(Type.ORDER_CREATED).build()));
+
+        assertThat(guard.mightContain(NAMESPACE, "new-1")).isTrue();
+        assertThat(guard.mightContain(NAMESPACE, "new-2")).isTrue();
+        // 未注册的命名空间始终放行
+        assertThat(guard.mightContain(CacheHolder.Type.register("UTEST_UNGUARDED"), "any")).isTrue();
+    }
+
+    @Test
+    @DisplayName("should_PassKeysAfterWatermark_When_InsertedByOtherNode")
+    void should_PassKeysAfterWatermark_When_InsertedByOtherNode() {
+        NavigableSet<String> stored = new ConcurrentSkipListSet<>(List.of("00010", "00020", "00030"));
+        guard.register(NAMESPACE, (afterKey, limit) ->
+                List.copyOf(afterKey == null ? stored : stored.tailSet(afterKey, false)), String::compareTo);
+        guard.rebuild(NAMESPACE);
+
+        // 其他节点在重建后新增的键：本节点过滤器中没有，但排在上次重建最大键之后，放行到数据库
+        stored.add("00040");
+        assertThat(guard.mightContain(NAMESPACE, "00040")).isTrue();
+        // 重建时已扫描范围内不存在的键仍被拒绝
+        assertThat(guard.mightContain(NAMESPACE, "00015")).isFalse();
+
+        guard.rebuild(NAMESPACE);
+        assertThat(guard.mightContain(NAMESPACE, "00040")).isTrue();
+        assertThat(guard.mightContain(NAMESPACE, "00035")).isFalse();
+    }
+
+}
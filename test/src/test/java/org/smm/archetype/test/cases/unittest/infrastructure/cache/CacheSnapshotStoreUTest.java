@@ -0,0 +1,70 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.smm.archetype.infrastructure.shared.client.cache.CacheSnapshotStore;
+import org.smm.archetype.infrastructure.shared.client.cache.CaffeineCacheClientImpl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 本地缓存快照单元测试
+ *
+ * <p>验证关闭时保存、启动后加载的往返：值、列表和剩余 TTL 保留，启动后已写入的键不被覆盖
+ */
+@DisplayName("本地缓存快照单元测试")
+public class CacheSnapshotStoreUTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("should_RestoreEntriesWithRemainingTtl_When_SnapshotSavedAndLoaded")
+    void should_RestoreEntriesWithRemainingTtl_When_SnapshotSavedAndLoaded() {
+        Path file = tempDir.resolve("cache-snapshot.bin");
+        CacheSnapshotStore store = new CacheSnapshotStore(file, 100, 1024 * 1024);
+
+        CaffeineCacheClientImpl before = new CaffeineCacheClientImpl(16, 1000L, Duration.ofHours(1));
+        before.put("UTEST:order", "order-1", Duration.ofSeconds(300));
+        before.put("UTEST:forever", 42);
+        before.append("UTEST:timeline", "e-1");
+        before.append("UTEST:timeline", "e-2");
+        before.put("UTEST:fresh", "stale-value");
+
+        assertThat(store.save(before)).isEqualTo(4);
+        assertThat(file).exists();
+
+        CaffeineCacheClientImpl after = new CaffeineCacheClientImpl(16, 1000L, Duration.ofHours(1));
+        after.put("UTEST:fresh", "fresh-value");
+
+        assertThat(store.warmUp(after)).isEqualTo(3);
+        assertThat(after.<String>get("UTEST:order")).isEqualTo("order-1");
+        assertThat(after.getExpire("UTEST:order")).isBetween(290L, 300L);
+        assertThat(after.<Integer>get("UTEST:forever")).isEqualTo(42);
+        assertThat(after.<String>getList("UTEST:timeline")).containsExactly("e-1", "e-2");
+        assertThat(after.<String>get("UTEST:fresh")).isEqualTo("fresh-value");
+        // 加载后删除快照，异常重启不会重复加载旧数据
+        assertThat(Files.exists(file)).isFalse();
+        assertThat(store.warmUp(after)).isZero();
+    }
+
+    @Test
+    @DisplayName("should_SaveOnClose_When_SnapshotEnabled")
+    void should_SaveOnClose_When_SnapshotEnabled() throws Exception {
+        Path file = tempDir.resolve("close-snapshot.bin");
+        CaffeineCacheClientImpl cache = new CaffeineCacheClientImpl(16, 1000L, Duration.ofHours(1));
+        assertThat(cache.enableSnapshot(new CacheSnapshotStore(file, 100, 1024 * 1024)).join()).isZero();
+        cache.put("UTEST:list", List.of("a"));
+
+        cache.close();
+
+        assertThat(file).exists();
+    }
+
+}
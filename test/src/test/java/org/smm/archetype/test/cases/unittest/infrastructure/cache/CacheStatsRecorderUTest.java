@@ -0,0 +1,60 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smm.archetype.infrastructure.shared.client.cache.CacheStatsRecorder;
+import org.smm.archetype.infrastructure.shared.client.cache.HotKeyTracker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 缓存统计记录器单元测试
+ *
+ * <p>验证按命名空间统计的快照，以及绑定 MeterRegistry 前后创建的命名空间都注册点分名称的指标
+ */
+@DisplayName("缓存统计记录器单元测试")
+public class CacheStatsRecorderUTest {
+
+    private final CacheStatsRecorder recorder = new CacheStatsRecorder(new HotKeyTracker(1, 10, 64));
+
+    @Test
+    @DisplayName("should_AggregateByNamespace_When_Recorded")
+    void should_AggregateByNamespace_When_Recorded() {
+        for (int i = 0; i < 3; i++) {
+            recorder.recordGet("UTEST_STATS:1", true);
+        }
+        recorder.recordGet("UTEST_STATS:2", false);
+        recorder.recordPut("UTEST_STATS:1");
+        recorder.recordEviction("UTEST_STATS:1");
+        recorder.recordLoad("UTEST_STATS:2", 2_000_000L, true);
+        recorder.recordLoad("UTEST_STATS:2", 4_000_000L, false);
+        recorder.recordGet("plain", false);
+
+        assertThat(recorder.snapshot().get("UTEST_STATS"))
+                .isEqualTo(new CacheStatsRecorder.Snapshot(3, 1, 0.75D, 1, 1, 2, 1, 3D));
+        assertThat(recorder.snapshot().get(CacheStatsRecorder.DEFAULT_NAMESPACE).misses()).isEqualTo(1);
+        // 只有命中计入热点键
+        assertThat(recorder.hotKeys().hottest(5)).extracting(HotKeyTracker.HotKey::key)
+                                                 .containsExactly("UTEST_STATS:1");
+    }
+
+    @Test
+    @DisplayName("should_RegisterDottedMeters_When_BoundToRegistry")
+    void should_RegisterDottedMeters_When_BoundToRegistry() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        recorder.recordGet("UTEST_BEFORE:1", true);
+        recorder.bindTo(registry);
+        recorder.recordPut("UTEST_AFTER:1");
+        recorder.recordLoad("UTEST_AFTER:1", 1_000_000L, true);
+
+        assertThat(registry.get("cache.gets").tags("namespace", "UTEST_BEFORE", "result", "hit")
+                           .functionCounter().count()).isEqualTo(1D);
+        assertThat(registry.get("cache.puts").tags("namespace", "UTEST_AFTER").functionCounter().count())
+                .isEqualTo(1D);
+        assertThat(registry.get("cache.load").tags("namespace", "UTEST_AFTER", "result", "success").timer().count())
+                .isEqualTo(1L);
+        assertThat(registry.find("cache_gets_total").meters()).isEmpty();
+    }
+
+}
@@ -0,0 +1,85 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smm.archetype.infrastructure.shared.client.cache.CacheList;
+import org.smm.archetype.infrastructure.shared.client.cache.CacheStatsRecorder;
+import org.smm.archetype.infrastructure.shared.client.cache.CaffeineCacheClientImpl;
+import org.smm.archetype.infrastructure.shared.client.cache.KryoCacheValueSizer;
+import org.smm.archetype.test.support.UnitTestBase;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 按权重淘汰单元测试
+ *
+ * <p>验证 {@link KryoCacheValueSizer} 的估算规则，以及命名空间独立预算的淘汰互不影响
+ */
+@DisplayName("按权重淘汰单元测试")
+public class CacheWeightUTest extends UnitTestBase {
+
+    private final KryoCacheValueSizer sizer = new KryoCacheValueSizer();
+
+    @Test
+    @DisplayName("should_SizeStringByUtf8Bytes_When_NonAscii")
+    void should_SizeStringByUtf8Bytes_When_NonAscii() {
+        assertThat(sizer.sizeOf("abc")).isEqualTo(3);
+        assertThat(sizer.sizeOf("é")).isEqualTo(2);
+        assertThat(sizer.sizeOf("缓存")).isEqualTo(6);
+        assertThat(sizer.sizeOf("a😀")).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("should_ReuseSample_When_ListGrowsLessThanDouble")
+    void should_ReuseSample_When_ListGrowsLessThanDouble() {
+        CacheList list = new CacheList();
+        IntStream.range(0, 10).forEach(i -> list.append(new byte[100]));
+        assertThat(sizer.sizeOf(list)).isEqualTo(1000);
+
+        // 元素数未翻倍：沿用上次采样的平均大小，不重新序列化
+        IntStream.range(0, 9).forEach(i -> list.append(new byte[1000]));
+        assertThat(sizer.sizeOf(list)).isEqualTo(1900);
+
+        // 元素数翻倍后重新采样前 16 个元素
+        list.append(new byte[1000]);
+        assertThat(sizer.sizeOf(list)).isEqualTo((10 * 100 + 6 * 1000) / 16 * 20);
+    }
+
+    @Test
+    @DisplayName("should_EvictOnlyWithinNamespace_When_NamespaceBudgetExceeded")
+    void should_EvictOnlyWithinNamespace_When_NamespaceBudgetExceeded() throws InterruptedException {
+        CaffeineCacheClientImpl cache = new CaffeineCacheClientImpl(16, null, 1024L * 1024,
+                Map.of("UTEST_SMALL", 10_000L, "UTEST_LARGE", 1024L * 1024), sizer, Duration.ofMinutes(5));
+        for (int i = 0; i < 20; i++) {
+            cache.put("UTEST_LARGE:" + i, new byte[1000]);
+            cache.put("plain-" + i, new byte[1000]);
+        }
+        for (int i = 0; i < 50; i++) {
+            cache.put("UTEST_SMALL:" + i, new byte[1000]);
+        }
+
+        // Caffeine 在维护任务中异步淘汰
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (smallEntries(cache) > 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertThat(smallEntries(cache)).isLessThanOrEqualTo(10);
+        for (int i = 0; i < 20; i++) {
+            assertThat(cache.hasKey("UTEST_LARGE:" + i)).isTrue();
+            assertThat(cache.hasKey("plain-" + i)).isTrue();
+        }
+        Map<String, CacheStatsRecorder.Snapshot> stats = cache.getStatsRecorder().snapshot();
+        assertThat(stats.get("UTEST_SMALL").evictions()).isPositive();
+        assertThat(stats.get("UTEST_LARGE").evictions()).isZero();
+    }
+
+    private static long smallEntries(CaffeineCacheClientImpl cache) {
+        return IntStream.range(0, 50).filter(i -> cache.hasKey("UTEST_SMALL:" + i)).count();
+    }
+
+}
@@ -0,0 +1,63 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smm.archetype.infrastructure.shared.client.cache.HotKeyTracker;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 热点键追踪器单元测试
+ *
+ * <p>验证 Top-K 排序、采样换算和计数老化
+ */
+@DisplayName("热点键追踪器单元测试")
+public class HotKeyTrackerUTest {
+
+    @Test
+    @DisplayName("should_RankHottestKeys_When_AccessSkewed")
+    void should_RankHottestKeys_When_AccessSkewed() {
+        HotKeyTracker tracker = new HotKeyTracker(1, 3, 1024);
+        for (int i = 0; i < 1000; i++) {
+            tracker.record("NS:hot");
+        }
+        for (int i = 0; i < 100; i++) {
+            tracker.record("NS:warm");
+        }
+        for (int i = 0; i < 50; i++) {
+            tracker.record("NS:cold-" + i);
+        }
+
+        List<HotKeyTracker.HotKey> hottest = tracker.hottest(2);
+        assertThat(hottest).extracting(HotKeyTracker.HotKey::key).containsExactly("NS:hot", "NS:warm");
+        // Count-Min Sketch 只会高估
+        assertThat(hottest.getFirst().estimatedCount()).isGreaterThanOrEqualTo(1000);
+        assertThat(tracker.hottest(10)).hasSizeLessThanOrEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("should_ScaleEstimate_When_Sampled")
+    void should_ScaleEstimate_When_Sampled() {
+        HotKeyTracker tracker = new HotKeyTracker(4, 5, 1024);
+        for (int i = 0; i < 4000; i++) {
+            tracker.record("NS:sampled");
+        }
+
+        assertThat(tracker.hottest(1).getFirst().estimatedCount()).isBetween(3200L, 4800L);
+    }
+
+    @Test
+    @DisplayName("should_HalveCounts_When_AgingThresholdReached")
+    void should_HalveCounts_When_AgingThresholdReached() {
+        // 宽度 16 时每行 32 个计数器，采样 320 次后老化
+        HotKeyTracker tracker = new HotKeyTracker(1, 5, 16);
+        for (int i = 0; i < 320; i++) {
+            tracker.record("NS:aging");
+        }
+
+        assertThat(tracker.hottest(1)).containsExactly(new HotKeyTracker.HotKey("NS:aging", 160));
+    }
+
+}
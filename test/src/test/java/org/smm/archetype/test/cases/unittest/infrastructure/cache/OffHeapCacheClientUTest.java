@@ -0,0 +1,160 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smm.archetype.infrastructure.shared.client.cache.CacheCodec;
+import org.smm.archetype.infrastructure.shared.client.cache.CaffeineCacheClientImpl;
+import org.smm.archetype.infrastructure.shared.client.cache.KryoCacheCodec;
+import org.smm.archetype.infrastructure.shared.client.cache.OffHeapCacheClientImpl;
+import org.smm.archetype.infrastructure.shared.client.cache.TieredCacheClientImpl;
+import org.smm.archetype.test.support.UnitTestBase;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 堆外缓存单元测试
+ *
+ * <p>验证 {@link OffHeapCacheClientImpl} 的 slab 分配，包括：
+ * <ul>
+ *   <li>不同大小等级的写入与读取</li>
+ *   <li>容量占满后按 CLOCK 淘汰未访问的条目</li>
+ *   <li>chunk 复用后旧键读不到新值</li>
+ *   <li>容量被其他等级占满时写入被忽略，分层缓存改写到堆内层</li>
+ *   <li>堆内层共用编解码器时分层缓存每次写入只编码一次</li>
+ *   <li>列表追加</li>
+ * </ul>
+ */
+@DisplayName("堆外缓存单元测试")
+public class OffHeapCacheClientUTest extends UnitTestBase {
+
+    private static final int SLAB_SIZE = 4096;
+
+    @Test
+    @DisplayName("should_RoundTrip_When_ValuesSpanSizeClasses")
+    void should_RoundTrip_When_ValuesSpanSizeClasses() {
+        try (OffHeapCacheClientImpl cache = new OffHeapCacheClientImpl(16 * SLAB_SIZE, SLAB_SIZE, 64,
+                Duration.ofMinutes(5))) {
+            String small = "x";
+            String medium = "m".repeat(1000);
+            byte[] large = new byte[3000];
+            large[2999] = 7;
+
+            cache.put("V:small", small);
+            cache.put("V:medium", medium);
+            cache.put("V:large", large);
+            cache.put("V:oversized", new byte[SLAB_SIZE + 1]);
+
+            assertThat(cache.<String>get("V:small")).isEqualTo(small);
+            assertThat(cache.<String>get("V:medium")).isEqualTo(medium);
+            assertThat(cache.<byte[]>get("V:large")).isEqualTo(large);
+            // 超过 slab 大小的值无法存放
+            assertThat(cache.hasKey("V:oversized")).isFalse();
+            assertThat(cache.<byte[]>get("V:oversized")).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("should_EvictUnreferencedEntries_When_CapacityFull")
+    void should_EvictUnreferencedEntries_When_CapacityFull() {
+        // 只有一个 slab：1024 等级有 4 个 chunk
+        try (OffHeapCacheClientImpl cache = new OffHeapCacheClientImpl(SLAB_SIZE, SLAB_SIZE, 1024,
+                Duration.ofMinutes(5))) {
+            IntStream.range(0, 4).forEach(i -> cache.put("E:" + i, new byte[900]));
+
+            // 全部刚写入（已访问），CLOCK 转一圈清除访问位后淘汰第一个
+            cache.put("E:4", new byte[900]);
+            assertThat(cache.hasKey("E:0")).isFalse();
+
+            // 访问过的条目保留，指针之后第一个未访问的条目被淘汰
+            assertThat(cache.<byte[]>get("E:1")).hasSize(900);
+            cache.put("E:5", new byte[900]);
+            assertThat(cache.hasKey("E:1")).isTrue();
+            assertThat(cache.hasKey("E:2")).isFalse();
+            assertThat(cache.hasKey("E:3")).isTrue();
+            assertThat(cache.hasKey("E:5")).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("should_NotReturnStaleValue_When_ChunkReused")
+    void should_NotReturnStaleValue_When_ChunkReused() {
+        try (OffHeapCacheClientImpl cache = new OffHeapCacheClientImpl(SLAB_SIZE, SLAB_SIZE, 1024,
+                Duration.ofMinutes(5))) {
+            cache.put("G:a", "a".repeat(900));
+            cache.delete("G:a");
+            // 释放的 chunk 代数递增后被 b 复用
+            cache.put("G:b", "b".repeat(900));
+
+            assertThat(cache.<String>get("G:a")).isNull();
+            assertThat(cache.<String>get("G:b")).isEqualTo("b".repeat(900));
+
+            // 覆盖写入后旧 chunk 被释放，读到的是新值
+            cache.put("G:b", "c".repeat(900));
+            assertThat(cache.<String>get("G:b")).isEqualTo("c".repeat(900));
+        }
+    }
+
+    @Test
+    @DisplayName("should_FallBackToHeap_When_OffHeapCapacityExhausted")
+    void should_FallBackToHeap_When_OffHeapCapacityExhausted() {
+        try (OffHeapCacheClientImpl offHeap = new OffHeapCacheClientImpl(SLAB_SIZE, SLAB_SIZE, 1024,
+                Duration.ofMinutes(5));
+             TieredCacheClientImpl tiered = new TieredCacheClientImpl(
+                     new CaffeineCacheClientImpl(16, 100L, Duration.ofMinutes(5)), offHeap, 512,
+                     Duration.ofMinutes(5))) {
+            // 唯一的 slab 被 1024 等级占用，3000 字节的值所属等级没有 slab
+            tiered.put("F:small", new byte[900]);
+            tiered.put("F:big", new byte[3000]);
+
+            assertThat(offHeap.hasKey("F:small")).isTrue();
+            assertThat(offHeap.hasKey("F:big")).isFalse();
+            assertThat(tiered.<byte[]>get("F:big")).hasSize(3000);
+        }
+    }
+
+    @Test
+    @DisplayName("should_EncodeOnce_When_HeapTierSharesCodec")
+    void should_EncodeOnce_When_HeapTierSharesCodec() {
+        AtomicInteger encodes = new AtomicInteger();
+        CacheCodec codec = new KryoCacheCodec() {
+
+            @Override
+            public byte[] encode(Object value) {
+                encodes.incrementAndGet();
+                return super.encode(value);
+            }
+
+        };
+        try (TieredCacheClientImpl tiered = new TieredCacheClientImpl(
+                new CaffeineCacheClientImpl(16, 100L, null, Map.of(), null, codec, Duration.ofMinutes(5)),
+                new OffHeapCacheClientImpl(SLAB_SIZE, SLAB_SIZE, 1024, codec, Duration.ofMinutes(5)), 512,
+                Duration.ofMinutes(5))) {
+            tiered.put("C:small", new ArrayList<>(List.of(1, 2, 3)));
+            tiered.put("C:large", new ArrayList<>(List.of("l".repeat(900))));
+
+            assertThat(encodes).hasValue(2);
+            assertThat(tiered.<List<Integer>>get("C:small")).containsExactly(1, 2, 3);
+            assertThat(tiered.<List<String>>get("C:large")).containsExactly("l".repeat(900));
+        }
+    }
+
+    @Test
+    @DisplayName("should_KeepLatestElements_When_AppendWithMaxSize")
+    void should_KeepLatestElements_When_AppendWithMaxSize() {
+        try (OffHeapCacheClientImpl cache = new OffHeapCacheClientImpl(16 * SLAB_SIZE, SLAB_SIZE, 64,
+                Duration.ofMinutes(5))) {
+            IntStream.range(0, 5).forEach(i -> cache.append("L:1", i, 3));
+
+            assertThat(cache.<Integer>getList("L:1")).containsExactly(2, 3, 4);
+            assertThat(cache.<Integer>getList("L:1", -2, -1)).containsExactly(3, 4);
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.file;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.smm.archetype.domain.platform.file.FileBusiness;
+import org.smm.archetype.domain.platform.file.FileBusiness.Usage;
+import org.smm.archetype.domain.platform.file.FileMetadata;
+import org.smm.archetype.domain.platform.file.FileRepository;
+import org.smm.archetype.domain.platform.file.FileUploaded;
+import org.smm.archetype.domain.shared.client.OssClient;
+import org.smm.archetype.domain.shared.event.DomainEventPublisher;
+import org.smm.archetype.domain.shared.event.Event;
+import org.smm.archetype.domain.shared.event.Type;
+import org.smm.archetype.infrastructure.platform.file.FileDomainServiceImpl;
+import org.smm.archetype.infrastructure.platform.file.ImageDerivativeGenerator;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 衍生文件单元测试
+ *
+ * <p>验证图片等比缩小且不放大、首次请求生成后复用，以及上传后发布事件但衍生文件本身不发布
+ */
+@DisplayName("衍生文件单元测试")
+public class FileDerivativeUTest {
+
+    private final OssClient ossClient = mock(OssClient.class);
+
+    private final FileRepository fileRepository = mock(FileRepository.class);
+
+    private final DomainEventPublisher eventPublisher = mock(DomainEventPublisher.class);
+
+    private final FileDomainServiceImpl service = new FileDomainServiceImpl(ossClient, fileRepository);
+
+    private ImageDerivativeGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        generator = new ImageDerivativeGenerator(2, Map.of(Usage.THUMBNAIL, 64, Usage.PREVIEW, 1024), 1024 * 1024);
+        service.enableDerivatives(generator, 100, Duration.ofMinutes(1));
+        service.setEventPublisher(eventPublisher);
+    }
+
+    @AfterEach
+    void tearDown() {
+        generator.close();
+    }
+
+    @Test
+    @DisplayName("should_ScaleDownWithoutUpscaling_When_GeneratingImage")
+    void should_ScaleDownWithoutUpscaling_When_GeneratingImage() throws Exception {
+        byte[] source = png(400, 200);
+
+        ImageDerivativeGenerator.Derivative thumbnail =
+                generator.generate(() -> new ByteArrayInputStream(source), Usage.THUMBNAIL);
+        ImageDerivativeGenerator.Derivative preview =
+                generator.generate(() -> new ByteArrayInputStream(source), Usage.PREVIEW);
+
+        BufferedImage thumbnailImage = ImageIO.read(new ByteArrayInputStream(thumbnail.content()));
+        BufferedImage previewImage = ImageIO.read(new ByteArrayInputStream(preview.content()));
+        assertThat(thumbnail.contentType()).isEqualTo("image/png");
+        assertThat(thumbnailImage.getWidth()).isEqualTo(64);
+        assertThat(thumbnailImage.getHeight()).isEqualTo(32);
+        assertThat(previewImage.getWidth()).isEqualTo(400);
+        assertThat(generator.supports("text/plain", 10L, Usage.THUMBNAIL)).isFalse();
+        assertThat(generator.supports("image/png", 2L * 1024 * 1024, Usage.THUMBNAIL)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should_GenerateOnceAndReuse_When_DerivativeRequestedRepeatedly")
+    void should_GenerateOnceAndReuse_When_DerivativeRequestedRepeatedly() throws Exception {
+        byte[] source = png(300, 300);
+        FileMetadata original = FileMetadata.builder()
+                                        .setFilePath("ab/cd/source.png")
+                                        .setMd5("source")
+                                        .setContentType("image/png")
+                                        .setFileSize((long) source.length)
+                                        .build();
+        FileMetadata stored = FileMetadata.builder().setFilePath("ef/gh/thumbnail.png").setMd5("thumbnail").build();
+        when(fileRepository.findFileMetaByFileId("1")).thenReturn(Optional.of(original));
+        when(fileRepository.findByBusinessIdAndTypeAndUsage("1", FileBusiness.Type.FILE, Usage.THUMBNAIL))
+                .thenReturn(List.of())
+                .thenReturn(List.of(FileBusiness.builder().setFileMetadata(stored).build()));
+        when(ossClient.download("ab/cd/source.png")).thenAnswer(invocation -> new ByteArrayInputStream(source));
+        when(ossClient.uploadContent(any(), anyString(), anyString(), anyLong()))
+                .thenReturn(FileMetadata.builder().setFilePath("ef/gh/thumbnail.png").setMd5("thumbnail").build());
+
+        Optional<FileMetadata> first = service.getDerivative("1", Usage.THUMBNAIL);
+        Optional<FileMetadata> second = service.getDerivative("1", Usage.THUMBNAIL);
+
+        assertThat(first).containsSame(stored);
+        assertThat(second).containsSame(stored);
+        ArgumentCaptor<InputStream> content = ArgumentCaptor.forClass(InputStream.class);
+        verify(ossClient, times(1)).uploadContent(content.capture(), eq("source-thumbnail.png"), eq("image/png"),
+                anyLong());
+        assertThat(ImageIO.read(content.getValue()).getWidth()).isEqualTo(64);
+        // 衍生文件不再发布上传事件
+        verify(eventPublisher, never()).publish(any());
+    }
+
+    @Test
+    @DisplayName("should_PublishUploadedEvent_When_FileUploaded")
+    @SuppressWarnings("unchecked")
+    void should_PublishUploadedEvent_When_FileUploaded() {
+        when(ossClient.uploadContent(any(), anyString(), anyString(), anyLong())).thenReturn(
+                FileMetadata.builder().setFilePath("ab/cd/photo.jpg").setMd5("photo").setFileSize(3L).build());
+        FileMetadata metadata = FileMetadata.builder()
+                                        .setFileName("photo.jpg")
+                                        .setContentType("image/jpeg")
+                                        .setFileSize(3L)
+                                        .build();
+        FileBusiness business = FileBusiness.builder()
+                                        .setBusinessId("product-1")
+                                        .setType(FileBusiness.Type.PRODUCT)
+                                        .setUsage(Usage.PRODUCT_IMAGE)
+                                        .build();
+
+        service.uploadFile(new ByteArrayInputStream(new byte[3]), metadata, business);
+
+        ArgumentCaptor<Event<?>> event = ArgumentCaptor.forClass(Event.class);
+        verify(eventPublisher).publish(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(Type.FILE_UPLOADED);
+        assertThat(event.getValue().getPayload()).isEqualTo(new FileUploaded("ab/cd/photo.jpg", "image/jpeg", 3L));
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", output);
+        return output.toByteArray();
+    }
+
+}
@@ -0,0 +1,112 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.file;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smm.archetype.domain.platform.file.FileBusiness;
+import org.smm.archetype.domain.platform.file.FileMetadata;
+import org.smm.archetype.domain.platform.file.FileRepository;
+import org.smm.archetype.domain.platform.file.FileUpload;
+import org.smm.archetype.domain.shared.client.OssClient;
+import org.smm.archetype.infrastructure.platform.file.FileDomainServiceImpl;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 批量上传单元测试
+ *
+ * <p>验证并发上传受并发数限制、全部成功后一次批量保存，以及失败时不保存业务关联
+ */
+@DisplayName("批量上传单元测试")
+public class FileDomainServiceBulkUTest {
+
+    private static final int PARALLELISM = 3;
+
+    private final OssClient ossClient = mock(OssClient.class);
+
+    private final FileRepository fileRepository = mock(FileRepository.class);
+
+    private final FileDomainServiceImpl service = new FileDomainServiceImpl(ossClient, fileRepository);
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @Test
+    @DisplayName("should_UploadConcurrentlyAndSaveOnce_When_UploadingInBatch")
+    void should_UploadConcurrentlyAndSaveOnce_When_UploadingInBatch() {
+        service.setBulkParallelism(PARALLELISM);
+        when(ossClient.uploadContent(any(), anyString(), anyString(), anyLong())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return stored(invocation.getArgument(1));
+        });
+        when(ossClient.generateUrl(anyString(), eq(0L))).thenAnswer(invocation -> "url/" + invocation.getArgument(0));
+        List<FileUpload> uploads = IntStream.range(0, 12).mapToObj(FileDomainServiceBulkUTest::upload).toList();
+
+        List<FileBusiness> saved = service.uploadFiles(uploads);
+
+        assertThat(maxRunning.get()).isBetween(2, PARALLELISM);
+        assertThat(saved).hasSize(12);
+        assertThat(saved.get(5).getFileMetadata().getFilePath()).isEqualTo("path/file-5.txt");
+        assertThat(saved.get(5).getFileMetadata().getFileUrl()).isEqualTo("url/path/file-5.txt");
+        // 校验和与大小取自存储端
+        assertThat(saved.get(5).getFileMetadata().getMd5()).isEqualTo("md5-file-5.txt");
+        assertThat(saved.get(5).getFileMetadata().getFileSize()).isEqualTo(1L);
+        verify(fileRepository, times(1)).saveAll(saved);
+    }
+
+    @Test
+    @DisplayName("should_NotSaveBusinessRows_When_AnyUploadFails")
+    void should_NotSaveBusinessRows_When_AnyUploadFails() {
+        when(ossClient.uploadContent(any(), anyString(), anyString(), anyLong())).thenAnswer(invocation -> {
+            if ("file-2.txt".equals(invocation.getArgument(1))) {
+                throw new IllegalStateException("storage unavailable");
+            }
+            return stored(invocation.getArgument(1));
+        });
+        List<FileUpload> uploads = IntStream.range(0, 4).mapToObj(FileDomainServiceBulkUTest::upload).toList();
+
+        assertThatThrownBy(() -> service.uploadFiles(uploads))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("storage unavailable");
+        verify(fileRepository, never()).saveAll(any());
+    }
+
+    private static FileMetadata stored(String fileName) {
+        return FileMetadata.builder()
+                       .setFilePath("path/" + fileName)
+                       .setMd5("md5-" + fileName)
+                       .setFileSize(1L)
+                       .build();
+    }
+
+    private static FileUpload upload(int index) {
+        FileMetadata metadata = FileMetadata.builder()
+                                        .setFileName("file-" + index + ".txt")
+                                        .setContentType("text/plain")
+                                        .build();
+        FileBusiness business = FileBusiness.builder()
+                                        .setBusinessId("order-1")
+                                        .setType(FileBusiness.Type.ORDER)
+                                        .setUsage(FileBusiness.Usage.ATTACHMENT)
+                                        .build();
+        return new FileUpload(new ByteArrayInputStream(new byte[]{(byte) index}), metadata, business);
+    }
+
+}
@@ -0,0 +1,153 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.file;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.smm.archetype.domain.platform.file.FileBusiness;
+import org.smm.archetype.domain.platform.file.FileMetadata;
+import org.smm.archetype.infrastructure.platform.file.FileBusinessConverter;
+import org.smm.archetype.infrastructure.platform.file.FileMetaConverter;
+import org.smm.archetype.infrastructure.platform.file.persistence.FileRepositoryImpl;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileBusinessDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileMetadataDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileBusinessMapper;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 业务文件批量加载单元测试
+ *
+ * <p>验证列表查询的元数据通过一次 IN 查询加载，查询次数与文件数量无关；批量保存时新记录由数据库自增生成ID，单个和批量保存缺少 MD5 时不写入
+ */
+@DisplayName("业务文件批量加载单元测试")
+public class FileRepositoryBatchLoadUTest {
+
+    private final FileBusinessMapper businessMapper = mock(FileBusinessMapper.class);
+
+    private final FileMetadataMapper metadataMapper = mock(FileMetadataMapper.class);
+
+    private final FileRepositoryImpl repository = new FileRepositoryImpl(businessMapper, metadataMapper,
+            Mappers.getMapper(FileBusinessConverter.class), Mappers.getMapper(FileMetaConverter.class));
+
+    @Test
+    @DisplayName("should_LoadMetadataInOneQuery_When_ListingAttachments")
+    void should_LoadMetadataInOneQuery_When_ListingAttachments() {
+        // 两个附件共用同一内容，一个附件的元数据缺失
+        when(businessMapper.selectList(any())).thenReturn(List.of(
+                business(1L, "order-1", "10", 1), business(2L, "order-1", "10", 2), business(3L, "order-1", "11", 3)));
+        when(metadataMapper.selectList(any())).thenReturn(List.of(metadata(10L)));
+
+        List<FileBusiness> files = repository.findByBusinessIdAndTypeAndUsage("order-1",
+                FileBusiness.Type.ORDER, FileBusiness.Usage.ATTACHMENT);
+
+        assertThat(files).extracting(FileBusiness::getId).containsExactly(1L, 2L);
+        assertThat(files).allSatisfy(file -> assertThat(file.getFileMetadata().getMd5()).isEqualTo("md5-10"));
+        verify(metadataMapper, times(1)).selectList(any());
+        verify(metadataMapper, never()).selectOne(any());
+    }
+
+    @Test
+    @DisplayName("should_GroupByBusinessIdInRequestOrder_When_ListingInBatch")
+    void should_GroupByBusinessIdInRequestOrder_When_ListingInBatch() {
+        when(businessMapper.selectList(any())).thenReturn(List.of(
+                business(1L, "order-1", "10", 1), business(2L, "order-2", "11", 1), business(3L, "order-2", "10", 2)));
+        when(metadataMapper.selectList(any())).thenReturn(List.of(metadata(10L), metadata(11L)));
+
+        Map<String, List<FileBusiness>> files = repository.findByBusinessIdsAndTypeAndUsage(
+                List.of("order-3", "order-2", "order-1"), FileBusiness.Type.ORDER, FileBusiness.Usage.ATTACHMENT);
+
+        assertThat(files.keySet()).containsExactly("order-3", "order-2", "order-1");
+        assertThat(files.get("order-3")).isEmpty();
+        assertThat(files.get("order-2")).extracting(FileBusiness::getId).containsExactly(2L, 3L);
+        assertThat(files.get("order-1")).extracting(FileBusiness::getId).containsExactly(1L);
+        verify(businessMapper, times(1)).selectList(any());
+        verify(metadataMapper, times(1)).selectList(any());
+    }
+
+    @Test
+    @DisplayName("should_InsertNewRowsWithGeneratedIds_When_SavingInBatch")
+    void should_InsertNewRowsWithGeneratedIds_When_SavingInBatch() {
+        when(metadataMapper.selectList(any())).thenReturn(List.of(metadata(10L)));
+        // 模拟驱动按行顺序回填自增ID
+        List<Long> inserted = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<FileBusinessDO> entities = invocation.getArgument(0);
+            entities.forEach(entity -> {
+                entity.setId(100L + inserted.size());
+                inserted.add(entity.getId());
+            });
+            return entities.size();
+        }).when(businessMapper).insertBatch(anyList());
+        repository.saveAll(List.of(attachment(null), attachment(7L), attachment(null)));
+
+        assertThat(inserted).containsExactly(100L, 101L);
+        verify(businessMapper, times(1)).insertBatch(anyList());
+        verify(businessMapper, times(1)).upsertBatchById(
+                argThat(rows -> rows.size() == 1 && rows.getFirst().getId() == 7L));
+    }
+
+    @Test
+    @DisplayName("should_RejectBeforeWriting_When_Md5Missing")
+    void should_RejectBeforeWriting_When_Md5Missing() {
+        FileBusiness missingMd5 = FileBusiness.builder()
+                                          .setBusinessId("order-1")
+                                          .setType(FileBusiness.Type.ORDER)
+                                          .setUsage(FileBusiness.Usage.ATTACHMENT)
+                                          .setFileMetadata(FileMetadata.builder().setFilePath("ab/cd/x").build())
+                                          .build();
+
+        assertThatThrownBy(() -> repository.saveAll(List.of(attachment(null), missingMd5)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(metadataMapper, never()).upsertBatchByMd5(anyList());
+        verify(businessMapper, never()).insertBatch(anyList());
+        // 单个保存同样在写入前拒绝
+        assertThatThrownBy(() -> repository.save(missingMd5)).isInstanceOf(IllegalArgumentException.class);
+        verify(metadataMapper, never()).upsertByMd5(any());
+    }
+
+    private static FileBusiness attachment(Long id) {
+        return FileBusiness.builder()
+                       .setId(id)
+                       .setBusinessId("order-1")
+                       .setType(FileBusiness.Type.ORDER)
+                       .setUsage(FileBusiness.Usage.ATTACHMENT)
+                       .setFileMetadata(FileMetadata.builder().setMd5("md5-10").build())
+                       .build();
+    }
+
+    private static FileBusinessDO business(Long id, String businessId, String fileMetaId, int sort) {
+        FileBusinessDO businessDO = new FileBusinessDO();
+        businessDO.setId(id);
+        businessDO.setBusinessId(businessId);
+        businessDO.setFileMetaId(fileMetaId);
+        businessDO.setName("file-" + id);
+        businessDO.setType(FileBusiness.Type.ORDER.name());
+        businessDO.setUsage(FileBusiness.Usage.ATTACHMENT.name());
+        businessDO.setSort(sort);
+        return businessDO;
+    }
+
+    private static FileMetadataDO metadata(Long id) {
+        FileMetadataDO metadataDO = new FileMetadataDO();
+        metadataDO.setId(id);
+        metadataDO.setMd5("md5-" + id);
+        metadataDO.setPath("ab/cd/md5-" + id);
+        return metadataDO;
+    }
+
+}
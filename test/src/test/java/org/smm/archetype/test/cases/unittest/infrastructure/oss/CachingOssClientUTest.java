@@ -0,0 +1,124 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.oss;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.smm.archetype.domain.shared.client.OssClient;
+import org.smm.archetype.infrastructure.shared.client.oss.CachingOssClientImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 对象存储读缓存单元测试
+ *
+ * <p>验证并发未命中只读一次远程、命中时范围读取正确、MD5 不一致时不缓存，以及超过单对象上限时直接读远程
+ */
+@DisplayName("对象存储读缓存单元测试")
+public class CachingOssClientUTest {
+
+    private static final byte[] CONTENT = "cached object content".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path cacheDir;
+
+    private final OssClient delegate = mock(OssClient.class);
+
+    private CachingOssClientImpl client;
+
+    private String path;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        client = new CachingOssClientImpl(delegate, cacheDir, 1024 * 1024, 1024, Duration.ofMinutes(5));
+        String md5 = HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(CONTENT));
+        path = md5.substring(0, 2) + "/" + md5.substring(2, 4) + "/" + md5;
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.close();
+    }
+
+    @Test
+    @DisplayName("should_FetchOnce_When_ConcurrentMissesForSameObject")
+    void should_FetchOnce_When_ConcurrentMissesForSameObject() throws Exception {
+        when(delegate.download(path)).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return new ByteArrayInputStream(CONTENT);
+        });
+
+        List<Future<byte[]>> reads = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 8; i++) {
+                reads.add(executor.submit(() -> {
+                    try (InputStream inputStream = client.download(path)) {
+                        return inputStream.readAllBytes();
+                    }
+                }));
+            }
+        }
+
+        for (Future<byte[]> read : reads) {
+            assertThat(read.get()).isEqualTo(CONTENT);
+        }
+        ByteArrayOutputStream range = new ByteArrayOutputStream();
+        long transferred = client.transferTo(path, 7, 6, Channels.newChannel(range));
+        assertThat(transferred).isEqualTo(6);
+        assertThat(range.toString(StandardCharsets.UTF_8)).isEqualTo("object");
+        verify(delegate, times(1)).download(path);
+    }
+
+    @Test
+    @DisplayName("should_NotCache_When_ContentDoesNotMatchMd5")
+    void should_NotCache_When_ContentDoesNotMatchMd5() {
+        when(delegate.download(path)).thenAnswer(invocation -> new ByteArrayInputStream(new byte[]{1, 2, 3}));
+
+        assertThatThrownBy(() -> client.download(path)).hasMessageContaining(path);
+        assertThatThrownBy(() -> client.download(path)).hasMessageContaining(path);
+
+        verify(delegate, times(2)).download(path);
+        assertThat(cacheDir).isEmptyDirectory();
+    }
+
+    @Test
+    @DisplayName("should_ReadRemote_When_ObjectExceedsSizeLimit")
+    void should_ReadRemote_When_ObjectExceedsSizeLimit() throws Exception {
+        byte[] large = new byte[2048];
+        when(delegate.download(path)).thenAnswer(invocation -> new ByteArrayInputStream(large));
+        when(delegate.download(eq(path), anyLong(), anyLong())).thenAnswer(invocation -> new ByteArrayInputStream(large));
+
+        try (InputStream first = client.download(path); InputStream second = client.download(path)) {
+            assertThat(first.readAllBytes()).hasSize(2048);
+            assertThat(second.readAllBytes()).hasSize(2048);
+        }
+
+        // 第一次尝试填充后记住超限，之后直接读远程
+        verify(delegate, times(1)).download(path);
+        verify(delegate, times(2)).download(eq(path), anyLong(), anyLong());
+    }
+
+}
@@ -0,0 +1,49 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.oss;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.smm.archetype.infrastructure.shared.client.oss.ChecksumInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.zip.CRC32C;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 上传校验和单元测试
+ *
+ * <p>验证同步计算和重叠计算得到相同的 MD5 / CRC32C，且关闭流后仍可取结果
+ */
+@DisplayName("上传校验和单元测试")
+public class ChecksumInputStreamUTest {
+
+    @ParameterizedTest(name = "overlapped={0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("should_MatchReferenceChecksums_When_StreamFullyRead")
+    void should_MatchReferenceChecksums_When_StreamFullyRead(boolean overlapped) throws Exception {
+        byte[] content = new byte[3 * 1024 * 1024 + 17];
+        new Random(7).nextBytes(content);
+
+        ChecksumInputStream stream = new ChecksumInputStream(new ByteArrayInputStream(content), true, overlapped);
+        try (stream) {
+            // 单字节读、跳过和批量读混合，覆盖所有读取路径
+            stream.read();
+            stream.skip(1000);
+            stream.transferTo(OutputStream.nullOutputStream());
+        }
+        ChecksumInputStream.Checksums checksums = stream.checksums();
+
+        CRC32C crc32c = new CRC32C();
+        crc32c.update(content);
+        assertThat(checksums.md5())
+                .isEqualTo(HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content)));
+        assertThat(checksums.crc32c()).isEqualTo(HexFormat.of().toHexDigits((int) crc32c.getValue()));
+        assertThat(stream.checksums()).isSameAs(checksums);
+    }
+
+}
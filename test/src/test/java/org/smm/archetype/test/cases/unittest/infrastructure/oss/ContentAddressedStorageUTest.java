@@ -0,0 +1,169 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.oss;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.smm.archetype.infrastructure.shared.client.oss.LocalOssClientImpl;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileMetadataDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 内容寻址存储单元测试
+ *
+ * <p>验证按 MD5 分层存储、重复上传跳过写入、删除只释放引用，以及孤立对象在事务中回收
+ */
+@DisplayName("内容寻址存储单元测试")
+public class ContentAddressedStorageUTest {
+
+    private static final byte[] CONTENT = "hello content addressed storage".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path tempDir;
+
+    private final FileMetadataMapper metadataMapper = mock(FileMetadataMapper.class);
+
+    @Test
+    @DisplayName("should_SkipWrite_When_ContentAlreadyStored")
+    void should_SkipWrite_When_ContentAlreadyStored() throws Exception {
+        LocalOssClientImpl client = new LocalOssClientImpl(tempDir.toString(), true, metadataMapper);
+
+        String first = client.upload(new ByteArrayInputStream(CONTENT), "a.txt", "text/plain");
+
+        String md5 = first.substring(first.lastIndexOf('/') + 1);
+        assertThat(md5).matches("[0-9a-f]{32}");
+        assertThat(first).isEqualTo(md5.substring(0, 2) + "/" + md5.substring(2, 4) + "/" + md5);
+        assertThat(tempDir.resolve(first)).hasBinaryContent(CONTENT);
+        verify(metadataMapper).insert(any(FileMetadataDO.class));
+
+        FileMetadataDO existing = new FileMetadataDO();
+        existing.setId(1L);
+        existing.setPath(first);
+        when(metadataMapper.selectOne(any())).thenReturn(existing);
+        when(metadataMapper.touch(1L)).thenReturn(1);
+        Files.setLastModifiedTime(tempDir.resolve(first), FileTime.fromMillis(0));
+
+        String second = client.upload(new ByteArrayInputStream(CONTENT), "b.txt", "text/plain");
+
+        assertThat(second).isEqualTo(first);
+        // 没有再次写入对象，也没有再次插入元数据
+        assertThat(Files.getLastModifiedTime(tempDir.resolve(first)).toMillis()).isZero();
+        verify(metadataMapper, times(1)).insert(any(FileMetadataDO.class));
+        try (var staged = Files.list(tempDir.resolve(".staging"))) {
+            assertThat(staged).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("should_DeleteOnlyUnreferencedBlobs_When_CollectingGarbage")
+    void should_DeleteOnlyUnreferencedBlobs_When_CollectingGarbage() throws Exception {
+        LocalOssClientImpl client = new LocalOssClientImpl(tempDir.toString(), true, metadataMapper);
+        String orphanPath = client.upload(new ByteArrayInputStream(CONTENT), "orphan.txt", "text/plain");
+        String racedPath = client.upload(new ByteArrayInputStream("raced".getBytes(StandardCharsets.UTF_8)),
+                "raced.txt", "text/plain");
+
+        FileMetadataDO orphan = metadata(1L, orphanPath);
+        FileMetadataDO raced = metadata(2L, racedPath);
+        when(metadataMapper.selectOrphans(anyLong(), any(), anyInt())).thenReturn(List.of(orphan, raced));
+        when(metadataMapper.deleteOrphan(eq(1L), any())).thenReturn(1);
+        // 查询后被重新引用：条件删除失败，对象保留
+        when(metadataMapper.deleteOrphan(eq(2L), any())).thenReturn(0);
+
+        int collected = client.collectGarbage(Duration.ofHours(1), 10);
+
+        assertThat(collected).isEqualTo(1);
+        assertThat(tempDir.resolve(orphanPath)).doesNotExist();
+        assertThat(tempDir.resolve(racedPath)).exists();
+    }
+
+    @Test
+    @DisplayName("should_KeepSharedObject_When_DeletedAndReuploaded")
+    void should_KeepSharedObject_When_DeletedAndReuploaded() throws Exception {
+        LocalOssClientImpl client = new LocalOssClientImpl(tempDir.toString(), true, metadataMapper);
+        String path = client.upload(new ByteArrayInputStream(CONTENT), "a.txt", "text/plain");
+        FileMetadataDO existing = metadata(1L, path);
+        when(metadataMapper.selectOne(any())).thenReturn(existing);
+        when(metadataMapper.touch(1L)).thenReturn(1);
+
+        // 删除只释放引用：对象和元数据都保留，可能仍被其他业务文件引用
+        client.delete(path);
+        assertThat(tempDir.resolve(path)).hasBinaryContent(CONTENT);
+        verify(metadataMapper, never()).deleteById(any(Long.class));
+
+        String reuploaded = client.upload(new ByteArrayInputStream(CONTENT), "b.txt", "text/plain");
+
+        assertThat(reuploaded).isEqualTo(path);
+        try (InputStream inputStream = client.download(reuploaded)) {
+            assertThat(inputStream.readAllBytes()).isEqualTo(CONTENT);
+        }
+        verify(metadataMapper, times(1)).insert(any(FileMetadataDO.class));
+    }
+
+    @Test
+    @DisplayName("should_ReviveMetadata_When_Md5HeldByDeletedRow")
+    void should_ReviveMetadata_When_Md5HeldByDeletedRow() throws Exception {
+        LocalOssClientImpl client = new LocalOssClientImpl(tempDir.toString(), true, metadataMapper);
+        // 旧版本逻辑删除的行不可复用，但仍占用 md5 唯一键
+        when(metadataMapper.insert(any(FileMetadataDO.class))).thenThrow(new DuplicateKeyException("uk_file_metadata_md5"));
+
+        String path = client.upload(new ByteArrayInputStream(CONTENT), "a.txt", "text/plain");
+
+        verify(metadataMapper).revive(path.substring(path.lastIndexOf('/') + 1), path);
+        assertThat(tempDir.resolve(path)).hasBinaryContent(CONTENT);
+    }
+
+    @Test
+    @DisplayName("should_RollBackMetadataDelete_When_ObjectDeleteFails")
+    void should_RollBackMetadataDelete_When_ObjectDeleteFails() throws Exception {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        LocalOssClientImpl client = new LocalOssClientImpl(tempDir.toString(), true, metadataMapper);
+        client.setTransactionTemplate(new TransactionTemplate(transactionManager));
+        String path = client.upload(new ByteArrayInputStream(CONTENT), "a.txt", "text/plain");
+        // 非空目录无法删除，模拟存储端删除失败
+        Path blocked = Files.createDirectories(tempDir.resolve("00/00/blocked"));
+        Files.writeString(blocked.resolve("child"), "x");
+
+        when(metadataMapper.selectOrphans(anyLong(), any(), anyInt()))
+                .thenReturn(List.of(metadata(1L, path), metadata(2L, "00/00/blocked")));
+        when(metadataMapper.deleteOrphan(any(), any())).thenReturn(1);
+
+        int collected = client.collectGarbage(Duration.ofHours(1), 10);
+
+        // 每个孤立对象一个事务：删除成功的提交，失败的回滚，元数据保留到下次回收
+        assertThat(collected).isEqualTo(1);
+        assertThat(tempDir.resolve(path)).doesNotExist();
+        verify(transactionManager, times(1)).commit(any());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    private static FileMetadataDO metadata(Long id, String path) {
+        FileMetadataDO metadata = new FileMetadataDO();
+        metadata.setId(id);
+        metadata.setPath(path);
+        metadata.setMd5(path.substring(path.lastIndexOf('/') + 1));
+        return metadata;
+    }
+
+}
@@ -0,0 +1,152 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.oss;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.smm.archetype.domain.platform.file.FileMetadata;
+import org.smm.archetype.domain.shared.base.PageResult;
+import org.smm.archetype.domain.shared.client.dto.FileSearchRequest;
+import org.smm.archetype.infrastructure.shared.client.oss.LocalOssClientImpl;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileBusinessDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileMetadataDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileBusinessMapper;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 文件搜索单元测试
+ *
+ * <p>验证搜索按页返回、前缀模式以路径为游标、中缀模式以ID为游标，以及旧接口逐页读取；
+ * 配置业务文件 Mapper 后按业务文件名称搜索，前缀模式以 "id:name" 为游标
+ */
+@DisplayName("文件搜索单元测试")
+public class FileSearchUTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final FileMetadataMapper metadataMapper = mock(FileMetadataMapper.class);
+
+    private LocalOssClientImpl client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        client = new LocalOssClientImpl(tempDir.toString(), true, metadataMapper);
+    }
+
+    @Test
+    @DisplayName("should_ReturnPathCursor_When_SearchingByPrefix")
+    void should_ReturnPathCursor_When_SearchingByPrefix() {
+        // 多查的一条表示有下一页
+        when(metadataMapper.selectList(any())).thenReturn(List.of(
+                metadata(3L, "ab/cd/1"), metadata(1L, "ab/cd/2"), metadata(2L, "ab/cd/3")));
+
+        PageResult<FileMetadata> page = client.searchFiles(request("ab/cd/*", null));
+
+        assertThat(page.getRecords()).extracting(FileMetadata::getFilePath).containsExactly("ab/cd/1", "ab/cd/2");
+        assertThat(page.getLastId()).isEqualTo("ab/cd/2");
+    }
+
+    @Test
+    @DisplayName("should_ReturnIdCursor_When_SearchingByInfix")
+    void should_ReturnIdCursor_When_SearchingByInfix() {
+        when(metadataMapper.selectList(any()))
+                .thenReturn(List.of(metadata(7L, "ab/cd/1"), metadata(9L, "ef/cd/2"), metadata(11L, "gh/cd/3")))
+                .thenReturn(List.of(metadata(11L, "gh/cd/3")));
+
+        PageResult<FileMetadata> first = client.searchFiles(request("*cd*", null));
+        PageResult<FileMetadata> last = client.searchFiles(request("*cd*", first.getLastId()));
+
+        assertThat(first.getLastId()).isEqualTo("9");
+        assertThat(last.getRecords()).extracting(FileMetadata::getFilePath).containsExactly("gh/cd/3");
+        assertThat(last.getLastId()).isNull();
+    }
+
+    @Test
+    @DisplayName("should_ReadAllPages_When_UsingUnpagedSearch")
+    @SuppressWarnings("deprecation")
+    void should_ReadAllPages_When_UsingUnpagedSearch() {
+        List<FileMetadataDO> full = LongStream.rangeClosed(1, 1001)
+                                            .mapToObj(id -> metadata(id, "ab/cd/" + id))
+                                            .toList();
+        when(metadataMapper.selectList(any()))
+                .thenReturn(full)
+                .thenReturn(List.of(metadata(1002L, "ab/cd/1002")));
+
+        List<FileMetadata> files = client.searchFiles("*");
+
+        assertThat(files).hasSize(1001);
+        verify(metadataMapper, times(2)).selectList(any());
+    }
+
+    @Test
+    @DisplayName("should_MatchBusinessNames_When_BusinessMapperConfigured")
+    void should_MatchBusinessNames_When_BusinessMapperConfigured() {
+        FileBusinessMapper businessMapper = mock(FileBusinessMapper.class);
+        client.setBusinessMapper(businessMapper);
+        // 两个名称指向同一内容，每个业务文件一条结果
+        when(businessMapper.selectList(any())).thenReturn(List.of(
+                business(5L, "1", "report:a.pdf"), business(8L, "1", "report:b.pdf"), business(9L, "2", "report.txt")));
+        when(metadataMapper.selectList(any())).thenReturn(List.of(metadata(1L, "ab/cd/1")));
+
+        PageResult<FileMetadata> page = client.searchFiles(request("report*", null));
+
+        assertThat(page.getRecords()).extracting(FileMetadata::getFileName)
+                .containsExactly("report:a.pdf", "report:b.pdf");
+        assertThat(page.getRecords()).extracting(FileMetadata::getFilePath).containsOnly("ab/cd/1");
+        assertThat(page.getLastId()).isEqualTo("8:report:b.pdf");
+        verify(metadataMapper, times(1)).selectList(any());
+    }
+
+    @Test
+    @DisplayName("should_ContinueFromNameCursor_When_SearchingNextPage")
+    void should_ContinueFromNameCursor_When_SearchingNextPage() {
+        FileBusinessMapper businessMapper = mock(FileBusinessMapper.class);
+        client.setBusinessMapper(businessMapper);
+        when(businessMapper.selectList(any())).thenReturn(List.of(business(9L, "2", "report.txt")));
+        when(metadataMapper.selectList(any())).thenReturn(List.of(metadata(2L, "ab/cd/2")));
+
+        PageResult<FileMetadata> infix = client.searchFiles(request("*port*", "8"));
+        PageResult<FileMetadata> prefix = client.searchFiles(request("report*", "8:report:b.pdf"));
+
+        assertThat(infix.getRecords()).extracting(FileMetadata::getFileName).containsExactly("report.txt");
+        assertThat(infix.getLastId()).isNull();
+        assertThat(prefix.getRecords()).extracting(FileMetadata::getFileName).containsExactly("report.txt");
+        assertThat(prefix.getLastId()).isNull();
+    }
+
+    private static FileSearchRequest request(String pattern, String preLastId) {
+        return FileSearchRequest.builder()
+                       .setFileNamePattern(pattern)
+                       .setPreLastId(preLastId)
+                       .setPageSize(2L)
+                       .build();
+    }
+
+    private static FileMetadataDO metadata(Long id, String path) {
+        FileMetadataDO metadata = new FileMetadataDO();
+        metadata.setId(id);
+        metadata.setPath(path);
+        return metadata;
+    }
+
+    private static FileBusinessDO business(Long id, String fileMetaId, String name) {
+        FileBusinessDO business = new FileBusinessDO();
+        business.setId(id);
+        business.setFileMetaId(fileMetaId);
+        business.setName(name);
+        return business;
+    }
+
+}
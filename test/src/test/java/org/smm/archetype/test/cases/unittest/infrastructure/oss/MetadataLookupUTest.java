@@ -0,0 +1,104 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.oss;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.smm.archetype.domain.shared.exception.ClientException;
+import org.smm.archetype.infrastructure.shared.client.oss.LocalOssClientImpl;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileMetadataDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 文件元数据查询单元测试
+ *
+ * <p>验证下载前的元数据校验走缓存、回收后缓存失效，以及关闭校验后读取不访问数据库
+ */
+@DisplayName("文件元数据查询单元测试")
+public class MetadataLookupUTest {
+
+    private static final byte[] CONTENT = "metadata lookup".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path tempDir;
+
+    private final FileMetadataMapper metadataMapper = mock(FileMetadataMapper.class);
+
+    private LocalOssClientImpl client;
+
+    private String filePath;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        client = new LocalOssClientImpl(tempDir.toString(), true, metadataMapper);
+        filePath = client.upload(new ByteArrayInputStream(CONTENT), "a.txt", "text/plain");
+
+        FileMetadataDO metadata = new FileMetadataDO();
+        metadata.setId(1L);
+        when(metadataMapper.selectOne(any())).thenReturn(metadata);
+        clearInvocations(metadataMapper);
+    }
+
+    @Test
+    @DisplayName("should_QueryDatabaseOnce_When_MetadataCacheEnabled")
+    void should_QueryDatabaseOnce_When_MetadataCacheEnabled() throws Exception {
+        client.enableMetadataCache(100, Duration.ofMinutes(5));
+
+        for (int i = 0; i < 3; i++) {
+            try (InputStream inputStream = client.download(filePath)) {
+                assertThat(inputStream.readAllBytes()).isEqualTo(CONTENT);
+            }
+        }
+        verify(metadataMapper, times(1)).selectOne(any());
+
+        // 删除只释放引用，使用缓存的ID，不删除元数据和对象
+        client.delete(filePath);
+        verify(metadataMapper, never()).deleteById(any(Long.class));
+        assertThat(client.exists(filePath)).isTrue();
+        verify(metadataMapper, times(1)).selectOne(any());
+
+        // 回收孤立对象时失效条目，之后的读取重新查询数据库
+        FileMetadataDO orphan = new FileMetadataDO();
+        orphan.setId(1L);
+        orphan.setPath(filePath);
+        when(metadataMapper.selectOrphans(anyLong(), any(), anyInt())).thenReturn(List.of(orphan));
+        when(metadataMapper.deleteOrphan(eq(1L), any())).thenReturn(1);
+        client.collectGarbage(Duration.ofHours(1), 10);
+        when(metadataMapper.selectOne(any())).thenReturn(null);
+        assertThat(client.exists(filePath)).isFalse();
+        assertThatThrownBy(() -> client.download(filePath)).isInstanceOf(ClientException.class);
+        verify(metadataMapper, times(2)).selectOne(any());
+    }
+
+    @Test
+    @DisplayName("should_SkipMetadataQuery_When_ReadVerificationDisabled")
+    void should_SkipMetadataQuery_When_ReadVerificationDisabled() throws Exception {
+        client.setVerifyReads(false);
+
+        try (InputStream inputStream = client.download(filePath, 2, 4)) {
+            assertThat(inputStream.readAllBytes()).isEqualTo("tada".getBytes(StandardCharsets.UTF_8));
+        }
+        verify(metadataMapper, never()).selectOne(any());
+    }
+
+}
@@ -0,0 +1,159 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.oss;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.smm.archetype.domain.shared.exception.ClientException;
+import org.smm.archetype.infrastructure.shared.client.oss.LocalOssClientImpl;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileUploadPartDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileUploadSessionDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileUploadPartMapper;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileUploadSessionMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 分片上传单元测试
+ *
+ * <p>使用内存模拟的会话/分片表，验证乱序并行上传、分片校验、断点续传查询以及完成时组装
+ */
+@DisplayName("分片上传单元测试")
+public class MultipartUploadUTest {
+
+    private static final int PART_SIZE = 64 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private final Map<String, FileUploadSessionDO> sessions = new ConcurrentHashMap<>();
+
+    private final Map<Integer, FileUploadPartDO> parts = new ConcurrentSkipListMap<>();
+
+    private LocalOssClientImpl client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        FileUploadSessionMapper sessionMapper = mock(FileUploadSessionMapper.class);
+        doAnswer(invocation -> {
+            FileUploadSessionDO session = invocation.getArgument(0);
+            sessions.put(session.getUploadId(), session);
+            return 1;
+        }).when(sessionMapper).insert(any(FileUploadSessionDO.class));
+        when(sessionMapper.selectOne(any())).thenAnswer(invocation -> sessions.values().stream().findFirst().orElse(null));
+        when(sessionMapper.transition(anyString(), anyString(), anyString(), any())).thenAnswer(invocation -> {
+            FileUploadSessionDO session = sessions.get(invocation.<String>getArgument(0));
+            synchronized (session) {
+                if (!session.getStatus().equals(invocation.getArgument(1))) {
+                    return 0;
+                }
+                session.setStatus(invocation.getArgument(2));
+                session.setPath(invocation.getArgument(3));
+                return 1;
+            }
+        });
+
+        FileUploadPartMapper partMapper = mock(FileUploadPartMapper.class);
+        when(partMapper.upsertByPartNumber(any())).thenAnswer(invocation -> {
+            FileUploadPartDO part = invocation.getArgument(0);
+            parts.put(part.getPartNumber(), part);
+            return 1;
+        });
+        when(partMapper.selectList(any())).thenAnswer(invocation -> new ArrayList<>(parts.values()));
+        when(partMapper.delete(any())).thenAnswer(invocation -> {
+            int size = parts.size();
+            parts.clear();
+            return size;
+        });
+
+        client = new LocalOssClientImpl(tempDir.toString(), true, mock(FileMetadataMapper.class));
+        client.setSessionMapper(sessionMapper);
+        client.setPartMapper(partMapper);
+    }
+
+    @Test
+    @DisplayName("should_AssembleFile_When_PartsUploadedOutOfOrderInParallel")
+    void should_AssembleFile_When_PartsUploadedOutOfOrderInParallel() throws Exception {
+        byte[] content = new byte[PART_SIZE * 5 + 1234];
+        new Random(42).nextBytes(content);
+        String uploadId = client.initiateMultipartUpload("video.mp4", "video/mp4", content.length, PART_SIZE);
+
+        List<Integer> order = new ArrayList<>(List.of(1, 2, 3, 4, 5, 6));
+        Collections.shuffle(order, new Random(7));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int partNumber : order) {
+                byte[] part = part(content, partNumber);
+                futures.add(executor.submit(() ->
+                        client.uploadPart(uploadId, partNumber, new ByteArrayInputStream(part), md5(part))));
+            }
+            for (Future<String> future : futures) {
+                future.get();
+            }
+        }
+        assertThat(client.listUploadedParts(uploadId)).containsExactly(1, 2, 3, 4, 5, 6);
+
+        String filePath = client.completeMultipartUpload(uploadId);
+
+        assertThat(filePath).endsWith("-6");
+        assertThat(tempDir.resolve(filePath)).hasBinaryContent(content);
+        assertThat(sessions.get(uploadId).getStatus()).isEqualTo("COMPLETED");
+        assertThat(tempDir.resolve(".multipart").resolve(uploadId)).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("should_RejectPartAndAllowRetry_When_ChecksumMismatch")
+    void should_RejectPartAndAllowRetry_When_ChecksumMismatch() throws Exception {
+        byte[] content = new byte[PART_SIZE + 10];
+        new Random(1).nextBytes(content);
+        String uploadId = client.initiateMultipartUpload("doc.pdf", "application/pdf", content.length, PART_SIZE);
+        byte[] first = part(content, 1);
+        byte[] second = part(content, 2);
+
+        client.uploadPart(uploadId, 2, new ByteArrayInputStream(second), null);
+        assertThatThrownBy(() -> client.uploadPart(uploadId, 1, new ByteArrayInputStream(first), md5(second)))
+                .isInstanceOf(ClientException.class);
+        assertThat(client.listUploadedParts(uploadId)).containsExactly(2);
+        // 缺少分片时不能完成，会话保持可续传
+        assertThatThrownBy(() -> client.completeMultipartUpload(uploadId)).isInstanceOf(ClientException.class);
+        assertThat(sessions.get(uploadId).getStatus()).isEqualTo("UPLOADING");
+
+        client.uploadPart(uploadId, 1, new ByteArrayInputStream(first), md5(first));
+        String filePath = client.completeMultipartUpload(uploadId);
+
+        assertThat(tempDir.resolve(filePath)).hasBinaryContent(content);
+    }
+
+    private static byte[] part(byte[] content, int partNumber) {
+        int from = (partNumber - 1) * PART_SIZE;
+        return Arrays.copyOfRange(content, from, Math.min(content.length, from + PART_SIZE));
+    }
+
+    private static String md5(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(bytes));
+    }
+
+}
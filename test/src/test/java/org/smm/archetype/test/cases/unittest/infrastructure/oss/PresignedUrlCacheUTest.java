@@ -0,0 +1,89 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.oss;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smm.archetype.infrastructure.shared.client.oss.PresignedUrlCache;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileMetadataDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 预签名 URL 缓存单元测试
+ *
+ * <p>验证同一档位内复用 URL、签发时多签复用窗口、复用其他实例写回的 URL，以及整页未命中时只写回一次
+ */
+@DisplayName("预签名 URL 缓存单元测试")
+public class PresignedUrlCacheUTest {
+
+    private final FileMetadataMapper metadataMapper = mock(FileMetadataMapper.class);
+
+    private final PresignedUrlCache cache = new PresignedUrlCache(metadataMapper, 1000, Duration.ofMinutes(5),
+            0.5, Duration.ofDays(7));
+
+    private final AtomicInteger signed = new AtomicInteger();
+
+    private final List<Long> lifetimes = new CopyOnWriteArrayList<>();
+
+    private final PresignedUrlCache.Signer signer = (path, lifetime) -> {
+        lifetimes.add(lifetime);
+        return path + "?sig=" + signed.incrementAndGet();
+    };
+
+    @Test
+    @DisplayName("should_ReuseSignedUrl_When_RequestFallsInSameBucket")
+    void should_ReuseSignedUrl_When_RequestFallsInSameBucket() throws Exception {
+        String first = cache.get(List.of("ab/cd/1"), 60, signer).get("ab/cd/1");
+        String second = cache.get(List.of("ab/cd/1"), 240, signer).get("ab/cd/1");
+
+        // 60s 和 240s 都落在 5 分钟档位：签 300s + 150s 复用窗口，剩余有效期足够时复用
+        assertThat(second).isEqualTo(first);
+        assertThat(signed.get()).isEqualTo(1);
+        assertThat(lifetimes).containsExactly(450L);
+
+        // 不同档位单独签发
+        cache.get(List.of("ab/cd/1"), 600, signer);
+        assertThat(signed.get()).isEqualTo(2);
+        assertThat(lifetimes).containsExactly(450L, 900L);
+    }
+
+    @Test
+    @DisplayName("should_ReuseStoredUrl_When_AnotherNodeSignedRecently")
+    void should_ReuseStoredUrl_When_AnotherNodeSignedRecently() throws Exception {
+        when(metadataMapper.selectList(any())).thenReturn(List.of(
+                stored("ab/cd/1", "stored-1", Instant.now().plusSeconds(3600)),
+                stored("ab/cd/2", "stored-2", Instant.now().plusSeconds(30))));
+
+        Map<String, String> urls = cache.get(List.of("ab/cd/2", "ab/cd/1", "ab/cd/3"), 300, signer);
+
+        // 剩余 30s 的 URL 不满足 300s，重新签发；整页未命中只查询和写回各一次
+        assertThat(urls).containsExactly(
+                Map.entry("ab/cd/2", "ab/cd/2?sig=1"),
+                Map.entry("ab/cd/1", "stored-1"),
+                Map.entry("ab/cd/3", "ab/cd/3?sig=2"));
+        verify(metadataMapper, times(1)).selectList(any());
+        verify(metadataMapper, times(1)).updateUrlsByPath(anyList());
+    }
+
+    private static FileMetadataDO stored(String path, String url, Instant urlExpire) {
+        FileMetadataDO metadata = new FileMetadataDO();
+        metadata.setPath(path);
+        metadata.setUrl(url);
+        metadata.setUrlExpire(urlExpire);
+        return metadata;
+    }
+
+}
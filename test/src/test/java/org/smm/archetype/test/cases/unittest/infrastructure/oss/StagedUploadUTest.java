@@ -0,0 +1,123 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.oss;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.smm.archetype.domain.shared.exception.ClientException;
+import org.smm.archetype.infrastructure.shared.client.oss.LocalOssClientImpl;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileMetadataDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 暂存上传单元测试
+ *
+ * <p>验证超过复制缓冲区的流经暂存文件上传后大小和 MD5 正确，成功和失败时暂存文件都被删除
+ */
+@DisplayName("暂存上传单元测试")
+public class StagedUploadUTest {
+
+    /**
+     * 远大于复制缓冲区（8KB）的内容，且不是缓冲区大小的整数倍
+     */
+    private static final byte[] CONTENT = new byte[1024 * 1024 + 17];
+
+    static {
+        new Random(42).nextBytes(CONTENT);
+    }
+
+    @TempDir
+    Path tempDir;
+
+    private final FileMetadataMapper metadataMapper = mock(FileMetadataMapper.class);
+
+    @ParameterizedTest(name = "zeroCopy={0}")
+    @ValueSource(booleans = {true, false})
+    @DisplayName("should_RecordSizeAndMd5_When_StreamLargerThanBuffer")
+    void should_RecordSizeAndMd5_When_StreamLargerThanBuffer(boolean zeroCopy) throws Exception {
+        LocalOssClientImpl client = new LocalOssClientImpl(tempDir.toString(), zeroCopy, metadataMapper);
+
+        String path = client.upload(new ByteArrayInputStream(CONTENT), "large.bin", "application/octet-stream");
+
+        String md5 = md5Hex(CONTENT);
+        assertThat(path).endsWith("/" + md5);
+        assertThat(tempDir.resolve(path)).hasBinaryContent(CONTENT);
+        ArgumentCaptor<FileMetadataDO> metadata = ArgumentCaptor.forClass(FileMetadataDO.class);
+        verify(metadataMapper).insert(metadata.capture());
+        assertThat(metadata.getValue().getMd5()).isEqualTo(md5);
+        assertThat(metadata.getValue().getSize()).isEqualTo(CONTENT.length);
+        assertStagingEmpty();
+    }
+
+    @ParameterizedTest(name = "zeroCopy={0}")
+    @ValueSource(booleans = {true, false})
+    @DisplayName("should_RemoveStagedFile_When_SourceFailsMidStream")
+    void should_RemoveStagedFile_When_SourceFailsMidStream(boolean zeroCopy) throws Exception {
+        LocalOssClientImpl client = new LocalOssClientImpl(tempDir.toString(), zeroCopy, metadataMapper);
+        InputStream failing = new FilterInputStream(new ByteArrayInputStream(CONTENT)) {
+
+            private long read;
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (read > CONTENT.length / 2) {
+                    throw new IOException("connection reset");
+                }
+                int n = super.read(b, off, len);
+                read += Math.max(n, 0);
+                return n;
+            }
+
+        };
+
+        assertThatThrownBy(() -> client.upload(failing, "large.bin", "application/octet-stream", CONTENT.length))
+                .isInstanceOf(ClientException.class);
+
+        verify(metadataMapper, never()).insert(any(FileMetadataDO.class));
+        assertStagingEmpty();
+    }
+
+    @ParameterizedTest(name = "zeroCopy={0}")
+    @ValueSource(booleans = {true, false})
+    @DisplayName("should_RemoveStagedFile_When_StoreFails")
+    void should_RemoveStagedFile_When_StoreFails(boolean zeroCopy) throws Exception {
+        LocalOssClientImpl client = new LocalOssClientImpl(tempDir.toString(), zeroCopy, metadataMapper);
+        // 内容寻址路径的第一级目录被普通文件占用，暂存完成后写入存储失败
+        Files.writeString(tempDir.resolve(md5Hex(CONTENT).substring(0, 2)), "blocked");
+
+        assertThatThrownBy(() -> client.upload(new ByteArrayInputStream(CONTENT), "large.bin",
+                "application/octet-stream")).isInstanceOf(ClientException.class);
+
+        verify(metadataMapper, never()).insert(any(FileMetadataDO.class));
+        assertStagingEmpty();
+    }
+
+    private void assertStagingEmpty() throws IOException {
+        try (var staged = Files.list(tempDir.resolve(".staging"))) {
+            assertThat(staged).isEmpty();
+        }
+    }
+
+    private static String md5Hex(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content));
+    }
+
+}
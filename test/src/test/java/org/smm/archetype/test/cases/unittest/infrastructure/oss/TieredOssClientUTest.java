@@ -0,0 +1,140 @@
+package org.smm.archetype.test.cases.unittest.infrastructure.oss;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.smm.archetype.infrastructure.shared.client.oss.LocalOssClientImpl;
+import org.smm.archetype.infrastructure.shared.client.oss.TieredOssClientImpl;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileMetadataDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 分层对象存储单元测试
+ *
+ * <p>验证新文件写入热层、未访问的文件降级到冷层且读取透明、最近访问的文件保留在热层、冷层文件读取后升级，
+ * 以及 URL 由冷层签发、降级后仍然有效
+ */
+@DisplayName("分层对象存储单元测试")
+public class TieredOssClientUTest {
+
+    private static final byte[] CONTENT = "tiered storage".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path hotDir;
+
+    @TempDir
+    Path coldDir;
+
+    private final FileMetadataMapper metadataMapper = mock(FileMetadataMapper.class);
+
+    private TieredOssClientImpl client;
+
+    private String path;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        client = new TieredOssClientImpl(
+                new LocalOssClientImpl(hotDir.toString(), true, metadataMapper),
+                new LocalOssClientImpl(coldDir.toString(), true, metadataMapper),
+                metadataMapper);
+        client.setVerifyReads(false);
+        client.setHotRetention(Duration.ZERO);
+        client.setPromoteOnRead(false);
+        path = client.upload(new ByteArrayInputStream(CONTENT), "file.txt", "text/plain", CONTENT.length);
+
+        FileMetadataDO metadata = new FileMetadataDO();
+        metadata.setId(1L);
+        metadata.setPath(path);
+        metadata.setContentType("text/plain");
+        when(metadataMapper.selectList(any())).thenReturn(List.of(metadata));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.close();
+    }
+
+    @Test
+    @DisplayName("should_DemoteAndReadTransparently_When_FileNotAccessed")
+    void should_DemoteAndReadTransparently_When_FileNotAccessed() throws Exception {
+        assertThat(hotDir.resolve(path)).exists();
+
+        int demoted = client.migrate(10);
+
+        assertThat(demoted).isEqualTo(1);
+        assertThat(hotDir.resolve(path)).doesNotExist();
+        assertThat(coldDir.resolve(path)).exists();
+        assertThat(read()).isEqualTo(CONTENT);
+        assertThat(client.exists(path)).isTrue();
+    }
+
+    @Test
+    @DisplayName("should_KeepHot_When_FileAccessedInLastWindow")
+    void should_KeepHot_When_FileAccessedInLastWindow() throws Exception {
+        read();
+
+        int demoted = client.migrate(10);
+
+        assertThat(demoted).isZero();
+        assertThat(hotDir.resolve(path)).exists();
+        assertThat(coldDir.resolve(path)).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("should_PromoteInBackground_When_ColdFileReadRepeatedly")
+    void should_PromoteInBackground_When_ColdFileReadRepeatedly() throws Exception {
+        client.migrate(10);
+        client.setPromoteOnRead(true);
+        client.setPromoteThreshold(2);
+
+        read();
+        assertThat(hotDir.resolve(path)).doesNotExist();
+        read();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!Files.exists(hotDir.resolve(path)) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(hotDir.resolve(path)).exists();
+        // 冷层副本保留，之后降级只需删除热层副本
+        assertThat(coldDir.resolve(path)).exists();
+    }
+
+    @Test
+    @DisplayName("should_SignAgainstColdTier_When_FileOnlyInHotTier")
+    void should_SignAgainstColdTier_When_FileOnlyInHotTier() throws Exception {
+        String url = client.generateUrl(path, 3600);
+
+        assertThat(coldDir.resolve(path)).exists();
+        assertThat(hotDir.resolve(path)).exists();
+
+        client.migrate(10);
+
+        // 降级后已签发（可能已缓存、写回数据库）的 URL 仍指向存在的副本
+        assertThat(hotDir.resolve(path)).doesNotExist();
+        assertThat(Path.of(URI.create(url))).exists().hasBinaryContent(CONTENT);
+    }
+
+    private byte[] read() throws Exception {
+        try (InputStream inputStream = client.download(path)) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package org.smm.archetype.test.cases.unittest.performance;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.smm.archetype.infrastructure.shared.client.cache.CacheCodec;
+import org.smm.archetype.infrastructure.shared.client.cache.CaffeineCacheClientImpl;
+import org.smm.archetype.infrastructure.shared.client.cache.CompressingCacheCodec;
+import org.smm.archetype.infrastructure.shared.client.cache.JsonbCacheCodec;
+import org.smm.archetype.infrastructure.shared.client.cache.KryoCacheCodec;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 缓存编解码器基准测试
+ *
+ * <p>对比 kryo、jsonb 以及压缩装饰后的编码大小和编解码耗时，并验证序列化模式下读取返回副本
+ */
+@DisplayName("缓存编解码器基准测试")
+class CacheCodecPerformanceUTest {
+
+    private static final int ITERATIONS = 2_000;
+
+    @Test
+    @DisplayName("should_RoundTripAndReportCost_When_EncodingWithEachCodec")
+    void should_RoundTripAndReportCost_When_EncodingWithEachCodec() {
+        Map<String, Object> value = sampleValue();
+        Map<String, CacheCodec> codecs = new LinkedHashMap<>();
+        codecs.put("kryo", new KryoCacheCodec());
+        codecs.put("jsonb", new JsonbCacheCodec("java.util."));
+        codecs.put("kryo+deflate", new CompressingCacheCodec(new KryoCacheCodec(), 1024, Deflater.BEST_SPEED));
+        codecs.put("jsonb+deflate", new CompressingCacheCodec(new JsonbCacheCodec("java.util."), 1024,
+                Deflater.BEST_SPEED));
+
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        codecs.forEach((name, codec) -> {
+            byte[] bytes = codec.encode(value);
+            assertThat(codec.decode(bytes)).isEqualTo(value);
+
+            long encodeStart = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                bytes = codec.encode(value);
+            }
+            long encodeNanos = System.nanoTime() - encodeStart;
+            long decodeStart = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                codec.decode(bytes);
+            }
+            long decodeNanos = System.nanoTime() - decodeStart;
+
+            sizes.put(name, bytes.length);
+            System.out.printf("%-14s size=%7d bytes, encode=%8.2f us, decode=%8.2f us%n",
+                    name, bytes.length, encodeNanos / 1000D / ITERATIONS, decodeNanos / 1000D / ITERATIONS);
+        });
+
+        // 样本数据重复度高，压缩后应明显变小
+        assertThat(sizes.get("kryo+deflate")).isLessThan(sizes.get("kryo") / 2);
+        assertThat(sizes.get("jsonb+deflate")).isLessThan(sizes.get("jsonb") / 2);
+    }
+
+    @Test
+    @DisplayName("should_ReturnIndependentCopies_When_SerializedModeEnabled")
+    void should_ReturnIndependentCopies_When_SerializedModeEnabled() {
+        CaffeineCacheClientImpl cache = new CaffeineCacheClientImpl(16, 100L, null, Map.of(), null,
+                new KryoCacheCodec(), Duration.ofMinutes(1));
+        cache.put("UTEST:codec", new ArrayList<>(List.of("a", "b")));
+
+        List<String> first = cache.get("UTEST:codec");
+        first.add("c");
+
+        assertThat(cache.<List<String>>get("UTEST:codec")).containsExactly("a", "b");
+    }
+
+    private static Map<String, Object> sampleValue() {
+        Map<String, Object> value = new HashMap<>();
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", (long) i);
+            item.put("name", "product-" + i);
+            item.put("description", "A sample product description used for cache codec benchmarking");
+            item.put("price", i * 100L);
+            items.add(item);
+        }
+        value.put("orderId", "o-1");
+        value.put("items", items);
+        return value;
+    }
+
+}
@@ -0,0 +1,121 @@
+package org.smm.archetype.test.cases.unittest.performance;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.smm.archetype.infrastructure.shared.client.oss.LocalOssClientImpl;
+import org.smm.archetype.infrastructure.shared.dal.generated.entity.FileMetadataDO;
+import org.smm.archetype.infrastructure.shared.dal.generated.mapper.FileMetadataMapper;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 本地对象存储传输基准测试
+ *
+ * <p>对比传统拷贝与零拷贝模式的上传、下载耗时，并验证两种模式下内容一致、暂存文件被清理
+ */
+@DisplayName("本地对象存储传输基准测试")
+class LocalOssTransferPerformanceUTest {
+
+    private static final int ITERATIONS = 5;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("should_TransferIdenticalContentAndReportCost_When_ComparingCopyModes")
+    void should_TransferIdenticalContentAndReportCost_When_ComparingCopyModes() throws Exception {
+        Map<String, Path> sources = new LinkedHashMap<>();
+        sources.put("small", randomFile("small.bin", 64 * 1024));
+        sources.put("large", randomFile("large.bin", 32 * 1024 * 1024));
+
+        for (boolean zeroCopy : new boolean[] {false, true}) {
+            Path basePath = tempDir.resolve(zeroCopy ? "zero-copy" : "copy");
+            LocalOssClientImpl client = new LocalOssClientImpl(basePath.toString(), zeroCopy, metadataMapper());
+
+            for (Map.Entry<String, Path> source : sources.entrySet()) {
+                long size = Files.size(source.getValue());
+                String filePath = null;
+                long uploadStart = System.nanoTime();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    try (InputStream inputStream = Files.newInputStream(source.getValue())) {
+                        filePath = client.upload(inputStream, source.getKey() + ".bin", "application/octet-stream",
+                                size);
+                    }
+                }
+                long uploadNanos = System.nanoTime() - uploadStart;
+
+                Path downloaded = basePath.resolve(source.getKey() + "-downloaded.bin");
+                long downloadStart = System.nanoTime();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    try (FileChannel target = FileChannel.open(downloaded, StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                        assertThat(client.transferTo(filePath, target)).isEqualTo(size);
+                    }
+                }
+                long downloadNanos = System.nanoTime() - downloadStart;
+
+                assertThat(Files.mismatch(source.getValue(), downloaded)).isEqualTo(-1L);
+                try (InputStream inputStream = client.download(filePath)) {
+                    assertThat(inputStream.transferTo(OutputStream.nullOutputStream())).isEqualTo(size);
+                }
+                assertThat(client.transferTo(filePath, Channels.newChannel(OutputStream.nullOutputStream())))
+                        .isEqualTo(size);
+
+                System.out.printf("%-9s %-5s size=%9d bytes, upload=%8.2f ms, download=%8.2f ms%n",
+                        zeroCopy ? "zero-copy" : "copy", source.getKey(), size,
+                        uploadNanos / 1_000_000D / ITERATIONS, downloadNanos / 1_000_000D / ITERATIONS);
+            }
+
+            Path staging = basePath.resolve(".staging");
+            if (Files.exists(staging)) {
+                try (var files = Files.list(staging)) {
+                    assertThat(files).isEmpty();
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should_TruncateToActualLength_When_DeclaredLengthIsWrong")
+    void should_TruncateToActualLength_When_DeclaredLengthIsWrong() throws Exception {
+        LocalOssClientImpl client = new LocalOssClientImpl(tempDir.toString(), true, metadataMapper());
+        Path source = randomFile("declared.bin", 1000);
+
+        String filePath;
+        try (InputStream inputStream = Files.newInputStream(source)) {
+            filePath = client.upload(inputStream, "declared.bin", "application/octet-stream", 4096);
+        }
+
+        assertThat(Files.mismatch(source, tempDir.resolve(filePath))).isEqualTo(-1L);
+    }
+
+    private Path randomFile(String name, int size) throws Exception {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return Files.write(tempDir.resolve(name), bytes);
+    }
+
+    private static FileMetadataMapper metadataMapper() {
+        FileMetadataMapper mapper = mock(FileMetadataMapper.class);
+        FileMetadataDO metadata = new FileMetadataDO();
+        metadata.setId(1L);
+        when(mapper.selectOne(any())).thenReturn(metadata);
+        return mapper;
+    }
+
+}